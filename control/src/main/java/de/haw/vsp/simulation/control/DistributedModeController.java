@@ -29,6 +29,10 @@ public class DistributedModeController {
     
     private static final Logger LOG = LoggerFactory.getLogger(DistributedModeController.class);
     
+    /** Containers (JVMs) per simulation; larger simulations host several nodes per container. */
+    static final int MAX_CONTAINERS = 200;
+    static final int MAX_NODES = 2000;
+    
     @Autowired
     private DockerContainerService dockerService;
     
@@ -57,7 +61,8 @@ public class DistributedModeController {
      * Start distributed containers.
      * 
      * POST /api/distributed/start
-     * Body: { "nodeCount": 10, "topology": "RING" }
+     * Body: { "nodeCount": 10, "topology": "RING", "nodesPerContainer": 1 }
+     * nodesPerContainer is optional; by default nodes are spread over at most MAX_CONTAINERS containers.
      */
     @PostMapping("/start")
     public ResponseEntity<Map<String, Object>> startDistributedMode(
@@ -66,10 +71,20 @@ public class DistributedModeController {
         LOG.info("Starting distributed mode: {} nodes, {} topology", 
                  request.nodeCount, request.topology);
         
-        if (request.nodeCount < 1 || request.nodeCount > 200) {
+        if (request.nodeCount < 1 || request.nodeCount > MAX_NODES) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", "Node count must be between 1 and " + MAX_NODES
+            ));
+        }
+        int nodesPerContainer = request.nodesPerContainer > 0
+            ? request.nodesPerContainer
+            : (request.nodeCount + MAX_CONTAINERS - 1) / MAX_CONTAINERS;
+        int containerCount = (request.nodeCount + nodesPerContainer - 1) / nodesPerContainer;
+        if (containerCount > MAX_CONTAINERS) {
             return ResponseEntity.badRequest().body(Map.of(
                 "success", false,
-                "error", "Node count must be between 1 and 200"
+                "error", "At most " + MAX_CONTAINERS + " containers, use more nodes per container"
             ));
         }
         
@@ -78,6 +93,7 @@ public class DistributedModeController {
         
         boolean success = dockerService.startDistributedContainers(
             request.nodeCount, 
+            nodesPerContainer,
             topology, 
             simulationId
         );
@@ -85,9 +101,10 @@ public class DistributedModeController {
         if (success) {
             return ResponseEntity.ok(Map.of(
                 "success", true,
-                "message", "Started " + request.nodeCount + " distributed containers",
+                "message", "Started " + request.nodeCount + " distributed nodes in " + containerCount + " containers",
                 "simulationId", simulationId,
                 "nodeCount", request.nodeCount,
+                "containerCount", containerCount,
                 "topology", topology
             ));
         } else {
@@ -244,13 +261,13 @@ public class DistributedModeController {
     @PostMapping("/{simulationId}/pause")
     public ResponseEntity<Map<String, Object>> pauseSimulation(@PathVariable("simulationId") String simulationId) {
         try {
-            int nodeCount = getNodeCountForSimulation(simulationId);
-            int successCount = sendControlCommandToAllNodes(nodeCount, "pause");
+            List<String> containers = getNodeContainersForSimulation(simulationId);
+            int successCount = sendControlCommandToAllNodes(containers, "pause");
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("nodesAffected", successCount);
-            response.put("message", "Paused " + successCount + " nodes");
+            response.put("message", "Paused " + successCount + " node containers");
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -270,13 +287,13 @@ public class DistributedModeController {
     @PostMapping("/{simulationId}/resume")
     public ResponseEntity<Map<String, Object>> resumeSimulation(@PathVariable("simulationId") String simulationId) {
         try {
-            int nodeCount = getNodeCountForSimulation(simulationId);
-            int successCount = sendControlCommandToAllNodes(nodeCount, "resume");
+            List<String> containers = getNodeContainersForSimulation(simulationId);
+            int successCount = sendControlCommandToAllNodes(containers, "resume");
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("nodesAffected", successCount);
-            response.put("message", "Resumed " + successCount + " nodes");
+            response.put("message", "Resumed " + successCount + " node containers");
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -289,14 +306,14 @@ public class DistributedModeController {
     }
     
     /**
-     * Send a control command to all nodes.
+     * Send a control command to all node containers.
+     * A container is named after its first node and listens on 8000 + that node's number.
      */
-    private int sendControlCommandToAllNodes(int nodeCount, String command) {
+    private int sendControlCommandToAllNodes(List<String> containers, String command) {
         int successCount = 0;
-        for (int i = 0; i < nodeCount; i++) {
+        for (String nodeHost : containers) {
             try {
-                String nodeHost = "vsp-node-" + i;
-                int controlPort = 8000 + i;
+                int controlPort = 8000 + Integer.parseInt(nodeHost.substring("vsp-node-".length()));
                 String url = "http://" + nodeHost + ":" + controlPort + "/" + command;
                 
                 java.net.HttpURLConnection conn = (java.net.HttpURLConnection) 
@@ -311,27 +328,19 @@ public class DistributedModeController {
                 }
                 conn.disconnect();
             } catch (Exception e) {
-                LOG.warn("Failed to send {} command to node-{}: {}", command, i, e.getMessage());
+                LOG.warn("Failed to send {} command to {}: {}", command, nodeHost, e.getMessage());
             }
         }
         return successCount;
     }
     
     /**
-     * Get node count for a simulation based on running containers.
+     * Get the node containers of a simulation from docker ps.
      */
-    private int getNodeCountForSimulation(String simulationId) {
-        // Extract node count from docker ps
-        try {
-            java.util.List<String> containerList = dockerService.listRunningContainers();
-            long nodeCount = containerList.stream()
-                .filter(name -> name.startsWith("vsp-node-"))
-                .count();
-            return (int) nodeCount;
-        } catch (Exception e) {
-            LOG.warn("Could not determine node count, using default 10", e);
-            return 10;
-        }
+    private List<String> getNodeContainersForSimulation(String simulationId) {
+        return dockerService.listRunningContainers().stream()
+            .filter(name -> name.matches("vsp-node-\\d+"))
+            .toList();
     }
     
     /**
@@ -340,5 +349,6 @@ public class DistributedModeController {
     public static class DistributedModeRequest {
         public int nodeCount;
         public String topology;
+        public int nodesPerContainer; // optional, 0 = automatic
     }
 }
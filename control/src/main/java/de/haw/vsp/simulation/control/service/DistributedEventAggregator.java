@@ -32,7 +32,8 @@ public class DistributedEventAggregator {
     private static final int MAX_EVENTS = 1000;
     
     /**
-     * Process a status update from a node.
+     * Process a status update from a node process.
+     * A process hosting several nodes sends the status of each in "nodes".
      */
     public void processNodeUpdate(Map<String, Object> update) {
         String simulationId = (String) update.get("simulationId");
@@ -44,15 +45,17 @@ public class DistributedEventAggregator {
         }
         
         // Update node status
-        nodeStatusBySimulation
-            .computeIfAbsent(simulationId, k -> new ConcurrentHashMap<>())
-            .put(nodeId, new NodeStatus(
-                nodeId,
-                (String) update.get("currentLeader"),
-                (Integer) update.getOrDefault("messagesSent", 0),
-                (Integer) update.getOrDefault("messagesReceived", 0),
-                (Long) update.getOrDefault("timestamp", System.currentTimeMillis())
-            ));
+        Map<String, NodeStatus> statuses = nodeStatusBySimulation
+            .computeIfAbsent(simulationId, k -> new ConcurrentHashMap<>());
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> nodes = (List<Map<String, Object>>) update.get("nodes");
+        if (nodes == null) {
+            putStatus(statuses, update);
+        } else {
+            for (Map<String, Object> node : nodes) {
+                if (node.get("nodeId") != null) putStatus(statuses, node);
+            }
+        }
         
         // Store events
         @SuppressWarnings("unchecked")
@@ -72,6 +75,18 @@ public class DistributedEventAggregator {
         }
     }
     
+    private static void putStatus(Map<String, NodeStatus> statuses, Map<String, Object> status) {
+        String nodeId = (String) status.get("nodeId");
+        Object timestamp = status.get("timestamp");
+        statuses.put(nodeId, new NodeStatus(
+            nodeId,
+            (String) status.get("currentLeader"),
+            ((Number) status.getOrDefault("messagesSent", 0)).intValue(),
+            ((Number) status.getOrDefault("messagesReceived", 0)).intValue(),
+            timestamp instanceof Number n ? n.longValue() : System.currentTimeMillis()
+        ));
+    }
+    
     /**
      * Get current status of all nodes for a simulation.
      */
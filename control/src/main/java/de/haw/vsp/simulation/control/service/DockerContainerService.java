@@ -44,12 +44,26 @@ public class DockerContainerService {
      * @return true if containers were started successfully
      */
     public boolean startDistributedContainers(int nodeCount, String topology, String simulationId) {
-        LOG.info("Starting {} distributed containers with {} topology for simulation {}", 
-                 nodeCount, topology, simulationId);
+        return startDistributedContainers(nodeCount, 1, topology, simulationId);
+    }
+    
+    /**
+     * Start distributed containers, each hosting a block of consecutive nodes.
+     * 
+     * @param nodeCount Number of nodes to start
+     * @param nodesPerContainer Nodes hosted by one container (one JVM, one UDP socket)
+     * @param topology Topology type (RING, LINE, GRID, RANDOM)
+     * @param simulationId Simulation ID for tracking
+     * @return true if containers were started successfully
+     */
+    public boolean startDistributedContainers(int nodeCount, int nodesPerContainer, String topology,
+                                              String simulationId) {
+        LOG.info("Starting {} distributed nodes ({} per container) with {} topology for simulation {}", 
+                 nodeCount, nodesPerContainer, topology, simulationId);
         
         try {
             // Generate docker-compose file
-            String composeFile = generateDockerCompose(nodeCount, topology, simulationId);
+            String composeFile = generateDockerCompose(nodeCount, nodesPerContainer, topology, simulationId);
             
             // Stop any existing containers first
             stopAllContainers();
@@ -81,12 +95,12 @@ public class DockerContainerService {
             if (success && exitCode == 0) {
                 LOG.info("Successfully started {} containers", nodeCount);
                 
-                // Track containers
-                for (int i = 0; i < nodeCount; i++) {
-                    String nodeName = "node-" + i;
+                // Track containers (nodeId is the hosted range for several nodes per container)
+                for (int first = 0; first < nodeCount; first += nodesPerContainer) {
+                    String nodeName = "node-" + first;
                     runningContainers.put(nodeName, new ContainerInfo(
-                        "vsp-node-" + i,
-                        nodeName,
+                        "vsp-node-" + first,
+                        hostedNodes(first, nodeCount, nodesPerContainer),
                         "RUNNING",
                         simulationId
                     ));
@@ -163,10 +177,20 @@ public class DockerContainerService {
         }
     }
     
+    /**
+     * NODE_IDS value of the container whose first node is {@code first}.
+     */
+    private static String hostedNodes(int first, int nodeCount, int nodesPerContainer) {
+        int last = Math.min(first + nodesPerContainer, nodeCount) - 1;
+        return last == first ? "node-" + first : "node-" + first + "..node-" + last;
+    }
+    
     /**
      * Generate a docker-compose file for the given configuration.
+     * Each container is named after its first node, which is also the address of the whole block.
      */
-    private String generateDockerCompose(int nodeCount, String topology, String simulationId) throws Exception {
+    private String generateDockerCompose(int nodeCount, int nodesPerContainer, String topology,
+                                         String simulationId) throws Exception {
         String filename = "docker-compose-generated-" + System.currentTimeMillis() + ".yml";
         // Always write to /workspace if it exists (mounted in Docker), otherwise use projectRoot
         String workspaceDir = "/workspace";
@@ -179,7 +203,7 @@ public class DockerContainerService {
         yaml.append("services:\n");
         
         // Nodes (no backend needed - it's already running!)
-        for (int i = 0; i < nodeCount; i++) {
+        for (int i = 0; i < nodeCount; i += nodesPerContainer) {
             yaml.append("  node-").append(i).append(":\n");
             yaml.append("    build:\n");
             yaml.append("      context: /workspace\n");
@@ -188,7 +212,12 @@ public class DockerContainerService {
             yaml.append("    hostname: node-").append(i).append("\n");
             yaml.append("    environment:\n");
             yaml.append("      - MW_MODE=udp-docker\n");
-            yaml.append("      - NODE_ID=node-").append(i).append("\n");
+            if (nodesPerContainer == 1) {
+                yaml.append("      - NODE_ID=node-").append(i).append("\n");
+            } else {
+                yaml.append("      - NODE_IDS=").append(hostedNodes(i, nodeCount, nodesPerContainer)).append("\n");
+                yaml.append("      - NODES_PER_HOST=").append(nodesPerContainer).append("\n");
+            }
             yaml.append("      - UDP_PORT=9000\n");
             yaml.append("      - HOST_TEMPLATE={ID}\n");
             yaml.append("      - NODE_COUNT=").append(nodeCount).append("\n");
@@ -197,7 +226,7 @@ public class DockerContainerService {
             yaml.append("      - BACKEND_URL=http://vsp-backend:8080\n");
             yaml.append("      - CONTROL_PORT=").append(8000 + i).append("\n");
             yaml.append("      - QUEUE_OUT_CAPACITY=4096\n"); // Larger queues for 50+ nodes
-            yaml.append("      - QUEUE_IN_CAPACITY=4096\n");
+            yaml.append("      - QUEUE_IN_CAPACITY=").append(4096 * nodesPerContainer).append("\n"); // shared by hosted nodes
             yaml.append("    networks:\n");
             yaml.append("      - vsp-network\n\n");
         }
@@ -8,7 +8,13 @@ import de.haw.vsp.simulation.core.SimulationEvent;
 import de.haw.vsp.simulation.core.SimulationEventPublisher;
 import de.haw.vsp.simulation.core.SimulationParameters;
 import de.haw.vsp.simulation.middleware.MessagingPort;
+import de.haw.vsp.simulation.middleware.EnvVirtualConfigs;
 import de.haw.vsp.simulation.middleware.EventPublisherAware;
+import de.haw.vsp.simulation.middleware.MessagingPortImpl;
+import de.haw.vsp.simulation.middleware.NetworkModelAware;
+import de.haw.vsp.simulation.middleware.VirtualTimeControl;
+import de.haw.vsp.simulation.middleware.virtual.LinkModel;
+import de.haw.vsp.simulation.middleware.virtual.VirtualNetworkModel;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -31,11 +37,13 @@ public class DefaultSimulationEngine implements SimulationEngine {
     private static final String SYSTEM_NODE_ID = "system";
 
     private final MessagingPort messagingPort;
+    private final VirtualTimeControl virtualClock; // null unless the transport runs in simulated time
     private SimulationEventPublisher eventPublisher;
     private Map<NodeId, SimulationNode> nodes;
     private String currentAlgorithmId;
     private volatile SimulationState state;
     private SimulationParameters simulationParameters;
+    private LinkModel linkModel; // per-link network model defaults, null = none
     
     // Metrics tracking
     private final AtomicLong simulatedTime;
@@ -44,6 +52,7 @@ public class DefaultSimulationEngine implements SimulationEngine {
     private final AtomicBoolean converged;
     private String leaderId;
     private long startTimeMillis;
+    private long simulatedTimeBaseMillis;
     
     // Simulation loop control
     private Thread simulationThread;
@@ -56,6 +65,7 @@ public class DefaultSimulationEngine implements SimulationEngine {
      * The messaging port mode is determined by the MW_MODE environment variable:
      * - "virtual" (default): In-memory messaging for development and testing
      * - "udp-docker": Real UDP networking across Docker containers
+     * - "tcp-docker": Persistent TCP connections across Docker containers
      */
     public DefaultSimulationEngine() {
         this(MessagingPortFactory.create());
@@ -72,6 +82,7 @@ public class DefaultSimulationEngine implements SimulationEngine {
             throw new IllegalArgumentException("messagingPort must not be null");
         }
         this.messagingPort = messagingPort;
+        this.virtualClock = virtualTimeControlOf(messagingPort);
         this.nodes = new HashMap<>();
         this.state = SimulationState.UNINITIALIZED;
         this.currentAlgorithmId = null;
@@ -83,6 +94,7 @@ public class DefaultSimulationEngine implements SimulationEngine {
         this.startTimeMillis = 0;
         this.shouldStop = new AtomicBoolean(false);
         this.currentStep = new AtomicLong(0);
+        this.linkModel = EnvVirtualConfigs.linkModelFromSystemEnvironment();
     }
 
     @Override
@@ -206,6 +218,9 @@ public class DefaultSimulationEngine implements SimulationEngine {
         this.shouldStop.set(false);
         this.startTimeMillis = System.currentTimeMillis();
 
+        installNetworkModel(parameters);
+        holdVirtualClock();
+
         // Publish start event
         publishEvent(SimulationEvent.withoutPeer(
                 System.currentTimeMillis(),
@@ -337,6 +352,52 @@ public class DefaultSimulationEngine implements SimulationEngine {
 
     }
 
+    /**
+     * Sets the link model applied to every topology edge on the next start
+     * (only effective for transports supporting a network model, i.e. virtual).
+     *
+     * @param linkModel the default link model, or null to disable the per-link model
+     */
+    public void setLinkModel(LinkModel linkModel) {
+        this.linkModel = linkModel;
+    }
+
+    /**
+     * Installs a per-link network model built from the current topology.
+     * Link RNGs are seeded from the run's random seed, so a run is reproducible.
+     */
+    private void installNetworkModel(SimulationParameters parameters) {
+        if (!(messagingPort instanceof NetworkModelAware aware)) {
+            return;
+        }
+        aware.setNetworkModel(linkModel == null
+                ? null
+                : VirtualNetworkModel.fromTopology(getTopology(), linkModel, parameters.randomSeed()));
+    }
+
+    private static VirtualTimeControl virtualTimeControlOf(MessagingPort port) {
+        if (port instanceof VirtualTimeControl control) {
+            return control;
+        }
+        return port instanceof MessagingPortImpl impl ? impl.virtualTimeControl() : null;
+    }
+
+    /**
+     * In virtual-time mode, stops the transport from running ahead of the simulation loop:
+     * messages sent by onStart() are delivered in the first step.
+     */
+    private void holdVirtualClock() {
+        if (virtualClock == null) {
+            return;
+        }
+        this.simulatedTimeBaseMillis = virtualClock.simulatedTimeMillis();
+        try {
+            virtualClock.advanceTo(simulatedTimeBaseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Starts the simulation loop in a background thread.
      * The loop runs until maxSteps is reached or stopSimulation() is called.
@@ -403,6 +464,10 @@ public class DefaultSimulationEngine implements SimulationEngine {
 
         currentStep.incrementAndGet();
         rounds.incrementAndGet();
+
+        if (virtualClock != null) {
+            return advanceVirtualClock();
+        }
         simulatedTime.incrementAndGet();
 
         // Small delay to prevent CPU spinning and allow tests to check state
@@ -415,6 +480,24 @@ public class DefaultSimulationEngine implements SimulationEngine {
         }
     }
 
+    /**
+     * Virtual-time step: delivers all messages due within the next messageDelayMillis of
+     * simulated time, without sleeping.
+     *
+     * @return true if simulation should continue, false if interrupted
+     */
+    private boolean advanceVirtualClock() {
+        long step = Math.max(1, simulationParameters.messageDelayMillis());
+        try {
+            virtualClock.advanceTo(virtualClock.simulatedTimeMillis() + step);
+            simulatedTime.set(virtualClock.simulatedTimeMillis() - simulatedTimeBaseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     /**
      * Handles simulation completion (maxSteps reached or stopped).
      */
@@ -18,6 +18,9 @@ import de.haw.vsp.simulation.core.SimulationMessage;
  *   <li>On receiving a message with lower or equal ID: ignore (already converged to higher or equal leader)</li>
  * </ul>
  *
+ * <p><b>Backpressure:</b> announcements to a congested neighbor are deferred until it is
+ * writable again; only the leader known at that time is sent (older announcements are obsolete).
+ *
  * <p><b>Convergence:</b>
  * <ul>
  *   <li>Algorithm converges when no node updates its leader anymore</li>
@@ -29,7 +32,7 @@ public class FloodingLeaderElectionAlgorithm implements NodeAlgorithm {
 
     private static final String MESSAGE_TYPE_LEADER_ANNOUNCEMENT = "LEADER_ANNOUNCEMENT";
 
-    private NodeId currentLeaderId;
+    private volatile NodeId currentLeaderId; // also read by deferred sends on transport threads
     private boolean converged;
 
     /**
@@ -67,13 +70,17 @@ public class FloodingLeaderElectionAlgorithm implements NodeAlgorithm {
             return;
         }
 
-        if (!(message.payload() instanceof String)) {
+        // The codecs decode the payload as NodeId; untyped boundaries may still hand over the id string
+        NodeId announcedLeaderId;
+        if (message.payload() instanceof NodeId id) {
+            announcedLeaderId = id;
+        } else if (message.payload() instanceof String s && !s.isBlank()) {
+            announcedLeaderId = new NodeId(s);
+        } else {
             // Invalid payload format
             return;
         }
 
-        NodeId announcedLeaderId = new NodeId((String) message.payload());
-
         // Initialize current leader if not yet set (should not happen, but defensive)
         if (currentLeaderId == null) {
             currentLeaderId = context.self();
@@ -90,27 +97,31 @@ public class FloodingLeaderElectionAlgorithm implements NodeAlgorithm {
     }
 
     /**
-     * Broadcasts the given leader ID to all neighbors.
+     * Broadcasts the current leader ID to all neighbors.
      *
      * @param context  the node context
-     * @param leaderId the leader ID to broadcast
+     * @param leaderId the leader ID to broadcast (the current leader)
      */
     private void broadcastLeader(NodeContext context, NodeId leaderId) {
-        // Send individual messages to each neighbor
+        // Send individual messages to each neighbor, deferred while the neighbor is congested
         for (NodeId neighbor : context.neighbors()) {
-            context.send(
-                    neighbor,
-                    new SimulationMessage(
-                            context.self(),
-                            neighbor,
-                            MESSAGE_TYPE_LEADER_ANNOUNCEMENT,
-                            leaderId.value(),
-                            null
-                    )
-            );
+            context.whenWritable(neighbor, () -> announceLeader(context, neighbor));
         }
     }
 
+    private void announceLeader(NodeContext context, NodeId neighbor) {
+        context.send(
+                neighbor,
+                new SimulationMessage(
+                        context.self(),
+                        neighbor,
+                        MESSAGE_TYPE_LEADER_ANNOUNCEMENT,
+                        currentLeaderId,
+                        null
+                )
+        );
+    }
+
     /**
      * Returns the current leader ID.
      *
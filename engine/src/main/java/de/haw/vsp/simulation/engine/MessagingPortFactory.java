@@ -12,14 +12,20 @@ import java.util.logging.Logger;
 /**
  * Factory for creating MessagingPort instances based on environment configuration.
  * 
- * Supports two modes:
+ * Supports five modes:
  * - virtual: In-memory messaging for development and testing
+ * - virtual-time: In-memory discrete-event messaging; link delays advance a simulated clock
  * - udp-docker: Real UDP networking across Docker containers
+ * - tcp-docker: Persistent TCP connections across Docker containers (lossless comparison runs)
+ * - shm: Memory-mapped rings between node processes on one host
  * 
  * Configuration via environment variables:
- * - MW_MODE: "virtual" (default) or "udp-docker"
- * - NODE_ID: Required for udp-docker mode (e.g., "node-0")
+ * - MW_MODE: "virtual" (default), "virtual-time", "udp-docker", "tcp-docker" or "shm"
+ * - NODE_ID: Required for udp-docker, tcp-docker and shm mode (e.g., "node-0")
  * - UDP_PORT: Port for UDP communication (default: 9000)
+ * - UDP_IMPL: "socket" (default) or "nio" for udp-docker mode
+ * - TCP_MAX_FRAME_BYTES, TCP_CONNECT_BACKOFF_MIN_MS, TCP_CONNECT_BACKOFF_MAX_MS: optional, tcp-docker mode
+ * - SHM_DIR, SHM_RING_BYTES, SHM_SPIN_ITERATIONS, SHM_MAX_PARK_US: optional, shm mode
  */
 public class MessagingPortFactory {
     
@@ -30,7 +36,10 @@ public class MessagingPortFactory {
     private static final String ENV_UDP_PORT = "UDP_PORT";
     
     private static final String MODE_VIRTUAL = "virtual";
+    private static final String MODE_VIRTUAL_TIME = "virtual-time";
     private static final String MODE_UDP_DOCKER = "udp-docker";
+    private static final String MODE_TCP_DOCKER = "tcp-docker";
+    private static final String MODE_SHM = "shm";
     private static final int DEFAULT_UDP_PORT = 9000;
     
     private MessagingPortFactory() {
@@ -58,13 +67,23 @@ public class MessagingPortFactory {
         switch (mode.toLowerCase()) {
             case MODE_VIRTUAL:
                 return createVirtualPort(eventPublisher);
+
+            case MODE_VIRTUAL_TIME:
+                LOGGER.info("Initializing virtual-time (discrete-event) MessagingPort");
+                return MessagingPorts.virtualTime(eventPublisher);
                 
             case MODE_UDP_DOCKER:
                 return createUdpDockerPort(eventPublisher);
+
+            case MODE_TCP_DOCKER:
+                return createTcpDockerPort(eventPublisher);
+
+            case MODE_SHM:
+                return createShmPort(eventPublisher);
                 
             default:
                 throw new IllegalStateException(
-                    "Unknown MW_MODE: " + mode + ". Expected 'virtual' or 'udp-docker'"
+                    "Unknown MW_MODE: " + mode + ". Expected 'virtual', 'virtual-time', 'udp-docker', 'tcp-docker' or 'shm'"
                 );
         }
     }
@@ -97,18 +116,9 @@ public class MessagingPortFactory {
      * - NODE_COUNT: Number of nodes (for bounded configuration)
      */
     private static MessagingPort createUdpDockerPort(SimulationEventPublisher eventPublisher) {
-        // Get required NODE_ID
-        String nodeIdStr = System.getenv(ENV_NODE_ID);
-        if (nodeIdStr == null || nodeIdStr.isBlank()) {
-            throw new IllegalStateException(
-                "NODE_ID environment variable is required for udp-docker mode. " +
-                "Example: NODE_ID=node-0"
-            );
-        }
+        NodeId localNode = requireLocalNode(MODE_UDP_DOCKER);
         
-        NodeId localNode = new NodeId(nodeIdStr);
-        
-        LOGGER.info("Initializing UDP MessagingPort for node: " + nodeIdStr);
+        LOGGER.info("Initializing UDP MessagingPort for node: " + localNode.value());
         
         // Create transport config from environment variables
         // This handles HOST_TEMPLATE, UDP_PORT, PEERS, etc.
@@ -116,6 +126,43 @@ public class MessagingPortFactory {
         
         return MessagingPorts.udpDocker(localNode, transportConfig, eventPublisher);
     }
+
+    /**
+     * Creates a TCP-based MessagingPort for lossless distributed execution.
+     * Same address variables as udp-docker (UDP_PORT is used as the TCP port).
+     */
+    private static MessagingPort createTcpDockerPort(SimulationEventPublisher eventPublisher) {
+        NodeId localNode = requireLocalNode(MODE_TCP_DOCKER);
+
+        LOGGER.info("Initializing TCP MessagingPort for node: " + localNode.value());
+
+        TransportConfig transportConfig = EnvTransportConfigs.fromEnvironment(System.getenv());
+
+        return MessagingPorts.tcpDocker(localNode, transportConfig, eventPublisher);
+    }
+
+    /**
+     * Creates a shared-memory MessagingPort for node processes on the same host.
+     * No addresses are needed: peers are found by their ring files in SHM_DIR.
+     */
+    private static MessagingPort createShmPort(SimulationEventPublisher eventPublisher) {
+        NodeId localNode = requireLocalNode(MODE_SHM);
+
+        LOGGER.info("Initializing shared memory MessagingPort for node: " + localNode.value());
+
+        return MessagingPorts.shm(localNode, eventPublisher);
+    }
+
+    private static NodeId requireLocalNode(String mode) {
+        String nodeIdStr = System.getenv(ENV_NODE_ID);
+        if (nodeIdStr == null || nodeIdStr.isBlank()) {
+            throw new IllegalStateException(
+                "NODE_ID environment variable is required for " + mode + " mode. " +
+                "Example: NODE_ID=node-0"
+            );
+        }
+        return new NodeId(nodeIdStr);
+    }
     
     /**
      * Returns the current middleware mode.
@@ -132,10 +179,31 @@ public class MessagingPortFactory {
         return MODE_VIRTUAL.equals(getCurrentMode());
     }
     
+    /**
+     * Returns true if running in virtual-time mode.
+     */
+    public static boolean isVirtualTimeMode() {
+        return MODE_VIRTUAL_TIME.equals(getCurrentMode());
+    }
+    
     /**
      * Returns true if running in udp-docker mode.
      */
     public static boolean isUdpDockerMode() {
         return MODE_UDP_DOCKER.equals(getCurrentMode());
     }
+
+    /**
+     * Returns true if running in tcp-docker mode.
+     */
+    public static boolean isTcpDockerMode() {
+        return MODE_TCP_DOCKER.equals(getCurrentMode());
+    }
+
+    /**
+     * Returns true if running in shm mode.
+     */
+    public static boolean isShmMode() {
+        return MODE_SHM.equals(getCurrentMode());
+    }
 }
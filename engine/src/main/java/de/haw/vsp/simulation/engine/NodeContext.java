@@ -12,6 +12,7 @@ import java.util.Set;
  * - Node identity (self)
  * - Network topology information (neighbors)
  * - Messaging capabilities (send, broadcast)
+ * - Backpressure (isWritable, whenWritable)
  *
  * Algorithms must use this context for all interactions with other nodes.
  * Transport details (UDP, in-memory, etc.) are completely hidden.
@@ -50,5 +51,32 @@ public interface NodeContext {
      * @param message the message to broadcast
      */
     void broadcast(Set<NodeId> targets, SimulationMessage message);
+
+    /**
+     * Returns whether the path to the target can currently take more messages.
+     *
+     * A false result means a send would likely be dropped; use {@link #whenWritable}
+     * to resume once the path has drained.
+     *
+     * @param target the ID of the target node
+     * @return true if sending to the target is not congested
+     */
+    default boolean isWritable(NodeId target) {
+        return true;
+    }
+
+    /**
+     * Runs the action as soon as the target is writable: immediately if it already is,
+     * otherwise once when the path has drained ({@link SimulationNodeContext} then runs it on its own
+     * executor, not on the transport thread, and never concurrently with the node's onMessage).
+     *
+     * A pending action for the same target is replaced, so only the latest one runs.
+     *
+     * @param target the ID of the target node
+     * @param action the action to run (typically a send to the target)
+     */
+    default void whenWritable(NodeId target, Runnable action) {
+        action.run();
+    }
 }
 
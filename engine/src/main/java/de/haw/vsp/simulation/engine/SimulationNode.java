@@ -16,6 +16,8 @@ import java.util.Set;
  * - onStart() is called exactly once before any messages are processed
  * - onMessage() is called for each incoming message
  * - The algorithm receives a consistent NodeContext for all interactions
+ * - The algorithm is never called concurrently: onStart() and onMessage() hold the context's monitor,
+ *   as do actions deferred by {@link NodeContext#whenWritable} (see {@link SimulationNodeContext})
  */
 public class SimulationNode implements Node {
 
@@ -66,7 +68,9 @@ public class SimulationNode implements Node {
         }
         started = true;
         algorithmStarted = true;
-        algorithm.onStart(nodeContext);
+        synchronized (nodeContext) {
+            algorithm.onStart(nodeContext);
+        }
     }
 
     @Override
@@ -80,7 +84,9 @@ public class SimulationNode implements Node {
             throw new IllegalArgumentException("message must not be null");
         }
 
-        algorithm.onMessage(nodeContext, message);
+        synchronized (nodeContext) {
+            algorithm.onMessage(nodeContext, message);
+        }
     }
 
     /**
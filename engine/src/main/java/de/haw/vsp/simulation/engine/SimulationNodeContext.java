@@ -3,8 +3,12 @@ package de.haw.vsp.simulation.engine;
 import de.haw.vsp.simulation.core.NodeId;
 import de.haw.vsp.simulation.core.SimulationMessage;
 import de.haw.vsp.simulation.middleware.MessagingPort;
+import de.haw.vsp.simulation.middleware.WritabilityListener;
 
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
@@ -14,6 +18,7 @@ import java.util.function.Consumer;
  * - Node identity (self)
  * - Network topology (neighbors)
  * - Messaging capabilities (send, broadcast)
+ * - Backpressure (isWritable, whenWritable) from the messaging port
  *
  * This implementation wraps a MessagingPort to abstract transport details.
  * Algorithms remain completely unaware of UDP, sockets, or Docker networking.
@@ -21,6 +26,11 @@ import java.util.function.Consumer;
  * Immutability:
  * - Node identity and neighbor set are immutable after construction
  * - Messaging operations are non-blocking from the algorithm's perspective
+ *
+ * Threading: an action deferred by {@link #whenWritable} is handed to an executor instead of running on the
+ * transport thread that signals writability (a router thread must not block in a send to its own queue).
+ * It runs while holding this context's monitor; {@link SimulationNode} holds the same monitor for onStart and
+ * onMessage, so the algorithm is never called concurrently.
  */
 public class SimulationNodeContext implements NodeContext {
 
@@ -29,6 +39,20 @@ public class SimulationNodeContext implements NodeContext {
     private final MessagingPort messagingPort;
     private final Consumer<SimulationMessage> messageCountCallback;
 
+    // at most one deferred action per target; listener registered only while actions are pending
+    private final ConcurrentHashMap<NodeId, Runnable> pendingWritable = new ConcurrentHashMap<>();
+    private final WritabilityListener writabilityListener = this::onWritable;
+    private final Executor deferredActions;
+    private final Object listenerLock = new Object(); // not this: the transport thread must not wait for the algorithm
+    private boolean listening; // guarded by listenerLock
+
+    /** Runs deferred whenWritable actions of all nodes; threads are created on demand and time out when idle. */
+    private static final Executor DEFAULT_DEFERRED_ACTIONS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "node-deferred-actions");
+        t.setDaemon(true);
+        return t;
+    });
+
     /**
      * Creates a new simulation node context.
      *
@@ -52,6 +76,17 @@ public class SimulationNodeContext implements NodeContext {
      */
     public SimulationNodeContext(NodeId nodeId, Set<NodeId> neighbors, MessagingPort messagingPort, 
                                  Consumer<SimulationMessage> messageCountCallback) {
+        this(nodeId, neighbors, messagingPort, messageCountCallback, DEFAULT_DEFERRED_ACTIONS);
+    }
+
+    /**
+     * Creates a new simulation node context whose deferred {@link #whenWritable} actions run on {@code deferredActions}.
+     *
+     * @param deferredActions executor for actions deferred until a target is writable
+     * @throws IllegalArgumentException if nodeId, neighbors, messagingPort or deferredActions is null
+     */
+    public SimulationNodeContext(NodeId nodeId, Set<NodeId> neighbors, MessagingPort messagingPort,
+                                 Consumer<SimulationMessage> messageCountCallback, Executor deferredActions) {
         if (nodeId == null) {
             throw new IllegalArgumentException("nodeId must not be null");
         }
@@ -61,11 +96,15 @@ public class SimulationNodeContext implements NodeContext {
         if (messagingPort == null) {
             throw new IllegalArgumentException("messagingPort must not be null");
         }
+        if (deferredActions == null) {
+            throw new IllegalArgumentException("deferredActions must not be null");
+        }
 
         this.nodeId = nodeId;
         this.neighbors = Set.copyOf(neighbors);
         this.messagingPort = messagingPort;
         this.messageCountCallback = messageCountCallback;
+        this.deferredActions = deferredActions;
     }
 
     @Override
@@ -116,10 +155,76 @@ public class SimulationNodeContext implements NodeContext {
 
         messagingPort.broadcast(targets, message);
         
-        // Notify callback for each message sent in broadcast
+        // Notify callback for each message sent in broadcast, addressed to its target
         if (messageCountCallback != null) {
-            for (int i = 0; i < targets.size(); i++) {
-                messageCountCallback.accept(message);
+            for (NodeId target : targets) {
+                messageCountCallback.accept(target.equals(message.receiver())
+                        ? message
+                        : new SimulationMessage(message.sender(), target, message.messageType(),
+                                message.payload(), message.seq()));
+            }
+        }
+    }
+
+    @Override
+    public boolean isWritable(NodeId target) {
+        if (target == null) {
+            throw new IllegalArgumentException("target must not be null");
+        }
+        return messagingPort.isWritable(target);
+    }
+
+    @Override
+    public void whenWritable(NodeId target, Runnable action) {
+        if (target == null) {
+            throw new IllegalArgumentException("target must not be null");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("action must not be null");
+        }
+
+        // fast path: nothing pending for the target and room in its queue, so no listener is needed
+        if (!pendingWritable.containsKey(target) && messagingPort.isWritable(target)) {
+            action.run();
+            return;
+        }
+
+        // register before checking, so a signal between check and registration is not lost
+        pendingWritable.put(target, action);
+        startListening();
+        if (messagingPort.isWritable(target) && pendingWritable.remove(target, action)) {
+            action.run();
+            stopListeningIfIdle();
+        }
+    }
+
+    /** Called on a transport thread: only hands the action over. */
+    private void onWritable(NodeId receiver) {
+        Runnable action = pendingWritable.remove(receiver);
+        if (action != null) {
+            deferredActions.execute(() -> {
+                synchronized (this) {
+                    action.run();
+                }
+            });
+        }
+        stopListeningIfIdle();
+    }
+
+    private void startListening() {
+        synchronized (listenerLock) {
+            if (!listening) {
+                messagingPort.addWritabilityListener(writabilityListener);
+                listening = true;
+            }
+        }
+    }
+
+    private void stopListeningIfIdle() {
+        synchronized (listenerLock) {
+            if (listening && pendingWritable.isEmpty()) {
+                messagingPort.removeWritabilityListener(writabilityListener);
+                listening = false;
             }
         }
     }
@@ -11,6 +11,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Reports node events to the backend via HTTP REST API.
@@ -19,74 +20,104 @@ import java.util.concurrent.*;
  * - Node state changes (leader election results)
  * - Message events (sent/received)
  * - Metrics (message count, etc.)
+ * 
+ * One reporter serves all nodes hosted by the process: every flush is a single POST with the
+ * status of each node in "nodes" (the top-level "nodeId" is the first node, for older backends).
+ * At most {@link #MAX_EVENTS_PER_FLUSH} events are sent per flush (the backend keeps no more than
+ * that per simulation anyway); the counters still include the dropped ones, and each flush reports how
+ * many were dropped ("droppedEvents") and logs a warning.
  */
 public class BackendEventReporter {
     
     private static final Logger LOG = LoggerFactory.getLogger(BackendEventReporter.class);
     
+    static final int MAX_EVENTS_PER_FLUSH = 1000;
+    
     private final String backendUrl;
     private final String simulationId;
-    private final NodeId nodeId;
+    private final NodeId firstNodeId;
+    private final Map<NodeId, NodeCounters> counters = new LinkedHashMap<>(); // fixed after construction
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
     
     private final Queue<Map<String, Object>> eventQueue = new ConcurrentLinkedQueue<>();
-    private volatile String currentLeader = null;
-    private volatile int messagesSent = 0;
-    private volatile int messagesReceived = 0;
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+    private final AtomicInteger droppedEvents = new AtomicInteger();
     
     public BackendEventReporter(String backendUrl, String simulationId, NodeId nodeId) {
+        this(backendUrl, simulationId, List.of(nodeId));
+    }
+    
+    public BackendEventReporter(String backendUrl, String simulationId, List<NodeId> nodeIds) {
         this.backendUrl = backendUrl;
         this.simulationId = simulationId;
-        this.nodeId = nodeId;
+        this.firstNodeId = nodeIds.get(0);
+        for (NodeId id : nodeIds) {
+            counters.put(id, new NodeCounters());
+        }
         
         // Start periodic event reporting (every 2 seconds)
         scheduler.scheduleAtFixedRate(this::flushEvents, 2, 2, TimeUnit.SECONDS);
         
-        LOG.info("BackendEventReporter initialized for node {} (simulation: {})", nodeId, simulationId);
+        LOG.info("BackendEventReporter initialized for {} node(s) from {} (simulation: {})",
+                 nodeIds.size(), firstNodeId, simulationId);
     }
     
     /**
-     * Report that this node has elected a new leader.
+     * Report that a hosted node has elected a new leader.
      */
-    public void reportLeaderChange(String leaderId) {
-        if (!Objects.equals(currentLeader, leaderId)) {
-            currentLeader = leaderId;
+    public void reportLeaderChange(NodeId nodeId, String leaderId) {
+        NodeCounters c = counters.get(nodeId);
+        if (c != null && !Objects.equals(c.currentLeader, leaderId)) {
+            c.currentLeader = leaderId;
             Map<String, Object> event = new HashMap<>();
             event.put("type", "LEADER_CHANGE");
             event.put("nodeId", nodeId.value());
             event.put("leaderId", leaderId);
             event.put("timestamp", System.currentTimeMillis());
-            eventQueue.offer(event);
+            queue(event);
             LOG.debug("Node {} reported leader change: {}", nodeId, leaderId);
         }
     }
     
     /**
-     * Report a message sent event.
+     * Report a message sent event (by the message's sender).
      */
     public void reportMessageSent(SimulationMessage message) {
-        messagesSent++;
+        NodeCounters c = counters.get(message.sender());
+        if (c == null) return;
+        c.messagesSent.incrementAndGet();
         Map<String, Object> event = new HashMap<>();
         event.put("type", "MESSAGE_SENT");
-        event.put("nodeId", nodeId.value());
+        event.put("nodeId", message.sender().value());
         event.put("receiver", message.receiver().value());
         event.put("messageType", message.messageType().toString());
         event.put("timestamp", System.currentTimeMillis());
-        eventQueue.offer(event);
+        queue(event);
     }
     
     /**
-     * Report a message received event.
+     * Report a message received event (by the message's receiver).
      */
     public void reportMessageReceived(SimulationMessage message) {
-        messagesReceived++;
+        NodeCounters c = counters.get(message.receiver());
+        if (c == null) return;
+        c.messagesReceived.incrementAndGet();
         Map<String, Object> event = new HashMap<>();
         event.put("type", "MESSAGE_RECEIVED");
-        event.put("nodeId", nodeId.value());
+        event.put("nodeId", message.receiver().value());
         event.put("sender", message.sender().value());
         event.put("messageType", message.messageType().toString());
         event.put("timestamp", System.currentTimeMillis());
+        queue(event);
+    }
+    
+    private void queue(Map<String, Object> event) {
+        if (queuedEvents.incrementAndGet() > MAX_EVENTS_PER_FLUSH) {
+            queuedEvents.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            return;
+        }
         eventQueue.offer(event);
     }
     
@@ -94,29 +125,41 @@ public class BackendEventReporter {
      * Flush all queued events to the backend.
      */
     private void flushEvents() {
-        if (eventQueue.isEmpty() && messagesSent == 0 && messagesReceived == 0) {
+        if (eventQueue.isEmpty() && counters.values().stream().allMatch(NodeCounters::isIdle)) {
             return; // Nothing to report
         }
         
         try {
             // Collect all events
             List<Map<String, Object>> events = new ArrayList<>();
-            while (!eventQueue.isEmpty()) {
-                Map<String, Object> event = eventQueue.poll();
-                if (event != null) {
-                    events.add(event);
-                }
+            Map<String, Object> event;
+            while ((event = eventQueue.poll()) != null) {
+                queuedEvents.decrementAndGet();
+                events.add(event);
             }
+            int dropped = droppedEvents.getAndSet(0);
+            if (dropped > 0) {
+                LOG.warn("Dropped {} event(s) over the limit of {} per flush", dropped, MAX_EVENTS_PER_FLUSH);
+            }
+            
+            // Create status update, one entry per hosted node
+            long now = System.currentTimeMillis();
+            List<Map<String, Object>> nodes = new ArrayList<>(counters.size());
+            counters.forEach((id, c) -> {
+                Map<String, Object> status = new HashMap<>();
+                status.put("nodeId", id.value());
+                status.put("currentLeader", c.currentLeader);
+                status.put("messagesSent", c.messagesSent.get());
+                status.put("messagesReceived", c.messagesReceived.get());
+                status.put("timestamp", now);
+                nodes.add(status);
+            });
             
-            // Create status update
-            Map<String, Object> statusUpdate = new HashMap<>();
+            Map<String, Object> statusUpdate = new HashMap<>(nodes.get(0));
             statusUpdate.put("simulationId", simulationId);
-            statusUpdate.put("nodeId", nodeId.value());
-            statusUpdate.put("currentLeader", currentLeader);
-            statusUpdate.put("messagesSent", messagesSent);
-            statusUpdate.put("messagesReceived", messagesReceived);
+            statusUpdate.put("nodes", nodes);
             statusUpdate.put("events", events);
-            statusUpdate.put("timestamp", System.currentTimeMillis());
+            statusUpdate.put("droppedEvents", dropped);
             
             // Send to backend
             sendToBackend(statusUpdate);
@@ -164,6 +207,19 @@ public class BackendEventReporter {
     public void shutdown() {
         flushEvents(); // Final flush
         scheduler.shutdown();
-        LOG.info("BackendEventReporter shut down for node {}", nodeId);
+        LOG.info("BackendEventReporter shut down for {} node(s) from {}", counters.size(), firstNodeId);
+    }
+    
+    /**
+     * Status of one hosted node.
+     */
+    private static final class NodeCounters {
+        volatile String currentLeader;
+        final AtomicInteger messagesSent = new AtomicInteger();
+        final AtomicInteger messagesReceived = new AtomicInteger();
+        
+        boolean isIdle() {
+            return messagesSent.get() == 0 && messagesReceived.get() == 0;
+        }
     }
 }
@@ -7,48 +7,78 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Standalone application that runs a single simulation node in distributed mode.
+ * Standalone application that runs simulation nodes in distributed mode.
  * 
  * This application:
- * - Runs ONE node per container/process
- * - Uses UDP for real distributed communication
- * - Registers with the backend for coordination
+ * - Runs ONE node per container/process, or a block of nodes (NODE_IDS)
+ * - Uses UDP for real distributed communication; hosted nodes share one socket and messages
+ *   between them never leave the process
+ * - Registers with the backend for coordination (one aggregated reporter per process)
  * - Executes the distributed algorithm autonomously
  * 
  * Environment variables required:
  * - NODE_ID: Unique node identifier (e.g., node-0)
- * - MW_MODE: Must be "udp-docker"
+ * - NODE_IDS: Range of hosted nodes instead of NODE_ID (e.g., node-10..node-19); other processes
+ *   must be told the block size via NODES_PER_HOST so they address the block's first node
+ * - MW_MODE: "udp-docker" (default), "tcp-docker" (lossless; no periodic leader re-broadcast) or "shm"
+ *   (all processes on one host; SHM_DIR must be shared)
  * - UDP_PORT: UDP port for communication (default: 9000)
  * - NODE_COUNT: Total number of nodes in the simulation
  * - BACKEND_URL: Backend API URL (default: http://vsp-backend:8080)
+ * - UDP_MULTICAST: true sends the leader re-broadcast as one multicast datagram per node (default: false)
+ * - UDP_RELIABLE: true turns on acknowledged delivery and the periodic leader re-broadcast off (default: false);
+ *   requires a single node per process
  */
 public class StandaloneNodeApplication {
     
     private static final Logger LOG = LoggerFactory.getLogger(StandaloneNodeApplication.class);
     
-    private final NodeId nodeId;
+    private final NodeId nodeId; // first hosted node
+    private final List<NodeId> nodeIds;
     private final MessagingPort messagingPort;
     private final AtomicBoolean running = new AtomicBoolean(true);
     private final AtomicBoolean paused = new AtomicBoolean(false);
+    private final boolean reliableTransport;
     private final BackendEventReporter eventReporter;
     private final NodeControlServer controlServer;
     
-    private SimulationNode node;
-    private SimulationNodeContext nodeContext;
+    private final Map<NodeId, SimulationNode> nodes = new ConcurrentHashMap<>();
+    private final Map<NodeId, SimulationNodeContext> nodeContexts = new ConcurrentHashMap<>();
+    // Messages that arrive before a hosted node has started; removed once the node is running
+    private final Map<NodeId, List<SimulationMessage>> earlyMessages = new ConcurrentHashMap<>();
     
     public StandaloneNodeApplication(StandaloneNodeConfig config) {
         this.nodeId = config.nodeId();
+        this.nodeIds = config.nodeIds();
         
         // Create UDP-based messaging port with dynamic configuration
         TransportConfig transportConfig = EnvTransportConfigs.fromEnvironment(System.getenv());
-        this.messagingPort = MessagingPorts.udpDocker(config.nodeId(), transportConfig);
+        if (config.tcpTransport()) {
+            this.messagingPort = MessagingPorts.tcpDocker(nodeIds, transportConfig, null);
+            this.reliableTransport = true;
+        } else if (config.shmTransport()) {
+            // A full ring drops, so the re-broadcast stays on
+            this.messagingPort = MessagingPorts.shm(nodeIds, null);
+            this.reliableTransport = false;
+        } else {
+            this.messagingPort = MessagingPorts.udpDocker(nodeIds, transportConfig, null);
+            this.reliableTransport = EnvUdpConfigs.reliabilityFromSystemEnvironment().enabled();
+        }
         
         // Initialize event reporter for backend communication
         String simulationId = System.getenv().getOrDefault("SIMULATION_ID", "distributed");
-        this.eventReporter = new BackendEventReporter(config.backendUrl(), simulationId, config.nodeId());
+        this.eventReporter = new BackendEventReporter(config.backendUrl(), simulationId, nodeIds);
+        
+        // Register every hosted node's handler before any node starts, so announcements from
+        // co-located or early remote nodes are buffered instead of dropped for lack of a handler
+        for (NodeId id : nodeIds) {
+            earlyMessages.put(id, new ArrayList<>());
+            messagingPort.registerHandler(id, message -> deliver(id, message));
+        }
         
         // Initialize control server for receiving commands
         int controlPort = 8000 + extractNodeNumber(config.nodeId());
@@ -68,7 +98,7 @@ public class StandaloneNodeApplication {
                 
                 @Override
                 public void onStep() {
-                    if (node != null && paused.get()) {
+                    if (!nodes.isEmpty() && paused.get()) {
                         // Execute one step while paused
                         LOG.info("Node {} executing one step", nodeId);
                     }
@@ -79,8 +109,8 @@ public class StandaloneNodeApplication {
             throw new RuntimeException("Failed to start control server on port " + controlPort, e);
         }
         
-        LOG.info("Standalone node initialized: {}", nodeId);
-        LOG.info("UDP Mode: {}, Port: {}", config.udpMode(), config.udpPort());
+        LOG.info("Standalone node initialized: {} ({} hosted)", nodeId, nodeIds.size());
+        LOG.info("UDP Mode: {}, Port: {}, reliable delivery: {}", config.udpMode(), config.udpPort(), reliableTransport);
         LOG.info("Control Server: Port {}", controlPort);
     }
     
@@ -101,14 +131,17 @@ public class StandaloneNodeApplication {
     }
     
     /**
-     * Initialize the node with network topology.
+     * Initialize one hosted node with network topology.
      * This is called after receiving topology information from the backend.
      */
-    public void initializeNode(Set<NodeId> neighbors, NodeAlgorithm algorithm) {
+    public void initializeNode(NodeId nodeId, Set<NodeId> neighbors, NodeAlgorithm algorithm) {
+        if (!nodeIds.contains(nodeId)) {
+            throw new IllegalArgumentException("Node " + nodeId + " is not hosted by this process");
+        }
         LOG.info("Initializing node {} with {} neighbors", nodeId, neighbors.size());
         
         // Create node context with event reporting and store it
-        this.nodeContext = new SimulationNodeContext(
+        SimulationNodeContext nodeContext = new SimulationNodeContext(
             nodeId,
             neighbors,
             messagingPort,
@@ -117,53 +150,79 @@ public class StandaloneNodeApplication {
                 eventReporter.reportMessageSent(msg);
             }
         );
+        nodeContexts.put(nodeId, nodeContext);
+        messagingPort.setNeighbors(nodeId, neighbors); // multicast groups, if UDP_MULTICAST=true
         
         // Create the simulation node
-        this.node = new SimulationNode(nodeId, neighbors, algorithm, nodeContext);
+        SimulationNode node = new SimulationNode(nodeId, neighbors, algorithm, nodeContext);
+        nodes.put(nodeId, node);
         
-        // Start the node BEFORE registering handler to avoid race condition
-        LOG.info("Starting node {}", nodeId);
-        node.onStart();
-        LOG.info("Node {} started and ready to receive messages", nodeId);
+        LOG.info("Node {} initialized successfully", nodeId);
+    }
+    
+    /**
+     * Handle a message for a hosted node; buffers it until the node has started.
+     */
+    private void deliver(NodeId id, SimulationMessage message) {
+        eventReporter.reportMessageReceived(message);
+        
+        // Extract leader from LEADER_ANNOUNCEMENT messages
+        if ("LEADER_ANNOUNCEMENT".equals(message.messageType().toString())) {
+            String leaderId = message.payload() != null ? message.payload().toString() : null;
+            if (leaderId != null) {
+                eventReporter.reportLeaderChange(id, leaderId);
+            }
+        }
         
-        // Register message handler AFTER onStart()
-        messagingPort.registerHandler(nodeId, message -> {
-            if (node != null) {
-                eventReporter.reportMessageReceived(message);
-                
-                // Extract leader from LEADER_ANNOUNCEMENT messages
-                if ("LEADER_ANNOUNCEMENT".equals(message.messageType().toString())) {
-                    String leaderId = message.payload() != null ? message.payload().toString() : null;
-                    if (leaderId != null) {
-                        eventReporter.reportLeaderChange(leaderId);
-                    }
+        List<SimulationMessage> early = earlyMessages.get(id);
+        if (early != null) {
+            synchronized (early) {
+                if (earlyMessages.containsKey(id)) {
+                    early.add(message);
+                    return;
                 }
-                
-                node.onMessage(message);
             }
-        });
-        
-        LOG.info("Node {} initialized successfully", nodeId);
+        }
+        nodes.get(id).onMessage(message);
     }
     
     /**
-     * Start the node's algorithm execution.
-     * Note: onStart() is now called in initializeNode() to avoid race conditions.
+     * Start the algorithm execution of every initialized node.
+     * Handlers are registered in the constructor, so messages that arrived before a node
+     * started are replayed in arrival order right after its onStart().
      */
     public void startNode() {
-        // Node is already started in initializeNode()
-        LOG.info("Node {} is active (already started during initialization)", nodeId);
+        nodes.forEach((id, node) -> {
+            LOG.info("Starting node {}", id);
+            node.onStart();
+            List<SimulationMessage> early = earlyMessages.get(id);
+            while (early != null) {
+                List<SimulationMessage> batch;
+                synchronized (early) {
+                    if (early.isEmpty()) {
+                        earlyMessages.remove(id);
+                        break;
+                    }
+                    batch = new ArrayList<>(early);
+                    early.clear();
+                }
+                batch.forEach(node::onMessage);
+            }
+            LOG.info("Node {} started and ready to receive messages", id);
+        });
+        LOG.info("{} node(s) from {} active", nodes.size(), nodeId);
     }
     
     /**
      * Run the standalone node application.
      */
     public void run() {
-        LOG.info("Standalone node {} is running...", nodeId);
+        LOG.info("Standalone node {} is running ({} hosted)...", nodeId, nodeIds.size());
         LOG.info("Leader Election Algorithm is active and processing messages...");
         
         // Keep the application running and periodically re-broadcast leader to ensure convergence
-        // Use exponential backoff: fast initially, slower over time
+        // Use exponential backoff: fast initially, slower over time.
+        // With reliable delivery (or TCP) the transport repairs lost announcements, so no re-broadcasts are needed.
         int stepCount = 0;
         try {
             while (running.get()) {
@@ -187,23 +246,11 @@ public class StandaloneNodeApplication {
                         interval = 10; // After 120s: stable
                     }
                     
-                    // Re-broadcast current leader at calculated interval
-                    if (stepCount % interval == 0 && node != null) {
-                        LOG.debug("Step {} (interval={}s) - Re-broadcasting current leader for node {}", 
-                                 stepCount, interval, nodeId);
-                        FloodingLeaderElectionAlgorithm algorithm = (FloodingLeaderElectionAlgorithm) node.getAlgorithm();
-                        if (algorithm != null && algorithm.getCurrentLeaderId() != null) {
-                            // Re-broadcast current leader to all neighbors
-                            for (NodeId neighbor : node.getNeighbors()) {
-                                nodeContext.send(neighbor, new SimulationMessage(
-                                    nodeId,
-                                    neighbor,
-                                    "LEADER_ANNOUNCEMENT",
-                                    algorithm.getCurrentLeaderId().value(),
-                                    null
-                                ));
-                            }
-                        }
+                    // Re-broadcast current leader of every hosted node at calculated interval
+                    if (!reliableTransport && stepCount % interval == 0) {
+                        LOG.debug("Step {} (interval={}s) - Re-broadcasting current leader for {} node(s)", 
+                                 stepCount, interval, nodes.size());
+                        nodes.forEach(this::rebroadcastLeader);
                     }
                     stepCount++;
                 } else {
@@ -216,6 +263,21 @@ public class StandaloneNodeApplication {
         }
     }
     
+    private void rebroadcastLeader(NodeId id, SimulationNode node) {
+        FloodingLeaderElectionAlgorithm algorithm = (FloodingLeaderElectionAlgorithm) node.getAlgorithm();
+        if (algorithm != null && algorithm.getCurrentLeaderId() != null && !node.getNeighbors().isEmpty()) {
+            // Re-broadcast current leader to all neighbors (one multicast datagram with UDP_MULTICAST=true)
+            Set<NodeId> neighbors = node.getNeighbors();
+            nodeContexts.get(id).broadcast(neighbors, new SimulationMessage(
+                id,
+                neighbors.iterator().next(),
+                "LEADER_ANNOUNCEMENT",
+                algorithm.getCurrentLeaderId(),
+                null
+            ));
+        }
+    }
+    
     /**
      * Shutdown the node gracefully.
      */
@@ -228,7 +290,7 @@ public class StandaloneNodeApplication {
         }
         
         if (messagingPort != null) {
-            messagingPort.unregisterHandler(nodeId);
+            nodeIds.forEach(messagingPort::unregisterHandler);
         }
         
         if (eventReporter != null) {
@@ -264,19 +326,18 @@ public class StandaloneNodeApplication {
             // In a full implementation, this would wait for backend coordination
             LOG.info("Node is ready and waiting for coordination...");
             
-            // Create a simple topology for testing (all nodes in a ring)
-            Set<NodeId> neighbors = calculateNeighbors(config);
-            
-            // Use flooding algorithm
-            NodeAlgorithm algorithm = new FloodingLeaderElectionAlgorithm();
-            
-            // Initialize and start
-            app.initializeNode(neighbors, algorithm);
+            for (NodeId id : config.nodeIds()) {
+                // Create a simple topology for testing (all nodes in a ring)
+                Set<NodeId> neighbors = calculateNeighbors(config, id);
+                
+                // Use flooding algorithm; started together below
+                app.initializeNode(id, neighbors, new FloodingLeaderElectionAlgorithm());
+            }
             
             // Wait a bit for all nodes to be ready
             Thread.sleep(3000);
             
-            // Start the node
+            // Start all hosted nodes; messages that arrived meanwhile are replayed
             app.startNode();
             
             // Run indefinitely
@@ -291,10 +352,10 @@ public class StandaloneNodeApplication {
     /**
      * Calculate neighbors based on node ID, total node count, and topology type.
      */
-    private static Set<NodeId> calculateNeighbors(StandaloneNodeConfig config) {
+    private static Set<NodeId> calculateNeighbors(StandaloneNodeConfig config, NodeId nodeId) {
         String topology = config.topology().toUpperCase();
         int nodeCount = config.nodeCount();
-        int currentNodeNum = extractNodeNumber(config.nodeId());
+        int currentNodeNum = extractNodeNumber(nodeId);
         
         Set<NodeId> neighbors = switch (topology) {
             case "RING" -> calculateRingNeighbors(currentNodeNum, nodeCount);
@@ -1,13 +1,19 @@
 package de.haw.vsp.simulation.engine.standalone;
 
 import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.NodeRange;
+
+import java.util.List;
 
 /**
  * Configuration for standalone node application.
  * Loaded from environment variables.
+ *
+ * @param nodeIds nodes hosted by this process (NODE_IDS range, or the single NODE_ID);
+ *                the first one owns the shared UDP socket and the control port
  */
 public record StandaloneNodeConfig(
-    NodeId nodeId,
+    List<NodeId> nodeIds,
     String udpMode,
     int udpPort,
     int nodeCount,
@@ -15,25 +21,57 @@ public record StandaloneNodeConfig(
     String backendUrl
 ) {
     
+    public StandaloneNodeConfig {
+        if (nodeIds == null || nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("nodeIds must not be empty");
+        }
+        nodeIds = List.copyOf(nodeIds);
+    }
+    
+    /**
+     * True for MW_MODE=tcp-docker.
+     */
+    public boolean tcpTransport() {
+        return "tcp-docker".equals(udpMode);
+    }
+
+    /**
+     * True for MW_MODE=shm.
+     */
+    public boolean shmTransport() {
+        return "shm".equals(udpMode);
+    }
+    
+    /**
+     * First hosted node.
+     */
+    public NodeId nodeId() {
+        return nodeIds.get(0);
+    }
+    
     /**
      * Load configuration from environment variables.
+     * NODE_IDS (e.g. "node-10..node-19") hosts several nodes in this process; otherwise NODE_ID is required.
      */
     public static StandaloneNodeConfig fromEnvironment() {
-        String nodeIdStr = getEnvOrThrow("NODE_ID");
+        String nodeIdsStr = System.getenv("NODE_IDS");
+        List<NodeId> nodeIds = nodeIdsStr == null || nodeIdsStr.isBlank()
+            ? List.of(new NodeId(getEnvOrThrow("NODE_ID")))
+            : NodeRange.parse(nodeIdsStr).nodeIds();
         String udpMode = getEnvOrDefault("MW_MODE", "udp-docker");
         int udpPort = Integer.parseInt(getEnvOrDefault("UDP_PORT", "9000"));
         int nodeCount = Integer.parseInt(getEnvOrDefault("NODE_COUNT", "5"));
         String topology = getEnvOrDefault("TOPOLOGY", "RING");
         String backendUrl = getEnvOrDefault("BACKEND_URL", "http://vsp-backend:8080");
         
-        if (!udpMode.equals("udp-docker")) {
+        if (!udpMode.equals("udp-docker") && !udpMode.equals("tcp-docker") && !udpMode.equals("shm")) {
             throw new IllegalArgumentException(
-                "Standalone node requires MW_MODE=udp-docker, but got: " + udpMode
+                "Standalone node requires MW_MODE=udp-docker, tcp-docker or shm, but got: " + udpMode
             );
         }
         
         return new StandaloneNodeConfig(
-            new NodeId(nodeIdStr),
+            nodeIds,
             udpMode,
             udpPort,
             nodeCount,
@@ -60,8 +98,8 @@ public record StandaloneNodeConfig(
     @Override
     public String toString() {
         return String.format(
-            "StandaloneNodeConfig{nodeId=%s, mode=%s, port=%d, nodeCount=%d, topology=%s, backend=%s}",
-            nodeId, udpMode, udpPort, nodeCount, topology, backendUrl
+            "StandaloneNodeConfig{nodeIds=%s, mode=%s, port=%d, nodeCount=%d, topology=%s, backend=%s}",
+            nodeIds.size() == 1 ? nodeId() : nodeId() + ".." + nodeIds.get(nodeIds.size() - 1), udpMode, udpPort, nodeCount, topology, backendUrl
         );
     }
 }
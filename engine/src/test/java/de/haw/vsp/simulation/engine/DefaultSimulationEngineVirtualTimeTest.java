@@ -0,0 +1,55 @@
+package de.haw.vsp.simulation.engine;
+
+import de.haw.vsp.simulation.core.*;
+import de.haw.vsp.simulation.middleware.MessagingPort;
+import de.haw.vsp.simulation.middleware.MessagingPorts;
+import de.haw.vsp.simulation.middleware.virtual.LatencyDistribution;
+import de.haw.vsp.simulation.middleware.virtual.LinkModel;
+import org.junit.jupiter.api.*;
+
+import java.io.Closeable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DefaultSimulationEngine on the virtual-time (discrete-event) transport.
+ */
+@DisplayName("DefaultSimulationEngine - Virtual Time")
+class DefaultSimulationEngineVirtualTimeTest {
+
+    private MessagingPort port;
+    private DefaultSimulationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        port = MessagingPorts.virtualTime(null);
+        engine = new DefaultSimulationEngine(port);
+        engine.setLinkModel(LinkModel.of(LatencyDistribution.constant(50)));
+        engine.createEngineAndNodes(new NetworkConfig(5, TopologyType.RING));
+        engine.configureAlgorithm("flooding-leader-election");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ((Closeable) port).close();
+    }
+
+    @Test
+    @DisplayName("should run latency-modelled steps without sleeping and report simulated time")
+    void shouldRunFasterThanRealTime() throws Exception {
+        // 200 steps of 100 ms = 20 s of simulated time
+        engine.startSimulation(new SimulationParameters(42L, 200, 100));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (engine.getState() != DefaultSimulationEngine.SimulationState.STOPPED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(DefaultSimulationEngine.SimulationState.STOPPED, engine.getState());
+        MetricsSnapshot metrics = engine.getMetrics();
+        assertEquals(20_000L, metrics.simulatedTime());
+        assertTrue(metrics.realTimeMillis() < 5_000, "should run much faster than real time");
+        assertTrue(metrics.messageCount() > 0);
+    }
+}
@@ -69,7 +69,7 @@ class FloodingLeaderElectionAlgorithmTest {
             for (SimulationMessage msg : sentMessages) {
                 assertEquals("LEADER_ANNOUNCEMENT", msg.messageType());
                 assertEquals(nodeId, msg.sender());
-                assertEquals(nodeId.value(), msg.payload());
+                assertEquals(nodeId, msg.payload());
                 recipients.add(msg.receiver());
             }
             assertEquals(neighbors, recipients);
@@ -118,6 +118,21 @@ class FloodingLeaderElectionAlgorithmTest {
             assertEquals(higherNodeId, algorithm.getCurrentLeaderId());
         }
 
+        @Test
+        @DisplayName("should accept leader ids decoded as NodeId payloads")
+        void shouldAcceptTypedPayload() {
+            NodeId nodeId = new NodeId("node-1");
+            NodeId higherNodeId = new NodeId("node-9");
+            MockNodeContext context = new MockNodeContext(nodeId, Set.of(new NodeId("node-2")));
+            FloodingLeaderElectionAlgorithm algorithm = new FloodingLeaderElectionAlgorithm();
+
+            algorithm.onStart(context);
+            algorithm.onMessage(context, new SimulationMessage(
+                    higherNodeId, nodeId, "LEADER_ANNOUNCEMENT", higherNodeId, null));
+
+            assertSame(higherNodeId, algorithm.getCurrentLeaderId());
+        }
+
         @Test
         @DisplayName("should broadcast new leader when receiving higher ID")
         void shouldBroadcastNewLeaderWhenReceivingHigherId() {
@@ -144,7 +159,7 @@ class FloodingLeaderElectionAlgorithmTest {
 
             for (SimulationMessage sentMsg : sentMessages) {
                 assertEquals("LEADER_ANNOUNCEMENT", sentMsg.messageType());
-                assertEquals(higherNodeId.value(), sentMsg.payload());
+                assertEquals(higherNodeId, sentMsg.payload());
             }
         }
 
@@ -544,6 +559,39 @@ class FloodingLeaderElectionAlgorithmTest {
         return round;
     }
 
+    @Nested
+    @DisplayName("Backpressure")
+    class Backpressure {
+
+        @Test
+        @DisplayName("should defer announcements to a congested neighbor and send only the latest leader")
+        void shouldDeferAnnouncementsToCongestedNeighbor() {
+            NodeId nodeId = new NodeId("node-1");
+            NodeId congested = new NodeId("node-2");
+            NodeId free = new NodeId("node-3");
+            MockNodeContext context = new MockNodeContext(nodeId, Set.of(congested, free));
+            context.congest(congested);
+            FloodingLeaderElectionAlgorithm algorithm = new FloodingLeaderElectionAlgorithm();
+
+            algorithm.onStart(context);
+            algorithm.onMessage(context, new SimulationMessage(
+                    new NodeId("node-5"), nodeId, "LEADER_ANNOUNCEMENT", "node-5", null));
+            algorithm.onMessage(context, new SimulationMessage(
+                    new NodeId("node-9"), nodeId, "LEADER_ANNOUNCEMENT", "node-9", null));
+
+            assertTrue(context.getSentMessages().stream().noneMatch(m -> m.receiver().equals(congested)));
+            assertEquals(3, context.getSentMessages().size());
+
+            context.clearSentMessages();
+            context.release(congested);
+
+            List<SimulationMessage> sent = context.getSentMessages();
+            assertEquals(1, sent.size());
+            assertEquals(congested, sent.get(0).receiver());
+            assertEquals(new NodeId("node-9"), sent.get(0).payload());
+        }
+    }
+
     // ============= Mock NodeContext =============
 
     /**
@@ -553,6 +601,7 @@ class FloodingLeaderElectionAlgorithmTest {
         private final NodeId nodeId;
         private final Set<NodeId> neighbors;
         private final List<SimulationMessage> sentMessages = new ArrayList<>();
+        private final Map<NodeId, Runnable> congested = new HashMap<>();
 
         public MockNodeContext(NodeId nodeId, Set<NodeId> neighbors) {
             this.nodeId = nodeId;
@@ -587,6 +636,31 @@ class FloodingLeaderElectionAlgorithmTest {
             }
         }
 
+        @Override
+        public boolean isWritable(NodeId target) {
+            return !congested.containsKey(target);
+        }
+
+        @Override
+        public void whenWritable(NodeId target, Runnable action) {
+            if (congested.containsKey(target)) {
+                congested.put(target, action);
+            } else {
+                action.run();
+            }
+        }
+
+        public void congest(NodeId target) {
+            congested.put(target, null);
+        }
+
+        public void release(NodeId target) {
+            Runnable action = congested.remove(target);
+            if (action != null) {
+                action.run();
+            }
+        }
+
         public List<SimulationMessage> getSentMessages() {
             return new ArrayList<>(sentMessages);
         }
@@ -0,0 +1,106 @@
+package de.haw.vsp.simulation.engine;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.MessageHandler;
+import de.haw.vsp.simulation.middleware.MessagingPort;
+import de.haw.vsp.simulation.middleware.WritabilityListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link SimulationNodeContext#whenWritable} runs deferred actions on its executor,
+ * under the monitor that {@link SimulationNode} holds for algorithm callbacks.
+ */
+@DisplayName("SimulationNodeContext - whenWritable")
+class SimulationNodeContextWritabilityTest {
+
+    private static final NodeId A = new NodeId("node-1");
+    private static final NodeId B = new NodeId("node-2");
+
+    private final CongestiblePort port = new CongestiblePort();
+    private final List<Runnable> deferred = new ArrayList<>();
+    private final SimulationNodeContext context =
+            new SimulationNodeContext(A, Set.of(B), port, null, deferred::add);
+
+    @Test
+    @DisplayName("should run the action at once while the target is writable")
+    void shouldRunImmediatelyWhenWritable() {
+        List<String> ran = new ArrayList<>();
+
+        context.whenWritable(B, () -> ran.add("now"));
+
+        assertEquals(List.of("now"), ran);
+        assertTrue(deferred.isEmpty());
+        assertTrue(port.listeners.isEmpty(), "no listener left registered");
+        assertEquals(0, port.registrations, "no listener registered on the fast path");
+    }
+
+    @Test
+    @DisplayName("should hand a deferred action to the executor instead of running it on the transport thread")
+    void shouldDeferToExecutor() {
+        List<Boolean> ranUnderMonitor = new ArrayList<>();
+        port.writable = false;
+
+        context.whenWritable(B, () -> ranUnderMonitor.add(Thread.holdsLock(context)));
+        assertTrue(ranUnderMonitor.isEmpty());
+
+        port.writable = true;
+        port.signal(B); // as the transport thread would
+        assertTrue(ranUnderMonitor.isEmpty(), "not run on the signalling thread");
+        assertEquals(1, deferred.size());
+        assertTrue(port.listeners.isEmpty(), "listener removed once nothing is pending");
+
+        deferred.remove(0).run();
+        assertEquals(List.of(true), ranUnderMonitor);
+    }
+
+    private static final class CongestiblePort implements MessagingPort {
+        final List<WritabilityListener> listeners = new CopyOnWriteArrayList<>();
+        volatile boolean writable = true;
+        int registrations;
+
+        void signal(NodeId receiver) {
+            listeners.forEach(l -> l.onWritable(receiver));
+        }
+
+        @Override
+        public void send(NodeId receiver, SimulationMessage message) {
+        }
+
+        @Override
+        public void broadcast(Set<NodeId> receivers, SimulationMessage message) {
+        }
+
+        @Override
+        public void registerHandler(NodeId nodeId, MessageHandler handler) {
+        }
+
+        @Override
+        public void unregisterHandler(NodeId nodeId) {
+        }
+
+        @Override
+        public boolean isWritable(NodeId receiver) {
+            return writable;
+        }
+
+        @Override
+        public void addWritabilityListener(WritabilityListener listener) {
+            registrations++;
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeWritabilityListener(WritabilityListener listener) {
+            listeners.remove(listener);
+        }
+    }
+}
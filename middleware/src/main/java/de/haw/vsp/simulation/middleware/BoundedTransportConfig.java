@@ -25,6 +25,11 @@ public final class BoundedTransportConfig implements TransportConfig {
         return delegate.resolve(id);
     }
 
+    @Override
+    public long version() {
+        return delegate.version();
+    }
+
     @Override
     public String toString() {
         return "BoundedTransportConfig{delegate=" + delegate + ", range=" + range + "}";
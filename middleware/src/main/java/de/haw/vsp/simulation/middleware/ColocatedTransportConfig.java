@@ -0,0 +1,58 @@
+package de.haw.vsp.simulation.middleware;
+
+import de.haw.vsp.simulation.core.NodeId;
+
+import java.util.Objects;
+
+/**
+ * Wraps another {@link TransportConfig} for processes that host several nodes each.
+ *
+ * Node indices are grouped into blocks of {@code nodesPerHost} consecutive indices starting at
+ * {@code minId}; every node of a block resolves to the address of the block's first node
+ * (e.g. with 10 nodes per host, node-17 resolves like node-10). Ids without a numeric index
+ * (see {@link NodeRange#tryParseIndex}) are resolved unchanged.
+ */
+public final class ColocatedTransportConfig implements TransportConfig {
+
+    private final TransportConfig delegate;
+    private final int minId;
+    private final int nodesPerHost;
+
+    public ColocatedTransportConfig(TransportConfig delegate, int minId, int nodesPerHost) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        if (minId < 0) {
+            throw new IllegalArgumentException("minId must be >= 0, but was: " + minId);
+        }
+        if (nodesPerHost < 1) {
+            throw new IllegalArgumentException("nodesPerHost must be >= 1, but was: " + nodesPerHost);
+        }
+        this.minId = minId;
+        this.nodesPerHost = nodesPerHost;
+    }
+
+    @Override
+    public TransportAddress resolve(NodeId id) {
+        if (id == null) return null;
+        Integer idx = NodeRange.tryParseIndex(id.value());
+        if (idx == null || idx < minId) {
+            return delegate.resolve(id);
+        }
+        int first = minId + (idx - minId) / nodesPerHost * nodesPerHost;
+        if (first == idx) {
+            return delegate.resolve(id);
+        }
+        String prefix = id.value().trim().startsWith("node-") ? "node-" : "";
+        return delegate.resolve(new NodeId(prefix + first));
+    }
+
+    @Override
+    public long version() {
+        return delegate.version();
+    }
+
+    @Override
+    public String toString() {
+        return "ColocatedTransportConfig{delegate=" + delegate + ", minId=" + minId
+                + ", nodesPerHost=" + nodesPerHost + "}";
+    }
+}
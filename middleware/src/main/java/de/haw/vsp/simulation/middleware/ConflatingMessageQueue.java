@@ -0,0 +1,159 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded queue for {@link QueueOverflowPolicy#CONFLATE}.
+ *
+ * An offered element whose key is already queued replaces the queued element in place
+ * (it keeps the older element's position, so keys are still served in arrival order).
+ * Only distinct keys count against the capacity; when it is exhausted, new keys are rejected
+ * like {@link QueueOverflowPolicy#DROP_NEWEST} (or wait, with the timed offer).
+ */
+public final class ConflatingMessageQueue<T> implements MessageQueue<T> {
+
+    private final int capacity;
+    private final Function<? super T, ?> keyFunction;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final ArrayDeque<Object> keys = new ArrayDeque<>();
+    private final HashMap<Object, T> latest = new HashMap<>();
+    private long conflated;
+
+    public ConflatingMessageQueue(int capacity, Function<? super T, ?> keyFunction) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0, but was: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keyFunction = Objects.requireNonNull(keyFunction, "keyFunction");
+    }
+
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item, "item");
+        Object key = Objects.requireNonNull(keyFunction.apply(item), "conflation key");
+        lock.lock();
+        try {
+            return replace(key, item) || insert(key, item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(item, "item");
+        Object key = Objects.requireNonNull(keyFunction.apply(item), "conflation key");
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (replace(key, item) || insert(key, item)) return true;
+                if (nanos <= 0L) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean replace(Object key, T item) {
+        if (!latest.containsKey(key)) return false;
+        latest.put(key, item);
+        conflated++;
+        return true;
+    }
+
+    private boolean insert(Object key, T item) {
+        if (keys.size() >= capacity) return false;
+        keys.addLast(key);
+        latest.put(key, item);
+        notEmpty.signal();
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        lock.lock();
+        try {
+            return removeHead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (keys.isEmpty()) notEmpty.await();
+            return removeHead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> sink, int maxElements) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < maxElements && !keys.isEmpty()) {
+                sink.add(removeHead());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private T removeHead() {
+        Object key = keys.pollFirst();
+        if (key == null) return null;
+        notFull.signal();
+        return latest.remove(key);
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return keys.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return number of queued elements that were replaced by a newer one */
+    public long conflatedCount() {
+        lock.lock();
+        try {
+            return conflated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            keys.clear();
+            latest.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
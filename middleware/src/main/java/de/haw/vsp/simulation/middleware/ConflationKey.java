@@ -0,0 +1,36 @@
+package de.haw.vsp.simulation.middleware;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+
+/**
+ * Decides which queued messages supersede each other under {@link QueueOverflowPolicy#CONFLATE}.
+ *
+ * Keys are always scoped to the receiver, so a shared outbound queue never conflates
+ * messages addressed to different nodes (e.g. the copies of one broadcast).
+ */
+public enum ConflationKey {
+
+    /** A newer message of the same type from the same sender replaces the queued one (default). */
+    SENDER_AND_TYPE {
+        @Override
+        public Object keyOf(SimulationMessage m) {
+            return new SenderTypeKey(m.receiver(), m.sender(), m.messageType());
+        }
+    },
+
+    /** Any newer message from the same sender replaces the queued one. */
+    SENDER {
+        @Override
+        public Object keyOf(SimulationMessage m) {
+            return new SenderKey(m.receiver(), m.sender());
+        }
+    };
+
+    /** @return non-null key; equal keys conflate */
+    public abstract Object keyOf(SimulationMessage message);
+
+    private record SenderTypeKey(NodeId receiver, NodeId sender, String messageType) {}
+
+    private record SenderKey(NodeId receiver, NodeId sender) {}
+}
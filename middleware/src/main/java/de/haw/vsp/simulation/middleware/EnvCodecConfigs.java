@@ -0,0 +1,77 @@
+package de.haw.vsp.simulation.middleware;
+
+import de.haw.vsp.simulation.middleware.codec.CompressionConfig;
+import de.haw.vsp.simulation.middleware.codec.WireCodec;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads the wire format and its compression for the network transports from environment variables.
+ */
+public final class EnvCodecConfigs {
+
+    private EnvCodecConfigs() {}
+
+    /** Encoder: JSON (default) | BINARY; every node decodes both */
+    public static final String KEY_CODEC = "MW_CODEC";
+    /** Encoded messages of at least this many bytes are deflated (default 0 = off); every node inflates */
+    public static final String KEY_COMPRESS_THRESHOLD = "MW_COMPRESS_THRESHOLD";
+    /** Deflate level 0..9 (default 1, fastest) */
+    public static final String KEY_COMPRESS_LEVEL = "MW_COMPRESS_LEVEL";
+
+    public static WireCodec fromSystemEnvironment() {
+        return fromEnvironment(System.getenv());
+    }
+
+    public static WireCodec fromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        String v = trimToNull(env.get(KEY_CODEC));
+        if (v == null) return WireCodec.JSON;
+
+        try {
+            return WireCodec.valueOf(v.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid " + KEY_CODEC + ": '" + v + "'. Expected one of: JSON, BINARY"
+            );
+        }
+    }
+
+    public static CompressionConfig compressionFromSystemEnvironment() {
+        return compressionFromEnvironment(System.getenv());
+    }
+
+    public static CompressionConfig compressionFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        int threshold = parseNonNegativeInt(env.get(KEY_COMPRESS_THRESHOLD), 0, KEY_COMPRESS_THRESHOLD);
+        int level = parseNonNegativeInt(env.get(KEY_COMPRESS_LEVEL), CompressionConfig.DEFAULT_LEVEL,
+                KEY_COMPRESS_LEVEL);
+        if (level > 9) {
+            throw new IllegalArgumentException("Invalid " + KEY_COMPRESS_LEVEL + ": '" + level
+                    + "' (must be in range 0..9)");
+        }
+        return new CompressionConfig(threshold, level);
+    }
+
+    private static int parseNonNegativeInt(String raw, int def, String key) {
+        String v = trimToNull(raw);
+        if (v == null) return def;
+        try {
+            int n = Integer.parseInt(v);
+            if (n < 0) throw new NumberFormatException("must be >= 0");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": '" + v + "' (must be >= 0)");
+        }
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+}
@@ -12,6 +12,8 @@ public final class EnvQueueConfigs {
     public static final String KEY_IN_CAPACITY = "QUEUE_IN_CAPACITY";
     public static final String KEY_OVERFLOW_POLICY = "QUEUE_OVERFLOW_POLICY";
     public static final String KEY_BLOCK_TIMEOUT_MS = "QUEUE_BLOCK_TIMEOUT_MS";
+    public static final String KEY_IMPLEMENTATION = "QUEUE_IMPL";
+    public static final String KEY_CONFLATION_KEY = "QUEUE_CONFLATE_KEY";
 
     public record QueuePair(QueueConfig outbound, QueueConfig inbound) {
         public QueuePair {
@@ -37,9 +39,12 @@ public final class EnvQueueConfigs {
             blockTimeoutMs = parseNonNegativeLong(env.get(KEY_BLOCK_TIMEOUT_MS), 1000L, KEY_BLOCK_TIMEOUT_MS);
         }
 
+        QueueImplementation impl = parseImplementation(env.get(KEY_IMPLEMENTATION), QueueImplementation.LINKED);
+        ConflationKey key = parseConflationKey(env.get(KEY_CONFLATION_KEY), ConflationKey.SENDER_AND_TYPE);
+
         return new QueuePair(
-                new QueueConfig(outCap, policy, blockTimeoutMs),
-                new QueueConfig(inCap,  policy, blockTimeoutMs)
+                new QueueConfig(outCap, policy, blockTimeoutMs, impl, key),
+                new QueueConfig(inCap,  policy, blockTimeoutMs, impl, key)
         );
     }
 
@@ -53,7 +58,37 @@ public final class EnvQueueConfigs {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(
                     "Invalid " + KEY_OVERFLOW_POLICY + ": '" + v +
-                            "'. Expected one of: BLOCK, DROP_NEWEST, DROP_OLDEST"
+                            "'. Expected one of: BLOCK, DROP_NEWEST, DROP_OLDEST, CONFLATE"
+            );
+        }
+    }
+
+    private static QueueImplementation parseImplementation(String raw, QueueImplementation def) {
+        String v = trimToNull(raw);
+        if (v == null) return def;
+
+        String norm = v.trim().replace('-', '_').replace(' ', '_').toUpperCase(Locale.ROOT);
+        try {
+            return QueueImplementation.valueOf(norm);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid " + KEY_IMPLEMENTATION + ": '" + v +
+                            "'. Expected one of: LINKED, RING_BUFFER"
+            );
+        }
+    }
+
+    private static ConflationKey parseConflationKey(String raw, ConflationKey def) {
+        String v = trimToNull(raw);
+        if (v == null) return def;
+
+        String norm = v.trim().replace('-', '_').replace(' ', '_').toUpperCase(Locale.ROOT);
+        try {
+            return ConflationKey.valueOf(norm);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid " + KEY_CONFLATION_KEY + ": '" + v +
+                            "'. Expected one of: SENDER_AND_TYPE, SENDER"
             );
         }
     }
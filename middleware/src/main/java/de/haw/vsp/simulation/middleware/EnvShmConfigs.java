@@ -0,0 +1,72 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads optional {@code shm} transport settings from environment variables.
+ */
+public final class EnvShmConfigs {
+
+    private EnvShmConfigs() {}
+
+    /** Shared directory of the ring files (default /dev/shm/vsp-sim, or vsp-sim in the temp directory) */
+    public static final String KEY_DIR = "SHM_DIR";
+    /** Inbound ring size per node, power of two (default 4 MiB) */
+    public static final String KEY_RING_BYTES = "SHM_RING_BYTES";
+    /** Empty polls before an idle receiver parks (default 20000) */
+    public static final String KEY_SPIN_ITERATIONS = "SHM_SPIN_ITERATIONS";
+    /** Longest park of an idle receiver in microseconds (default 1000) */
+    public static final String KEY_MAX_PARK_US = "SHM_MAX_PARK_US";
+
+    public static ShmConfig fromSystemEnvironment() {
+        return fromEnvironment(System.getenv());
+    }
+
+    public static ShmConfig fromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        String dir = trimToNull(env.get(KEY_DIR));
+        Path directory;
+        try {
+            directory = dir == null ? ShmConfig.defaultDirectory() : Path.of(dir);
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid " + KEY_DIR + ": '" + dir + "' (" + e.getMessage() + ")");
+        }
+        int ringBytes = parseNonNegativeInt(env.get(KEY_RING_BYTES), ShmConfig.DEFAULT_RING_BYTES, KEY_RING_BYTES);
+        if (ringBytes < ShmConfig.MIN_RING_BYTES || ringBytes > ShmConfig.MAX_RING_BYTES
+                || Integer.bitCount(ringBytes) != 1) {
+            throw new IllegalArgumentException("Invalid " + KEY_RING_BYTES + ": '" + ringBytes
+                    + "' (must be a power of two in range " + ShmConfig.MIN_RING_BYTES + ".."
+                    + ShmConfig.MAX_RING_BYTES + ")");
+        }
+        int spins = parseNonNegativeInt(env.get(KEY_SPIN_ITERATIONS),
+                ShmConfig.DEFAULT_SPIN_ITERATIONS, KEY_SPIN_ITERATIONS);
+        int maxParkMicros = parseNonNegativeInt(env.get(KEY_MAX_PARK_US),
+                (int) ShmConfig.DEFAULT_MAX_PARK_MICROS, KEY_MAX_PARK_US);
+        if (maxParkMicros == 0) {
+            throw new IllegalArgumentException("Invalid " + KEY_MAX_PARK_US + ": '0' (must be > 0)");
+        }
+        return new ShmConfig(directory, ringBytes, spins, maxParkMicros);
+    }
+
+    private static int parseNonNegativeInt(String raw, int def, String key) {
+        String v = trimToNull(raw);
+        if (v == null) return def;
+        try {
+            int n = Integer.parseInt(v);
+            if (n < 0) throw new NumberFormatException("must be >= 0");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": '" + v + "' (must be >= 0)");
+        }
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+}
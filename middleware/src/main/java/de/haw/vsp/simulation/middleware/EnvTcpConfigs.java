@@ -0,0 +1,65 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads optional {@code tcp-docker} transport settings from environment variables.
+ * Addresses come from the same keys as {@code udp-docker} ({@link EnvTransportConfigs}).
+ */
+public final class EnvTcpConfigs {
+
+    private EnvTcpConfigs() {}
+
+    /** Largest encoded message (default 16 MiB) */
+    public static final String KEY_MAX_FRAME_BYTES = "TCP_MAX_FRAME_BYTES";
+    /** First reconnect delay (default 50) */
+    public static final String KEY_CONNECT_BACKOFF_MIN_MS = "TCP_CONNECT_BACKOFF_MIN_MS";
+    /** Largest reconnect delay (default 5000) */
+    public static final String KEY_CONNECT_BACKOFF_MAX_MS = "TCP_CONNECT_BACKOFF_MAX_MS";
+
+    public static TcpConfig fromSystemEnvironment() {
+        return fromEnvironment(System.getenv());
+    }
+
+    public static TcpConfig fromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        int maxFrameBytes = parseNonNegativeInt(env.get(KEY_MAX_FRAME_BYTES),
+                TcpConfig.DEFAULT_MAX_FRAME_BYTES, KEY_MAX_FRAME_BYTES);
+        if (maxFrameBytes < TcpConfig.MIN_MAX_FRAME_BYTES || maxFrameBytes > TcpConfig.MAX_MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("Invalid " + KEY_MAX_FRAME_BYTES + ": '" + maxFrameBytes
+                    + "' (must be in range " + TcpConfig.MIN_MAX_FRAME_BYTES + ".." + TcpConfig.MAX_MAX_FRAME_BYTES + ")");
+        }
+        int minMs = parseNonNegativeInt(env.get(KEY_CONNECT_BACKOFF_MIN_MS),
+                (int) TcpConfig.DEFAULT_CONNECT_BACKOFF_MIN_MILLIS, KEY_CONNECT_BACKOFF_MIN_MS);
+        if (minMs == 0) {
+            throw new IllegalArgumentException("Invalid " + KEY_CONNECT_BACKOFF_MIN_MS + ": '0' (must be > 0)");
+        }
+        int maxMs = parseNonNegativeInt(env.get(KEY_CONNECT_BACKOFF_MAX_MS),
+                (int) Math.max(TcpConfig.DEFAULT_CONNECT_BACKOFF_MAX_MILLIS, minMs), KEY_CONNECT_BACKOFF_MAX_MS);
+        if (maxMs < minMs) {
+            throw new IllegalArgumentException("Invalid " + KEY_CONNECT_BACKOFF_MAX_MS + ": '" + maxMs
+                    + "' (must be >= " + KEY_CONNECT_BACKOFF_MIN_MS + ")");
+        }
+        return new TcpConfig(maxFrameBytes, minMs, maxMs);
+    }
+
+    private static int parseNonNegativeInt(String raw, int def, String key) {
+        String v = trimToNull(raw);
+        if (v == null) return def;
+        try {
+            int n = Integer.parseInt(v);
+            if (n < 0) throw new NumberFormatException("must be >= 0");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": '" + v + "' (must be >= 0)");
+        }
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+}
@@ -20,9 +20,12 @@ import java.util.Objects;
  *    - UDP_PORT (optional, falls back to PORT, default 9000)
  *    - NODE_COUNT (optional)
  *    - MIN_ID (optional, default 0)
+ *    - NODES_PER_HOST (optional, default 1)
  *
  * If NODE_COUNT is provided, a {@link BoundedTransportConfig} is returned (only ids in range allowed).
  * Otherwise, returns an unbounded {@link PatternTransportConfig}.
+ * With NODES_PER_HOST > 1 the pattern is wrapped in a {@link ColocatedTransportConfig}, so blocks of
+ * that many nodes share the address of the block's first node (one process hosts the whole block).
  */
 public final class EnvTransportConfigs {
 
@@ -78,8 +81,17 @@ public final class EnvTransportConfigs {
      * @param hostPatternOrTemplate either a prefix (e.g. "node") or a template containing "{ID}" (e.g. "{ID}")
      */
     public static TransportConfig patternBounded(String hostPatternOrTemplate, int port, int minId, int nodeCount) {
+        return patternBounded(hostPatternOrTemplate, port, minId, nodeCount, 1);
+    }
+
+    /**
+     * Pattern + bounded range where blocks of {@code nodesPerHost} nodes share one host
+     * (see {@link ColocatedTransportConfig}).
+     */
+    public static TransportConfig patternBounded(
+            String hostPatternOrTemplate, int port, int minId, int nodeCount, int nodesPerHost) {
         Objects.requireNonNull(hostPatternOrTemplate, "hostPatternOrTemplate");
-        PatternTransportConfig pattern = buildPatternConfig(hostPatternOrTemplate, port);
+        TransportConfig pattern = colocated(buildPatternConfig(hostPatternOrTemplate, port), minId, nodesPerHost);
         NodeRange range = NodeRange.fromCount(minId, nodeCount);
         return new BoundedTransportConfig(pattern, range);
     }
@@ -98,6 +110,7 @@ public final class EnvTransportConfigs {
      * - UDP_PORT (optional; falls back to PORT; default 9000)
      * - NODE_COUNT (optional; if set returns bounded config)
      * - MIN_ID (optional; default 0)
+     * - NODES_PER_HOST (optional; default 1; ignored with PEERS, which lists every address explicitly)
      */
     public static TransportConfig fromEnvironment(Map<String, String> env) {
         Objects.requireNonNull(env, "env");
@@ -123,10 +136,16 @@ public final class EnvTransportConfigs {
         // Prefer UDP_PORT; fallback to PORT; default 9000
         int port = firstInt(env, 9000, "UDP_PORT", "PORT");
 
+        int minId = parseInt(env.get("MIN_ID"), 0, "MIN_ID");
+        int nodesPerHost = parseInt(env.get("NODES_PER_HOST"), 1, "NODES_PER_HOST");
+        if (nodesPerHost <= 0) {
+            throw new IllegalArgumentException("NODES_PER_HOST must be > 0");
+        }
+
         // Optional bounded range
         String countRaw = trimToNull(env.get("NODE_COUNT"));
         if (countRaw == null) {
-            return buildPatternConfig(hostPatternOrTemplate, port);
+            return colocated(buildPatternConfig(hostPatternOrTemplate, port), minId, nodesPerHost);
         }
 
         int nodeCount = parseInt(countRaw, -1, "NODE_COUNT");
@@ -134,8 +153,11 @@ public final class EnvTransportConfigs {
             throw new IllegalArgumentException("NODE_COUNT must be > 0");
         }
 
-        int minId = parseInt(env.get("MIN_ID"), 0, "MIN_ID");
-        return patternBounded(hostPatternOrTemplate, port, minId, nodeCount);
+        return patternBounded(hostPatternOrTemplate, port, minId, nodeCount, nodesPerHost);
+    }
+
+    private static TransportConfig colocated(PatternTransportConfig pattern, int minId, int nodesPerHost) {
+        return nodesPerHost == 1 ? pattern : new ColocatedTransportConfig(pattern, minId, nodesPerHost);
     }
 
     private static PatternTransportConfig buildPatternConfig(String hostPatternOrTemplate, int port) {
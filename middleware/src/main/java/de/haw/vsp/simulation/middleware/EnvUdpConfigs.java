@@ -0,0 +1,208 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads optional {@code udp-docker} transport settings from environment variables.
+ */
+public final class EnvUdpConfigs {
+
+    private EnvUdpConfigs() {}
+
+    /** SOCKET (default) | NIO */
+    public static final String KEY_IMPLEMENTATION = "UDP_IMPL";
+    /** Max bytes of a packed datagram, e.g. 1400; 0 disables packing (default 0) */
+    public static final String KEY_PACK_MAX_BYTES = "UDP_PACK_MAX_BYTES";
+    /** Max time a partial pack is held back (default 0) */
+    public static final String KEY_PACK_LINGER_MS = "UDP_PACK_LINGER_MS";
+    /** SO_REUSEPORT receive sockets of the SOCKET implementation (default 1) */
+    public static final String KEY_RECV_SOCKETS = "UDP_RECV_SOCKETS";
+    /** Decoder threads of the SOCKET implementation, 0 decodes on the receive threads (default 0) */
+    public static final String KEY_DECODE_THREADS = "UDP_DECODE_THREADS";
+    /** true | false (default): ACKs and retransmissions in the SOCKET implementation */
+    public static final String KEY_RELIABLE = "UDP_RELIABLE";
+    /** Max unacknowledged messages per peer with reliable delivery (default 256) */
+    public static final String KEY_RELIABLE_WINDOW = "UDP_RELIABLE_WINDOW";
+    /** Largest message sent in fragments by the SOCKET implementation, e.g. 1048576; 0 disables fragmentation (default 0) */
+    public static final String KEY_FRAG_MAX_MESSAGE_BYTES = "UDP_FRAG_MAX_MESSAGE_BYTES";
+    /** Bound on reassembly buffers of partially received messages (default 16 MiB) */
+    public static final String KEY_FRAG_BUFFER_BYTES = "UDP_FRAG_BUFFER_BYTES";
+    /** Incomplete messages are dropped after this time (default 5000) */
+    public static final String KEY_FRAG_TIMEOUT_MS = "UDP_FRAG_TIMEOUT_MS";
+    /** true | false (default): broadcasts to a node's neighbors as one IP multicast datagram (SOCKET implementation) */
+    public static final String KEY_MULTICAST = "UDP_MULTICAST";
+    /** UDP port of the multicast groups (default 9100) */
+    public static final String KEY_MULTICAST_PORT = "UDP_MULTICAST_PORT";
+    /** Number of neighborhood groups (default 256) */
+    public static final String KEY_MULTICAST_GROUPS = "UDP_MULTICAST_GROUPS";
+    /** Interface to send and join on, e.g. eth0 (default: OS default) */
+    public static final String KEY_MULTICAST_IF = "UDP_MULTICAST_IF";
+
+    public static UdpImplementation implementationFromSystemEnvironment() {
+        return implementationFromEnvironment(System.getenv());
+    }
+
+    public static UdpImplementation implementationFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        String v = trimToNull(env.get(KEY_IMPLEMENTATION));
+        if (v == null) return UdpImplementation.SOCKET;
+
+        String norm = v.replace('-', '_').replace(' ', '_').toUpperCase(Locale.ROOT);
+        try {
+            return UdpImplementation.valueOf(norm);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid " + KEY_IMPLEMENTATION + ": '" + v + "'. Expected one of: SOCKET, NIO"
+            );
+        }
+    }
+
+    public static UdpPackingConfig packingFromSystemEnvironment() {
+        return packingFromEnvironment(System.getenv());
+    }
+
+    public static UdpPackingConfig packingFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        int maxBytes = parseNonNegativeInt(env.get(KEY_PACK_MAX_BYTES), 0, KEY_PACK_MAX_BYTES);
+        long lingerMs = parseNonNegativeInt(env.get(KEY_PACK_LINGER_MS), 0, KEY_PACK_LINGER_MS);
+        try {
+            return new UdpPackingConfig(maxBytes, lingerMs);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + KEY_PACK_MAX_BYTES + ": '" + maxBytes + "' ("
+                    + e.getMessage() + ")");
+        }
+    }
+
+    public static UdpReceiveConfig receiveFromSystemEnvironment() {
+        return receiveFromEnvironment(System.getenv());
+    }
+
+    public static UdpReceiveConfig receiveFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        int sockets = parseNonNegativeInt(env.get(KEY_RECV_SOCKETS), 1, KEY_RECV_SOCKETS);
+        if (sockets < 1 || sockets > UdpReceiveConfig.MAX_SOCKETS) {
+            throw new IllegalArgumentException("Invalid " + KEY_RECV_SOCKETS + ": '" + sockets
+                    + "' (must be in range 1.." + UdpReceiveConfig.MAX_SOCKETS + ")");
+        }
+        int decoderThreads = parseNonNegativeInt(env.get(KEY_DECODE_THREADS), 0, KEY_DECODE_THREADS);
+        if (decoderThreads > UdpReceiveConfig.MAX_DECODER_THREADS) {
+            throw new IllegalArgumentException("Invalid " + KEY_DECODE_THREADS + ": '" + decoderThreads
+                    + "' (must be in range 0.." + UdpReceiveConfig.MAX_DECODER_THREADS + ")");
+        }
+        return new UdpReceiveConfig(sockets, decoderThreads);
+    }
+
+    public static UdpReliabilityConfig reliabilityFromSystemEnvironment() {
+        return reliabilityFromEnvironment(System.getenv());
+    }
+
+    public static UdpReliabilityConfig reliabilityFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        String v = trimToNull(env.get(KEY_RELIABLE));
+        boolean enabled;
+        if (v == null || v.equalsIgnoreCase("false")) {
+            enabled = false;
+        } else if (v.equalsIgnoreCase("true")) {
+            enabled = true;
+        } else {
+            throw new IllegalArgumentException("Invalid " + KEY_RELIABLE + ": '" + v + "'. Expected one of: true, false");
+        }
+        if (!enabled) return UdpReliabilityConfig.DISABLED;
+        if (parseNonNegativeInt(env.get(KEY_DECODE_THREADS), 0, KEY_DECODE_THREADS) > 0) {
+            throw new IllegalArgumentException("Invalid " + KEY_RELIABLE + ": '" + v + "' (cannot be combined with "
+                    + KEY_DECODE_THREADS + " > 0)");
+        }
+
+        int window = parseNonNegativeInt(env.get(KEY_RELIABLE_WINDOW),
+                UdpReliabilityConfig.DEFAULT_WINDOW, KEY_RELIABLE_WINDOW);
+        if (window < 1 || window > UdpReliabilityConfig.MAX_WINDOW) {
+            throw new IllegalArgumentException("Invalid " + KEY_RELIABLE_WINDOW + ": '" + window
+                    + "' (must be in range 1.." + UdpReliabilityConfig.MAX_WINDOW + ")");
+        }
+        return UdpReliabilityConfig.withWindow(window);
+    }
+
+    public static UdpFragmentConfig fragmentFromSystemEnvironment() {
+        return fragmentFromEnvironment(System.getenv());
+    }
+
+    public static UdpFragmentConfig fragmentFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        int maxMessageBytes = parseNonNegativeInt(env.get(KEY_FRAG_MAX_MESSAGE_BYTES), 0, KEY_FRAG_MAX_MESSAGE_BYTES);
+        if (maxMessageBytes != 0 && (maxMessageBytes < UdpFragmentConfig.MIN_MAX_MESSAGE_BYTES
+                || maxMessageBytes > UdpFragmentConfig.MAX_MAX_MESSAGE_BYTES)) {
+            throw new IllegalArgumentException("Invalid " + KEY_FRAG_MAX_MESSAGE_BYTES + ": '" + maxMessageBytes
+                    + "' (must be 0 or in range " + UdpFragmentConfig.MIN_MAX_MESSAGE_BYTES + ".."
+                    + UdpFragmentConfig.MAX_MAX_MESSAGE_BYTES + ")");
+        }
+        int bufferBytes = parseNonNegativeInt(env.get(KEY_FRAG_BUFFER_BYTES),
+                (int) UdpFragmentConfig.DEFAULT_MAX_REASSEMBLY_BYTES, KEY_FRAG_BUFFER_BYTES);
+        if (bufferBytes < maxMessageBytes) {
+            throw new IllegalArgumentException("Invalid " + KEY_FRAG_BUFFER_BYTES + ": '" + bufferBytes
+                    + "' (must be >= " + KEY_FRAG_MAX_MESSAGE_BYTES + ")");
+        }
+        int timeoutMs = parseNonNegativeInt(env.get(KEY_FRAG_TIMEOUT_MS),
+                (int) UdpFragmentConfig.DEFAULT_REASSEMBLY_TIMEOUT_MILLIS, KEY_FRAG_TIMEOUT_MS);
+        if (timeoutMs == 0) {
+            throw new IllegalArgumentException("Invalid " + KEY_FRAG_TIMEOUT_MS + ": '0' (must be > 0)");
+        }
+        return new UdpFragmentConfig(maxMessageBytes, UdpFragmentConfig.DEFAULT_FRAGMENT_BYTES, bufferBytes, timeoutMs);
+    }
+
+    public static UdpMulticastConfig multicastFromSystemEnvironment() {
+        return multicastFromEnvironment(System.getenv());
+    }
+
+    public static UdpMulticastConfig multicastFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        String v = trimToNull(env.get(KEY_MULTICAST));
+        boolean enabled;
+        if (v == null || v.equalsIgnoreCase("false")) {
+            enabled = false;
+        } else if (v.equalsIgnoreCase("true")) {
+            enabled = true;
+        } else {
+            throw new IllegalArgumentException("Invalid " + KEY_MULTICAST + ": '" + v + "'. Expected one of: true, false");
+        }
+        if (!enabled) return UdpMulticastConfig.DISABLED;
+
+        int port = parseNonNegativeInt(env.get(KEY_MULTICAST_PORT), UdpMulticastConfig.DEFAULT_PORT, KEY_MULTICAST_PORT);
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("Invalid " + KEY_MULTICAST_PORT + ": '" + port
+                    + "' (must be in range 1..65535)");
+        }
+        int groups = parseNonNegativeInt(env.get(KEY_MULTICAST_GROUPS),
+                UdpMulticastConfig.DEFAULT_GROUPS, KEY_MULTICAST_GROUPS);
+        if (groups < 1 || groups > UdpMulticastConfig.MAX_GROUPS) {
+            throw new IllegalArgumentException("Invalid " + KEY_MULTICAST_GROUPS + ": '" + groups
+                    + "' (must be in range 1.." + UdpMulticastConfig.MAX_GROUPS + ")");
+        }
+        return new UdpMulticastConfig(port, groups, trimToNull(env.get(KEY_MULTICAST_IF)));
+    }
+
+    private static int parseNonNegativeInt(String raw, int def, String key) {
+        String v = trimToNull(raw);
+        if (v == null) return def;
+        try {
+            int n = Integer.parseInt(v);
+            if (n < 0) throw new NumberFormatException("must be >= 0");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": '" + v + "' (must be >= 0)");
+        }
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+}
@@ -0,0 +1,145 @@
+package de.haw.vsp.simulation.middleware;
+
+import de.haw.vsp.simulation.middleware.virtual.LatencyDistribution;
+import de.haw.vsp.simulation.middleware.virtual.LinkModel;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Environment keys for the virtual (in-JVM) transport.
+ */
+public final class EnvVirtualConfigs {
+
+    private EnvVirtualConfigs() {}
+
+    public static final String KEY_CODEC_BOUNDARY = "VIRTUAL_CODEC_BOUNDARY";
+    public static final String KEY_ROUTER_SHARDS = "VIRTUAL_ROUTER_SHARDS";
+    public static final String KEY_DRAIN_BATCH = "VIRTUAL_DRAIN_BATCH";
+
+    /** constant:MS | uniform:MIN:MAX | normal:MEAN:STDDEV | pareto:SCALE:SHAPE (milliseconds) */
+    public static final String KEY_LINK_LATENCY = "VIRTUAL_LINK_LATENCY";
+    public static final String KEY_LINK_LOSS = "VIRTUAL_LINK_LOSS";
+    public static final String KEY_LINK_BANDWIDTH = "VIRTUAL_LINK_BANDWIDTH_BPS";
+
+    public static VirtualTransportConfig fromSystemEnvironment() {
+        return fromEnvironment(System.getenv());
+    }
+
+    public static VirtualTransportConfig fromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        int shards = parsePositiveInt(env.get(KEY_ROUTER_SHARDS),
+                VirtualTransportConfig.defaultRouterShards(), KEY_ROUTER_SHARDS);
+
+        int drainBatch = parsePositiveInt(env.get(KEY_DRAIN_BATCH),
+                VirtualTransportConfig.DEFAULT_MAX_DRAIN_BATCH, KEY_DRAIN_BATCH);
+
+        return new VirtualTransportConfig(shards, codecBoundaryFromEnvironment(env), drainBatch);
+    }
+
+    public static VirtualCodecBoundary codecBoundaryFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        String v = trimToNull(env.get(KEY_CODEC_BOUNDARY));
+        if (v == null) return VirtualCodecBoundary.FULL;
+
+        String norm = v.replace('-', '_').replace(' ', '_').toUpperCase(Locale.ROOT);
+        try {
+            return VirtualCodecBoundary.valueOf(norm);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid " + KEY_CODEC_BOUNDARY + ": '" + v +
+                            "'. Expected one of: " + Arrays.toString(VirtualCodecBoundary.values())
+            );
+        }
+    }
+
+    public static LinkModel linkModelFromSystemEnvironment() {
+        return linkModelFromEnvironment(System.getenv());
+    }
+
+    /**
+     * Default per-link model from {@value #KEY_LINK_LATENCY}, {@value #KEY_LINK_LOSS} and
+     * {@value #KEY_LINK_BANDWIDTH}.
+     *
+     * @return null if none of the keys is set (no per-link model)
+     */
+    public static LinkModel linkModelFromEnvironment(Map<String, String> env) {
+        Objects.requireNonNull(env, "env");
+
+        String latency = trimToNull(env.get(KEY_LINK_LATENCY));
+        String loss = trimToNull(env.get(KEY_LINK_LOSS));
+        String bandwidth = trimToNull(env.get(KEY_LINK_BANDWIDTH));
+        if (latency == null && loss == null && bandwidth == null) return null;
+
+        LatencyDistribution dist = latency == null ? LatencyDistribution.constant(0.0) : parseLatency(latency);
+
+        double lossProbability = 0.0;
+        if (loss != null) {
+            try {
+                lossProbability = Double.parseDouble(loss);
+            } catch (NumberFormatException e) {
+                lossProbability = Double.NaN;
+            }
+            if (!(lossProbability >= 0.0 && lossProbability <= 1.0)) {
+                throw new IllegalArgumentException("Invalid " + KEY_LINK_LOSS + ": '" + loss + "' (must be in [0,1])");
+            }
+        }
+
+        long bps = 0L;
+        if (bandwidth != null) {
+            try {
+                bps = Long.parseLong(bandwidth);
+                if (bps < 0) throw new NumberFormatException("must be >= 0");
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + KEY_LINK_BANDWIDTH + ": '" + bandwidth + "' (must be >= 0)");
+            }
+        }
+
+        return new LinkModel(dist, lossProbability, bps);
+    }
+
+    private static LatencyDistribution parseLatency(String v) {
+        String[] parts = v.split(":");
+        String kind = parts[0].trim().toLowerCase(Locale.ROOT);
+        try {
+            double[] args = new double[parts.length - 1];
+            for (int i = 1; i < parts.length; i++) args[i - 1] = Double.parseDouble(parts[i].trim());
+
+            if (kind.equals("constant") && args.length == 1) return LatencyDistribution.constant(args[0]);
+            if (kind.equals("uniform") && args.length == 2) return LatencyDistribution.uniform(args[0], args[1]);
+            if (kind.equals("normal") && args.length == 2) return LatencyDistribution.normal(args[0], args[1]);
+            if (kind.equals("pareto") && args.length == 2) return LatencyDistribution.pareto(args[0], args[1]);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException or an invalid distribution parameter
+            throw new IllegalArgumentException("Invalid " + KEY_LINK_LATENCY + ": '" + v + "' (" + e.getMessage() + ")");
+        }
+        throw new IllegalArgumentException(
+                "Invalid " + KEY_LINK_LATENCY + ": '" + v +
+                        "'. Expected constant:MS, uniform:MIN:MAX, normal:MEAN:STDDEV or pareto:SCALE:SHAPE"
+        );
+    }
+
+    private static int parsePositiveInt(String raw, int def, String key) {
+        String v = trimToNull(raw);
+        if (v == null) return def;
+        try {
+            int n = Integer.parseInt(v);
+            if (n <= 0) throw new NumberFormatException("must be > 0");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": '" + v + "' (must be > 0)");
+        }
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+}
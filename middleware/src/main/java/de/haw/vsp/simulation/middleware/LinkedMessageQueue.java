@@ -0,0 +1,57 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MessageQueue} backed by a {@link LinkedBlockingDeque} ({@link QueueImplementation#LINKED}).
+ */
+public final class LinkedMessageQueue<T> implements MessageQueue<T> {
+
+    private final LinkedBlockingDeque<T> deque;
+
+    public LinkedMessageQueue(int capacity) {
+        this.deque = new LinkedBlockingDeque<>(capacity);
+    }
+
+    @Override
+    public boolean offer(T item) {
+        return deque.offerLast(item);
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        return deque.offerLast(item, timeout, unit);
+    }
+
+    @Override
+    public T poll() {
+        return deque.pollFirst();
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        return deque.takeFirst();
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> sink, int maxElements) {
+        return deque.drainTo(sink, maxElements); // one lock acquisition for the whole batch
+    }
+
+    @Override
+    public int size() {
+        return deque.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return deque.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        deque.clear();
+    }
+}
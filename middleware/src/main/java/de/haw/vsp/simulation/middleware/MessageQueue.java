@@ -0,0 +1,53 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal bounded FIFO queue used by transport adapters.
+ *
+ * Producers use the offer methods (usually through {@link QueueOps#enqueue}),
+ * the adapter's consumer thread uses {@link #poll()} / {@link #take()}.
+ * Create instances with {@link QueueOps#newQueue(QueueConfig)} or {@link QueueOps#newMessageQueue(QueueConfig)}.
+ *
+ * @param <T> element type (null elements are not permitted)
+ */
+public interface MessageQueue<T> {
+
+    /** Inserts at the tail if space is available. */
+    boolean offer(T item);
+
+    /** Inserts at the tail, waiting up to the timeout for space. */
+    boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /** Removes the head, or returns null if the queue is empty. */
+    T poll();
+
+    /** Removes the head, waiting until an element becomes available. */
+    T take() throws InterruptedException;
+
+    /**
+     * Moves up to {@code maxElements} elements from the head into {@code sink}.
+     *
+     * @return number of elements transferred
+     */
+    default int drainTo(Collection<? super T> sink, int maxElements) {
+        int n = 0;
+        while (n < maxElements) {
+            T item = poll();
+            if (item == null) break;
+            sink.add(item);
+            n++;
+        }
+        return n;
+    }
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Removes all elements. */
+    void clear();
+}
@@ -1,6 +1,7 @@
 package de.haw.vsp.simulation.middleware;
 import de.haw.vsp.simulation.core.NodeId;
 import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.codec.CompressionStats;
 
 import java.util.Set;
 
@@ -40,10 +41,51 @@ public interface MessagingPort {
      */
     void registerHandler(NodeId nodeId, MessageHandler handler);
 
+    /**
+     * Tells the transport the topology neighbors of a local node. Transports that broadcast by multicast
+     * join the neighbors' groups and only accept broadcasts from neighbors.
+     *
+     * <p>Default: no-op.</p>
+     *
+     * @param nodeId    local node id (must not be null)
+     * @param neighbors its neighbors (must not be null)
+     */
+    default void setNeighbors(NodeId nodeId, Set<NodeId> neighbors) {
+    }
+
     /**
      * Unregister the handler (if any) for the given node id.
      *
      * @param nodeId node id to unregister for (must not be null)
      */
     void unregisterHandler(NodeId nodeId);
+
+    /**
+     * Credit check before sending: false means the path to {@code receiver} is congested and a send
+     * would likely be dropped. Registered {@link WritabilityListener}s are told when it clears.
+     *
+     * <p>Default: always writable (implementations without backpressure).</p>
+     *
+     * @param receiver receiver node id (must not be null)
+     */
+    default boolean isWritable(NodeId receiver) {
+        return true;
+    }
+
+    /** Adds a listener for receivers becoming writable again. Default: no-op. */
+    default void addWritabilityListener(WritabilityListener listener) {
+    }
+
+    /** Removes a listener added with {@link #addWritabilityListener}. Default: no-op. */
+    default void removeWritabilityListener(WritabilityListener listener) {
+    }
+
+    /**
+     * Compression counters of the transport's codec (MW_COMPRESS_*).
+     *
+     * <p>Default: null (transport without a compressing codec).</p>
+     */
+    default CompressionStats compressionStats() {
+        return null;
+    }
 }
@@ -6,44 +6,60 @@ import de.haw.vsp.simulation.core.SimulationEvent;
 import de.haw.vsp.simulation.core.SimulationEventPublisher;
 import de.haw.vsp.simulation.core.SimulationMessage;
 import de.haw.vsp.simulation.middleware.adapter.TransportAdapter;
+import de.haw.vsp.simulation.middleware.codec.CodecRegistry;
+import de.haw.vsp.simulation.middleware.codec.CompressionStats;
+import de.haw.vsp.simulation.middleware.virtual.VirtualNetworkModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * MessagingPort implementation delegating transport to a TransportAdapter.
  *
- * - udp-docker: enforceLocalSender = true (sender must equal adapter.localNode)
+ * - udp-docker: enforceLocalSender = true (sender must be hosted by the adapter)
  * - virtual:    enforceLocalSender = false (single shared port for many nodes)
+ *
+ * Given the adapter's {@link CodecRegistry}, it exposes the compression counters and logs them on close.
  */
-public final class MessagingPortImpl implements MessagingPort, Closeable, EventPublisherAware {
+public final class MessagingPortImpl implements MessagingPort, Closeable, EventPublisherAware, NetworkModelAware {
 
     private static final Logger LOG = LoggerFactory.getLogger(MessagingPortImpl.class);
 
     private final TransportAdapter adapter;
     private final boolean enforceLocalSender;
+    private final CodecRegistry codec; // null if the adapter does not use a registry
 
     private volatile SimulationEventPublisher eventPublisher; // may be null
     private final ConcurrentMap<NodeId, MessageHandler> handlers = new ConcurrentHashMap<>();
+    private final List<WritabilityListener> writabilityListeners = new CopyOnWriteArrayList<>();
 
     public MessagingPortImpl(TransportAdapter adapter, SimulationEventPublisher eventPublisher) {
         this(adapter, eventPublisher, true);
     }
 
     public MessagingPortImpl(TransportAdapter adapter, SimulationEventPublisher eventPublisher, boolean enforceLocalSender) {
+        this(adapter, eventPublisher, enforceLocalSender, null);
+    }
+
+    public MessagingPortImpl(TransportAdapter adapter, SimulationEventPublisher eventPublisher, boolean enforceLocalSender,
+                             CodecRegistry codec) {
         this.adapter = Objects.requireNonNull(adapter, "adapter");
         this.eventPublisher = eventPublisher;
         this.enforceLocalSender = enforceLocalSender;
+        this.codec = codec;
 
-        adapter.onReceive(this::handleIncoming);
+        adapter.onReceiveBatch(this::handleIncomingBatch);
 
         // forward transport-level errors to SimulationEvents.ERROR
         adapter.onError((nodeId, peer, msg) -> publish(EventType.ERROR, nodeId, peer, msg));
+        adapter.onWritable(this::fireWritable);
     }
 
     @Override
@@ -51,6 +67,19 @@ public final class MessagingPortImpl implements MessagingPort, Closeable, EventP
         this.eventPublisher = publisher;
     }
 
+    /** Forwarded to the adapter if it supports a network model; ignored otherwise (e.g. UDP). */
+    @Override
+    public void setNetworkModel(VirtualNetworkModel model) {
+        if (adapter instanceof NetworkModelAware aware) {
+            aware.setNetworkModel(model);
+        }
+    }
+
+    /** @return the adapter's clock control if it runs in simulated time, otherwise null */
+    public VirtualTimeControl virtualTimeControl() {
+        return adapter instanceof VirtualTimeControl control ? control : null;
+    }
+
     @Override
     public void send(NodeId receiver, SimulationMessage message) {
         Objects.requireNonNull(receiver, "receiver");
@@ -62,8 +91,8 @@ public final class MessagingPortImpl implements MessagingPort, Closeable, EventP
             return;
         }
 
-        // optional: if udp-docker enforces sender == local node
-        if (enforceLocalSender && !adapter.localNode().equals(message.sender())) {
+        // optional: if udp-docker enforces sender == local (or co-located) node
+        if (enforceLocalSender && !adapter.hosts(message.sender())) {
             publish(EventType.ERROR, adapter.localNode(), receiver, "sender mismatch");
             return;
         }
@@ -78,11 +107,31 @@ public final class MessagingPortImpl implements MessagingPort, Closeable, EventP
     }
 
 
+    /**
+     * Sends once for all receivers if the adapter supports it (e.g. one multicast datagram to the sender's
+     * neighbors); otherwise one message per receiver. Events are published per receiver either way.
+     */
     @Override
     public void broadcast(Set<NodeId> receivers, SimulationMessage baseMessage) {
         Objects.requireNonNull(receivers, "receivers");
         Objects.requireNonNull(baseMessage, "baseMessage");
 
+        if (adapter.supportsBroadcast(baseMessage.sender(), receivers)) {
+            if (enforceLocalSender && !adapter.hosts(baseMessage.sender())) {
+                publish(EventType.ERROR, adapter.localNode(), null, "sender mismatch");
+                return;
+            }
+            boolean accepted = adapter.broadcast(baseMessage, receivers);
+            for (NodeId r : receivers) {
+                if (accepted) {
+                    publish(EventType.MESSAGE_SENT, baseMessage.sender(), r, summary(baseMessage));
+                } else {
+                    publish(EventType.ERROR, baseMessage.sender(), r, "dropped by transport (send not accepted)");
+                }
+            }
+            return;
+        }
+
         for (NodeId r : receivers) {
             if (r == null) continue;
 
@@ -105,15 +154,103 @@ public final class MessagingPortImpl implements MessagingPort, Closeable, EventP
         LOG.debug("Handler registered for {}", nodeId);
     }
 
+    @Override
+    public void setNeighbors(NodeId nodeId, Set<NodeId> neighbors) {
+        Objects.requireNonNull(nodeId, "nodeId");
+        Objects.requireNonNull(neighbors, "neighbors");
+        adapter.setNeighbors(nodeId, neighbors);
+    }
+
     @Override
     public void unregisterHandler(NodeId nodeId) {
         handlers.remove(nodeId);
     }
 
+    @Override
+    public boolean isWritable(NodeId receiver) {
+        Objects.requireNonNull(receiver, "receiver");
+        return adapter.isWritable(receiver);
+    }
+
+    @Override
+    public void addWritabilityListener(WritabilityListener listener) {
+        writabilityListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    @Override
+    public void removeWritabilityListener(WritabilityListener listener) {
+        writabilityListeners.remove(listener);
+    }
+
+    private void fireWritable(NodeId receiver) {
+        for (WritabilityListener l : writabilityListeners) {
+            try {
+                l.onWritable(receiver);
+            } catch (RuntimeException e) {
+                LOG.debug("Writability listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public CompressionStats compressionStats() {
+        return codec == null ? null : codec.compressionStats();
+    }
+
     @Override
     public void close() {
         try { adapter.close(); } catch (Exception ignored) {}
+        if (codec != null && codec.compression().enabled()) {
+            LOG.info("Compression of {}: {}", adapter.localNode(), codec.compressionStats());
+        }
         handlers.clear();
+        writabilityListeners.clear();
+    }
+
+    /**
+     * Resolves the handler once per batch and publishes one aggregated MESSAGE_RECEIVED event.
+     * Single-element batches behave exactly like {@link #handleIncoming(SimulationMessage)}.
+     */
+    private void handleIncomingBatch(List<SimulationMessage> batch) {
+        int n = batch.size();
+        if (n == 0) return;
+        if (n == 1) {
+            handleIncoming(batch.get(0));
+            return;
+        }
+
+        SimulationMessage first = batch.get(0);
+        NodeId receiver = first.receiver();
+        MessageHandler handler = handlers.get(receiver);
+
+        if (handler == null) {
+            publish(EventType.ERROR, receiver, null, "no handler registered (" + n + " messages dropped)");
+            return;
+        }
+
+        NodeId peer = first.sender();
+        String messageType = first.messageType();
+        for (int i = 1; i < n; i++) {
+            SimulationMessage m = batch.get(i);
+            if (peer != null && !peer.equals(m.sender())) peer = null;
+            if (messageType != null && !messageType.equals(m.messageType())) messageType = null;
+        }
+        publish(EventType.MESSAGE_RECEIVED, receiver, peer,
+                "batch=" + n + " msgType=" + (messageType == null ? "mixed" : messageType));
+
+        for (int i = 0; i < n; i++) {
+            SimulationMessage msg = batch.get(i);
+            if (!receiver.equals(msg.receiver())) {
+                handleIncoming(msg); // adapter broke the same-receiver contract, stay correct anyway
+                continue;
+            }
+            try {
+                handler.onMessage(msg);
+            } catch (RuntimeException e) {
+                publish(EventType.ERROR, receiver, msg.sender(), "handler error: " + e.getMessage());
+                LOG.debug("Handler error at {} for message {}", receiver, msg, e);
+            }
+        }
     }
 
     private void handleIncoming(SimulationMessage msg) {
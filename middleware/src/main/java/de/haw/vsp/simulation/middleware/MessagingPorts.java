@@ -2,11 +2,23 @@ package de.haw.vsp.simulation.middleware;
 
 import de.haw.vsp.simulation.core.NodeId;
 import de.haw.vsp.simulation.core.SimulationEventPublisher;
+import de.haw.vsp.simulation.middleware.adapter.NioUdpAdapter;
+import de.haw.vsp.simulation.middleware.adapter.SharedMemoryAdapter;
+import de.haw.vsp.simulation.middleware.adapter.TcpAdapter;
+import de.haw.vsp.simulation.middleware.adapter.TransportAdapter;
 import de.haw.vsp.simulation.middleware.adapter.UdpAdapter;
 import de.haw.vsp.simulation.middleware.adapter.VirtualAdapter;
+import de.haw.vsp.simulation.middleware.adapter.VirtualTimeAdapter;
+import de.haw.vsp.simulation.middleware.codec.CodecRegistry;
+import de.haw.vsp.simulation.middleware.codec.CompressionConfig;
 import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.codec.WireCodec;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
 import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
 
+import java.util.List;
+
 public final class MessagingPorts {
     private MessagingPorts() {}
 
@@ -26,30 +38,181 @@ public final class MessagingPorts {
             QueueConfig outbound,
             QueueConfig inboundPerReceiver,
             VirtualFaultConfig faults
+    ) {
+        return virtual(publisher, outbound, inboundPerReceiver, faults, EnvVirtualConfigs.fromSystemEnvironment());
+    }
+
+    public static MessagingPort virtual(
+            SimulationEventPublisher publisher,
+            QueueConfig outbound,
+            QueueConfig inboundPerReceiver,
+            VirtualFaultConfig faults,
+            VirtualCodecBoundary codecBoundary
+    ) {
+        return virtual(publisher, outbound, inboundPerReceiver, faults,
+                VirtualTransportConfig.withCodecBoundary(codecBoundary));
+    }
+
+    public static MessagingPort virtual(
+            SimulationEventPublisher publisher,
+            QueueConfig outbound,
+            QueueConfig inboundPerReceiver,
+            VirtualFaultConfig faults,
+            VirtualTransportConfig transport
     ) {
         var codec = new JacksonSimulationMessageCodec();
         var adapter = new VirtualAdapter(
                 codec, codec,
                 outbound, inboundPerReceiver,
                 Math.max(2, Runtime.getRuntime().availableProcessors()),
-                faults
+                faults,
+                transport
         );
 
         // IMPORTANT: enforceLocalSender=false in virtual mode (shared port)
         return new MessagingPortImpl(adapter, publisher, false);
     }
 
-    /** MW_MODE=udp-docker (one node per container; sender must be local node). */
-    public static MessagingPort udpDocker(NodeId localNode, TransportConfig config, SimulationEventPublisher publisher) {
+    /** MW_MODE=virtual-time (discrete-event transport; delays cost no wall-clock time). */
+    public static MessagingPort virtualTime(SimulationEventPublisher publisher) {
+        return virtualTime(publisher, VirtualTimeAdapter.DEFAULT_MAX_PENDING_EVENTS, VirtualFaultConfig.DISABLED,
+                EnvVirtualConfigs.codecBoundaryFromEnvironment(System.getenv()));
+    }
+
+    public static MessagingPort virtualTime(
+            SimulationEventPublisher publisher,
+            int maxPendingEvents,
+            VirtualFaultConfig faults,
+            VirtualCodecBoundary codecBoundary
+    ) {
         var codec = new JacksonSimulationMessageCodec();
+        var adapter = new VirtualTimeAdapter(codec, codec, codecBoundary, faults, maxPendingEvents);
+        return new MessagingPortImpl(adapter, publisher, false);
+    }
+
+    /**
+     * MW_MODE=udp-docker (one node per container; sender must be local node); UDP_IMPL selects the socket,
+     * MW_CODEC the encoder (every wire format is decoded), MW_COMPRESS_THRESHOLD compression of large messages.
+     */
+    public static MessagingPort udpDocker(NodeId localNode, TransportConfig config, SimulationEventPublisher publisher) {
+        return udpDocker(localNode, config, publisher, EnvUdpConfigs.implementationFromSystemEnvironment());
+    }
+
+    public static MessagingPort udpDocker(
+            NodeId localNode,
+            TransportConfig config,
+            SimulationEventPublisher publisher,
+            UdpImplementation implementation
+    ) {
+        return udpDocker(List.of(localNode), config, publisher, implementation);
+    }
+
+    /**
+     * MW_MODE=udp-docker with several nodes in one process: they share one socket, and messages
+     * between them never leave the process. Each sender must be one of {@code localNodes}.
+     */
+    public static MessagingPort udpDocker(List<NodeId> localNodes, TransportConfig config,
+                                          SimulationEventPublisher publisher) {
+        return udpDocker(localNodes, config, publisher, EnvUdpConfigs.implementationFromSystemEnvironment());
+    }
+
+    public static MessagingPort udpDocker(
+            List<NodeId> localNodes,
+            TransportConfig config,
+            SimulationEventPublisher publisher,
+            UdpImplementation implementation
+    ) {
         var q = EnvQueueConfigs.fromSystemEnvironment();
+        var packing = EnvUdpConfigs.packingFromSystemEnvironment();
+        var receive = EnvUdpConfigs.receiveFromSystemEnvironment();
+        var reliable = EnvUdpConfigs.reliabilityFromSystemEnvironment();
+        var fragmentation = EnvUdpConfigs.fragmentFromSystemEnvironment();
+        var multicast = EnvUdpConfigs.multicastFromSystemEnvironment();
+        if (reliable.enabled() && implementation != UdpImplementation.SOCKET) {
+            throw new IllegalArgumentException(
+                    EnvUdpConfigs.KEY_RELIABLE + "=true requires " + EnvUdpConfigs.KEY_IMPLEMENTATION + "=SOCKET");
+        }
+        if (multicast.enabled() && implementation != UdpImplementation.SOCKET) {
+            throw new IllegalArgumentException(
+                    EnvUdpConfigs.KEY_MULTICAST + "=true requires " + EnvUdpConfigs.KEY_IMPLEMENTATION + "=SOCKET");
+        }
+        if (fragmentation.enabled() && implementation != UdpImplementation.SOCKET) {
+            throw new IllegalArgumentException(
+                    EnvUdpConfigs.KEY_FRAG_MAX_MESSAGE_BYTES + " > 0 requires " + EnvUdpConfigs.KEY_IMPLEMENTATION + "=SOCKET");
+        }
+        if (receive.sockets() > 1 && implementation != UdpImplementation.SOCKET) {
+            throw new IllegalArgumentException(
+                    EnvUdpConfigs.KEY_RECV_SOCKETS + " > 1 requires " + EnvUdpConfigs.KEY_IMPLEMENTATION + "=SOCKET");
+        }
+        if (receive.decoderThreads() > 0 && implementation != UdpImplementation.SOCKET) {
+            throw new IllegalArgumentException(
+                    EnvUdpConfigs.KEY_DECODE_THREADS + " > 0 requires " + EnvUdpConfigs.KEY_IMPLEMENTATION + "=SOCKET");
+        }
+        if (localNodes.size() > 1 && implementation != UdpImplementation.SOCKET) {
+            throw new IllegalArgumentException(
+                    "Several nodes per process require " + EnvUdpConfigs.KEY_IMPLEMENTATION + "=SOCKET");
+        }
+
+        // compressed messages may not inflate beyond what the transport could have carried uncompressed
+        int maxMessageBytes = fragmentation.enabled() ? fragmentation.maxMessageBytes() : UdpAdapter.MAX_DATAGRAM_BYTES;
+        var codec = new CodecRegistry(EnvCodecConfigs.fromSystemEnvironment(),
+                EnvCodecConfigs.compressionFromSystemEnvironment(), maxMessageBytes);
 
-        // NOTE: UdpAdapter ctor order here assumes (inboundConfig, outboundConfig)
-        var adapter = new UdpAdapter(localNode, config, codec, codec, q.inbound(), q.outbound());
-        return new MessagingPortImpl(adapter, publisher, true);
+        // NOTE: UdpAdapter/NioUdpAdapter ctor order here assumes (inboundConfig, outboundConfig)
+        TransportAdapter adapter = switch (implementation) {
+            case SOCKET -> new UdpAdapter(localNodes, config, codec, codec, q.inbound(), q.outbound(),
+                    new UdpConfig(packing, receive, reliable, fragmentation, multicast));
+            case NIO -> new NioUdpAdapter(localNodes.get(0), config, codec, codec, q.inbound(), q.outbound(), packing);
+        };
+        return new MessagingPortImpl(adapter, publisher, true, codec);
     }
 
     public static MessagingPort udpDocker(NodeId localNode, TransportConfig config) {
         return udpDocker(localNode, config, null);
     }
+
+    /**
+     * MW_MODE=tcp-docker (persistent TCP connection per peer, no loss while connections stay up);
+     * addresses as for udp-docker, settings from TCP_* (see {@link EnvTcpConfigs}), encoder and compression
+     * as for udp-docker.
+     */
+    public static MessagingPort tcpDocker(NodeId localNode, TransportConfig config, SimulationEventPublisher publisher) {
+        return tcpDocker(List.of(localNode), config, publisher);
+    }
+
+    public static MessagingPort tcpDocker(List<NodeId> localNodes, TransportConfig config,
+                                          SimulationEventPublisher publisher) {
+        return tcpDocker(localNodes, config, publisher, EnvTcpConfigs.fromSystemEnvironment());
+    }
+
+    public static MessagingPort tcpDocker(
+            List<NodeId> localNodes,
+            TransportConfig config,
+            SimulationEventPublisher publisher,
+            TcpConfig tcp
+    ) {
+        var codec = new CodecRegistry(EnvCodecConfigs.fromSystemEnvironment(),
+                EnvCodecConfigs.compressionFromSystemEnvironment(), tcp.maxFrameBytes());
+        var q = EnvQueueConfigs.fromSystemEnvironment();
+        var adapter = new TcpAdapter(localNodes, config, codec, codec, q.inbound(), q.outbound(), tcp);
+        return new MessagingPortImpl(adapter, publisher, true, codec);
+    }
+
+    /**
+     * MW_MODE=shm (node processes on one host, memory-mapped rings in a shared directory, binary codec);
+     * no addresses needed, settings from SHM_* (see {@link EnvShmConfigs}).
+     */
+    public static MessagingPort shm(NodeId localNode, SimulationEventPublisher publisher) {
+        return shm(List.of(localNode), publisher);
+    }
+
+    public static MessagingPort shm(List<NodeId> localNodes, SimulationEventPublisher publisher) {
+        return shm(localNodes, publisher, EnvShmConfigs.fromSystemEnvironment());
+    }
+
+    public static MessagingPort shm(List<NodeId> localNodes, SimulationEventPublisher publisher, ShmConfig shm) {
+        var codec = new CodecRegistry(WireCodec.BINARY, CompressionConfig.DISABLED, shm.maxMessageBytes());
+        var adapter = new SharedMemoryAdapter(localNodes, shm, codec, codec);
+        return new MessagingPortImpl(adapter, publisher, true, codec);
+    }
 }
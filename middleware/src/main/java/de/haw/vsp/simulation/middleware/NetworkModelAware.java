@@ -0,0 +1,9 @@
+package de.haw.vsp.simulation.middleware;
+
+import de.haw.vsp.simulation.middleware.virtual.VirtualNetworkModel;
+
+/** Allows installing a per-link network model after construction (virtual transport only). */
+public interface NetworkModelAware {
+    /** @param model the model to apply, or null to fall back to the global fault config */
+    void setNetworkModel(VirtualNetworkModel model);
+}
@@ -2,6 +2,9 @@ package de.haw.vsp.simulation.middleware;
 
 import de.haw.vsp.simulation.core.NodeId;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,6 +39,40 @@ public record NodeRange(int minInclusive, int maxInclusive) {
         return new NodeRange(minInclusive, minInclusive + count - 1);
     }
 
+    /**
+     * Parses a range "<from>..<to>" (both inclusive) or a single id, where each id is
+     * "node-<n>" or "<n>", e.g. "node-10..node-19".
+     *
+     * @throws IllegalArgumentException if the text is not such a range
+     */
+    public static NodeRange parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new IllegalArgumentException("Node range must not be null/blank");
+        }
+        String s = raw.trim();
+        int dots = s.indexOf("..");
+        Integer from = tryParseIndex(dots < 0 ? s : s.substring(0, dots));
+        Integer to = dots < 0 ? from : tryParseIndex(s.substring(dots + 2));
+        if (from == null || to == null || to < from) {
+            throw new IllegalArgumentException("Invalid node range '" + raw + "'. Expected node-<from>..node-<to>");
+        }
+        return new NodeRange(from, to);
+    }
+
+    /** @return number of indices in the range */
+    public int size() {
+        return maxInclusive - minInclusive + 1;
+    }
+
+    /** @return "node-<n>" ids of the range, in ascending order */
+    public List<NodeId> nodeIds() {
+        List<NodeId> ids = new ArrayList<>(size());
+        for (int i = minInclusive; i <= maxInclusive; i++) {
+            ids.add(new NodeId("node-" + i));
+        }
+        return ids;
+    }
+
     /** Parses "node-<n>" or "<n>" into an int index, otherwise returns null. */
     public static Integer tryParseIndex(String raw) {
         if (raw == null) return null;
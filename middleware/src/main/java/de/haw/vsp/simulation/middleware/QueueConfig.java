@@ -7,11 +7,16 @@ package de.haw.vsp.simulation.middleware;
  * @param overflowPolicy     behavior when the queue is full
  * @param offerTimeoutMillis timeout used only for {@link QueueOverflowPolicy#BLOCK}.
  *                           For non-blocking policies this value is ignored but must be >= 0.
+ * @param implementation     backing data structure (see {@link QueueOps#newQueue(QueueConfig)});
+ *                           {@link QueueOverflowPolicy#CONFLATE} always uses a {@link ConflatingMessageQueue}
+ * @param conflationKey      which messages supersede each other, used only for {@link QueueOverflowPolicy#CONFLATE}
  */
 public record QueueConfig(
         int capacity,
         QueueOverflowPolicy overflowPolicy,
-        long offerTimeoutMillis
+        long offerTimeoutMillis,
+        QueueImplementation implementation,
+        ConflationKey conflationKey
 ) {
 
     /**
@@ -27,6 +32,41 @@ public record QueueConfig(
         if (offerTimeoutMillis < 0) {
             throw new IllegalArgumentException("offerTimeoutMillis must be >= 0, but was: " + offerTimeoutMillis);
         }
+        if (implementation == null) {
+            throw new IllegalArgumentException("implementation must not be null");
+        }
+        if (conflationKey == null) {
+            throw new IllegalArgumentException("conflationKey must not be null");
+        }
+    }
+
+    /**
+     * Creates a configuration using {@link ConflationKey#SENDER_AND_TYPE}.
+     */
+    public QueueConfig(int capacity, QueueOverflowPolicy overflowPolicy, long offerTimeoutMillis,
+                       QueueImplementation implementation) {
+        this(capacity, overflowPolicy, offerTimeoutMillis, implementation, ConflationKey.SENDER_AND_TYPE);
+    }
+
+    /**
+     * Creates a {@link QueueImplementation#LINKED} configuration.
+     */
+    public QueueConfig(int capacity, QueueOverflowPolicy overflowPolicy, long offerTimeoutMillis) {
+        this(capacity, overflowPolicy, offerTimeoutMillis, QueueImplementation.LINKED);
+    }
+
+    /**
+     * Returns a copy of this configuration using the given backing implementation.
+     */
+    public QueueConfig withImplementation(QueueImplementation implementation) {
+        return new QueueConfig(capacity, overflowPolicy, offerTimeoutMillis, implementation, conflationKey);
+    }
+
+    /**
+     * Returns a copy of this configuration using the given conflation key.
+     */
+    public QueueConfig withConflationKey(ConflationKey conflationKey) {
+        return new QueueConfig(capacity, overflowPolicy, offerTimeoutMillis, implementation, conflationKey);
     }
 
     /**
@@ -59,4 +99,11 @@ public record QueueConfig(
     public static QueueConfig dropOldest(int capacity) {
         return new QueueConfig(capacity, QueueOverflowPolicy.DROP_OLDEST, 0);
     }
+
+    /**
+     * Convenience factory for a conflating configuration.
+     */
+    public static QueueConfig conflate(int capacity, ConflationKey conflationKey) {
+        return new QueueConfig(capacity, QueueOverflowPolicy.CONFLATE, 0, QueueImplementation.LINKED, conflationKey);
+    }
 }
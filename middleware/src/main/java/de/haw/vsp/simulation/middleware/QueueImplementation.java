@@ -0,0 +1,19 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Backing data structure of a bounded messaging queue.
+ */
+public enum QueueImplementation {
+
+    /**
+     * {@link java.util.concurrent.LinkedBlockingDeque}: one lock, one node allocation per element.
+     * Capacity is exact.
+     */
+    LINKED,
+
+    /**
+     * Pre-allocated lock-free ring buffer ({@link RingBufferMessageQueue}).
+     * Capacity is rounded up to the next power of two (minimum 2).
+     */
+    RING_BUFFER
+}
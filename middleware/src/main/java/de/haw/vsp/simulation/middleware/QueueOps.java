@@ -1,24 +1,63 @@
 package de.haw.vsp.simulation.middleware;
 
+import de.haw.vsp.simulation.core.SimulationMessage;
+
 import java.util.Objects;
-import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public final class QueueOps {
     private QueueOps() {}
 
-    public static <T> boolean enqueue(BlockingDeque<T> queue, T item, QueueConfig cfg) {
+    /**
+     * Creates an empty queue as described by the configuration.
+     *
+     * @throws IllegalArgumentException for {@link QueueOverflowPolicy#CONFLATE}, which needs a key
+     *                                  (use {@link #newMessageQueue} or {@link #newQueue(QueueConfig, Function)})
+     */
+    public static <T> MessageQueue<T> newQueue(QueueConfig cfg) {
+        Objects.requireNonNull(cfg, "cfg");
+        if (cfg.overflowPolicy() == QueueOverflowPolicy.CONFLATE) {
+            throw new IllegalArgumentException("CONFLATE requires a conflation key function");
+        }
+        return newQueue(cfg, null);
+    }
+
+    /**
+     * Creates an empty message queue; {@link QueueOverflowPolicy#CONFLATE} uses {@link QueueConfig#conflationKey()}.
+     */
+    public static MessageQueue<SimulationMessage> newMessageQueue(QueueConfig cfg) {
+        Objects.requireNonNull(cfg, "cfg");
+        return newQueue(cfg, cfg.conflationKey()::keyOf);
+    }
+
+    /**
+     * Creates an empty queue; {@code conflationKey} is only used (and then required) for
+     * {@link QueueOverflowPolicy#CONFLATE}.
+     */
+    public static <T> MessageQueue<T> newQueue(QueueConfig cfg, Function<? super T, ?> conflationKey) {
+        Objects.requireNonNull(cfg, "cfg");
+        if (cfg.overflowPolicy() == QueueOverflowPolicy.CONFLATE) {
+            return new ConflatingMessageQueue<>(cfg.capacity(), Objects.requireNonNull(conflationKey, "conflationKey"));
+        }
+        return switch (cfg.implementation()) {
+            case LINKED -> new LinkedMessageQueue<>(cfg.capacity());
+            case RING_BUFFER -> new RingBufferMessageQueue<>(cfg.capacity());
+        };
+    }
+
+    public static <T> boolean enqueue(MessageQueue<T> queue, T item, QueueConfig cfg) {
         Objects.requireNonNull(queue, "queue");
         Objects.requireNonNull(cfg, "cfg");
 
         try {
             return switch (cfg.overflowPolicy()) {
-                case BLOCK -> queue.offerLast(item, cfg.offerTimeoutMillis(), TimeUnit.MILLISECONDS);
-                case DROP_NEWEST -> queue.offerLast(item);
+                case BLOCK -> queue.offer(item, cfg.offerTimeoutMillis(), TimeUnit.MILLISECONDS);
+                case DROP_NEWEST, CONFLATE -> queue.offer(item); // a conflating queue replaces on offer
                 case DROP_OLDEST -> {
-                    if (queue.offerLast(item)) yield true;
-                    queue.pollFirst();
-                    yield queue.offerLast(item);
+                    if (queue.offer(item)) yield true;
+                    queue.poll();
+                    yield queue.offer(item);
                 }
             };
         } catch (InterruptedException ie) {
@@ -23,5 +23,12 @@ public enum QueueOverflowPolicy {
      * Remove (drop) the oldest element from the queue to make room for the new element.
      * If the queue is empty or cannot be modified, the enqueue attempt may still fail.
      */
-    DROP_OLDEST
+    DROP_OLDEST,
+
+    /**
+     * Replace a queued element with the same {@link ConflationKey} by the new element (always,
+     * not only when full), so superseded messages never wait in the queue.
+     * A new key on a full queue is rejected like {@link #DROP_NEWEST}.
+     */
+    CONFLATE
 }
@@ -0,0 +1,231 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free ring buffer ({@link QueueImplementation#RING_BUFFER}).
+ *
+ * Based on Dmitry Vyukov's bounded MPMC queue: every slot carries a sequence number,
+ * producers and consumers claim positions with a single CAS each. Slots are allocated
+ * once, so steady-state enqueue/dequeue allocates nothing.
+ *
+ * Intended use is multi-producer / single-consumer. The dequeue side is CAS-based as well,
+ * because {@link QueueOverflowPolicy#DROP_OLDEST} lets producers evict the head.
+ * {@link #take()} supports one blocked consumer at a time.
+ *
+ * Capacity is rounded up to the next power of two (at least 2: with a single slot a published
+ * sequence would be indistinguishable from a free one).
+ */
+public final class RingBufferMessageQueue<T> implements MessageQueue<T> {
+
+    private static final VarHandle SEQ = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private static final VarHandle WAITING_CONSUMER;
+
+    static {
+        try {
+            WAITING_CONSUMER = MethodHandles.lookup()
+                    .findVarHandle(RingBufferMessageQueue.class, "waitingConsumer", Thread.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int SPINS = 256;
+    private static final int YIELDS = 256;
+    private static final long MAX_PRODUCER_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int mask;
+    private final long[] sequences;
+    private final Object[] slots;
+
+    private final Cursor enqueueCursor = new Cursor();
+    private final Cursor dequeueCursor = new Cursor();
+
+    private volatile Thread waitingConsumer;
+
+    public RingBufferMessageQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0, but was: " + capacity);
+        }
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be <= 2^30, but was: " + capacity);
+        }
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.mask = size - 1;
+        this.sequences = new long[size];
+        this.slots = new Object[size];
+        for (int i = 0; i < size; i++) sequences[i] = i;
+    }
+
+    /** @return number of slots (power of two, >= requested capacity) */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item, "item");
+
+        long pos = enqueueCursor.get();
+        while (true) {
+            int idx = (int) pos & mask;
+            long seq = (long) SEQ.getAcquire(sequences, idx);
+            long dif = seq - pos;
+
+            if (dif == 0) {
+                if (enqueueCursor.compareAndSet(pos, pos + 1)) {
+                    SLOT.set(slots, idx, item);
+                    SEQ.setRelease(sequences, idx, pos + 1);
+                    // StoreLoad: the consumer stores waitingConsumer and then re-polls; without full fences on
+                    // both sides each could miss the other's store and the consumer would park forever
+                    VarHandle.fullFence();
+                    signalConsumer();
+                    return true;
+                }
+                pos = enqueueCursor.get();
+            } else if (dif < 0) {
+                return false; // full
+            } else {
+                pos = enqueueCursor.get();
+            }
+        }
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        if (offer(item)) return true;
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long backoff = 1_000L;
+        int attempts = 0;
+        while (true) {
+            if (Thread.interrupted()) throw new InterruptedException();
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return false;
+
+            // no producer wait-list: spin, then yield, then back off instead of being signalled
+            if (attempts < SPINS) {
+                Thread.onSpinWait();
+            } else if (attempts < SPINS + YIELDS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, Math.min(backoff, remaining));
+                backoff = Math.min(backoff << 1, MAX_PRODUCER_BACKOFF_NANOS);
+            }
+            attempts++;
+            if (offer(item)) return true;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = dequeueCursor.get();
+        while (true) {
+            int idx = (int) pos & mask;
+            long seq = (long) SEQ.getAcquire(sequences, idx);
+            long dif = seq - (pos + 1);
+
+            if (dif == 0) {
+                if (dequeueCursor.compareAndSet(pos, pos + 1)) {
+                    Object item = SLOT.get(slots, idx);
+                    SLOT.set(slots, idx, null);
+                    SEQ.setRelease(sequences, idx, pos + mask + 1);
+                    return (T) item;
+                }
+                pos = dequeueCursor.get();
+            } else if (dif < 0) {
+                return null; // empty (or the next producer has claimed but not yet published)
+            } else {
+                pos = dequeueCursor.get();
+            }
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        for (int i = 0; i < SPINS + YIELDS; i++) {
+            T item = poll();
+            if (item != null) return item;
+            if (i < SPINS) Thread.onSpinWait();
+            else Thread.yield();
+        }
+
+        Thread self = Thread.currentThread();
+        try {
+            while (true) {
+                waitingConsumer = self;
+                VarHandle.fullFence(); // pairs with the fence in offer(), see there
+                // re-check after publishing ourselves, otherwise a concurrent offer could miss us
+                T item = poll();
+                if (item != null) return item;
+
+                LockSupport.park(this);
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    private void signalConsumer() {
+        Thread waiter = waitingConsumer;
+        // only one producer pays for the unpark; the consumer re-registers before parking again
+        if (waiter != null && WAITING_CONSUMER.compareAndSet(this, waiter, null)) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public int size() {
+        // read dequeue first: the difference can only be over-estimated, never negative
+        long head = dequeueCursor.get();
+        long tail = enqueueCursor.get();
+        long size = tail - head;
+        if (size < 0) return 0;
+        return (int) Math.min(size, capacity());
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // drain
+        }
+    }
+
+    /**
+     * Cache-line padded position counter (avoids false sharing between producer and consumer side).
+     */
+    @SuppressWarnings("unused")
+    private static final class Cursor {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Cursor.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long p01, p02, p03, p04, p05, p06, p07;
+        private volatile long value;
+        private long p11, p12, p13, p14, p15, p16, p17;
+
+        long get() {
+            return value;
+        }
+
+        boolean compareAndSet(long expected, long next) {
+            return VALUE.compareAndSet(this, expected, next);
+        }
+    }
+}
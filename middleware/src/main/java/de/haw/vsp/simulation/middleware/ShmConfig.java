@@ -0,0 +1,54 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Settings of the {@code shm} transport (node processes on one host exchange messages through
+ * memory-mapped ring files).
+ *
+ * @param directory      shared directory of the ring files, one per node; all processes must use the same one
+ * @param ringBytes      data size of each node's inbound ring (power of two); a message may use up to a quarter
+ * @param spinIterations empty polls the receiver busy-spins before it starts to park
+ * @param maxParkMicros  longest park of an idle receiver (parks grow from 1 µs up to this)
+ */
+public record ShmConfig(Path directory, int ringBytes, int spinIterations, long maxParkMicros) {
+
+    public static final int DEFAULT_RING_BYTES = 4 << 20;
+    public static final int MIN_RING_BYTES = 64 << 10;
+    public static final int MAX_RING_BYTES = 1 << 30;
+    public static final int DEFAULT_SPIN_ITERATIONS = 20_000;
+    public static final long DEFAULT_MAX_PARK_MICROS = 1_000L;
+
+    public ShmConfig {
+        Objects.requireNonNull(directory, "directory");
+        if (ringBytes < MIN_RING_BYTES || ringBytes > MAX_RING_BYTES || Integer.bitCount(ringBytes) != 1) {
+            throw new IllegalArgumentException("ringBytes must be a power of two in range " + MIN_RING_BYTES + ".."
+                    + MAX_RING_BYTES + ", but was: " + ringBytes);
+        }
+        if (spinIterations < 0) {
+            throw new IllegalArgumentException("spinIterations must be >= 0, but was: " + spinIterations);
+        }
+        if (maxParkMicros < 1) {
+            throw new IllegalArgumentException("maxParkMicros must be > 0, but was: " + maxParkMicros);
+        }
+    }
+
+    public static ShmConfig defaultConfig() {
+        return new ShmConfig(defaultDirectory(), DEFAULT_RING_BYTES, DEFAULT_SPIN_ITERATIONS, DEFAULT_MAX_PARK_MICROS);
+    }
+
+    /** {@code /dev/shm/vsp-sim} (RAM-backed) if available, else {@code vsp-sim} in the temp directory. */
+    public static Path defaultDirectory() {
+        Path shm = Path.of("/dev/shm");
+        return Files.isDirectory(shm)
+                ? shm.resolve("vsp-sim")
+                : Path.of(System.getProperty("java.io.tmpdir"), "vsp-sim");
+    }
+
+    /** Largest encoded message. */
+    public int maxMessageBytes() {
+        return ringBytes / 4;
+    }
+}
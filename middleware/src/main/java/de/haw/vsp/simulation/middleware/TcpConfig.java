@@ -0,0 +1,39 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Settings of the {@code tcp-docker} transport (persistent TCP connection per peer, length-prefixed frames).
+ *
+ * @param maxFrameBytes           largest encoded message; larger ones are rejected by the sender, and a
+ *                                connection announcing a larger frame is closed by the receiver
+ * @param connectBackoffMinMillis delay before the first reconnect after a failed connect or a broken connection
+ * @param connectBackoffMaxMillis the delay doubles per failure up to this bound
+ */
+public record TcpConfig(int maxFrameBytes, long connectBackoffMinMillis, long connectBackoffMaxMillis) {
+
+    public static final int DEFAULT_MAX_FRAME_BYTES = 16 << 20;
+    public static final int MIN_MAX_FRAME_BYTES = 1024;
+    /** Frames are read into one buffer, so they are bounded well below the array limit. */
+    public static final int MAX_MAX_FRAME_BYTES = 256 << 20;
+    public static final long DEFAULT_CONNECT_BACKOFF_MIN_MILLIS = 50L;
+    public static final long DEFAULT_CONNECT_BACKOFF_MAX_MILLIS = 5_000L;
+
+    public TcpConfig {
+        if (maxFrameBytes < MIN_MAX_FRAME_BYTES || maxFrameBytes > MAX_MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("maxFrameBytes must be in range " + MIN_MAX_FRAME_BYTES + ".."
+                    + MAX_MAX_FRAME_BYTES + ", but was: " + maxFrameBytes);
+        }
+        if (connectBackoffMinMillis < 1) {
+            throw new IllegalArgumentException("connectBackoffMinMillis must be > 0, but was: "
+                    + connectBackoffMinMillis);
+        }
+        if (connectBackoffMaxMillis < connectBackoffMinMillis) {
+            throw new IllegalArgumentException("connectBackoffMaxMillis must be >= connectBackoffMinMillis, but was: "
+                    + connectBackoffMaxMillis);
+        }
+    }
+
+    public static TcpConfig defaultConfig() {
+        return new TcpConfig(DEFAULT_MAX_FRAME_BYTES, DEFAULT_CONNECT_BACKOFF_MIN_MILLIS,
+                DEFAULT_CONNECT_BACKOFF_MAX_MILLIS);
+    }
+}
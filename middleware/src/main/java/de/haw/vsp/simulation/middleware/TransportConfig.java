@@ -12,4 +12,12 @@ import de.haw.vsp.simulation.core.NodeId;
 public interface TransportConfig {
 
     TransportAddress resolve(NodeId id);
+
+    /**
+     * Changes whenever resolved addresses may have changed; transports drop their cached
+     * socket addresses when they see a new value. Immutable configs keep the default.
+     */
+    default long version() {
+        return 0L;
+    }
 }
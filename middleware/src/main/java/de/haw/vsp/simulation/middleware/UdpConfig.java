@@ -0,0 +1,64 @@
+package de.haw.vsp.simulation.middleware;
+
+import java.util.Objects;
+
+/**
+ * Optional features of the socket-based {@code udp-docker} transport; every part defaults to off
+ * (or to a single receive socket), so {@link #defaultConfig()} behaves like plain best-effort UDP.
+ *
+ * Multicast broadcasts are best effort and cannot be combined with reliable delivery. Neither can decoder
+ * threads: they decode datagrams in parallel, so the receive window would see each peer's messages out of order.
+ *
+ * @param packing       packing of queued messages for the same peer into one datagram
+ * @param receive       receive sockets and decoder threads
+ * @param reliable      acknowledged, retransmitted delivery per peer
+ * @param fragmentation fragmentation of messages larger than one datagram
+ * @param multicast     neighborhood multicast for broadcasts
+ */
+public record UdpConfig(
+        UdpPackingConfig packing,
+        UdpReceiveConfig receive,
+        UdpReliabilityConfig reliable,
+        UdpFragmentConfig fragmentation,
+        UdpMulticastConfig multicast
+) {
+
+    public UdpConfig {
+        Objects.requireNonNull(packing, "packing");
+        Objects.requireNonNull(receive, "receive");
+        Objects.requireNonNull(reliable, "reliable");
+        Objects.requireNonNull(fragmentation, "fragmentation");
+        Objects.requireNonNull(multicast, "multicast");
+        if (multicast.enabled() && reliable.enabled()) {
+            throw new IllegalArgumentException("Multicast broadcast cannot be combined with reliable delivery");
+        }
+        if (receive.decoderThreads() > 0 && reliable.enabled()) {
+            throw new IllegalArgumentException("Decoder threads cannot be combined with reliable delivery");
+        }
+    }
+
+    public static UdpConfig defaultConfig() {
+        return new UdpConfig(UdpPackingConfig.defaultConfig(), UdpReceiveConfig.defaultConfig(),
+                UdpReliabilityConfig.DISABLED, UdpFragmentConfig.defaultConfig(), UdpMulticastConfig.DISABLED);
+    }
+
+    public UdpConfig withPacking(UdpPackingConfig packing) {
+        return new UdpConfig(packing, receive, reliable, fragmentation, multicast);
+    }
+
+    public UdpConfig withReceive(UdpReceiveConfig receive) {
+        return new UdpConfig(packing, receive, reliable, fragmentation, multicast);
+    }
+
+    public UdpConfig withReliable(UdpReliabilityConfig reliable) {
+        return new UdpConfig(packing, receive, reliable, fragmentation, multicast);
+    }
+
+    public UdpConfig withFragmentation(UdpFragmentConfig fragmentation) {
+        return new UdpConfig(packing, receive, reliable, fragmentation, multicast);
+    }
+
+    public UdpConfig withMulticast(UdpMulticastConfig multicast) {
+        return new UdpConfig(packing, receive, reliable, fragmentation, multicast);
+    }
+}
@@ -0,0 +1,69 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Fragmentation of messages larger than one UDP datagram (socket-based {@code udp-docker} transport).
+ * Off by default: it adds a datagram marker peers must understand and a larger socket receive buffer.
+ *
+ * @param maxMessageBytes         largest encoded message that is sent in fragments; 0 disables fragmentation
+ *                                (such messages are rejected as before)
+ * @param fragmentBytes           size of one fragment datagram including its header
+ * @param maxReassemblyBytes      bound on the buffers of partially received messages; when a new message
+ *                                does not fit, the oldest incomplete ones are dropped
+ * @param reassemblyTimeoutMillis an incomplete message is dropped this long after its first fragment
+ */
+public record UdpFragmentConfig(
+        int maxMessageBytes,
+        int fragmentBytes,
+        long maxReassemblyBytes,
+        long reassemblyTimeoutMillis
+) {
+
+    /** Largest fragmented message once enabled. */
+    public static final int DEFAULT_MAX_MESSAGE_BYTES = 1 << 20;
+    /** Encoded messages up to this size always fit into one datagram. */
+    public static final int MIN_MAX_MESSAGE_BYTES = 65_507;
+    public static final int MAX_MAX_MESSAGE_BYTES = 16 << 20;
+    /** Fits a typical Ethernet MTU without IP fragmentation. */
+    public static final int DEFAULT_FRAGMENT_BYTES = 1400;
+    public static final int MIN_FRAGMENT_BYTES = 576;
+    public static final long DEFAULT_MAX_REASSEMBLY_BYTES = 16L << 20;
+    public static final long DEFAULT_REASSEMBLY_TIMEOUT_MILLIS = 5_000L;
+
+    public static final UdpFragmentConfig DISABLED = new UdpFragmentConfig(0,
+            DEFAULT_FRAGMENT_BYTES, DEFAULT_MAX_REASSEMBLY_BYTES, DEFAULT_REASSEMBLY_TIMEOUT_MILLIS);
+
+    public UdpFragmentConfig {
+        if (maxMessageBytes != 0
+                && (maxMessageBytes < MIN_MAX_MESSAGE_BYTES || maxMessageBytes > MAX_MAX_MESSAGE_BYTES)) {
+            throw new IllegalArgumentException("maxMessageBytes must be 0 or in range " + MIN_MAX_MESSAGE_BYTES
+                    + ".." + MAX_MAX_MESSAGE_BYTES + ", but was: " + maxMessageBytes);
+        }
+        if (fragmentBytes < MIN_FRAGMENT_BYTES || fragmentBytes > MIN_MAX_MESSAGE_BYTES) {
+            throw new IllegalArgumentException("fragmentBytes must be in range " + MIN_FRAGMENT_BYTES + ".."
+                    + MIN_MAX_MESSAGE_BYTES + ", but was: " + fragmentBytes);
+        }
+        if (maxReassemblyBytes < maxMessageBytes) {
+            throw new IllegalArgumentException("maxReassemblyBytes must be >= maxMessageBytes, but was: "
+                    + maxReassemblyBytes);
+        }
+        if (reassemblyTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("reassemblyTimeoutMillis must be > 0, but was: "
+                    + reassemblyTimeoutMillis);
+        }
+    }
+
+    /** Fragmentation is opt-in: by default messages larger than one datagram are rejected. */
+    public static UdpFragmentConfig defaultConfig() {
+        return DISABLED;
+    }
+
+    /** Fragments messages up to {@link #DEFAULT_MAX_MESSAGE_BYTES}. */
+    public static UdpFragmentConfig enabledConfig() {
+        return new UdpFragmentConfig(DEFAULT_MAX_MESSAGE_BYTES,
+                DEFAULT_FRAGMENT_BYTES, DEFAULT_MAX_REASSEMBLY_BYTES, DEFAULT_REASSEMBLY_TIMEOUT_MILLIS);
+    }
+
+    public boolean enabled() {
+        return maxMessageBytes > 0;
+    }
+}
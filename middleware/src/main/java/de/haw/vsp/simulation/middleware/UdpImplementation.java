@@ -0,0 +1,19 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Socket implementation behind the {@code udp-docker} transport.
+ */
+public enum UdpImplementation {
+
+    /**
+     * {@link de.haw.vsp.simulation.middleware.adapter.UdpAdapter}: blocking {@link java.net.DatagramSocket},
+     * one array and packet allocation per datagram.
+     */
+    SOCKET,
+
+    /**
+     * {@link de.haw.vsp.simulation.middleware.adapter.NioUdpAdapter}: non-blocking
+     * {@link java.nio.channels.DatagramChannel} with a selector and pooled direct buffers.
+     */
+    NIO
+}
@@ -0,0 +1,44 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * IP multicast for {@link MessagingPort#broadcast} (socket-based {@code udp-docker} transport).
+ *
+ * Every sender has a neighborhood group in 239.255.0.0/16 (administratively scoped), chosen by its
+ * node index modulo {@code groups}; its topology neighbors join that group. A broadcast to exactly the
+ * sender's neighbors is encoded once and sent as one datagram to the group. Groups are shared when
+ * there are more senders than groups, so receivers drop broadcasts from non-neighbors.
+ *
+ * @param port             UDP port of all groups; 0 disables multicast (broadcasts are sent per receiver)
+ * @param groups           number of distinct groups; fewer groups mean fewer memberships per socket
+ *                         (Linux allows 20 by default, {@code net.ipv4.igmp_max_memberships})
+ *                         but more filtered datagrams
+ * @param networkInterface name of the interface to send and join on (e.g. "eth0", "lo"); null for the OS default
+ */
+public record UdpMulticastConfig(int port, int groups, String networkInterface) {
+
+    public static final int DEFAULT_PORT = 9100;
+    public static final int DEFAULT_GROUPS = 256;
+    public static final int MAX_GROUPS = 1 << 16;
+
+    public static final UdpMulticastConfig DISABLED = new UdpMulticastConfig(0, DEFAULT_GROUPS, null);
+
+    public UdpMulticastConfig {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("port must be in range 0..65535, but was: " + port);
+        }
+        if (groups < 1 || groups > MAX_GROUPS) {
+            throw new IllegalArgumentException("groups must be in range 1.." + MAX_GROUPS + ", but was: " + groups);
+        }
+        if (networkInterface != null && networkInterface.isBlank()) {
+            networkInterface = null;
+        }
+    }
+
+    public static UdpMulticastConfig defaultConfig() {
+        return new UdpMulticastConfig(DEFAULT_PORT, DEFAULT_GROUPS, null);
+    }
+
+    public boolean enabled() {
+        return port > 0;
+    }
+}
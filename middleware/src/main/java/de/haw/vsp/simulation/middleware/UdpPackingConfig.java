@@ -0,0 +1,44 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Packing of several messages for the same peer into one UDP datagram ({@code udp-docker}). Off by default,
+ * since a packed datagram carries messages of several senders and a lost one loses them all.
+ *
+ * @param maxDatagramBytes upper bound of a packed datagram; 0 disables packing
+ * @param lingerMillis     how long the sender may hold a partial pack waiting for more messages;
+ *                         0 packs only what is already queued (no added latency)
+ */
+public record UdpPackingConfig(int maxDatagramBytes, long lingerMillis) {
+
+    /** Size to pack up to once enabled: fits a typical Ethernet MTU without IP fragmentation. */
+    public static final int DEFAULT_MAX_DATAGRAM_BYTES = 1400;
+    public static final int MIN_MAX_DATAGRAM_BYTES = 64;
+    public static final int MAX_MAX_DATAGRAM_BYTES = 65_507;
+
+    public static final UdpPackingConfig DISABLED = new UdpPackingConfig(0, 0L);
+
+    public UdpPackingConfig {
+        if (maxDatagramBytes != 0
+                && (maxDatagramBytes < MIN_MAX_DATAGRAM_BYTES || maxDatagramBytes > MAX_MAX_DATAGRAM_BYTES)) {
+            throw new IllegalArgumentException("maxDatagramBytes must be 0 or in range "
+                    + MIN_MAX_DATAGRAM_BYTES + ".." + MAX_MAX_DATAGRAM_BYTES + ", but was: " + maxDatagramBytes);
+        }
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("lingerMillis must be >= 0, but was: " + lingerMillis);
+        }
+    }
+
+    /** Packing is opt-in: the default sends one message per datagram. */
+    public static UdpPackingConfig defaultConfig() {
+        return DISABLED;
+    }
+
+    /** Packs up to {@link #DEFAULT_MAX_DATAGRAM_BYTES} without lingering. */
+    public static UdpPackingConfig enabledConfig() {
+        return new UdpPackingConfig(DEFAULT_MAX_DATAGRAM_BYTES, 0L);
+    }
+
+    public boolean enabled() {
+        return maxDatagramBytes > 0;
+    }
+}
@@ -0,0 +1,36 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Receive-side parallelism of the socket-based {@code udp-docker} transport.
+ *
+ * @param sockets        number of sockets bound to the node's port with SO_REUSEPORT, each with its own
+ *                       receive thread; the kernel spreads peers over them by address hash, so datagrams
+ *                       of one peer always arrive on the same socket (per-sender order is kept)
+ * @param decoderThreads 0 decodes on the receive threads; otherwise they only copy datagrams into a ring
+ *                       and this many threads decode them (published in arrival order)
+ */
+public record UdpReceiveConfig(int sockets, int decoderThreads) {
+
+    public static final int MAX_SOCKETS = 64;
+    public static final int MAX_DECODER_THREADS = 64;
+
+    public UdpReceiveConfig {
+        if (sockets < 1 || sockets > MAX_SOCKETS) {
+            throw new IllegalArgumentException("sockets must be in range 1.." + MAX_SOCKETS + ", but was: " + sockets);
+        }
+        if (decoderThreads < 0 || decoderThreads > MAX_DECODER_THREADS) {
+            throw new IllegalArgumentException("decoderThreads must be in range 0.." + MAX_DECODER_THREADS
+                    + ", but was: " + decoderThreads);
+        }
+    }
+
+    /** Inline decoding on the receive threads. */
+    public UdpReceiveConfig(int sockets) {
+        this(sockets, 0);
+    }
+
+    /** One socket, one receive thread, inline decoding. */
+    public static UdpReceiveConfig defaultConfig() {
+        return new UdpReceiveConfig(1, 0);
+    }
+}
@@ -0,0 +1,67 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Opt-in reliable delivery of the socket-based {@code udp-docker} transport.
+ *
+ * Every message gets a per-peer sequence number (its {@code seq} field); receivers acknowledge
+ * cumulatively plus up to four selective ranges, deliver each message once and in sequence order,
+ * and senders retransmit unacknowledged messages after an adaptive timeout (RFC 6298 style).
+ *
+ * @param window           max unacknowledged messages per peer; sends beyond it are rejected (0 disables)
+ * @param initialRtoMillis retransmit timeout before the first round-trip sample
+ * @param minRtoMillis     lower bound of the adaptive timeout
+ * @param maxRtoMillis     upper bound of the adaptive timeout (also caps the exponential backoff)
+ * @param maxTransmissions transmissions of a message before it is given up and reported as ERROR
+ */
+public record UdpReliabilityConfig(
+        int window,
+        long initialRtoMillis,
+        long minRtoMillis,
+        long maxRtoMillis,
+        int maxTransmissions
+) {
+
+    public static final int DEFAULT_WINDOW = 256;
+    public static final int MAX_WINDOW = 4096;
+    public static final long DEFAULT_INITIAL_RTO_MILLIS = 200L;
+    public static final long DEFAULT_MIN_RTO_MILLIS = 50L;
+    public static final long DEFAULT_MAX_RTO_MILLIS = 5_000L;
+    /** With the defaults a message is retried for roughly 40 seconds (e.g. while a peer container starts). */
+    public static final int DEFAULT_MAX_TRANSMISSIONS = 12;
+
+    public static final UdpReliabilityConfig DISABLED = new UdpReliabilityConfig(0,
+            DEFAULT_INITIAL_RTO_MILLIS, DEFAULT_MIN_RTO_MILLIS, DEFAULT_MAX_RTO_MILLIS, DEFAULT_MAX_TRANSMISSIONS);
+
+    public UdpReliabilityConfig {
+        if (window < 0 || window > MAX_WINDOW) {
+            throw new IllegalArgumentException("window must be in range 0.." + MAX_WINDOW + ", but was: " + window);
+        }
+        if (minRtoMillis <= 0) {
+            throw new IllegalArgumentException("minRtoMillis must be > 0, but was: " + minRtoMillis);
+        }
+        if (maxRtoMillis < minRtoMillis) {
+            throw new IllegalArgumentException("maxRtoMillis must be >= minRtoMillis, but was: " + maxRtoMillis);
+        }
+        if (initialRtoMillis < minRtoMillis || initialRtoMillis > maxRtoMillis) {
+            throw new IllegalArgumentException("initialRtoMillis must be in range " + minRtoMillis + ".."
+                    + maxRtoMillis + ", but was: " + initialRtoMillis);
+        }
+        if (maxTransmissions < 1) {
+            throw new IllegalArgumentException("maxTransmissions must be >= 1, but was: " + maxTransmissions);
+        }
+    }
+
+    /** Reliable delivery with the given window and default timeouts. */
+    public static UdpReliabilityConfig withWindow(int window) {
+        return new UdpReliabilityConfig(window,
+                DEFAULT_INITIAL_RTO_MILLIS, DEFAULT_MIN_RTO_MILLIS, DEFAULT_MAX_RTO_MILLIS, DEFAULT_MAX_TRANSMISSIONS);
+    }
+
+    public static UdpReliabilityConfig defaultConfig() {
+        return withWindow(DEFAULT_WINDOW);
+    }
+
+    public boolean enabled() {
+        return window > 0;
+    }
+}
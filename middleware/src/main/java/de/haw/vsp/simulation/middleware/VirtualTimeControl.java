@@ -0,0 +1,22 @@
+package de.haw.vsp.simulation.middleware;
+
+/**
+ * Clock control of a transport that runs in simulated (virtual) time instead of wall-clock time.
+ *
+ * Until {@link #advanceTo(long)} is called the transport runs free, i.e. as fast as possible.
+ * After the first call it only delivers messages up to the last granted time.
+ */
+public interface VirtualTimeControl {
+
+    /** @return current simulated time in milliseconds */
+    long simulatedTimeMillis();
+
+    /**
+     * Delivers every message due at or before {@code simulatedMillis} (including messages sent by
+     * handlers in the meantime), then sets the clock to {@code simulatedMillis}.
+     * Blocks until that is done; takes no wall-clock time beyond handler execution.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void advanceTo(long simulatedMillis) throws InterruptedException;
+}
@@ -0,0 +1,13 @@
+package de.haw.vsp.simulation.middleware;
+
+import de.haw.vsp.simulation.core.NodeId;
+
+/**
+ * Notified when the path to a receiver, previously reported as not writable, has drained
+ * below its low watermark again. Called on a transport thread; keep it short.
+ */
+@FunctionalInterface
+public interface WritabilityListener {
+
+    void onWritable(NodeId receiver);
+}
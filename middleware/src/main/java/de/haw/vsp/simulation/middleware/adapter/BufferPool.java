@@ -0,0 +1,50 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded cache of equally sized {@link ByteBuffer}s, either all direct or all heap (array-backed).
+ *
+ * {@link #acquire()} allocates only when the cache is empty, so once the cache has warmed up
+ * a balanced acquire/release cycle allocates nothing. Buffers that are never released (e.g.
+ * dropped by a queue overflow policy) are simply garbage collected; buffers released into a
+ * full cache, or of another size or kind, are discarded. A heap pool cannot tell its buffers from
+ * other heap buffers of the same size, so callers release only what they acquired.
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+    private final boolean direct;
+    private final ArrayBlockingQueue<ByteBuffer> cache;
+
+    BufferPool(int bufferSize, int maxPooled, boolean direct) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize must be > 0");
+        if (maxPooled <= 0) throw new IllegalArgumentException("maxPooled must be > 0");
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+        this.cache = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /** @return a cleared buffer of {@link #bufferSize()} bytes */
+    ByteBuffer acquire() {
+        ByteBuffer buf = cache.poll();
+        if (buf != null) return buf;
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    void release(ByteBuffer buf) {
+        if (buf == null || buf.isDirect() != direct || buf.capacity() != bufferSize) return;
+        buf.clear();
+        cache.offer(buf);
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    /** @return number of buffers currently cached */
+    int pooledCount() {
+        return cache.size();
+    }
+}
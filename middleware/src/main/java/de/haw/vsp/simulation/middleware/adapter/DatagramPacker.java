@@ -0,0 +1,115 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.codec.DatagramFrames;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Coalesces encoded messages per peer into packed datagrams ({@link DatagramFrames}).
+ *
+ * Each peer has one reusable buffer; a pack is emitted when the next message does not fit
+ * or on {@link #flush}. A pack holding a single message is emitted as that plain message,
+ * so unpacked traffic looks exactly like before. Messages to one peer keep their order.
+ *
+ * Not thread-safe: used by the single send thread of a UDP adapter.
+ */
+final class DatagramPacker {
+
+    /** Receives a datagram; the buffer is only valid during the call. */
+    @FunctionalInterface
+    interface Sink {
+        void send(NodeId receiver, InetSocketAddress addr, ByteBuffer datagram);
+    }
+
+    private final int maxDatagramBytes;
+    private final boolean direct;
+    private final HashMap<InetSocketAddress, Pack> packs = new HashMap<>();
+    private final ArrayList<Pack> open = new ArrayList<>();
+
+    DatagramPacker(int maxDatagramBytes, boolean direct) {
+        if (maxDatagramBytes <= DatagramFrames.PACK_HEADER_BYTES + DatagramFrames.FRAME_HEADER_BYTES) {
+            throw new IllegalArgumentException("maxDatagramBytes too small: " + maxDatagramBytes);
+        }
+        this.maxDatagramBytes = maxDatagramBytes;
+        this.direct = direct;
+    }
+
+    /**
+     * Copies the remaining bytes of {@code message} into the peer's pack.
+     *
+     * @return false if the message is too large to pack; the peer's pack has then been
+     *         emitted and the caller sends the message on its own
+     */
+    boolean add(NodeId receiver, InetSocketAddress addr, ByteBuffer message, Sink sink) {
+        int frameBytes = DatagramFrames.FRAME_HEADER_BYTES + message.remaining();
+        Pack pack = packs.get(addr);
+
+        if (DatagramFrames.PACK_HEADER_BYTES + frameBytes > maxDatagramBytes) {
+            if (pack != null && pack.count > 0) emit(pack, sink);
+            return false;
+        }
+
+        if (pack == null) {
+            pack = new Pack(direct ? ByteBuffer.allocateDirect(maxDatagramBytes) : ByteBuffer.allocate(maxDatagramBytes));
+            packs.put(addr, pack);
+        } else if (pack.count > 0 && pack.buf.remaining() < frameBytes) {
+            emit(pack, sink);
+        }
+
+        if (pack.count == 0) {
+            pack.receiver = receiver;
+            pack.addr = addr;
+            DatagramFrames.startPack(pack.buf);
+            open.add(pack);
+        }
+        DatagramFrames.putFrame(pack.buf, message);
+        pack.count++;
+        return true;
+    }
+
+    boolean hasPending() {
+        return !open.isEmpty();
+    }
+
+    /** Emits every partial pack, in the order the packs were started. */
+    void flush(Sink sink) {
+        for (int i = 0; i < open.size(); i++) {
+            Pack pack = open.get(i);
+            if (pack.count > 0) send(pack, sink);
+        }
+        open.clear();
+    }
+
+    private void emit(Pack pack, Sink sink) {
+        send(pack, sink);
+        open.remove(pack);
+    }
+
+    private void send(Pack pack, Sink sink) {
+        ByteBuffer buf = pack.buf.flip();
+        if (pack.count == 1) {
+            buf.position(DatagramFrames.PACK_HEADER_BYTES + DatagramFrames.FRAME_HEADER_BYTES); // plain message
+        }
+        try {
+            sink.send(pack.receiver, pack.addr, buf);
+        } finally {
+            buf.clear();
+            pack.count = 0;
+        }
+    }
+
+    private static final class Pack {
+        private final ByteBuffer buf;
+        private NodeId receiver;
+        private InetSocketAddress addr;
+        private int count;
+
+        Pack(ByteBuffer buf) {
+            this.buf = buf;
+        }
+    }
+}
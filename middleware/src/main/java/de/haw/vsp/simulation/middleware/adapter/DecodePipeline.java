@@ -0,0 +1,178 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.SimulationMessage;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Moves datagram decoding off the UDP receive threads.
+ *
+ * Receive threads only copy raw datagrams into a pre-allocated ring ({@link #submit}); a pool of
+ * decoder threads decodes the slots in parallel, and decoded messages are published to the output
+ * strictly in submit order (a slot that finishes early waits for its predecessors). Since a peer's
+ * datagrams are submitted in arrival order, per-sender order is preserved.
+ *
+ * A full ring rejects the datagram instead of blocking, so the socket keeps being drained.
+ */
+final class DecodePipeline implements AutoCloseable {
+
+    /** Decodes one datagram into {@code out}; reports its own decode errors. */
+    @FunctionalInterface
+    interface Decoder {
+        void decode(ByteBuffer datagram, SocketAddress from, List<SimulationMessage> out);
+    }
+
+    private static final int INITIAL_SLOT_BYTES = 2048;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Decoder decoder;
+    private final Consumer<SimulationMessage> output;
+
+    private final AtomicLong claimed = new AtomicLong();   // next sequence for producers
+    private final AtomicLong decoding = new AtomicLong();  // next sequence for decoders
+    private final Semaphore filled = new Semaphore(0);
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile long published;                       // next sequence to publish
+
+    private volatile boolean running = true;
+    private final Thread[] decoders;
+
+    /**
+     * @param capacity number of ring slots, rounded up to a power of two
+     */
+    DecodePipeline(String name, int capacity, int decoderThreads, Decoder decoder, Consumer<SimulationMessage> output) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        if (decoderThreads <= 0) throw new IllegalArgumentException("decoderThreads must be > 0");
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+        this.output = Objects.requireNonNull(output, "output");
+
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) slots[i] = new Slot();
+        this.mask = size - 1;
+
+        this.decoders = new Thread[decoderThreads];
+        for (int i = 0; i < decoderThreads; i++) {
+            decoders[i] = new Thread(this::decodeLoop, name + "-" + i);
+            decoders[i].setDaemon(true);
+            decoders[i].start();
+        }
+    }
+
+    /**
+     * Copies a raw datagram into the ring (any producer thread).
+     *
+     * @return false if the ring is full (datagram dropped)
+     */
+    boolean submit(byte[] data, int offset, int length, SocketAddress from) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - published >= slots.length || !running) return false;
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        Slot slot = slots[(int) seq & mask];
+        slot.fill(data, offset, length, from);
+        slot.state = Slot.FILLED;
+        filled.release();
+        return true;
+    }
+
+    private void decodeLoop() {
+        while (running) {
+            try {
+                filled.acquire();
+            } catch (InterruptedException e) {
+                if (!running) return;
+                continue;
+            }
+            long seq = decoding.getAndIncrement();
+            Slot slot = slots[(int) seq & mask];
+            while (slot.state != Slot.FILLED) {
+                if (!running) return;
+                Thread.onSpinWait(); // a producer claimed it and is still copying
+            }
+
+            try {
+                decoder.decode(slot.view(), slot.from, slot.decoded);
+            } catch (RuntimeException e) {
+                slot.decoded.clear(); // drop the datagram, keep the sequence moving
+            }
+            slot.state = Slot.DECODED;
+            publish();
+        }
+    }
+
+    /** Publishes decoded slots in sequence order; whoever holds the lock publishes for everyone. */
+    private void publish() {
+        while (true) {
+            if (!publishLock.tryLock()) return;
+            try {
+                long seq = published;
+                Slot slot;
+                while ((slot = slots[(int) seq & mask]).state == Slot.DECODED) {
+                    List<SimulationMessage> msgs = slot.decoded;
+                    for (int i = 0; i < msgs.size(); i++) output.accept(msgs.get(i));
+                    slot.release();
+                    published = ++seq;
+                }
+            } finally {
+                publishLock.unlock();
+            }
+            // a slot decoded while we were publishing may have missed the lock
+            if (slots[(int) published & mask].state != Slot.DECODED) return;
+        }
+    }
+
+    /** @return datagrams submitted but not yet published */
+    int pending() {
+        return (int) (claimed.get() - published);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread t : decoders) t.interrupt();
+    }
+
+    private static final class Slot {
+        static final int FREE = 0;
+        static final int FILLED = 1;
+        static final int DECODED = 2;
+
+        volatile int state = FREE;
+        private byte[] data = new byte[INITIAL_SLOT_BYTES];
+        private ByteBuffer view = ByteBuffer.wrap(data);
+        private SocketAddress from;
+        final ArrayList<SimulationMessage> decoded = new ArrayList<>();
+
+        void fill(byte[] src, int offset, int length, SocketAddress from) {
+            if (length > data.length) { // grows once, then stays for reuse
+                data = new byte[length];
+                view = ByteBuffer.wrap(data);
+            }
+            System.arraycopy(src, offset, data, 0, length);
+            view.limit(length).position(0);
+            this.from = from;
+        }
+
+        ByteBuffer view() {
+            return view;
+        }
+
+        void release() {
+            decoded.clear();
+            from = null;
+            state = FREE;
+        }
+    }
+}
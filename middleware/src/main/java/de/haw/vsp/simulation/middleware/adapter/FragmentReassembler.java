@@ -0,0 +1,200 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.UdpFragmentConfig;
+import de.haw.vsp.simulation.middleware.codec.FragmentFrames;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Reassembles fragmented messages ({@link FragmentFrames}), keyed by (sender, message id).
+ *
+ * Memory is bounded: buffers of incomplete messages never exceed {@code maxReassemblyBytes}
+ * (the oldest incomplete messages are dropped to make room), and a message is dropped once
+ * {@code reassemblyTimeoutMillis} have passed since its first fragment. Expiry is checked whenever
+ * a fragment arrives. Buffers come from a pool of power-of-two size classes and are reused
+ * after {@link #release}, so large messages do not allocate in steady state.
+ *
+ * Thread-safe; all methods synchronize on the reassembler.
+ */
+final class FragmentReassembler {
+
+    private static final int MIN_BUFFER_BYTES = 64 * 1024;
+
+    private final NodeId localNode;
+    private final int maxMessageBytes;
+    private final long maxReassemblyBytes;
+    private final long timeoutNanos;
+    private final TransportAdapter.ErrorCallback errors;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<Key, Partial> partials = new LinkedHashMap<>(); // oldest first
+    private final ArrayDeque<byte[]>[] pool;                                     // idle buffers per size class
+    private long reservedBytes;                                                  // buffers of partial messages
+    private long pooledBytes;
+
+    @SuppressWarnings("unchecked")
+    FragmentReassembler(NodeId localNode, UdpFragmentConfig config, TransportAdapter.ErrorCallback errors,
+                        LongSupplier nanoClock) {
+        this.localNode = Objects.requireNonNull(localNode, "localNode");
+        Objects.requireNonNull(config, "config");
+        if (!config.enabled()) throw new IllegalArgumentException("fragmentation is disabled");
+        this.maxMessageBytes = config.maxMessageBytes();
+        this.maxReassemblyBytes = config.maxReassemblyBytes();
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.reassemblyTimeoutMillis());
+        this.errors = Objects.requireNonNull(errors, "errors");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+
+        this.pool = new ArrayDeque[sizeClass(maxMessageBytes) + 1];
+        for (int i = 0; i < pool.length; i++) pool[i] = new ArrayDeque<>();
+    }
+
+    /**
+     * Adds one fragment frame.
+     *
+     * @return the complete message, positioned at its first byte, once all fragments have arrived
+     *         (hand it back with {@link #release}); otherwise null
+     * @throws MessageCodecException if the fragment is malformed or does not match earlier fragments
+     */
+    synchronized ByteBuffer add(ByteBuffer frame) {
+        long now = nanoClock.getAsLong();
+        evictExpired(now);
+
+        FragmentFrames.Header h = FragmentFrames.readHeader(frame);
+        if (h.total() > maxMessageBytes) {
+            throw new MessageCodecException("Fragmented message too large: " + h.total() + " bytes");
+        }
+
+        Key key = new Key(h.sender(), h.messageId());
+        Partial p = partials.get(key);
+        if (p == null) {
+            if (!reserve(bufferSize(h.total()), h.sender())) return null;
+            p = new Partial(acquire(h.total()), h.total(), h.count(), now + timeoutNanos);
+            partials.put(key, p);
+        } else if (p.total != h.total() || p.count != h.count()) {
+            throw new MessageCodecException("Fragment of " + h.sender() + " does not match message " + h.messageId());
+        }
+
+        if (p.received.get(h.index())) return null; // duplicate
+        int length = frame.remaining();
+        frame.get(p.buf, h.offset(), length);
+        p.received.set(h.index());
+        p.receivedBytes += length;
+        if (p.received.cardinality() < p.count) return null;
+
+        partials.remove(key);
+        reservedBytes -= p.buf.length;
+        if (p.receivedBytes != p.total) {
+            giveBack(p.buf);
+            throw new MessageCodecException("Fragments of " + h.sender() + " do not add up to " + p.total + " bytes");
+        }
+        return ByteBuffer.wrap(p.buf, 0, p.total);
+    }
+
+    /** Returns the buffer of a message from {@link #add} to the pool. */
+    synchronized void release(ByteBuffer message) {
+        giveBack(message.array());
+    }
+
+    /** @return number of incomplete messages */
+    synchronized int pendingMessages() {
+        return partials.size();
+    }
+
+    /** @return bytes held by buffers of incomplete messages */
+    synchronized long reservedBytes() {
+        return reservedBytes;
+    }
+
+    private void evictExpired(long now) {
+        int dropped = 0;
+        for (Iterator<Partial> it = partials.values().iterator(); it.hasNext(); ) {
+            Partial p = it.next();
+            if (p.deadlineNanos - now > 0) break; // insertion order == deadline order
+            it.remove();
+            dropBuffer(p);
+            dropped++;
+        }
+        if (dropped > 0) {
+            errors.onError(localNode, null, "fragment reassembly timed out (" + dropped + " messages dropped)");
+        }
+    }
+
+    /** Makes room by dropping the oldest incomplete messages. @return false if {@code bytes} can never fit */
+    private boolean reserve(int bytes, String sender) {
+        if (bytes > maxReassemblyBytes) {
+            errors.onError(localNode, null, "fragmented message from " + sender + " exceeds reassembly memory (dropped)");
+            return false;
+        }
+        int dropped = 0;
+        for (Iterator<Partial> it = partials.values().iterator();
+             reservedBytes + bytes > maxReassemblyBytes && it.hasNext(); ) {
+            Partial p = it.next();
+            it.remove();
+            dropBuffer(p);
+            dropped++;
+        }
+        if (dropped > 0) {
+            errors.onError(localNode, null, "fragment reassembly memory full (" + dropped + " messages dropped)");
+        }
+        reservedBytes += bytes;
+        return true;
+    }
+
+    private void dropBuffer(Partial p) {
+        reservedBytes -= p.buf.length;
+        giveBack(p.buf);
+    }
+
+    private byte[] acquire(int total) {
+        byte[] buf = pool[sizeClass(total)].pollFirst();
+        if (buf == null) return new byte[bufferSize(total)];
+        pooledBytes -= buf.length;
+        return buf;
+    }
+
+    /** Idle buffers are kept up to the reassembly bound as well. */
+    private void giveBack(byte[] buf) {
+        if (pooledBytes + buf.length > maxReassemblyBytes) return;
+        int c = sizeClass(buf.length);
+        if (bufferSize(buf.length) != buf.length) return; // not from the pool
+        pool[c].addFirst(buf);
+        pooledBytes += buf.length;
+    }
+
+    /** Power of two of at least 64 KiB, capped at the largest message. */
+    private int bufferSize(int total) {
+        return Math.min(MIN_BUFFER_BYTES << sizeClass(total), maxMessageBytes);
+    }
+
+    private static int sizeClass(int total) {
+        if (total <= MIN_BUFFER_BYTES) return 0;
+        return 32 - Integer.numberOfLeadingZeros((total - 1) / MIN_BUFFER_BYTES);
+    }
+
+    private record Key(String sender, int messageId) {}
+
+    private static final class Partial {
+        final byte[] buf;
+        final int total;
+        final int count;
+        final long deadlineNanos;
+        final BitSet received = new BitSet();
+        int receivedBytes;
+
+        Partial(byte[] buf, int total, int count, long deadlineNanos) {
+            this.buf = buf;
+            this.total = total;
+            this.count = count;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
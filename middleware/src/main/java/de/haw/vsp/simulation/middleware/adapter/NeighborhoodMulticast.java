@@ -0,0 +1,182 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.NodeRange;
+import de.haw.vsp.simulation.middleware.UdpMulticastConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Neighborhood multicast groups ({@link UdpMulticastConfig}) of one adapter: the multicast socket,
+ * the group memberships needed by the hosted nodes, and a receive thread handing datagrams to the adapter.
+ *
+ * A hosted node joins the group of every topology neighbor, so a neighbor's broadcast reaches it with one
+ * datagram. Groups are shared by all senders with the same index modulo the group count (and on Linux a
+ * socket also sees groups joined by other sockets on the port), so receivers check
+ * {@link #forEachHostedNeighborOf} and drop broadcasts from non-neighbors.
+ *
+ * Both ends use their own neighbor set, so this assumes a symmetric topology: a receiver must list the sender
+ * exactly when the sender lists the receiver. Otherwise a node receives broadcasts not meant for it, or misses
+ * ones that are.
+ */
+final class NeighborhoodMulticast implements Closeable {
+
+    private static final int MAX_DATAGRAM_BYTES = 65_507;
+
+    @FunctionalInterface
+    interface DatagramHandler {
+        void onDatagram(ByteBuffer datagram, SocketAddress from);
+    }
+
+    private final NodeId localNode;
+    private final int port;
+    private final int groups;
+    private final NetworkInterface networkInterface; // null: OS default
+    private final MulticastSocket socket;
+    private final DatagramPacket sendPacket = new DatagramPacket(new byte[0], 0); // send thread only
+    private final DatagramHandler handler;
+    private final TransportAdapter.ErrorCallback errors;
+    private final Thread receiveThread;
+    private volatile boolean running = true;
+
+    private final Map<NodeId, Set<NodeId>> neighbors = new ConcurrentHashMap<>();         // hosted node -> neighbors
+    private final Map<NodeId, InetSocketAddress> groupCache = new ConcurrentHashMap<>();  // sender -> group
+    private final Map<InetSocketAddress, Integer> memberships = new HashMap<>();          // group -> refs; guarded by this
+
+    NeighborhoodMulticast(NodeId localNode, UdpMulticastConfig config, DatagramHandler handler,
+                          TransportAdapter.ErrorCallback errors) {
+        this.localNode = Objects.requireNonNull(localNode, "localNode");
+        Objects.requireNonNull(config, "config");
+        if (!config.enabled()) throw new IllegalArgumentException("multicast is disabled");
+        this.port = config.port();
+        this.groups = config.groups();
+        this.handler = Objects.requireNonNull(handler, "handler");
+        this.errors = Objects.requireNonNull(errors, "errors");
+
+        try {
+            this.networkInterface = config.networkInterface() == null
+                    ? null
+                    : NetworkInterface.getByName(config.networkInterface());
+            if (config.networkInterface() != null && networkInterface == null) {
+                throw new IllegalArgumentException("Unknown network interface: " + config.networkInterface());
+            }
+            this.socket = new MulticastSocket(null);
+            socket.setReuseAddress(true); // several processes per host share the port
+            socket.bind(new InetSocketAddress(port));
+            socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true); // same-host neighbors
+            if (networkInterface != null) socket.setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to bind multicast socket for " + localNode + " on port " + port, e);
+        }
+
+        this.receiveThread = new Thread(this::receiveLoop, "udp-adapter-mcast-" + localNode);
+        this.receiveThread.setDaemon(true);
+        this.receiveThread.start();
+    }
+
+    /** Group of {@code sender}'s neighborhood: 239.255.0.0 plus the node index modulo the group count. */
+    InetSocketAddress groupOf(NodeId sender) {
+        return groupCache.computeIfAbsent(sender, id -> {
+            Integer idx = NodeRange.tryParseIndex(id.value());
+            int g = (idx != null ? idx : id.value().hashCode() & 0x7FFFFFFF) % groups;
+            try {
+                return new InetSocketAddress(
+                        InetAddress.getByAddress(new byte[]{(byte) 239, (byte) 255, (byte) (g >>> 8), (byte) g}), port);
+            } catch (UnknownHostException e) {
+                throw new IllegalStateException(e); // cannot happen for a 4-byte address
+            }
+        });
+    }
+
+    /** Sets the neighbors of a hosted node, joining and leaving groups as needed. */
+    synchronized void setNeighbors(NodeId hosted, Set<NodeId> nodeNeighbors) {
+        Set<NodeId> previous = neighbors.put(hosted, Set.copyOf(nodeNeighbors));
+        for (NodeId n : nodeNeighbors) {
+            if (memberships.merge(groupOf(n), 1, Integer::sum) == 1) join(groupOf(n));
+        }
+        if (previous == null) return;
+        for (NodeId n : previous) {
+            if (memberships.merge(groupOf(n), -1, Integer::sum) == 0) {
+                memberships.remove(groupOf(n));
+                leave(groupOf(n));
+            }
+        }
+    }
+
+    /** @return the neighbors set with {@link #setNeighbors}, or null */
+    Set<NodeId> neighborsOf(NodeId hosted) {
+        return neighbors.get(hosted);
+    }
+
+    /** Calls {@code action} for every hosted node that has {@code sender} as a neighbor. */
+    void forEachHostedNeighborOf(NodeId sender, Consumer<NodeId> action) {
+        for (Map.Entry<NodeId, Set<NodeId>> e : neighbors.entrySet()) {
+            if (e.getValue().contains(sender)) action.accept(e.getKey());
+        }
+    }
+
+    /** Sends one datagram to {@code group}; called by the adapter's send thread only. */
+    void send(InetSocketAddress group, byte[] bytes) {
+        try {
+            sendPacket.setData(bytes, 0, bytes.length);
+            sendPacket.setSocketAddress(group);
+            socket.send(sendPacket);
+        } catch (IOException e) {
+            errors.onError(localNode, null, "multicast send to " + group + " failed: " + e.getMessage());
+        }
+    }
+
+    private void join(InetSocketAddress group) {
+        try {
+            socket.joinGroup(group, networkInterface);
+        } catch (IOException e) {
+            errors.onError(localNode, null, "multicast join of " + group + " failed: " + e.getMessage()
+                    + " (too many groups? lower UDP_MULTICAST_GROUPS)");
+        }
+    }
+
+    private void leave(InetSocketAddress group) {
+        try {
+            socket.leaveGroup(group, networkInterface);
+        } catch (IOException e) {
+            errors.onError(localNode, null, "multicast leave of " + group + " failed: " + e.getMessage());
+        }
+    }
+
+    private void receiveLoop() {
+        byte[] buf = new byte[MAX_DATAGRAM_BYTES];
+        DatagramPacket packet = new DatagramPacket(buf, buf.length);
+        ByteBuffer view = ByteBuffer.wrap(buf);
+        while (running) {
+            try {
+                socket.receive(packet);
+                view.limit(packet.getLength()).position(0);
+                handler.onDatagram(view, packet.getSocketAddress());
+            } catch (SocketException se) {
+                // expected on close()
+                if (running) errors.onError(localNode, null, "multicast socket error: " + se.getMessage());
+                break;
+            } catch (IOException e) {
+                if (running) errors.onError(localNode, null, "multicast receive error: " + e.getMessage());
+            } finally {
+                packet.setLength(buf.length);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        socket.close();
+        receiveThread.interrupt();
+    }
+}
@@ -0,0 +1,466 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.MessageQueue;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.QueueOps;
+import de.haw.vsp.simulation.middleware.QueueOverflowPolicy;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpPackingConfig;
+import de.haw.vsp.simulation.middleware.codec.DatagramFrames;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageDeserializer;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * UDP-based {@link TransportAdapter} on a non-blocking {@link DatagramChannel} (UDP_IMPL=nio).
+ *
+ * Same contract and queueing as {@link UdpAdapter}, but:
+ * - send() serializes straight into a pooled direct buffer, which is queued and written by the I/O thread
+ * - one I/O thread multiplexes reads and writes with a selector
+ * - datagrams are received into one direct buffer and decoded straight from it
+ * - peer addresses come from a {@link ResolvedAddressCache} (as in {@link UdpAdapter})
+ * - queued messages for the same peer are packed into one datagram ({@link UdpPackingConfig})
+ *
+ * Payloads are not copied into fresh arrays once the buffer pool has warmed up. Some allocation per
+ * datagram remains: the JDK creates the sender address on each receive, and the codec creates the message.
+ *
+ * Reads are capped at {@link #MAX_RECEIVES_PER_ROUND} datagrams per selector round, so a flood of inbound
+ * traffic cannot starve outbound writes.
+ *
+ * Docker behavior:
+ * - binds to 0.0.0.0:port (NOT to the configured hostname) so it works in containers
+ */
+public final class NioUdpAdapter implements TransportAdapter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NioUdpAdapter.class);
+    private static final int MAX_DATAGRAM_BYTES = 65_507;
+
+    /** Pooled send buffer size; larger messages fall back to a heap array. */
+    static final int SEND_BUFFER_BYTES = 2048;
+    private static final int MAX_POOLED_BUFFERS = 1024;
+    /** Datagrams read before the I/O thread turns to writing; the selector reports the rest next round. */
+    static final int MAX_RECEIVES_PER_ROUND = 64;
+
+    private final NodeId localNode;
+    private final TransportConfig config;
+    private final SimulationMessageSerializer serializer;
+    private final SimulationMessageDeserializer deserializer;
+
+    private final QueueConfig inboundConfig;
+    private final QueueConfig outboundConfig;
+    private final UdpPackingConfig packing;
+
+    private volatile ReceiveCallback callback;
+    private volatile ErrorCallback errorCallback;
+    private final WritabilityTracker writability = new WritabilityTracker();
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_BYTES); // I/O thread only
+    private final BufferPool sendBuffers;
+    private final ResolvedAddressCache peers;
+
+    private final MessageQueue<SimulationMessage> inboundQueue;
+    private final MessageQueue<OutboundDatagram> outboundQueue;
+
+    // I/O thread only
+    private final ArrayDeque<OutboundDatagram> backlog = new ArrayDeque<>(); // socket send buffer had no room
+    private final DatagramPacker packer;                                      // null if packing is off
+    private final DatagramPacker.Sink packSink = this::sendPacked;
+    private final Consumer<ByteBuffer> frameHandler = this::onFrame;
+    private SocketAddress receivedFrom;
+    private long lingerDeadlineNanos;                                         // 0 while no partial pack is held
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+
+    private final Thread ioThread;
+    private final Thread deliverThread;
+
+    public NioUdpAdapter(
+            NodeId localNode,
+            TransportConfig config,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer
+    ) {
+        this(localNode, config, serializer, deserializer, QueueConfig.defaultConfig(), QueueConfig.defaultConfig());
+    }
+
+    public NioUdpAdapter(
+            NodeId localNode,
+            TransportConfig config,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer,
+            QueueConfig inboundConfig,
+            QueueConfig outboundConfig
+    ) {
+        this(localNode, config, serializer, deserializer, inboundConfig, outboundConfig,
+                UdpPackingConfig.defaultConfig());
+    }
+
+    public NioUdpAdapter(
+            NodeId localNode,
+            TransportConfig config,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer,
+            QueueConfig inboundConfig,
+            QueueConfig outboundConfig,
+            UdpPackingConfig packing
+    ) {
+        this.localNode = Objects.requireNonNull(localNode, "localNode");
+        this.config = Objects.requireNonNull(config, "config");
+        this.serializer = Objects.requireNonNull(serializer, "serializer");
+        this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
+        this.inboundConfig = Objects.requireNonNull(inboundConfig, "inboundConfig");
+        this.outboundConfig = Objects.requireNonNull(outboundConfig, "outboundConfig");
+        this.packing = Objects.requireNonNull(packing, "packing");
+        this.packer = packing.enabled() ? new DatagramPacker(packing.maxDatagramBytes(), true) : null;
+
+        this.inboundQueue = QueueOps.newMessageQueue(this.inboundConfig);
+        this.outboundQueue = QueueOps.newQueue(this.outboundConfig, OutboundDatagram::conflationKey);
+        this.peers = new ResolvedAddressCache(this.config);
+        this.sendBuffers = new BufferPool(SEND_BUFFER_BYTES,
+                Math.min(this.outboundConfig.capacity(), MAX_POOLED_BUFFERS), true);
+
+        TransportAddress localAddr = config.resolve(this.localNode);
+        if (localAddr == null) {
+            throw new IllegalArgumentException("No transport address for " + this.localNode);
+        }
+
+        // Docker correctness: bind to all interfaces on the configured port
+        DatagramChannel ch = null;
+        try {
+            ch = DatagramChannel.open();
+            ch.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            ch.bind(new InetSocketAddress(localAddr.port()));
+            ch.configureBlocking(false);
+            this.selector = Selector.open();
+            this.key = ch.register(selector, SelectionKey.OP_READ);
+            this.channel = ch;
+        } catch (IOException e) {
+            if (ch != null) {
+                try {
+                    ch.close();
+                } catch (IOException ignored) {}
+            }
+            throw new IllegalStateException(
+                    "Failed to bind UDP channel for " + this.localNode + " on port " + localAddr.port(), e
+            );
+        }
+
+        this.ioThread = new Thread(this::ioLoop, "nio-udp-adapter-io-" + this.localNode);
+        this.ioThread.setDaemon(true);
+
+        this.deliverThread = new Thread(this::deliverLoop, "nio-udp-adapter-deliver-" + this.localNode);
+        this.deliverThread.setDaemon(true);
+
+        this.ioThread.start();
+        this.deliverThread.start();
+    }
+
+    @Override
+    public boolean send(SimulationMessage message) {
+        InetSocketAddress addr = peers.resolve(message.receiver());
+        if (addr == null) {
+            return false; // unknown or unresolvable receiver
+        }
+
+        ByteBuffer buf = encode(message);
+        if (buf == null) {
+            return false; // serialization failed or oversize
+        }
+
+        Object conflationKey = outboundConfig.overflowPolicy() == QueueOverflowPolicy.CONFLATE
+                ? outboundConfig.conflationKey().keyOf(message)
+                : null;
+        boolean accepted = QueueOps.enqueue(outboundQueue,
+                new OutboundDatagram(message.receiver(), addr, buf, conflationKey), outboundConfig);
+        if (!accepted) {
+            sendBuffers.release(buf);
+            writability.markWaiting(message.receiver());
+            return false;
+        }
+        if (!wakeupRequested.getAndSet(true)) {
+            selector.wakeup();
+        }
+        return true;
+    }
+
+    /** @return flipped buffer with the encoded message, or null if it cannot be sent */
+    private ByteBuffer encode(SimulationMessage message) {
+        ByteBuffer buf = sendBuffers.acquire();
+        try {
+            serializer.serialize(message, buf);
+            return buf.flip();
+        } catch (BufferOverflowException e) {
+            sendBuffers.release(buf);
+        } catch (MessageCodecException e) {
+            sendBuffers.release(buf);
+            return null;
+        }
+
+        // Rare: larger than a pooled buffer
+        try {
+            byte[] bytes = serializer.serialize(message);
+            return bytes.length > MAX_DATAGRAM_BYTES ? null : ByteBuffer.wrap(bytes);
+        } catch (MessageCodecException e) {
+            return null;
+        }
+    }
+
+    /** All peers share the single outbound queue, so writability is the same for every receiver. */
+    @Override
+    public boolean isWritable(NodeId receiver) {
+        if (outboundQueue.size() < WritabilityTracker.highWatermark(outboundConfig.capacity())) return true;
+        writability.markWaiting(receiver);
+        return false;
+    }
+
+    @Override
+    public void onWritable(WritabilityCallback callback) {
+        writability.setCallback(callback);
+    }
+
+    private void ioLoop() {
+        while (running.get()) {
+            try {
+                wakeupRequested.set(false);
+                if (!backlog.isEmpty() || outboundQueue.size() == 0) {
+                    long lingerMillis = remainingLingerMillis();
+                    if (lingerMillis > 0) selector.select(lingerMillis);
+                    else if (lingerMillis == 0) selector.selectNow();
+                    else selector.select();
+                } else {
+                    selector.selectNow();
+                }
+                selector.selectedKeys().clear();
+                if (!running.get()) break;
+
+                if (key.isValid() && key.isReadable()) {
+                    receiveBatch();
+                }
+                flushOutbound();
+            } catch (IOException e) {
+                if (running.get()) {
+                    reportError(localNode, null, "udp io error: " + e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                LOG.debug("NIO UDP io loop error: {}", e.getMessage());
+                reportError(localNode, null, "udp io loop error: " + e.getMessage());
+            }
+        }
+    }
+
+    /** @return ms until held partial packs are due, 0 if due now, -1 if none are held */
+    private long remainingLingerMillis() {
+        if (lingerDeadlineNanos == 0L) return -1L;
+        long nanos = lingerDeadlineNanos - System.nanoTime();
+        return nanos <= 0 ? 0L : Math.max(1L, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private void receiveBatch() throws IOException {
+        for (int n = 0; n < MAX_RECEIVES_PER_ROUND; n++) {
+            receiveBuffer.clear();
+            receivedFrom = channel.receive(receiveBuffer);
+            if (receivedFrom == null) return;
+            receiveBuffer.flip();
+
+            try {
+                DatagramFrames.forEachFrame(receiveBuffer, frameHandler);
+            } catch (MessageCodecException e) {
+                reportError(localNode, null, "decode error from " + receivedFrom + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Decodes and queues one message of a received datagram (I/O thread). */
+    private void onFrame(ByteBuffer frame) {
+        SimulationMessage msg;
+        try {
+            msg = deserializer.deserialize(frame);
+        } catch (MessageCodecException e) {
+            reportError(localNode, null, "decode error from " + receivedFrom + ": " + e.getMessage());
+            return;
+        }
+        if (!msg.receiver().equals(localNode)) {
+            reportError(localNode, msg.sender(), "misaddressed message");
+            return;
+        }
+
+        boolean accepted = QueueOps.enqueue(inboundQueue, msg, inboundConfig);
+        if (!accepted) {
+            reportError(localNode, msg.sender(), "inbound queue full (dropped)");
+        }
+    }
+
+    /**
+     * Writes (or packs) queued datagrams until the queue is empty or the socket send buffer is full.
+     * Partial packs are sent at the end, or once the linger time has passed. Only a burst (more than one
+     * message in a round) starts the linger time, so a lone message is not delayed.
+     */
+    private void flushOutbound() {
+        if (writeBacklog()) {
+            OutboundDatagram job;
+            int taken = 0;
+            for (int n = outboundConfig.capacity(); n > 0 && backlog.isEmpty()
+                    && (job = outboundQueue.poll()) != null; n--) {
+                taken++;
+                if (packer != null && packer.add(job.receiver, job.addr, job.buf, packSink)) {
+                    sendBuffers.release(job.buf);
+                } else {
+                    write(job);
+                }
+            }
+
+            if (packer != null && packer.hasPending()) {
+                if (packing.lingerMillis() == 0 || remainingLingerMillis() == 0
+                        || (lingerDeadlineNanos == 0L && taken <= 1)) {
+                    packer.flush(packSink);
+                    lingerDeadlineNanos = 0L;
+                } else if (lingerDeadlineNanos == 0L) {
+                    lingerDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(packing.lingerMillis());
+                }
+            }
+        }
+
+        // wait for OP_WRITE only while the socket has no room
+        int ops = backlog.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        if (key.isValid() && key.interestOps() != ops) key.interestOps(ops);
+
+        if (writability.hasWaiting()
+                && outboundQueue.size() <= WritabilityTracker.lowWatermark(outboundConfig.capacity())) {
+            writability.signal(r -> true);
+        }
+    }
+
+    /** @return true once the backlog is empty */
+    private boolean writeBacklog() {
+        OutboundDatagram job;
+        while ((job = backlog.peekFirst()) != null) {
+            if (!trySend(job.receiver, job.addr, job.buf)) return false;
+            backlog.pollFirst();
+            sendBuffers.release(job.buf);
+        }
+        return true;
+    }
+
+    /** Sends an owned buffer, or keeps it in the backlog. */
+    private void write(OutboundDatagram job) {
+        if (backlog.isEmpty() && trySend(job.receiver, job.addr, job.buf)) {
+            sendBuffers.release(job.buf);
+        } else {
+            backlog.addLast(job);
+        }
+    }
+
+    /** The pack buffer is reused after the call, so a datagram that cannot be sent now is copied. */
+    private void sendPacked(NodeId receiver, InetSocketAddress addr, ByteBuffer datagram) {
+        if (backlog.isEmpty() && trySend(receiver, addr, datagram)) return;
+
+        ByteBuffer copy = datagram.remaining() <= sendBuffers.bufferSize()
+                ? sendBuffers.acquire()
+                : ByteBuffer.allocate(datagram.remaining());
+        backlog.addLast(new OutboundDatagram(receiver, addr, copy.put(datagram).flip(), null));
+    }
+
+    /** @return false if the socket send buffer had no room (nothing was written); failures count as sent */
+    private boolean trySend(NodeId receiver, InetSocketAddress addr, ByteBuffer datagram) {
+        try {
+            return channel.send(datagram, addr) != 0;
+        } catch (IOException | RuntimeException e) {
+            peers.invalidate(receiver); // re-resolve next time (e.g. peer container restarted)
+            reportError(localNode, receiver, "udp send failed: " + e.getMessage());
+            return true;
+        }
+    }
+
+    private void deliverLoop() {
+        while (running.get()) {
+            try {
+                SimulationMessage msg = inboundQueue.take();
+                ReceiveCallback cb = this.callback;
+                if (cb != null) {
+                    cb.onMessage(msg);
+                } else {
+                    // No handler wired yet -> transient drop
+                    reportError(localNode, msg.sender(), "no receive callback yet (dropped)");
+                }
+            } catch (InterruptedException ie) {
+                if (!running.get()) break;
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOG.debug("NIO UDP deliver loop error: {}", e.getMessage());
+                reportError(localNode, null, "udp deliver loop error: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onReceive(ReceiveCallback callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public void onError(ErrorCallback cb) {
+        this.errorCallback = cb;
+    }
+
+    private void reportError(NodeId node, NodeId peer, String msg) {
+        ErrorCallback cb = this.errorCallback;
+        if (cb != null) cb.onError(node, peer, msg);
+    }
+
+    @Override
+    public NodeId localNode() {
+        return localNode;
+    }
+
+    @Override
+    public void close() {
+        if (!running.getAndSet(false)) return;
+
+        // Unblock loops
+        selector.wakeup();
+        deliverThread.interrupt();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            selector.close();
+        } catch (IOException ignored) {}
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+
+        inboundQueue.clear();
+        outboundQueue.clear();
+        writability.clear();
+    }
+
+    /** @param conflationKey only set under {@link QueueOverflowPolicy#CONFLATE} */
+    private record OutboundDatagram(NodeId receiver, InetSocketAddress addr, ByteBuffer buf, Object conflationKey) {}
+}
@@ -0,0 +1,444 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.UdpReliabilityConfig;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import de.haw.vsp.simulation.middleware.codec.ReliableFrames;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-peer sequencing, acknowledgement and retransmission for the UDP transport ({@link UdpReliabilityConfig}).
+ *
+ * Sender side: {@link #track} numbers each message per receiver and keeps its frame in a bounded
+ * retransmit window. ACKs release messages cumulatively or selectively; unacknowledged ones are sent
+ * again when the peer's retransmit timeout expires. The timeout follows RFC 6298 (smoothed RTT plus four
+ * times its variance, samples only from messages sent once, doubled on every expiry).
+ *
+ * Receiver side: {@link #onData} drops duplicates, buffers messages that arrive early and hands
+ * messages on in sequence order. {@link #flushAcks} answers every peer that sent data since the last
+ * flush with one ACK, so a packed datagram is acknowledged once.
+ *
+ * Frames go out through {@link Output}; timers are armed through {@link Scheduler}, which calls
+ * {@link #onRetransmitTimeout} back. Per-peer state is guarded by the peer's window.
+ */
+final class ReliableDelivery {
+
+    /** Hands a data or ACK frame to the send path; it may drop the frame (retransmission repairs it). */
+    @FunctionalInterface
+    interface Output {
+        void transmit(NodeId peer, byte[] frame);
+    }
+
+    /** Arms a one-shot call of {@link #onRetransmitTimeout} for the peer. */
+    @FunctionalInterface
+    interface Scheduler {
+        void schedule(NodeId peer, long delayMillis);
+    }
+
+    /** Encodes a message (with its sequence number set); throws {@link MessageCodecException} on failure. */
+    @FunctionalInterface
+    interface Encoder {
+        byte[] encode(SimulationMessage message);
+    }
+
+    private final NodeId localNode;
+    private final UdpReliabilityConfig config;
+    private final Output output;
+    private final Scheduler scheduler;
+    private final TransportAdapter.ErrorCallback errors;
+    private final Consumer<NodeId> windowOpened;
+    private final LongSupplier nanoClock;
+    private final int epoch = ThreadLocalRandom.current().nextInt();
+
+    private final ConcurrentHashMap<NodeId, SendWindow> sendWindows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<NodeId, ReceiveWindow> receiveWindows = new ConcurrentHashMap<>();
+    private final Queue<ReceiveWindow> acksDue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param windowOpened called when a peer's window has drained to half its size
+     */
+    ReliableDelivery(
+            NodeId localNode,
+            UdpReliabilityConfig config,
+            Output output,
+            Scheduler scheduler,
+            TransportAdapter.ErrorCallback errors,
+            Consumer<NodeId> windowOpened,
+            LongSupplier nanoClock
+    ) {
+        this.localNode = Objects.requireNonNull(localNode, "localNode");
+        this.config = Objects.requireNonNull(config, "config");
+        if (!config.enabled()) throw new IllegalArgumentException("reliable delivery is disabled");
+        this.output = Objects.requireNonNull(output, "output");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.errors = Objects.requireNonNull(errors, "errors");
+        this.windowOpened = Objects.requireNonNull(windowOpened, "windowOpened");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+    }
+
+    // --- sender side ---
+
+    /**
+     * Assigns the receiver's next sequence number and keeps the frame for retransmission.
+     *
+     * @return the data frame to send, or null if the receiver's window is full
+     * @throws MessageCodecException if the message cannot be encoded (no sequence number is used up)
+     */
+    byte[] track(SimulationMessage message, Encoder encoder) {
+        NodeId peer = message.receiver();
+        SendWindow w = sendWindows.computeIfAbsent(peer, p -> new SendWindow());
+        byte[] frame;
+        long armDelay;
+        synchronized (w) {
+            if (w.inFlight() >= w.slots.length) return null;
+            long seq = w.nextSeq;
+            frame = ReliableFrames.data(epoch, w.base, encoder.encode(withSeq(message, seq)));
+            long now = nanoClock.getAsLong();
+            w.slots[w.index(seq)] = new InFlight(frame, now, now + w.rtoNanos);
+            w.nextSeq = seq + 1;
+            armDelay = w.arm(w.rtoNanos);
+        }
+        if (armDelay >= 0) scheduler.schedule(peer, armDelay);
+        return frame;
+    }
+
+    /** @return false while the peer's window is at or above three quarters of its size */
+    boolean isWritable(NodeId peer) {
+        SendWindow w = sendWindows.get(peer);
+        if (w == null) return true;
+        synchronized (w) {
+            return w.inFlight() < WritabilityTracker.highWatermark(w.slots.length);
+        }
+    }
+
+    /** @return messages sent to the peer and not acknowledged yet */
+    int inFlight(NodeId peer) {
+        SendWindow w = sendWindows.get(peer);
+        if (w == null) return 0;
+        synchronized (w) {
+            return (int) w.inFlight();
+        }
+    }
+
+    /**
+     * Applies an ACK frame; ACKs for another epoch (an earlier process of this node) are ignored.
+     *
+     * @throws MessageCodecException if the frame is malformed
+     */
+    void onAck(ByteBuffer frame) {
+        ReliableFrames.Ack ack = ReliableFrames.readAck(frame);
+        if (ack.epoch() != epoch) return;
+
+        NodeId peer;
+        try {
+            peer = new NodeId(ack.node());
+        } catch (IllegalArgumentException e) {
+            throw new MessageCodecException("Invalid node id in ACK: " + e.getMessage());
+        }
+        SendWindow w = sendWindows.get(peer);
+        if (w == null) return;
+
+        boolean opened;
+        synchronized (w) {
+            long before = w.inFlight();
+            w.acknowledge(ack.cumulative(), ack.ranges(), nanoClock.getAsLong());
+            int low = WritabilityTracker.lowWatermark(w.slots.length);
+            opened = before > low && w.inFlight() <= low;
+        }
+        if (opened) windowOpened.accept(peer);
+    }
+
+    /** Retransmits the peer's expired messages, gives up on exhausted ones and re-arms the timer. */
+    void onRetransmitTimeout(NodeId peer) {
+        SendWindow w = sendWindows.get(peer);
+        if (w == null) return;
+
+        List<byte[]> frames = new ArrayList<>();
+        int gaveUp = 0;
+        long armDelay;
+        boolean opened;
+        synchronized (w) {
+            w.armed = false;
+            long now = nanoClock.getAsLong();
+            long before = w.inFlight();
+            boolean backedOff = false;
+            List<InFlight> resend = new ArrayList<>();
+
+            for (long s = w.base; s < w.nextSeq; s++) {
+                InFlight e = w.slots[w.index(s)];
+                if (e == null || !w.isTimed(s, e) || e.deadlineNanos - now > 0) continue;
+                if (e.transmissions >= config.maxTransmissions()) {
+                    w.slots[w.index(s)] = null;
+                    gaveUp++;
+                    continue;
+                }
+                if (!backedOff) {
+                    w.rtoNanos = Math.min(w.rtoNanos * 2, TimeUnit.MILLISECONDS.toNanos(config.maxRtoMillis()));
+                    backedOff = true;
+                }
+                e.transmissions++;
+                e.deadlineNanos = now + w.rtoNanos;
+                resend.add(e);
+            }
+            w.advanceBase();
+
+            // the receiver must learn the new base even if only messages it already holds are left
+            if (gaveUp > 0 && resend.isEmpty() && w.inFlight() > 0) {
+                resend.add(w.slots[w.index(w.base)]);
+            }
+            for (InFlight e : resend) frames.add(ReliableFrames.withBase(e.frame, w.base));
+
+            long next = w.nextDeadline();
+            armDelay = next == Long.MAX_VALUE ? -1 : w.arm(next - now);
+            int low = WritabilityTracker.lowWatermark(w.slots.length);
+            opened = before > low && w.inFlight() <= low;
+        }
+
+        if (gaveUp > 0) {
+            errors.onError(localNode, peer, "reliable delivery gave up after "
+                    + config.maxTransmissions() + " transmissions (" + gaveUp + " messages dropped)");
+        }
+        for (byte[] f : frames) output.transmit(peer, f);
+        if (armDelay >= 0) scheduler.schedule(peer, armDelay);
+        if (opened) windowOpened.accept(peer);
+    }
+
+    private static SimulationMessage withSeq(SimulationMessage m, long seq) {
+        return new SimulationMessage(m.sender(), m.receiver(), m.messageType(), m.payload(), seq);
+    }
+
+    // --- receiver side ---
+
+    /**
+     * Adds the messages that became deliverable to {@code out}, in sequence order, and marks an ACK
+     * as due for the sender. A message without a sequence number is passed through unchanged.
+     */
+    void onData(ReliableFrames.DataHeader header, SimulationMessage message, List<SimulationMessage> out) {
+        Long seq = message.seq();
+        if (seq == null) {
+            out.add(message);
+            return;
+        }
+        NodeId peer = message.sender();
+        ReceiveWindow w = receiveWindows.computeIfAbsent(peer, ReceiveWindow::new);
+        boolean queueAck;
+        synchronized (w) {
+            w.accept(header.epoch(), header.base(), seq, message, out);
+            queueAck = !w.ackDue;
+            w.ackDue = true;
+        }
+        if (queueAck) acksDue.add(w);
+    }
+
+    /** Sends one ACK to every peer that sent data since the last flush. */
+    void flushAcks() {
+        ReceiveWindow w;
+        while ((w = acksDue.poll()) != null) {
+            byte[] ack;
+            synchronized (w) {
+                w.ackDue = false;
+                ack = w.ackFrame();
+            }
+            output.transmit(w.peer, ack);
+        }
+    }
+
+    /** A sent message awaiting its ACK. Guarded by the owning window. */
+    private static final class InFlight {
+        final byte[] frame;
+        final long firstSentNanos;
+        long deadlineNanos;
+        int transmissions = 1;
+        boolean selectivelyAcked;
+
+        InFlight(byte[] frame, long firstSentNanos, long deadlineNanos) {
+            this.frame = frame;
+            this.firstSentNanos = firstSentNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private final class SendWindow {
+        final InFlight[] slots = new InFlight[config.window()];
+        long base;    // lowest unacknowledged sequence number (== nextSeq if none)
+        long nextSeq;
+        long srttNanos = -1;
+        long rttvarNanos;
+        long rtoNanos = TimeUnit.MILLISECONDS.toNanos(config.initialRtoMillis());
+        boolean armed;
+
+        long inFlight() {
+            return nextSeq - base;
+        }
+
+        int index(long seq) {
+            return (int) (seq % slots.length);
+        }
+
+        /**
+         * Selectively acknowledged messages need no timer, except at the base: then the receiver misses
+         * only messages that were given up and must see a newer base.
+         */
+        boolean isTimed(long seq, InFlight e) {
+            return !e.selectivelyAcked || seq == base;
+        }
+
+        /** @return delay in ms to schedule, or -1 if a timer is already armed */
+        long arm(long delayNanos) {
+            if (armed) return -1;
+            armed = true;
+            return Math.max(0L, (delayNanos + 999_999L) / 1_000_000L);
+        }
+
+        void acknowledge(long cumulative, long[] ranges, long now) {
+            cumulative = Math.min(cumulative, nextSeq);
+            long sampleSentNanos = -1;
+
+            for (long s = base; s < cumulative; s++) {
+                InFlight e = slots[index(s)];
+                if (e == null) continue;
+                if (e.transmissions == 1 && !e.selectivelyAcked) { // already sampled when selectively acked
+                    sampleSentNanos = Math.max(sampleSentNanos, e.firstSentNanos);
+                }
+                slots[index(s)] = null;
+            }
+            if (cumulative > base) base = cumulative;
+
+            for (int i = 0; i + 1 < ranges.length; i += 2) {
+                long from = Math.max(ranges[i], base);
+                long to = Math.min(ranges[i + 1], nextSeq);
+                for (long s = from; s < to; s++) {
+                    InFlight e = slots[index(s)];
+                    if (e == null || e.selectivelyAcked) continue;
+                    e.selectivelyAcked = true;
+                    if (e.transmissions == 1) sampleSentNanos = Math.max(sampleSentNanos, e.firstSentNanos);
+                }
+            }
+            advanceBase();
+
+            if (sampleSentNanos >= 0) updateRto(now - sampleSentNanos);
+        }
+
+        /** Skips given-up slots at the base. */
+        void advanceBase() {
+            while (base < nextSeq && slots[index(base)] == null) base++;
+        }
+
+        long nextDeadline() {
+            long next = Long.MAX_VALUE;
+            for (long s = base; s < nextSeq; s++) {
+                InFlight e = slots[index(s)];
+                if (e != null && isTimed(s, e) && (next == Long.MAX_VALUE || e.deadlineNanos - next < 0)) {
+                    next = e.deadlineNanos;
+                }
+            }
+            return next;
+        }
+
+        /** RFC 6298, section 2 (clock granularity is folded into the minimum). */
+        void updateRto(long rttNanos) {
+            if (srttNanos < 0) {
+                srttNanos = rttNanos;
+                rttvarNanos = rttNanos / 2;
+            } else {
+                rttvarNanos = (3 * rttvarNanos + Math.abs(srttNanos - rttNanos)) / 4;
+                srttNanos = (7 * srttNanos + rttNanos) / 8;
+            }
+            long rto = srttNanos + 4 * rttvarNanos;
+            rtoNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(config.minRtoMillis()),
+                    Math.min(rto, TimeUnit.MILLISECONDS.toNanos(config.maxRtoMillis())));
+        }
+    }
+
+    private final class ReceiveWindow {
+        final NodeId peer;
+        final SimulationMessage[] buffer = new SimulationMessage[config.window()];
+        int buffered;
+        boolean started;
+        int senderEpoch;
+        long nextExpected;
+        boolean ackDue;
+        private final long[] ranges = new long[ReliableFrames.MAX_SACK_RANGES * 2];
+
+        ReceiveWindow(NodeId peer) {
+            this.peer = peer;
+        }
+
+        int index(long seq) {
+            return (int) (seq % buffer.length);
+        }
+
+        void accept(int epoch, long base, long seq, SimulationMessage msg, List<SimulationMessage> out) {
+            if (!started || epoch != senderEpoch) {
+                // first contact or the sender restarted: nothing below its base is still in flight
+                Arrays.fill(buffer, null);
+                buffered = 0;
+                senderEpoch = epoch;
+                nextExpected = base;
+                started = true;
+            }
+            if (base > nextExpected) skipTo(base, out);
+
+            if (seq < nextExpected || seq - nextExpected >= buffer.length) return; // duplicate or beyond the window
+            if (seq == nextExpected) {
+                out.add(msg);
+                nextExpected++;
+                drain(out);
+            } else if (buffer[index(seq)] == null) {
+                buffer[index(seq)] = msg;
+                buffered++;
+            }
+        }
+
+        /** The sender gave up on (or already saw ACKs for) everything below {@code base}. */
+        private void skipTo(long base, List<SimulationMessage> out) {
+            long end = Math.min(base, nextExpected + buffer.length);
+            for (long s = nextExpected; s < end && buffered > 0; s++) {
+                SimulationMessage m = buffer[index(s)];
+                if (m == null) continue;
+                out.add(m);
+                buffer[index(s)] = null;
+                buffered--;
+            }
+            nextExpected = base;
+            drain(out);
+        }
+
+        private void drain(List<SimulationMessage> out) {
+            SimulationMessage m;
+            while (buffered > 0 && (m = buffer[index(nextExpected)]) != null) {
+                out.add(m);
+                buffer[index(nextExpected)] = null;
+                buffered--;
+                nextExpected++;
+            }
+        }
+
+        byte[] ackFrame() {
+            int n = 0;
+            long end = nextExpected + buffer.length;
+            for (long s = nextExpected + 1; s < end && n < ReliableFrames.MAX_SACK_RANGES && buffered > 0; s++) {
+                if (buffer[index(s)] == null) continue;
+                long from = s;
+                while (s < end && buffer[index(s)] != null) s++;
+                ranges[2 * n] = from;
+                ranges[2 * n + 1] = s;
+                n++;
+            }
+            return ReliableFrames.ack(localNode.value(), senderEpoch, nextExpected, ranges, n);
+        }
+    }
+}
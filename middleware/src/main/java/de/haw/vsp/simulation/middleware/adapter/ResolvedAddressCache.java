@@ -0,0 +1,84 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+
+import java.net.InetSocketAddress;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-peer cache of resolved {@link InetSocketAddress}es for the UDP transports.
+ *
+ * A hit costs one map lookup and a clock read. Addresses are re-resolved after {@code ttl}
+ * (containers may be recreated with a new IP); unknown or unresolvable peers are cached
+ * as negative entries for {@code negativeTtl}. All entries are dropped when
+ * {@link TransportConfig#version()} changes.
+ */
+final class ResolvedAddressCache {
+
+    static final long DEFAULT_TTL_MILLIS = 30_000L;
+    static final long DEFAULT_NEGATIVE_TTL_MILLIS = 1_000L;
+
+    private final TransportConfig config;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<NodeId, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long configVersion;
+
+    ResolvedAddressCache(TransportConfig config) {
+        this(config, DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS, System::nanoTime);
+    }
+
+    ResolvedAddressCache(TransportConfig config, long ttlMillis, long negativeTtlMillis, LongSupplier nanoClock) {
+        this.config = Objects.requireNonNull(config, "config");
+        if (ttlMillis < 0 || negativeTtlMillis < 0) throw new IllegalArgumentException("ttl must be >= 0");
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+        this.configVersion = config.version();
+    }
+
+    /** @return resolved address, or null if the peer is unknown or its host does not resolve */
+    InetSocketAddress resolve(NodeId peer) {
+        long version = config.version();
+        if (version != configVersion) {
+            entries.clear();
+            configVersion = version;
+        }
+
+        long now = nanoClock.getAsLong();
+        Entry e = entries.get(peer);
+        if (e != null && now - e.expiresAtNanos < 0) {
+            return e.address;
+        }
+
+        InetSocketAddress address = lookup(peer);
+        entries.put(peer, new Entry(address, now + (address != null ? ttlNanos : negativeTtlNanos)));
+        return address;
+    }
+
+    private InetSocketAddress lookup(NodeId peer) {
+        TransportAddress addr = config.resolve(peer);
+        if (addr == null) return null;
+        InetSocketAddress resolved = new InetSocketAddress(addr.host(), addr.port());
+        return resolved.isUnresolved() ? null : resolved;
+    }
+
+    /** Forces re-resolution on the next send (e.g. after a send failure). */
+    void invalidate(NodeId peer) {
+        entries.remove(peer);
+    }
+
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    /** @param address null for a negative entry */
+    private record Entry(InetSocketAddress address, long expiresAtNanos) {}
+}
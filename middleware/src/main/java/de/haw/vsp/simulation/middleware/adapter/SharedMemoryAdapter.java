@@ -0,0 +1,337 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.ShmConfig;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageDeserializer;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * {@link TransportAdapter} for node processes on one host (MW_MODE=shm): every node owns an inbound
+ * {@link SharedMemoryRing} file in a shared directory ({@link ShmConfig}), and senders in any process append
+ * to it directly. There is no socket, no inbound queue and no transport thread on the send path.
+ *
+ * - send() encodes into a per-thread buffer and appends one record to the receiver's ring (one CAS and a copy);
+ *   a full ring rejects the message (false), like a full outbound queue
+ * - one delivery thread polls the rings of the hosted nodes and calls the receive callback straight from the
+ *   mapped memory; while idle it busy-spins, then parks for growing intervals (1 µs up to the configured bound)
+ * - peer rings are opened on the first send and re-opened when their owner replaced them (restart); a missing
+ *   ring (peer not started yet) is looked up again after {@link #MISSING_RETRY_MILLIS}
+ * - a receiver is not writable while its ring is fuller than the high watermark; the delivery thread signals
+ *   it once the ring has drained to the low watermark
+ * - an own ring whose head waits longer than {@link #STALL_TIMEOUT_MILLIS} for a claimed record (its producer
+ *   died while writing) is replaced with an ERROR; the messages queued in it are lost
+ *
+ * The serializer is meant to be binary (see {@code BinarySimulationMessageCodec}), as messages never leave the host.
+ */
+public final class SharedMemoryAdapter implements TransportAdapter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedMemoryAdapter.class);
+
+    static final long MISSING_RETRY_MILLIS = 1_000L;
+    /** A claimed record not published within this time is taken as left behind by a dead producer. */
+    static final long STALL_TIMEOUT_MILLIS = 1_000L;
+    /** Records per ring and poll round, so several hosted rings are served fairly. */
+    private static final int POLL_BATCH = 256;
+    private static final int INITIAL_ENCODE_BYTES = 4096;
+
+    private final NodeId localNode;
+    private final List<NodeId> hostedNodes;
+    private final Set<NodeId> hosted;
+    private final ShmConfig shm;
+    private final SimulationMessageSerializer serializer;
+    private final SimulationMessageDeserializer deserializer;
+
+    private volatile ReceiveCallback callback;
+    private volatile ErrorCallback errorCallback;
+    private final WritabilityTracker writability = new WritabilityTracker();
+
+    private final Map<NodeId, SharedMemoryRing> ownRings = new ConcurrentHashMap<>();
+    private final Map<NodeId, SharedMemoryRing> peerRings = new ConcurrentHashMap<>();
+    private final Map<NodeId, Long> missingUntilNanos = new ConcurrentHashMap<>();
+    private final ThreadLocal<ByteBuffer> encodeBuffer =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_ENCODE_BYTES));
+
+    private final Consumer<ByteBuffer> recordHandler = this::onRecord;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final Thread deliverThread;
+
+    public SharedMemoryAdapter(
+            NodeId localNode,
+            ShmConfig shm,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer
+    ) {
+        this(List.of(localNode), shm, serializer, deserializer);
+    }
+
+    /** Hosts all {@code localNodes}, each with its own inbound ring. */
+    public SharedMemoryAdapter(
+            List<NodeId> localNodes,
+            ShmConfig shm,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer
+    ) {
+        Objects.requireNonNull(localNodes, "localNodes");
+        if (localNodes.isEmpty()) throw new IllegalArgumentException("localNodes must not be empty");
+        this.localNode = Objects.requireNonNull(localNodes.get(0), "localNode");
+        this.hostedNodes = List.copyOf(localNodes);
+        this.hosted = Set.copyOf(localNodes);
+        this.shm = Objects.requireNonNull(shm, "shm");
+        this.serializer = Objects.requireNonNull(serializer, "serializer");
+        this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
+
+        try {
+            Files.createDirectories(shm.directory());
+            for (NodeId node : hostedNodes) {
+                ownRings.put(node, SharedMemoryRing.create(ringFile(node), shm.ringBytes()));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            ownRings.values().forEach(this::remove);
+            throw new IllegalStateException("Failed to create shared memory rings for " + localNodes
+                    + " in " + shm.directory(), e);
+        }
+
+        this.deliverThread = new Thread(this::deliverLoop, "shm-adapter-deliver-" + this.localNode);
+        this.deliverThread.setDaemon(true);
+        this.deliverThread.start();
+    }
+
+    /** Ring file of {@code node}; characters that are unsafe in file names are replaced. */
+    Path ringFile(NodeId node) {
+        return shm.directory().resolve(node.value().replaceAll("[^A-Za-z0-9._-]", "_") + ".ring");
+    }
+
+    @Override
+    public boolean send(SimulationMessage message) {
+        SharedMemoryRing ring = ringOf(message.receiver());
+        if (ring == null) {
+            return false; // receiver not started (or not on this host)
+        }
+        ByteBuffer record = encode(message);
+        if (record == null) {
+            return false; // serialization failed or oversize
+        }
+        if (ring.offer(record)) return true;
+
+        if (ring.isClosed()) { // receiver restarted meanwhile
+            ring = ringOf(message.receiver());
+            if (ring != null && ring.offer(record)) return true;
+        }
+        writability.markWaiting(message.receiver());
+        return false;
+    }
+
+    /** @return flipped per-thread buffer with the encoded message, or null if it cannot be sent */
+    private ByteBuffer encode(SimulationMessage message) {
+        ByteBuffer buf = encodeBuffer.get();
+        while (true) {
+            buf.clear();
+            try {
+                serializer.serialize(message, buf);
+                return buf.flip();
+            } catch (BufferOverflowException e) {
+                if (buf.capacity() >= shm.maxMessageBytes()) return null;
+                buf = ByteBuffer.allocate(Math.min(buf.capacity() * 2, shm.maxMessageBytes()));
+                encodeBuffer.set(buf);
+            } catch (MessageCodecException e) {
+                return null;
+            }
+        }
+    }
+
+    /** @return the ring of a hosted node, or the (re-)opened ring of a peer; null if it does not exist */
+    private SharedMemoryRing ringOf(NodeId node) {
+        SharedMemoryRing own = ownRings.get(node);
+        if (own != null) return own;
+
+        SharedMemoryRing ring = peerRings.get(node);
+        if (ring != null && !ring.isClosed()) return ring;
+
+        Long missingUntil = missingUntilNanos.get(node);
+        if (missingUntil != null && System.nanoTime() - missingUntil < 0) return null;
+        try {
+            ring = SharedMemoryRing.open(ringFile(node));
+        } catch (IOException e) {
+            reportError(localNode, node, "shm open failed: " + e.getMessage());
+            ring = null;
+        }
+        if (ring == null) {
+            peerRings.remove(node);
+            missingUntilNanos.put(node, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MISSING_RETRY_MILLIS));
+            return null;
+        }
+        missingUntilNanos.remove(node);
+        peerRings.put(node, ring);
+        return ring;
+    }
+
+    /** Not writable while the receiver's ring is above 3/4 of its capacity. */
+    @Override
+    public boolean isWritable(NodeId receiver) {
+        SharedMemoryRing ring = ringOf(receiver);
+        if (ring == null || usedBytes(ring) < WritabilityTracker.highWatermark(ring.capacity())) return true;
+        writability.markWaiting(receiver);
+        return false;
+    }
+
+    private static int usedBytes(SharedMemoryRing ring) {
+        return ring.capacity() - ring.freeBytes();
+    }
+
+    @Override
+    public void onWritable(WritabilityCallback callback) {
+        writability.setCallback(callback);
+    }
+
+    private void deliverLoop() {
+        int idle = 0;
+        long parkNanos = 0L;
+        long maxParkNanos = TimeUnit.MICROSECONDS.toNanos(shm.maxParkMicros());
+        long stallTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(STALL_TIMEOUT_MILLIS);
+        while (running.get()) {
+            try {
+                int handled = 0;
+                for (NodeId node : hostedNodes) {
+                    handled += ownRings.get(node).poll(recordHandler, POLL_BATCH);
+                }
+                if (writability.hasWaiting()) signalDrained();
+
+                if (handled > 0) {
+                    idle = 0;
+                    parkNanos = 0L;
+                } else if (idle < shm.spinIterations()) {
+                    idle++;
+                    Thread.onSpinWait();
+                } else {
+                    replaceStalledRings(stallTimeoutNanos);
+                    parkNanos = parkNanos == 0L ? 1_000L : Math.min(parkNanos * 2, maxParkNanos);
+                    LockSupport.parkNanos(parkNanos);
+                }
+            } catch (RuntimeException e) {
+                LOG.debug("SHM deliver loop error: {}", e.getMessage());
+                reportError(localNode, null, "shm deliver loop error: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Recreates own rings blocked by a producer that died while writing (delivery thread). */
+    private void replaceStalledRings(long timeoutNanos) {
+        for (NodeId node : hostedNodes) {
+            if (!ownRings.get(node).isStalled(timeoutNanos)) continue;
+            try {
+                ownRings.put(node, SharedMemoryRing.create(ringFile(node), shm.ringBytes()));
+                reportError(node, null, "shm ring stalled by an unpublished record (producer died?); recreated, "
+                        + "queued messages lost");
+            } catch (IOException | UncheckedIOException e) {
+                reportError(node, null, "shm ring recreate failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Decodes one record in place and delivers it (delivery thread; must not throw). */
+    private void onRecord(ByteBuffer record) {
+        SimulationMessage msg;
+        try {
+            msg = deserializer.deserialize(record);
+        } catch (RuntimeException e) {
+            reportError(localNode, null, "decode error: " + e.getMessage());
+            return;
+        }
+        if (!hosted.contains(msg.receiver())) {
+            reportError(localNode, msg.sender(), "misaddressed message");
+            return;
+        }
+        ReceiveCallback cb = this.callback;
+        if (cb == null) {
+            // No handler wired yet -> transient drop
+            reportError(localNode, msg.sender(), "no receive callback yet (dropped)");
+            return;
+        }
+        try {
+            cb.onMessage(msg);
+        } catch (RuntimeException e) {
+            LOG.debug("SHM receive callback error: {}", e.getMessage());
+            reportError(localNode, msg.sender(), "shm receive callback error: " + e.getMessage());
+        }
+    }
+
+    /** Rings are drained by their owners, possibly in other processes, so waiting receivers are polled. */
+    private void signalDrained() {
+        writability.signal(r -> {
+            SharedMemoryRing ring = ringOf(r);
+            return ring == null || usedBytes(ring) <= WritabilityTracker.lowWatermark(ring.capacity());
+        });
+    }
+
+    @Override
+    public void onReceive(ReceiveCallback callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public void onError(ErrorCallback cb) {
+        this.errorCallback = cb;
+    }
+
+    private void reportError(NodeId node, NodeId peer, String msg) {
+        ErrorCallback cb = this.errorCallback;
+        if (cb != null) cb.onError(node, peer, msg);
+    }
+
+    @Override
+    public NodeId localNode() {
+        return localNode;
+    }
+
+    @Override
+    public boolean hosts(NodeId node) {
+        return hosted.contains(node);
+    }
+
+    @Override
+    public void close() {
+        if (!running.getAndSet(false)) return;
+
+        LockSupport.unpark(deliverThread);
+        try {
+            deliverThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        new ArrayList<>(ownRings.values()).forEach(this::remove);
+        ownRings.clear();
+        peerRings.clear();
+        writability.clear();
+    }
+
+    /** Marks an own ring closed for producers and deletes its file (the mapping lives until it is collected). */
+    private void remove(SharedMemoryRing ring) {
+        ring.markClosed();
+        try {
+            Files.deleteIfExists(ring.file());
+        } catch (IOException e) {
+            LOG.debug("Failed to delete {}: {}", ring.file(), e.getMessage());
+        }
+    }
+}
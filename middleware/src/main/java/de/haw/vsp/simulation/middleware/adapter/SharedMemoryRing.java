@@ -0,0 +1,233 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Multi-producer, single-consumer ring of variable-length records in a memory-mapped file, shared by
+ * processes on one host ({@code shm} transport).
+ *
+ * Layout: a header with magic, capacity, state, then the producer tail and the consumer head on their own
+ * cache lines, then {@code capacity} data bytes. A record is {@code [i32 length][bytes]}, padded to 8 bytes.
+ * Producers claim space by a CAS on the tail and publish the record by writing its length last (release);
+ * the consumer reads up to the first unpublished record, zeroes what it consumed and then advances the head.
+ * A record that does not fit before the end of the data area is preceded by a padding record
+ * ({@code -padding}) and starts at offset 0. All positions are 8-byte aligned, so the atomic accesses are
+ * aligned on the mapping as well.
+ *
+ * A producer that dies after claiming space but before publishing its length leaves a hole the consumer can
+ * never pass: records behind it are never read, and the ring fills up. The consumer detects this with
+ * {@link #isStalled} and its owner then replaces the ring via {@link #create}, losing what was queued.
+ */
+final class SharedMemoryRing {
+
+    static final int MAGIC = 0x56535052; // "VSPR"
+    static final int STATE_OPEN = 1;
+    static final int STATE_CLOSED = 2;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int STATE_OFFSET = 8;
+    static final int TAIL_OFFSET = 64;
+    private static final int HEAD_OFFSET = 128;
+    static final int DATA_OFFSET = 192;
+    static final int RECORD_HEADER_BYTES = 4;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer view;      // consumer only: window onto the current record
+    private final int capacity;
+    private final int mask;
+    private final int maxRecordBytes;
+    private long stalledHead = -1L;     // consumer only: head last seen waiting for an unpublished record
+    private long stalledSinceNanos;
+
+    private SharedMemoryRing(Path file, MappedByteBuffer buffer, int capacity) {
+        this.file = file;
+        this.buffer = buffer;
+        this.view = buffer.duplicate();
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxRecordBytes = capacity / 4;
+    }
+
+    /**
+     * Creates (or replaces) the ring of the owning consumer. A previous ring in the same file is marked
+     * closed first, so producers still mapping it switch to the new one.
+     */
+    static SharedMemoryRing create(Path file, int capacity) throws IOException {
+        if (capacity < 64 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 64, but was: " + capacity);
+        }
+        SharedMemoryRing previous = open(file);
+        if (previous != null) previous.markClosed();
+        Files.deleteIfExists(file);
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = ch.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + (long) capacity);
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            INT.setRelease(buffer, STATE_OFFSET, STATE_OPEN);
+            INT.setRelease(buffer, MAGIC_OFFSET, MAGIC); // last: the ring is complete
+            return new SharedMemoryRing(file, buffer, capacity);
+        }
+    }
+
+    /** @return the open ring in {@code file}, or null if there is none (yet) */
+    static SharedMemoryRing open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            if (size < DATA_OFFSET) return null;
+            MappedByteBuffer buffer = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if ((int) INT.getAcquire(buffer, MAGIC_OFFSET) != MAGIC) return null;
+            int capacity = buffer.getInt(CAPACITY_OFFSET);
+            if (DATA_OFFSET + (long) capacity != size || (int) INT.getVolatile(buffer, STATE_OFFSET) != STATE_OPEN) {
+                return null;
+            }
+            return new SharedMemoryRing(file, buffer, capacity);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /** Largest record body {@link #offer} accepts. */
+    int maxRecordBytes() {
+        return maxRecordBytes;
+    }
+
+    boolean isClosed() {
+        return (int) INT.getVolatile(buffer, STATE_OFFSET) != STATE_OPEN;
+    }
+
+    /** Tells producers that this ring is gone (owner closed or replaced it). */
+    void markClosed() {
+        INT.setVolatile(buffer, STATE_OFFSET, STATE_CLOSED);
+    }
+
+    /** Bytes that can still be claimed (records take their padded size). */
+    int freeBytes() {
+        long tail = (long) LONG.getVolatile(buffer, TAIL_OFFSET);
+        long head = (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+        return (int) (capacity - (tail - head));
+    }
+
+    /**
+     * Appends the remaining bytes of {@code src} as one record; safe for any number of producer threads
+     * and processes. The position of {@code src} is not changed.
+     *
+     * @return false if the ring is full or the record is empty or larger than {@link #maxRecordBytes()}
+     */
+    boolean offer(ByteBuffer src) {
+        int length = src.remaining();
+        if (length == 0 || length > maxRecordBytes) return false;
+        int recordBytes = align(RECORD_HEADER_BYTES + length);
+
+        long tail;
+        int index;
+        int padding;
+        while (true) {
+            tail = (long) LONG.getVolatile(buffer, TAIL_OFFSET);
+            long head = (long) LONG.getAcquire(buffer, HEAD_OFFSET);
+            index = (int) tail & mask;
+            int toEnd = capacity - index;
+            padding = recordBytes <= toEnd ? 0 : toEnd;
+            if (tail + padding + recordBytes - head > capacity) return false;
+            if (LONG.compareAndSet(buffer, TAIL_OFFSET, tail, tail + padding + recordBytes)) break;
+        }
+
+        if (padding > 0) {
+            INT.setRelease(buffer, DATA_OFFSET + index, -padding);
+            index = 0;
+        }
+        buffer.put(DATA_OFFSET + index + RECORD_HEADER_BYTES, src, src.position(), length);
+        INT.setRelease(buffer, DATA_OFFSET + index, length); // publish
+        return true;
+    }
+
+    /**
+     * Hands up to {@code limit} published records to {@code handler}, in order; single consumer only.
+     * The buffer passed to the handler is only valid during the call, and the handler must not throw.
+     *
+     * @return number of records handled
+     */
+    int poll(Consumer<ByteBuffer> handler, int limit) {
+        long head = (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+        long start = head;
+        int handled = 0;
+        try {
+            while (handled < limit) {
+                int index = (int) head & mask;
+                int length = (int) INT.getAcquire(buffer, DATA_OFFSET + index);
+                if (length == 0) break; // empty, or the next record is not published yet
+
+                int recordBytes;
+                if (length < 0) {
+                    recordBytes = -length; // padding up to the end of the data area
+                } else {
+                    recordBytes = align(RECORD_HEADER_BYTES + length);
+                    int body = DATA_OFFSET + index + RECORD_HEADER_BYTES;
+                    view.limit(body + length).position(body);
+                    handler.accept(view);
+                    handled++;
+                }
+                zero(index, recordBytes);
+                head += recordBytes;
+            }
+        } finally {
+            if (head != start) LONG.setRelease(buffer, HEAD_OFFSET, head);
+        }
+        return handled;
+    }
+
+    /**
+     * True once the record at the head has stayed claimed but unpublished for {@code timeoutNanos}, i.e. its
+     * producer most likely died in {@link #offer}; single consumer only, call while {@link #poll} finds nothing.
+     */
+    boolean isStalled(long timeoutNanos) {
+        long head = (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+        long tail = (long) LONG.getVolatile(buffer, TAIL_OFFSET);
+        if (tail == head || (int) INT.getAcquire(buffer, DATA_OFFSET + ((int) head & mask)) != 0) {
+            stalledHead = -1L;
+            return false;
+        }
+        long now = System.nanoTime();
+        if (head != stalledHead) {
+            stalledHead = head;
+            stalledSinceNanos = now;
+            return false;
+        }
+        return now - stalledSinceNanos >= timeoutNanos;
+    }
+
+    /** Consumed space must read as unpublished (0) before producers may claim it again. */
+    private void zero(int index, int bytes) {
+        for (int i = DATA_OFFSET + index, end = i + bytes; i < end; i += 8) {
+            buffer.putLong(i, 0L);
+        }
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+}
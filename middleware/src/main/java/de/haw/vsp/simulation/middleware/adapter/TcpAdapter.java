@@ -0,0 +1,759 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.MessageQueue;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.QueueOps;
+import de.haw.vsp.simulation.middleware.QueueOverflowPolicy;
+import de.haw.vsp.simulation.middleware.TcpConfig;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageDeserializer;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * TCP-based {@link TransportAdapter} (MW_MODE=tcp-docker) for lossless runs.
+ *
+ * - one persistent outgoing connection per peer, opened lazily on the first message; failed connects and
+ *   broken connections are retried with exponential backoff ({@link TcpConfig}) while messages wait
+ * - each message is one frame: {@code [i32 big-endian length][JSON message]}
+ * - all frames queued for a peer are written with one gathering write (TCP_NODELAY is on)
+ * - incoming connections are read-only; when the inbound queue is full, reading pauses until it drains,
+ *   so backpressure reaches the sender through TCP instead of dropping messages
+ * - one I/O thread multiplexes accepts, connects, reads and writes with a selector
+ *
+ * Messages are lost only when a connection breaks: frames already handed to the socket are gone, a partially
+ * written frame is sent again on the new connection. Peer addresses come from {@link TransportConfig} as for
+ * {@code udp-docker} (the TCP port is the configured port). Several co-located nodes may share one adapter,
+ * as with {@link UdpAdapter}.
+ */
+public final class TcpAdapter implements TransportAdapter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TcpAdapter.class);
+
+    static final int FRAME_HEADER_BYTES = 4;
+    /** Initial read buffer per incoming connection; grows up to one frame of {@link TcpConfig#maxFrameBytes()}. */
+    static final int READ_BUFFER_BYTES = 64 * 1024;
+    /** Frames per gathering write. */
+    private static final int MAX_GATHER = 64;
+    /** Paused connections are also retried this often, in case a drain signal was missed. */
+    private static final long PAUSED_RETRY_MILLIS = 10L;
+    private static final int INITIAL_ENCODE_BYTES = 4096;
+    /** Encode buffers grown beyond this by a large message are not kept. */
+    private static final int MAX_KEPT_ENCODE_BYTES = 64 * 1024;
+
+    private final NodeId localNode;
+    private final Set<NodeId> hostedNodes;
+    private final TransportConfig config;
+    private final SimulationMessageSerializer serializer;
+    private final SimulationMessageDeserializer deserializer;
+    private final QueueConfig inboundConfig;
+    private final QueueConfig outboundConfig;
+    private final TcpConfig tcp;
+
+    private volatile ReceiveCallback callback;
+    private volatile ErrorCallback errorCallback;
+    private final WritabilityTracker writability = new WritabilityTracker();
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final ResolvedAddressCache addresses;
+
+    private final MessageQueue<SimulationMessage> inboundQueue;
+    private final MessageQueue<OutboundFrame> outboundQueue;
+
+    /** Per sender thread: the frame is encoded here behind its length prefix, then copied out once. */
+    private final ThreadLocal<ByteBuffer> encodeBuffer =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_ENCODE_BYTES));
+
+    /** Written by the I/O thread; {@link Peer#pendingFrames} is read by senders. */
+    private final ConcurrentHashMap<NodeId, Peer> peers = new ConcurrentHashMap<>();
+
+    // I/O thread only
+    private final Set<Peer> touched = new LinkedHashSet<>();        // got frames in this round
+    private final List<Peer> reconnects = new ArrayList<>();        // waiting for their backoff to pass
+    private final List<InboundConnection> paused = new ArrayList<>(); // inbound queue was full
+    private final List<InboundConnection> resuming = new ArrayList<>(); // paused ones being retried
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+    private final AtomicBoolean readingPaused = new AtomicBoolean();   // some connection waits for the queue
+    private final AtomicBoolean resumeRequested = new AtomicBoolean();
+
+    private final Thread ioThread;
+    private final Thread deliverThread;
+
+    public TcpAdapter(
+            NodeId localNode,
+            TransportConfig config,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer
+    ) {
+        this(localNode, config, serializer, deserializer, QueueConfig.defaultConfig(), QueueConfig.defaultConfig(),
+                TcpConfig.defaultConfig());
+    }
+
+    public TcpAdapter(
+            NodeId localNode,
+            TransportConfig config,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer,
+            QueueConfig inboundConfig,
+            QueueConfig outboundConfig,
+            TcpConfig tcp
+    ) {
+        this(List.of(localNode), config, serializer, deserializer, inboundConfig, outboundConfig, tcp);
+    }
+
+    /**
+     * Hosts all {@code localNodes} in one adapter, listening on the port of the first one;
+     * all of them must resolve to that address (e.g. {@code ColocatedTransportConfig}).
+     */
+    public TcpAdapter(
+            List<NodeId> localNodes,
+            TransportConfig config,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer,
+            QueueConfig inboundConfig,
+            QueueConfig outboundConfig,
+            TcpConfig tcp
+    ) {
+        Objects.requireNonNull(localNodes, "localNodes");
+        if (localNodes.isEmpty()) throw new IllegalArgumentException("localNodes must not be empty");
+        this.localNode = Objects.requireNonNull(localNodes.get(0), "localNode");
+        this.hostedNodes = Set.copyOf(localNodes);
+        this.config = Objects.requireNonNull(config, "config");
+        this.serializer = Objects.requireNonNull(serializer, "serializer");
+        this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
+        this.inboundConfig = Objects.requireNonNull(inboundConfig, "inboundConfig");
+        this.outboundConfig = Objects.requireNonNull(outboundConfig, "outboundConfig");
+        this.tcp = Objects.requireNonNull(tcp, "tcp");
+
+        this.inboundQueue = QueueOps.newMessageQueue(this.inboundConfig);
+        this.outboundQueue = QueueOps.newQueue(this.outboundConfig, OutboundFrame::conflationKey);
+        this.addresses = new ResolvedAddressCache(this.config);
+
+        TransportAddress localAddr = config.resolve(this.localNode);
+        if (localAddr == null) {
+            throw new IllegalArgumentException("No transport address for " + this.localNode);
+        }
+        for (NodeId n : localNodes) {
+            if (!localAddr.equals(config.resolve(n))) {
+                throw new IllegalArgumentException("Hosted node " + n + " does not resolve to " + localAddr);
+            }
+        }
+
+        // Docker correctness: listen on all interfaces on the configured port
+        ServerSocketChannel ch = null;
+        try {
+            ch = ServerSocketChannel.open();
+            ch.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            ch.bind(new InetSocketAddress(localAddr.port()));
+            ch.configureBlocking(false);
+            this.selector = Selector.open();
+            ch.register(selector, SelectionKey.OP_ACCEPT);
+            this.server = ch;
+        } catch (IOException e) {
+            if (ch != null) {
+                try {
+                    ch.close();
+                } catch (IOException ignored) {}
+            }
+            throw new IllegalStateException(
+                    "Failed to listen on TCP port " + localAddr.port() + " for " + this.localNode, e
+            );
+        }
+
+        this.ioThread = new Thread(this::ioLoop, "tcp-adapter-io-" + this.localNode);
+        this.ioThread.setDaemon(true);
+
+        this.deliverThread = new Thread(this::deliverLoop, "tcp-adapter-deliver-" + this.localNode);
+        this.deliverThread.setDaemon(true);
+
+        this.ioThread.start();
+        this.deliverThread.start();
+    }
+
+    @Override
+    public boolean send(SimulationMessage message) {
+        if (hostedNodes.contains(message.receiver())) {
+            return deliverLocally(message);
+        }
+        if (addresses.resolve(message.receiver()) == null) {
+            return false; // unknown or unresolvable receiver
+        }
+        if (pendingFrames(message.receiver()) >= outboundConfig.capacity()) {
+            writability.markWaiting(message.receiver()); // peer backlog full (e.g. while reconnecting)
+            return false;
+        }
+
+        ByteBuffer frame = encode(message);
+        if (frame == null) {
+            return false; // serialization failed or oversize
+        }
+
+        Object conflationKey = outboundConfig.overflowPolicy() == QueueOverflowPolicy.CONFLATE
+                ? outboundConfig.conflationKey().keyOf(message)
+                : null;
+        boolean accepted = QueueOps.enqueue(outboundQueue,
+                new OutboundFrame(message.receiver(), frame, conflationKey), outboundConfig);
+        if (!accepted) {
+            writability.markWaiting(message.receiver());
+            return false;
+        }
+        if (!wakeupRequested.getAndSet(true)) {
+            selector.wakeup();
+        }
+        return true;
+    }
+
+    /** @return flipped buffer holding the length-prefixed frame, or null if it cannot be sent */
+    private ByteBuffer encode(SimulationMessage message) {
+        ByteBuffer buf = encodeBuffer.get();
+        int limit = FRAME_HEADER_BYTES + tcp.maxFrameBytes();
+        while (true) {
+            buf.clear().position(FRAME_HEADER_BYTES);
+            try {
+                serializer.serialize(message, buf);
+                break;
+            } catch (BufferOverflowException e) {
+                if (buf.capacity() >= limit) return null; // larger than a frame
+                buf = ByteBuffer.allocate((int) Math.min((long) buf.capacity() * 2, limit));
+                encodeBuffer.set(buf);
+            } catch (MessageCodecException e) {
+                return null;
+            }
+        }
+        buf.putInt(0, buf.position() - FRAME_HEADER_BYTES).flip();
+        ByteBuffer frame = ByteBuffer.allocate(buf.remaining()).put(buf).flip();
+        if (buf.capacity() > MAX_KEPT_ENCODE_BYTES) encodeBuffer.remove();
+        return frame;
+    }
+
+    /**
+     * Co-located receiver: no connection, but the message still goes through the codec, so the receiver gets
+     * its own copy of the payload as from a remote sender. The delivery thread itself never blocks
+     * on its own queue (a handler sending to a co-located node).
+     */
+    private boolean deliverLocally(SimulationMessage message) {
+        SimulationMessage copy;
+        try {
+            copy = deserializer.deserialize(serializer.serialize(message));
+        } catch (MessageCodecException e) {
+            return false; // serialization failed
+        }
+        boolean accepted = Thread.currentThread() == deliverThread
+                ? inboundQueue.offer(copy)
+                : QueueOps.enqueue(inboundQueue, copy, inboundConfig);
+        if (!accepted) writability.markWaiting(message.receiver());
+        return accepted;
+    }
+
+    /** Not writable while the shared outbound queue or the peer's own backlog is above its high watermark. */
+    @Override
+    public boolean isWritable(NodeId receiver) {
+        if (hostedNodes.contains(receiver)) {
+            if (inboundQueue.size() < WritabilityTracker.highWatermark(inboundConfig.capacity())) return true;
+        } else if (outboundQueue.size() < WritabilityTracker.highWatermark(outboundConfig.capacity())
+                && pendingFrames(receiver) < WritabilityTracker.highWatermark(outboundConfig.capacity())) {
+            return true;
+        }
+        writability.markWaiting(receiver);
+        return false;
+    }
+
+    private int pendingFrames(NodeId peer) {
+        Peer p = peers.get(peer);
+        return p == null ? 0 : p.pendingFrames;
+    }
+
+    @Override
+    public void onWritable(WritabilityCallback callback) {
+        writability.setCallback(callback);
+    }
+
+    private void ioLoop() {
+        while (running.get()) {
+            try {
+                wakeupRequested.set(false);
+                if (outboundQueue.size() == 0 && !resumeRequested.get()) {
+                    long waitMillis = millisUntilReconnect();
+                    if (!paused.isEmpty() && (waitMillis < 0 || waitMillis > PAUSED_RETRY_MILLIS)) {
+                        waitMillis = PAUSED_RETRY_MILLIS;
+                    }
+                    if (waitMillis > 0) selector.select(waitMillis);
+                    else if (waitMillis == 0) selector.selectNow();
+                    else selector.select();
+                } else {
+                    selector.selectNow();
+                }
+                if (!running.get()) break;
+
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    handle(key);
+                }
+                if (resumeRequested.getAndSet(false) || (!paused.isEmpty() && inboundDrained())) resumePaused();
+                reconnectDue();
+                flushOutbound();
+            } catch (IOException e) {
+                if (running.get()) {
+                    reportError(localNode, null, "tcp io error: " + e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                LOG.debug("TCP io loop error: {}", e.getMessage());
+                reportError(localNode, null, "tcp io loop error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) return;
+        if (key.isAcceptable()) {
+            accept();
+        } else if (key.attachment() instanceof Peer peer) {
+            if (key.isConnectable()) finishConnect(peer);
+            else if (key.isReadable()) checkClosed(peer);
+            if (peer.connected && key.isValid() && key.isWritable()) write(peer);
+        } else if (key.attachment() instanceof InboundConnection conn) {
+            read(conn);
+        }
+    }
+
+    // ---- outgoing connections ----
+
+    /** Moves queued frames to their peers and writes every peer that got frames with one gathering write. */
+    private void flushOutbound() {
+        OutboundFrame job;
+        for (int n = outboundConfig.capacity(); n > 0 && (job = outboundQueue.poll()) != null; n--) {
+            // send() checked the backlog; frames queued meanwhile may overshoot it by at most the queue capacity
+            Peer peer = peers.computeIfAbsent(job.receiver, Peer::new);
+            peer.pending.addLast(job.frame);
+            peer.pendingFrames++;
+            touched.add(peer);
+        }
+
+        for (Peer peer : touched) {
+            if (peer.connected) {
+                write(peer);
+            } else if (peer.channel == null && peer.nextConnectNanos == 0L) {
+                connect(peer); // lazy: first message to this peer (or first after a backoff has passed)
+            }
+        }
+        touched.clear();
+
+        if (writability.hasWaiting()
+                && outboundQueue.size() <= WritabilityTracker.lowWatermark(outboundConfig.capacity())) {
+            writability.signal(r -> !hostedNodes.contains(r)
+                    && pendingFrames(r) <= WritabilityTracker.lowWatermark(outboundConfig.capacity()));
+        }
+    }
+
+    private void connect(Peer peer) {
+        InetSocketAddress addr = addresses.resolve(peer.id);
+        if (addr == null) {
+            connectFailed(peer, "unknown or unresolvable peer");
+            return;
+        }
+        SocketChannel ch = null;
+        try {
+            ch = SocketChannel.open();
+            ch.configureBlocking(false);
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            peer.channel = ch;
+            boolean connected = ch.connect(addr);
+            peer.key = ch.register(selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, peer);
+            if (connected) onConnected(peer);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(ch);
+            peer.channel = null;
+            peer.key = null;
+            connectFailed(peer, e.getMessage());
+        }
+    }
+
+    private void finishConnect(Peer peer) {
+        try {
+            if (peer.channel.finishConnect()) onConnected(peer);
+        } catch (IOException e) {
+            disconnect(peer, "connect to " + peer.id + " failed: " + e.getMessage());
+        }
+    }
+
+    private void onConnected(Peer peer) {
+        peer.connected = true;
+        peer.backoffMillis = 0L;
+        peer.failureReported = false;
+        peer.key.interestOps(SelectionKey.OP_READ);
+        write(peer);
+    }
+
+    /** The peer never sends on our connection, so a readable outgoing connection means it was closed. */
+    private void checkClosed(Peer peer) {
+        try {
+            ByteBuffer probe = ByteBuffer.allocate(1);
+            if (peer.channel.read(probe) < 0) disconnect(peer, "connection to " + peer.id + " closed by peer");
+        } catch (IOException e) {
+            disconnect(peer, "connection to " + peer.id + " failed: " + e.getMessage());
+        }
+    }
+
+    /** Writes pending frames until none are left or the socket send buffer is full. */
+    private void write(Peer peer) {
+        try {
+            while (!peer.pending.isEmpty()) {
+                int n = 0;
+                for (ByteBuffer b : peer.pending) {
+                    gather[n++] = b;
+                    if (n == MAX_GATHER) break;
+                }
+                peer.channel.write(gather, 0, n);
+                Arrays.fill(gather, 0, n, null);
+
+                int written = 0;
+                while (!peer.pending.isEmpty() && !peer.pending.peekFirst().hasRemaining()) {
+                    peer.pending.pollFirst();
+                    written++;
+                }
+                peer.pendingFrames -= written;
+                if (written < n) break; // socket send buffer is full
+            }
+        } catch (IOException e) {
+            disconnect(peer, "write to " + peer.id + " failed: " + e.getMessage());
+            return;
+        }
+        // wait for OP_WRITE only while the socket has no room
+        int ops = peer.pending.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        if (peer.key.isValid() && peer.key.interestOps() != ops) peer.key.interestOps(ops);
+    }
+
+    /** Closes a broken connection; pending frames are kept (a partially written one is sent again whole). */
+    private void disconnect(Peer peer, String reason) {
+        if (peer.key != null) peer.key.cancel();
+        closeQuietly(peer.channel);
+        peer.channel = null;
+        peer.key = null;
+        peer.connected = false;
+        ByteBuffer head = peer.pending.peekFirst();
+        if (head != null) head.rewind();
+        addresses.invalidate(peer.id); // re-resolve (e.g. peer container restarted)
+        connectFailed(peer, reason);
+    }
+
+    /** Schedules the next attempt; only the first failure of an outage is reported. */
+    private void connectFailed(Peer peer, String reason) {
+        peer.backoffMillis = peer.backoffMillis == 0L
+                ? tcp.connectBackoffMinMillis()
+                : Math.min(peer.backoffMillis * 2, tcp.connectBackoffMaxMillis());
+        peer.nextConnectNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(peer.backoffMillis);
+        reconnects.add(peer);
+        if (!peer.failureReported) {
+            peer.failureReported = true;
+            reportError(localNode, peer.id, "tcp " + reason + " (retrying)");
+        }
+    }
+
+    /** Reconnects peers whose backoff has passed and that still have frames to send. */
+    private void reconnectDue() {
+        if (reconnects.isEmpty()) return;
+        long now = System.nanoTime();
+        for (Iterator<Peer> it = reconnects.iterator(); it.hasNext(); ) {
+            Peer peer = it.next();
+            if (now - peer.nextConnectNanos < 0) continue;
+            it.remove();
+            peer.nextConnectNanos = 0L;
+            if (!peer.pending.isEmpty()) connect(peer); // otherwise lazily on the next message
+        }
+    }
+
+    /** @return ms until the next reconnect is due, 0 if one is due now, -1 if none is scheduled */
+    private long millisUntilReconnect() {
+        if (reconnects.isEmpty()) return -1L;
+        long now = System.nanoTime();
+        long min = Long.MAX_VALUE;
+        for (Peer peer : reconnects) min = Math.min(min, peer.nextConnectNanos - now);
+        return min <= 0 ? 0L : Math.max(1L, TimeUnit.NANOSECONDS.toMillis(min));
+    }
+
+    // ---- incoming connections ----
+
+    private void accept() {
+        SocketChannel ch = null;
+        try {
+            while ((ch = server.accept()) != null) {
+                ch.configureBlocking(false);
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                InboundConnection conn = new InboundConnection(ch);
+                conn.key = ch.register(selector, SelectionKey.OP_READ, conn);
+            }
+        } catch (IOException e) {
+            closeQuietly(ch);
+            reportError(localNode, null, "tcp accept failed: " + e.getMessage());
+        }
+    }
+
+    private void read(InboundConnection conn) {
+        int n;
+        try {
+            n = conn.channel.read(conn.buffer);
+        } catch (IOException e) {
+            closeInbound(conn, null);
+            return;
+        }
+        if (n < 0) {
+            closeInbound(conn, null); // peer closed its outgoing connection
+            return;
+        }
+        conn.buffer.flip();
+        try {
+            deliverFrames(conn);
+        } finally {
+            conn.buffer.compact();
+        }
+    }
+
+    /** Decodes all complete frames of the read buffer (which is in read mode); stops when the inbound queue is full. */
+    private void deliverFrames(InboundConnection conn) {
+        ByteBuffer buf = conn.buffer;
+        while (buf.remaining() >= FRAME_HEADER_BYTES) {
+            int length = buf.getInt(buf.position());
+            if (length <= 0 || length > tcp.maxFrameBytes()) {
+                closeInbound(conn, "invalid frame length " + length + " from " + conn.remoteAddress());
+                buf.position(buf.limit());
+                return;
+            }
+            if (buf.remaining() < FRAME_HEADER_BYTES + length) {
+                conn.ensureCapacity(FRAME_HEADER_BYTES + length);
+                return;
+            }
+            ByteBuffer frame = buf.slice(buf.position() + FRAME_HEADER_BYTES, length);
+            buf.position(buf.position() + FRAME_HEADER_BYTES + length);
+
+            SimulationMessage msg;
+            try {
+                msg = deserializer.deserialize(frame);
+            } catch (MessageCodecException e) {
+                reportError(localNode, null, "decode error from " + conn.remoteAddress() + ": " + e.getMessage());
+                continue;
+            }
+            if (!hostedNodes.contains(msg.receiver())) {
+                reportError(localNode, msg.sender(), "misaddressed message");
+                continue;
+            }
+            if (!inboundQueue.offer(msg)) {
+                pause(conn, msg);
+                return;
+            }
+        }
+    }
+
+    /** Stops reading until the delivery thread has drained the inbound queue; TCP then pushes back on the sender. */
+    private void pause(InboundConnection conn, SimulationMessage held) {
+        conn.held = held;
+        if (conn.key.isValid()) conn.key.interestOps(0);
+        paused.add(conn);
+        readingPaused.set(true);
+    }
+
+    private boolean inboundDrained() {
+        return inboundQueue.size() <= WritabilityTracker.lowWatermark(inboundConfig.capacity());
+    }
+
+    /** Retries the paused connections; one that fills the queue again is paused again (added to {@link #paused}). */
+    private void resumePaused() {
+        resuming.addAll(paused);
+        paused.clear();
+        for (InboundConnection conn : resuming) {
+            if (!conn.channel.isOpen()) continue;
+            if (!inboundQueue.offer(conn.held)) {
+                paused.add(conn);
+                readingPaused.set(true); // still full, check again on the next drain
+                continue;
+            }
+            conn.held = null;
+            conn.buffer.flip();
+            try {
+                deliverFrames(conn);
+            } finally {
+                conn.buffer.compact();
+            }
+            if (conn.held == null && conn.key.isValid()) conn.key.interestOps(SelectionKey.OP_READ);
+        }
+        resuming.clear();
+    }
+
+    private void closeInbound(InboundConnection conn, String error) {
+        if (error != null) reportError(localNode, null, "tcp " + error + " (connection closed)");
+        conn.key.cancel();
+        closeQuietly(conn.channel);
+    }
+
+    private static void closeQuietly(Channel ch) {
+        if (ch == null) return;
+        try {
+            ch.close();
+        } catch (IOException ignored) {}
+    }
+
+    // ---- delivery ----
+
+    private void deliverLoop() {
+        while (running.get()) {
+            try {
+                SimulationMessage msg = inboundQueue.take();
+                if (readingPaused.get() && inboundDrained() && readingPaused.compareAndSet(true, false)) {
+                    resumeRequested.set(true);
+                    selector.wakeup();
+                }
+                signalIfInboundDrained();
+                ReceiveCallback cb = this.callback;
+                if (cb != null) {
+                    cb.onMessage(msg);
+                } else {
+                    // No handler wired yet -> transient drop
+                    reportError(localNode, msg.sender(), "no receive callback yet (dropped)");
+                }
+            } catch (InterruptedException ie) {
+                if (!running.get()) break;
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOG.debug("TCP deliver loop error: {}", e.getMessage());
+                reportError(localNode, null, "tcp deliver loop error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void signalIfInboundDrained() {
+        if (writability.hasWaiting()
+                && inboundQueue.size() <= WritabilityTracker.lowWatermark(inboundConfig.capacity())) {
+            writability.signal(hostedNodes::contains);
+        }
+    }
+
+    @Override
+    public void onReceive(ReceiveCallback callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public void onError(ErrorCallback cb) {
+        this.errorCallback = cb;
+    }
+
+    private void reportError(NodeId node, NodeId peer, String msg) {
+        ErrorCallback cb = this.errorCallback;
+        if (cb != null) cb.onError(node, peer, msg);
+    }
+
+    @Override
+    public NodeId localNode() {
+        return localNode;
+    }
+
+    @Override
+    public boolean hosts(NodeId node) {
+        return hostedNodes.contains(node);
+    }
+
+    @Override
+    public void close() {
+        if (!running.getAndSet(false)) return;
+
+        // Unblock loops
+        selector.wakeup();
+        deliverThread.interrupt();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {}
+        closeQuietly(server);
+
+        inboundQueue.clear();
+        outboundQueue.clear();
+        writability.clear();
+    }
+
+    /** Outgoing connection to one peer; fields other than {@link #pendingFrames} are I/O thread only. */
+    private static final class Peer {
+        final NodeId id;
+        final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        volatile int pendingFrames;
+        SocketChannel channel;     // null while disconnected
+        SelectionKey key;
+        boolean connected;
+        long backoffMillis;        // 0 after a successful connect
+        long nextConnectNanos;     // 0 unless waiting for a reconnect
+        boolean failureReported;
+
+        Peer(NodeId id) {
+            this.id = id;
+        }
+    }
+
+    /** Accepted connection; I/O thread only. */
+    private static final class InboundConnection {
+        final SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES); // write mode between reads
+        SimulationMessage held; // decoded but not yet queued (reading is paused)
+
+        InboundConnection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /** Grows the buffer (in read mode) so a frame of {@code frameBytes} fits. */
+        void ensureCapacity(int frameBytes) {
+            if (buffer.capacity() >= frameBytes) return;
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(frameBytes, buffer.capacity() * 2));
+            bigger.put(buffer).flip();
+            buffer = bigger;
+        }
+
+        String remoteAddress() {
+            try {
+                return String.valueOf(channel.getRemoteAddress());
+            } catch (IOException e) {
+                return "?";
+            }
+        }
+    }
+
+    /** @param conflationKey only set under {@link QueueOverflowPolicy#CONFLATE} */
+    private record OutboundFrame(NodeId receiver, ByteBuffer frame, Object conflationKey) {}
+}
@@ -4,11 +4,13 @@ import de.haw.vsp.simulation.core.NodeId;
 import de.haw.vsp.simulation.core.SimulationMessage;
 
 import java.io.Closeable;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Low-level transport abstraction used by MessagingPortImpl.
  *
- * Note: For udp-docker, adapters are bound to a single local node.
+ * Note: For udp-docker, adapters are bound to a local node (or a few co-located ones, see {@link #hosts}).
  * For virtual mode, the adapter may represent a shared router.
  */
 public interface TransportAdapter extends Closeable {
@@ -25,20 +27,93 @@ public interface TransportAdapter extends Closeable {
     /** Register callback for incoming messages delivered by the transport. */
     void onReceive(ReceiveCallback callback);
 
+    /**
+     * Register callback for incoming messages delivered in batches.
+     * Replaces a callback registered via {@link #onReceive(ReceiveCallback)}.
+     *
+     * Default: adapts to {@link #onReceive(ReceiveCallback)} with single-element batches.
+     */
+    default void onReceiveBatch(BatchReceiveCallback callback) {
+        onReceive(message -> callback.onMessages(List.of(message)));
+    }
+
     /**
      * Optional callback for transport-level errors/drops (queue full, decode errors, etc).
      * Default: no-op.
      */
     default void onError(ErrorCallback callback) { /* no-op */ }
 
+    /**
+     * @return false if the path to {@code receiver} is congested (its queues are above their high
+     *         watermark), i.e. a send is likely to be dropped or to block. Default: always writable.
+     *         A false result registers for one {@link #onWritable(WritabilityCallback)} signal.
+     */
+    default boolean isWritable(NodeId receiver) { return true; }
+
+    /**
+     * Register callback for receivers that were not writable and have drained to the low watermark.
+     * Default: no-op (adapter never reports congestion).
+     */
+    default void onWritable(WritabilityCallback callback) { /* no-op */ }
+
     /** @return local node id this adapter is bound to (or a sentinel in virtual mode). */
     NodeId localNode();
 
+    /**
+     * @return true if {@code node} is hosted by this adapter, i.e. may send through it and receives
+     *         from it. Default: only {@link #localNode()}.
+     */
+    default boolean hosts(NodeId node) {
+        return localNode().equals(node);
+    }
+
+    /**
+     * Tells the transport the topology neighbors of a hosted node (e.g. to join their multicast groups).
+     * Default: no-op.
+     */
+    default void setNeighbors(NodeId node, Set<NodeId> neighbors) { /* no-op */ }
+
+    /**
+     * @return true if {@link #broadcast} can send {@code sender}'s message to exactly these receivers at once.
+     *         Default: false (the caller sends per receiver).
+     */
+    default boolean supportsBroadcast(NodeId sender, Set<NodeId> receivers) { return false; }
+
+    /**
+     * Sends one message to all {@code receivers} at once (if {@link #supportsBroadcast}); each
+     * receiver gets it with its own id as receiver. Default: one {@link #send} per receiver.
+     *
+     * @return true if accepted for every receiver, false if dropped immediately for any (like {@link #send})
+     */
+    default boolean broadcast(SimulationMessage message, Set<NodeId> receivers) {
+        boolean accepted = true;
+        for (NodeId r : receivers) {
+            accepted &= send(r.equals(message.receiver())
+                    ? message
+                    : new SimulationMessage(message.sender(), r, message.messageType(), message.payload(), message.seq()));
+        }
+        return accepted;
+    }
+
     @FunctionalInterface
     interface ReceiveCallback {
         void onMessage(SimulationMessage message);
     }
 
+    /**
+     * Receives several messages at once. All messages of one batch have the same receiver
+     * and are in delivery order. The list is only valid for the duration of the call.
+     */
+    @FunctionalInterface
+    interface BatchReceiveCallback {
+        void onMessages(List<SimulationMessage> messages);
+    }
+
+    @FunctionalInterface
+    interface WritabilityCallback {
+        void onWritable(NodeId receiver);
+    }
+
     @FunctionalInterface
     interface ErrorCallback {
         void onError(NodeId nodeId, NodeId peer, String message);
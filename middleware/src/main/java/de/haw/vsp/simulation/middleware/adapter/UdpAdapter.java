@@ -5,19 +5,38 @@ import de.haw.vsp.simulation.core.SimulationMessage;
 import de.haw.vsp.simulation.middleware.QueueConfig;
 import de.haw.vsp.simulation.middleware.TransportAddress;
 import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpConfig;
+import de.haw.vsp.simulation.middleware.UdpFragmentConfig;
+import de.haw.vsp.simulation.middleware.UdpMulticastConfig;
+import de.haw.vsp.simulation.middleware.UdpPackingConfig;
+import de.haw.vsp.simulation.middleware.UdpReceiveConfig;
+import de.haw.vsp.simulation.middleware.UdpReliabilityConfig;
+import de.haw.vsp.simulation.middleware.codec.DatagramFrames;
+import de.haw.vsp.simulation.middleware.codec.FragmentFrames;
 import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import de.haw.vsp.simulation.middleware.codec.ReliableFrames;
 import de.haw.vsp.simulation.middleware.codec.SimulationMessageDeserializer;
 import de.haw.vsp.simulation.middleware.codec.SimulationMessageSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.haw.vsp.simulation.middleware.MessageQueue;
 import de.haw.vsp.simulation.middleware.QueueOps;
+import de.haw.vsp.simulation.middleware.QueueOverflowPolicy;
+import de.haw.vsp.simulation.middleware.virtual.HashedWheelTimer;
 
 import java.io.IOException;
 import java.net.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * UDP-based {@link TransportAdapter}.
@@ -26,6 +45,21 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * - outbound queue: producer = send(), consumer = sender thread
  * - inbound queue: producer = receiver loop, consumer = delivery thread
  * - bounded queues with explicit overflow policies (no silent drops due to thread pool rejection)
+ * - peer addresses come from a {@link ResolvedAddressCache}, so sends do no DNS/hosts lookups
+ * - queued messages for the same peer are packed into one datagram ({@link UdpPackingConfig})
+ * - optionally K sockets share the port via SO_REUSEPORT, each with its own receive thread
+ *   ({@link UdpReceiveConfig}); the first one also sends
+ * - optionally receive threads only copy datagrams into a {@link DecodePipeline}, whose decoder
+ *   threads decode in parallel and publish in arrival order
+ * - optionally messages are sequenced, acknowledged and retransmitted per peer
+ *   ({@link UdpReliabilityConfig}, {@link ReliableDelivery})
+ * - messages larger than one datagram are sent in MTU-sized fragments and reassembled in bounded,
+ *   pooled buffers ({@link UdpFragmentConfig}, {@link FragmentReassembler})
+ * - optionally hosts several co-located nodes on the socket of the first one: received messages are
+ *   demultiplexed by receiver, and messages between co-located nodes go straight into the inbound
+ *   queue without encoding
+ * - optionally a broadcast to a sender's topology neighbors is encoded once and sent as one datagram to
+ *   the sender's neighborhood multicast group ({@link UdpMulticastConfig}, {@link NeighborhoodMulticast})
  *
  * Docker behavior:
  * - binds to 0.0.0.0:port (NOT to the configured hostname) so it works in containers
@@ -34,30 +68,60 @@ public final class UdpAdapter implements TransportAdapter {
 
     private static final Logger LOG = LoggerFactory.getLogger(UdpAdapter.class);
     //private static final int MAX_DATAGRAM_BYTES = 64 * 1024;
-    private static final int MAX_DATAGRAM_BYTES = 65_507;
+    /** Largest UDP payload over IPv4. */
+    public static final int MAX_DATAGRAM_BYTES = 65_507;
+    /** Pooled encode buffers; larger messages get an array of their own. */
+    static final int SEND_BUFFER_BYTES = 2048;
+    private static final int MAX_POOLED_BUFFERS = 1024;
+    private static final int DECODE_RING_SLOTS = 1024;
+    private static final long RETRANSMIT_TICK_MILLIS = 10L;
+    private static final int RETRANSMIT_WHEEL_SIZE = 512;
+    /** Requested socket receive buffer with fragmentation, so a burst of fragments is not dropped (capped by the OS). */
+    private static final int FRAGMENT_RECEIVE_BUFFER_BYTES = 4 << 20;
 
     private final NodeId localNode;
+    private final Set<NodeId> hostedNodes; // localNode and the nodes co-located with it
     private final TransportConfig config;
     private final SimulationMessageSerializer serializer;
     private final SimulationMessageDeserializer deserializer;
 
     private final QueueConfig inboundConfig;
     private final QueueConfig outboundConfig;
+    private final UdpPackingConfig packing;
 
     private volatile ReceiveCallback callback;
 
-    private final DatagramSocket socket;
+    private final DatagramSocket socket;           // sends and receives
+    private final DatagramSocket[] receiveSockets; // [0] == socket
+    private final ResolvedAddressCache peers;
+    private final DatagramPacket sendPacket = new DatagramPacket(new byte[0], 0); // send thread only
+    private final DatagramPacker packer;                                          // send thread only, null if off
+    private final BufferPool sendBuffers;
+    private final DatagramPacker.Sink packSink = this::sendPacked;
 
-    private final LinkedBlockingDeque<SimulationMessage> inboundQueue;
-    private final LinkedBlockingDeque<OutboundDatagram> outboundQueue;
+    private final MessageQueue<SimulationMessage> inboundQueue;
+    private final MessageQueue<OutboundDatagram> outboundQueue;
 
     private final AtomicBoolean running = new AtomicBoolean(true);
 
-    private final Thread recvThread;
+    private final Thread[] recvThreads;
+    private final DecodePipeline decodePipeline; // null: decode on the receive threads
     private final Thread deliverThread;
     private final Thread sendThread;
 
+    private final ReliableDelivery reliability;                 // null: best effort
+    private final HashedWheelTimer<NodeId> retransmitTimer;     // null: best effort
+
+    private final UdpFragmentConfig fragmentation;
+    private final FragmentReassembler reassembler;              // null: fragmentation off
+    private final byte[] fragmentBuf;                           // send thread only, null if off
+    private final byte[] localIdBytes;
+    private int nextFragmentedMessageId;                        // send thread only
+
+    private final NeighborhoodMulticast multicast;              // null: broadcasts are sent per receiver
+
     private volatile ErrorCallback errorCallback;
+    private final WritabilityTracker writability = new WritabilityTracker();
 
     public UdpAdapter(
             NodeId localNode,
@@ -76,35 +140,105 @@ public final class UdpAdapter implements TransportAdapter {
             QueueConfig inboundConfig,
             QueueConfig outboundConfig
     ) {
-        this.localNode = Objects.requireNonNull(localNode, "localNode");
+        this(List.of(Objects.requireNonNull(localNode, "localNode")), config, serializer, deserializer,
+                inboundConfig, outboundConfig, UdpConfig.defaultConfig());
+    }
+
+    /**
+     * Hosts all {@code localNodes} in one adapter. The socket is bound to the port of the first one;
+     * every node must resolve to the same address (see {@link de.haw.vsp.simulation.middleware.ColocatedTransportConfig}).
+     * Reliable delivery sequences per peer, not per (sender, peer), so it requires a single local node.
+     */
+    public UdpAdapter(
+            List<NodeId> localNodes,
+            TransportConfig config,
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer,
+            QueueConfig inboundConfig,
+            QueueConfig outboundConfig,
+            UdpConfig udp
+    ) {
+        Objects.requireNonNull(localNodes, "localNodes");
+        Objects.requireNonNull(udp, "udp");
+        UdpReceiveConfig receive = udp.receive();
+        UdpReliabilityConfig reliable = udp.reliable();
+        UdpMulticastConfig multicast = udp.multicast();
+        if (localNodes.isEmpty()) {
+            throw new IllegalArgumentException("localNodes must not be empty");
+        }
+        this.localNode = localNodes.get(0);
+        this.hostedNodes = Set.copyOf(localNodes);
+        if (hostedNodes.size() > 1 && reliable.enabled()) {
+            throw new IllegalArgumentException("Reliable delivery supports a single local node, but got "
+                    + hostedNodes.size());
+        }
         this.config = Objects.requireNonNull(config, "config");
         this.serializer = Objects.requireNonNull(serializer, "serializer");
         this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
         this.inboundConfig = Objects.requireNonNull(inboundConfig, "inboundConfig");
         this.outboundConfig = Objects.requireNonNull(outboundConfig, "outboundConfig");
+        this.packing = udp.packing();
+        this.packer = packing.enabled() ? new DatagramPacker(packing.maxDatagramBytes(), false) : null;
+        this.fragmentation = udp.fragmentation();
+        this.localIdBytes = this.localNode.value().getBytes(StandardCharsets.UTF_8);
+        if (fragmentation.enabled()) {
+            if (localIdBytes.length > FragmentFrames.MAX_SENDER_ID_BYTES) {
+                throw new IllegalArgumentException("NodeId too long for fragmentation: " + this.localNode);
+            }
+            this.reassembler = new FragmentReassembler(this.localNode, fragmentation, this::reportError, System::nanoTime);
+            this.fragmentBuf = new byte[fragmentation.fragmentBytes()];
+        } else {
+            this.reassembler = null;
+            this.fragmentBuf = null;
+        }
 
-        this.inboundQueue = new LinkedBlockingDeque<>(this.inboundConfig.capacity());
-        this.outboundQueue = new LinkedBlockingDeque<>(this.outboundConfig.capacity());
+        this.inboundQueue = QueueOps.newMessageQueue(this.inboundConfig);
+        this.outboundQueue = QueueOps.newQueue(this.outboundConfig, OutboundDatagram::conflationKey);
+        this.sendBuffers = new BufferPool(SEND_BUFFER_BYTES,
+                Math.min(this.outboundConfig.capacity(), MAX_POOLED_BUFFERS), false);
+        this.peers = new ResolvedAddressCache(this.config);
 
         TransportAddress localAddr = config.resolve(this.localNode);
         if (localAddr == null) {
             throw new IllegalArgumentException("No transport address for " + this.localNode);
         }
+        for (NodeId node : hostedNodes) {
+            if (!localAddr.equals(config.resolve(node))) {
+                throw new IllegalArgumentException(node + " does not resolve to the shared address " + localAddr);
+            }
+        }
 
         // Docker correctness: bind to all interfaces on the configured port
-        try {
-            DatagramSocket s = new DatagramSocket(null);
-            s.setReuseAddress(true);
-            s.bind(new InetSocketAddress(localAddr.port()));
-            this.socket = s;
-        } catch (SocketException e) {
-            throw new IllegalStateException(
-                    "Failed to bind UDP socket for " + this.localNode + " on port " + localAddr.port(), e
-            );
+        this.receiveSockets = bindAll(localAddr.port(), receive.sockets());
+        this.socket = receiveSockets[0];
+
+        if (reliable.enabled()) {
+            this.reliability = new ReliableDelivery(this.localNode, reliable, this::transmit, this::scheduleRetransmit,
+                    this::reportError, this::signalWindowOpened, System::nanoTime);
+            this.retransmitTimer = new HashedWheelTimer<>("udp-adapter-retransmit-" + this.localNode,
+                    RETRANSMIT_TICK_MILLIS, RETRANSMIT_WHEEL_SIZE, reliability::onRetransmitTimeout);
+        } else {
+            this.reliability = null;
+            this.retransmitTimer = null;
         }
 
-        this.recvThread = new Thread(this::receiveLoop, "udp-adapter-recv-" + this.localNode);
-        this.recvThread.setDaemon(true);
+        this.multicast = multicast.enabled()
+                ? new NeighborhoodMulticast(this.localNode, multicast, this::decodeMulticast, this::reportError)
+                : null;
+
+        this.decodePipeline = receive.decoderThreads() == 0 ? null : new DecodePipeline(
+                "udp-adapter-decode-" + this.localNode, DECODE_RING_SLOTS, receive.decoderThreads(),
+                this::decodeDatagram, this::enqueueInbound);
+
+        this.recvThreads = new Thread[receiveSockets.length];
+        for (int i = 0; i < receiveSockets.length; i++) {
+            Receiver receiver = new Receiver(receiveSockets[i]);
+            String name = receiveSockets.length == 1
+                    ? "udp-adapter-recv-" + this.localNode
+                    : "udp-adapter-recv-" + this.localNode + "-" + i;
+            recvThreads[i] = new Thread(receiver::run, name);
+            recvThreads[i].setDaemon(true);
+        }
 
         this.deliverThread = new Thread(this::deliverLoop, "udp-adapter-deliver-" + this.localNode);
         this.deliverThread.setDaemon(true);
@@ -112,37 +246,190 @@ public final class UdpAdapter implements TransportAdapter {
         this.sendThread = new Thread(this::sendLoop, "udp-adapter-send-" + this.localNode);
         this.sendThread.setDaemon(true);
 
-        this.recvThread.start();
+        for (Thread t : recvThreads) t.start();
         this.deliverThread.start();
         this.sendThread.start();
     }
 
     @Override
     public boolean send(SimulationMessage message) {
-        TransportAddress addr = config.resolve(message.receiver());
+        if (hostedNodes.contains(message.receiver())) {
+            return deliverLocally(message);
+        }
+        InetSocketAddress addr = peers.resolve(message.receiver());
         if (addr == null) {
-            return false; // unknown receiver
+            return false; // unknown or unresolvable receiver
+        }
+
+        final ByteBuffer data;
+        try {
+            if (reliability == null) {
+                data = encode(message);
+            } else {
+                byte[] frame = reliability.track(message, this::encodeReliable); // kept for retransmission
+                if (frame == null) { // retransmit window full
+                    writability.markWaiting(message.receiver());
+                    return false;
+                }
+                data = ByteBuffer.wrap(frame);
+            }
+        } catch (MessageCodecException e) {
+            return false; // serialization failed (or oversize with reliable delivery)
         }
+        // larger messages fall back to an exact array, so only pooled buffers have this capacity
+        boolean pooled = reliability == null && data.capacity() == sendBuffers.bufferSize();
+
+        if (data.remaining() > maxMessageBytes()) {
+            if (pooled) sendBuffers.release(data);
+            return false; // oversize
+        }
+
+        Object conflationKey = outboundConfig.overflowPolicy() == QueueOverflowPolicy.CONFLATE
+                ? outboundConfig.conflationKey().keyOf(message)
+                : null;
+        boolean accepted = QueueOps.enqueue(outboundQueue,
+                new OutboundDatagram(message.receiver(), addr, data, pooled, conflationKey, false),
+                outboundConfig); // false if outbound queue full
+        if (!accepted) {
+            if (pooled) sendBuffers.release(data);
+            writability.markWaiting(message.receiver());
+        }
+        // a tracked message is retransmitted even if the queue rejected it
+        return accepted || reliability != null;
+    }
+
+    @Override
+    public void setNeighbors(NodeId node, Set<NodeId> neighbors) {
+        if (multicast != null && hostedNodes.contains(node)) multicast.setNeighbors(node, neighbors);
+    }
+
+    /** Multicast only reaches the sender's whole neighborhood, so other receiver sets are sent one by one. */
+    @Override
+    public boolean supportsBroadcast(NodeId sender, Set<NodeId> receivers) {
+        return multicast != null && !receivers.isEmpty() && receivers.equals(multicast.neighborsOf(sender));
+    }
 
+    /** One encoding, one datagram to the sender's group; too large for a datagram: one send per receiver. */
+    @Override
+    public boolean broadcast(SimulationMessage message, Set<NodeId> receivers) {
         final byte[] bytes;
         try {
             bytes = serializer.serialize(message);
+        } catch (MessageCodecException e) {
+            return false;
+        }
+        if (bytes.length > MAX_DATAGRAM_BYTES) {
+            boolean all = true;
+            for (NodeId r : receivers) {
+                all &= send(new SimulationMessage(message.sender(), r, message.messageType(), message.payload(),
+                        message.seq()));
+            }
+            return all;
+        }
+        // apart from unicasts: the message's receiver is just one of the neighbors
+        Object conflationKey = outboundConfig.overflowPolicy() == QueueOverflowPolicy.CONFLATE
+                ? new MulticastKey(outboundConfig.conflationKey().keyOf(message))
+                : null;
+        boolean accepted = QueueOps.enqueue(outboundQueue,
+                new OutboundDatagram(message.sender(), multicast.groupOf(message.sender()), ByteBuffer.wrap(bytes),
+                        false, conflationKey, true),
+                outboundConfig);
+        if (!accepted) receivers.forEach(writability::markWaiting);
+        return accepted;
+    }
+
+    /**
+     * Co-located receiver: no socket, but the message still goes through the codec, so the receiver gets
+     * its own copy of the payload as from a remote sender. The delivery thread itself never blocks
+     * on its own queue (a handler sending to a co-located node).
+     */
+    private boolean deliverLocally(SimulationMessage message) {
+        SimulationMessage copy;
+        try {
+            copy = deserializer.deserialize(serializer.serialize(message));
         } catch (MessageCodecException e) {
             return false; // serialization failed
         }
+        boolean accepted = Thread.currentThread() == deliverThread
+                ? inboundQueue.offer(copy)
+                : QueueOps.enqueue(inboundQueue, copy, inboundConfig);
+        if (!accepted) writability.markWaiting(message.receiver());
+        return accepted;
+    }
 
-        if (bytes.length > MAX_DATAGRAM_BYTES) {
-            return false; // oversize
+    /**
+     * Encodes straight into a pooled send buffer; a message larger than that is encoded into an exact array.
+     *
+     * @return flipped buffer with the encoded message
+     */
+    private ByteBuffer encode(SimulationMessage message) {
+        ByteBuffer buf = sendBuffers.acquire();
+        try {
+            serializer.serialize(message, buf);
+            return buf.flip();
+        } catch (BufferOverflowException e) {
+            sendBuffers.release(buf);
+        } catch (MessageCodecException e) {
+            sendBuffers.release(buf);
+            throw e;
         }
+        return ByteBuffer.wrap(serializer.serialize(message)); // rare: larger than a pooled buffer
+    }
+
+    private byte[] encodeReliable(SimulationMessage message) {
+        byte[] bytes = serializer.serialize(message);
+        if (bytes.length + ReliableFrames.DATA_HEADER_BYTES > maxMessageBytes()) {
+            throw new MessageCodecException("message too large: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
 
-        return QueueOps.enqueue(outboundQueue, new OutboundDatagram(message.receiver(), addr, bytes), outboundConfig); // false if outbound queue full
+    /** Largest encoded message (or reliable data frame) that can be sent. */
+    private int maxMessageBytes() {
+        return fragmentation.enabled() ? fragmentation.maxMessageBytes() : MAX_DATAGRAM_BYTES;
+    }
+
+    /**
+     * All peers share the single outbound queue, so writability is the same for every receiver,
+     * except that with reliable delivery each peer's retransmit window must have room as well.
+     * Co-located receivers depend on the inbound queue instead.
+     */
+    @Override
+    public boolean isWritable(NodeId receiver) {
+        if (hostedNodes.contains(receiver)) {
+            if (inboundQueue.size() < WritabilityTracker.highWatermark(inboundConfig.capacity())) return true;
+        } else if (outboundQueue.size() < WritabilityTracker.highWatermark(outboundConfig.capacity())
+                && (reliability == null || reliability.isWritable(receiver))) {
+            return true;
+        }
+        writability.markWaiting(receiver);
+        return false;
+    }
+
+    @Override
+    public void onWritable(WritabilityCallback callback) {
+        writability.setCallback(callback);
     }
 
     private void sendLoop() {
         while (running.get()) {
             try {
-                OutboundDatagram job = outboundQueue.takeFirst();
-                doSend(job.receiver, job.addr, job.bytes);
+                OutboundDatagram job = outboundQueue.take();
+                signalIfDrained();
+                if (packer == null) {
+                    sendDatagram(job);
+                    sent(job);
+                    continue;
+                }
+
+                // pack everything queued, then send the partial packs; only a burst waits the linger time
+                // for more, so a lone message is not delayed
+                pack(job);
+                if (drainIntoPacks() > 0 && packing.lingerMillis() > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(packing.lingerMillis()));
+                    drainIntoPacks();
+                }
+                packer.flush(packSink);
             } catch (InterruptedException ie) {
                 if (!running.get()) break;
                 Thread.currentThread().interrupt();
@@ -154,58 +441,269 @@ public final class UdpAdapter implements TransportAdapter {
         }
     }
 
-    private void doSend(NodeId receiver, TransportAddress addr, byte[] bytes) {
+    /**
+     * Bounded by the queue capacity, so partial packs are not held back forever under constant load.
+     *
+     * @return number of messages packed
+     */
+    private int drainIntoPacks() {
+        OutboundDatagram job;
+        int packed = 0;
+        for (int n = outboundConfig.capacity(); n > 0 && (job = outboundQueue.poll()) != null; n--) {
+            signalIfDrained();
+            pack(job);
+            packed++;
+        }
+        return packed;
+    }
+
+    private void pack(OutboundDatagram job) {
+        if (job.multicast || !packer.add(job.receiver, job.addr, job.data, packSink)) {
+            sendDatagram(job); // too large to pack
+        }
+        sent(job); // the packer copied it
+    }
+
+    private void sent(OutboundDatagram job) {
+        if (job.pooled) sendBuffers.release(job.data);
+    }
+
+    /** Sends one encoded message, in fragments if it does not fit into a datagram. */
+    private void sendDatagram(OutboundDatagram job) {
+        if (job.multicast) {
+            multicast.send(job.addr, job.data.array()); // always a whole array
+            return;
+        }
+        byte[] bytes = job.data.array();
+        int start = job.data.arrayOffset() + job.data.position();
+        int total = job.data.remaining();
+        if (total <= MAX_DATAGRAM_BYTES) {
+            doSend(job.receiver, job.addr, bytes, start, total);
+            return;
+        }
+        int chunk = fragmentBuf.length - FragmentFrames.FIXED_HEADER_BYTES - localIdBytes.length;
+        int count = (total + chunk - 1) / chunk;
+        int messageId = nextFragmentedMessageId++;
+        for (int index = 0, offset = 0; index < count; index++, offset += chunk) {
+            int header = FragmentFrames.putHeader(fragmentBuf, localIdBytes, messageId, total, offset, index, count);
+            int length = Math.min(chunk, total - offset);
+            System.arraycopy(bytes, start + offset, fragmentBuf, header, length);
+            doSend(job.receiver, job.addr, fragmentBuf, 0, header + length);
+        }
+    }
+
+    private void sendPacked(NodeId receiver, InetSocketAddress addr, ByteBuffer datagram) {
+        doSend(receiver, addr, datagram.array(), datagram.arrayOffset() + datagram.position(), datagram.remaining());
+    }
+
+    private void signalIfDrained() {
+        if (writability.hasWaiting()
+                && outboundQueue.size() <= WritabilityTracker.lowWatermark(outboundConfig.capacity())) {
+            writability.signal(r -> !hostedNodes.contains(r) && (reliability == null || reliability.isWritable(r)));
+        }
+    }
+
+    private void signalIfInboundDrained() {
+        if (writability.hasWaiting()
+                && inboundQueue.size() <= WritabilityTracker.lowWatermark(inboundConfig.capacity())) {
+            writability.signal(hostedNodes::contains);
+        }
+    }
+
+    /** ACKs freed the peer's retransmit window. */
+    private void signalWindowOpened(NodeId peer) {
+        if (writability.hasWaiting()
+                && outboundQueue.size() <= WritabilityTracker.lowWatermark(outboundConfig.capacity())) {
+            writability.signal(peer::equals);
+        }
+    }
+
+    /**
+     * Queues an ACK or retransmission; never blocks, a dropped frame is repaired by the next timeout.
+     * Under {@link QueueOverflowPolicy#CONFLATE} each frame gets a key of its own, so control frames never
+     * supersede each other.
+     */
+    private void transmit(NodeId peer, byte[] frame) {
+        InetSocketAddress addr = peers.resolve(peer);
+        if (addr == null || !running.get()) return;
+        Object conflationKey = outboundConfig.overflowPolicy() == QueueOverflowPolicy.CONFLATE ? new Object() : null;
+        outboundQueue.offer(new OutboundDatagram(peer, addr, ByteBuffer.wrap(frame), false, conflationKey, false));
+    }
+
+    private void scheduleRetransmit(NodeId peer, long delayMillis) {
+        retransmitTimer.schedule(peer, delayMillis);
+    }
+
+    private void doSend(NodeId receiver, InetSocketAddress addr, byte[] bytes, int offset, int length) {
         try {
-            DatagramPacket packet = new DatagramPacket(
-                    bytes, bytes.length,
-                    InetAddress.getByName(addr.host()), addr.port()
-            );
-            socket.send(packet);
+            sendPacket.setData(bytes, offset, length);
+            sendPacket.setSocketAddress(addr);
+            socket.send(sendPacket);
         } catch (IOException e) {
+            peers.invalidate(receiver); // re-resolve next time (e.g. peer container restarted)
             reportError(localNode, receiver, "udp send failed: " + e.getMessage());
         }
     }
 
-    private void receiveLoop() {
-        byte[] buf = new byte[MAX_DATAGRAM_BYTES];
-        DatagramPacket packet = new DatagramPacket(buf, buf.length);
+    /**
+     * Binds {@code count} sockets to the port; with more than one they share it via SO_REUSEPORT.
+     * Falls back to a single socket where SO_REUSEPORT is not supported.
+     */
+    private DatagramSocket[] bindAll(int port, int count) {
+        if (count > 1 && !supportsReusePort()) {
+            LOG.warn("SO_REUSEPORT not supported, {} uses one receive socket instead of {}", localNode, count);
+            count = 1;
+        }
+        DatagramSocket[] sockets = new DatagramSocket[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                DatagramSocket s = new DatagramSocket(null);
+                sockets[i] = s;
+                s.setReuseAddress(true);
+                if (count > 1) s.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                if (fragmentation.enabled()) s.setReceiveBufferSize(FRAGMENT_RECEIVE_BUFFER_BYTES);
+                s.bind(new InetSocketAddress(port));
+            }
+            return sockets;
+        } catch (IOException e) {
+            for (DatagramSocket s : sockets) {
+                if (s != null) s.close();
+            }
+            throw new IllegalStateException(
+                    "Failed to bind UDP socket for " + this.localNode + " on port " + port, e
+            );
+        }
+    }
 
-        while (running.get()) {
-            try {
-                socket.receive(packet);
+    private static boolean supportsReusePort() {
+        try (DatagramSocket probe = new DatagramSocket(null)) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (SocketException e) {
+            return false;
+        }
+    }
 
-                byte[] data = new byte[packet.getLength()];
-                System.arraycopy(packet.getData(), packet.getOffset(), data, 0, packet.getLength());
+    /** Decodes every message of a datagram into {@code out}, reporting bad or misaddressed frames. */
+    private void decodeDatagram(ByteBuffer datagram, SocketAddress from, List<SimulationMessage> out) {
+        try {
+            DatagramFrames.forEachFrame(datagram, frame -> decodeFrame(frame, from, out));
+        } catch (MessageCodecException e) {
+            reportError(localNode, null, "decode error from " + from + ": " + e.getMessage());
+        } finally {
+            if (reliability != null) reliability.flushAcks();
+        }
+    }
 
-                SimulationMessage msg;
-                try {
-                    msg = deserializer.deserialize(data);
-                } catch (MessageCodecException e) {
-                    reportError(localNode, null, "decode error from " + packet.getSocketAddress() + ": " + e.getMessage());
-                    continue;
-                }
-                if (!msg.receiver().equals(localNode)) {
-                    reportError(localNode, msg.sender(), "misaddressed message");
-                    continue;
-                }
+    private void decodeFrame(ByteBuffer frame, SocketAddress from, List<SimulationMessage> out) {
+        SimulationMessage msg;
+        ReliableFrames.DataHeader header = null;
+        try {
+            if (FragmentFrames.isFragment(frame)) {
+                decodeFragment(frame, from, out);
+                return;
+            }
+            if (ReliableFrames.isAck(frame)) {
+                if (reliability != null) reliability.onAck(frame); // a best-effort node ignores ACKs
+                return;
+            }
+            if (ReliableFrames.isData(frame)) {
+                header = ReliableFrames.readData(frame); // a best-effort node delivers the message as is
+            }
+            msg = deserializer.deserialize(frame);
+        } catch (MessageCodecException e) {
+            reportError(localNode, null, "decode error from " + from + ": " + e.getMessage());
+            return;
+        }
+        if (!hostedNodes.contains(msg.receiver())) {
+            reportError(localNode, msg.sender(), "misaddressed message");
+            return;
+        }
+        if (header != null && reliability != null) {
+            reliability.onData(header, msg, out);
+        } else {
+            out.add(msg);
+        }
+    }
 
-                boolean accepted = QueueOps.enqueue(inboundQueue, msg, inboundConfig);
-                if (!accepted) {
-                    reportError(localNode, msg.sender(), "inbound queue full (dropped)");
-                }
+    /** Adds a fragment; decodes the reassembled frame once the last one has arrived. */
+    private void decodeFragment(ByteBuffer fragment, SocketAddress from, List<SimulationMessage> out) {
+        if (reassembler == null) {
+            reportError(localNode, null, "fragment from " + from + " dropped (fragmentation disabled)");
+            return;
+        }
+        ByteBuffer whole = reassembler.add(fragment);
+        if (whole == null) return;
+        try {
+            if (FragmentFrames.isFragment(whole)) throw new MessageCodecException("Nested fragment");
+            decodeFrame(whole, from, out);
+        } finally {
+            reassembler.release(whole);
+        }
+    }
 
-            } catch (SocketException se) {
-                // expected on close()
-                if (running.get()) {
-                    reportError(localNode, null, "udp socket error: " + se.getMessage());
-                }
-                break;
-            } catch (IOException e) {
-                if (running.get()) {
-                    reportError(localNode, null, "udp receive error: " + e.getMessage());
+    /** A neighbor's broadcast: delivered to every hosted node that has the sender as a neighbor, dropped otherwise. */
+    private void decodeMulticast(ByteBuffer datagram, SocketAddress from) {
+        SimulationMessage msg;
+        try {
+            msg = deserializer.deserialize(datagram);
+        } catch (MessageCodecException e) {
+            reportError(localNode, null, "multicast decode error from " + from + ": " + e.getMessage());
+            return;
+        }
+        multicast.forEachHostedNeighborOf(msg.sender(), node -> enqueueInbound(node.equals(msg.receiver())
+                ? msg
+                : new SimulationMessage(msg.sender(), node, msg.messageType(), msg.payload(), msg.seq())));
+    }
+
+    private void enqueueInbound(SimulationMessage msg) {
+        boolean accepted = QueueOps.enqueue(inboundQueue, msg, inboundConfig);
+        if (!accepted) {
+            reportError(localNode, msg.sender(), "inbound queue full (dropped)");
+        }
+    }
+
+    /** Receive loop of one socket; decodes inline or hands datagrams to the decode pipeline. */
+    private final class Receiver {
+        private final DatagramSocket socket;
+        private final byte[] buf = new byte[MAX_DATAGRAM_BYTES];
+        private final DatagramPacket packet = new DatagramPacket(buf, buf.length);
+        private final ByteBuffer view = ByteBuffer.wrap(buf);
+        private final ArrayList<SimulationMessage> decoded = new ArrayList<>();
+
+        Receiver(DatagramSocket socket) {
+            this.socket = socket;
+        }
+
+        void run() {
+            while (running.get()) {
+                try {
+                    socket.receive(packet);
+
+                    if (decodePipeline != null) {
+                        if (!decodePipeline.submit(buf, 0, packet.getLength(), packet.getSocketAddress())) {
+                            reportError(localNode, null, "receive ring full (dropped)");
+                        }
+                        continue;
+                    }
+
+                    view.limit(packet.getLength()).position(0);
+                    decodeDatagram(view, packet.getSocketAddress(), decoded);
+                    for (int i = 0; i < decoded.size(); i++) enqueueInbound(decoded.get(i));
+                    decoded.clear();
+
+                } catch (SocketException se) {
+                    // expected on close()
+                    if (running.get()) {
+                        reportError(localNode, null, "udp socket error: " + se.getMessage());
+                    }
+                    break;
+                } catch (IOException e) {
+                    if (running.get()) {
+                        reportError(localNode, null, "udp receive error: " + e.getMessage());
+                    }
+                } finally {
+                    packet.setLength(buf.length);
                 }
-            } finally {
-                packet.setLength(buf.length);
             }
         }
     }
@@ -213,7 +711,8 @@ public final class UdpAdapter implements TransportAdapter {
     private void deliverLoop() {
         while (running.get()) {
             try {
-                SimulationMessage msg = inboundQueue.takeFirst();
+                SimulationMessage msg = inboundQueue.take();
+                signalIfInboundDrained();
                 ReceiveCallback cb = this.callback;
                 if (cb != null) {
                     cb.onMessage(msg);
@@ -251,23 +750,45 @@ public final class UdpAdapter implements TransportAdapter {
         return localNode;
     }
 
+    @Override
+    public boolean hosts(NodeId node) {
+        return hostedNodes.contains(node);
+    }
+
     @Override
     public void close() {
         running.set(false);
 
-        // Unblock receiver loop
-        try {
-            socket.close();
-        } catch (Exception ignored) {}
+        // Unblock receiver loops
+        for (DatagramSocket s : receiveSockets) {
+            try {
+                s.close();
+            } catch (Exception ignored) {}
+        }
 
         // Unblock loops
-        recvThread.interrupt();
+        for (Thread t : recvThreads) t.interrupt();
+        if (decodePipeline != null) decodePipeline.close();
+        if (multicast != null) multicast.close();
+        if (retransmitTimer != null) retransmitTimer.close();
         deliverThread.interrupt();
         sendThread.interrupt();
 
         inboundQueue.clear();
         outboundQueue.clear();
+        writability.clear();
     }
 
-    private record OutboundDatagram(NodeId receiver, TransportAddress addr, byte[] bytes) {}
+    /**
+     * @param receiver     the sender for a multicast datagram
+     * @param data         array-backed encoded message (a whole array for a multicast datagram)
+     * @param pooled       {@code data} goes back to the send buffer pool once sent
+     * @param conflationKey only set under {@link QueueOverflowPolicy#CONFLATE}
+     * @param multicast    {@code addr} is a neighborhood group; never packed
+     */
+    private record OutboundDatagram(NodeId receiver, InetSocketAddress addr, ByteBuffer data, boolean pooled,
+                                    Object conflationKey, boolean multicast) {}
+
+    /** Conflation key of a multicast datagram; never equal to the key of a unicast. */
+    private record MulticastKey(Object key) {}
 }
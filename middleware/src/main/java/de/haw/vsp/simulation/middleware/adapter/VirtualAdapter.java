@@ -2,15 +2,23 @@ package de.haw.vsp.simulation.middleware.adapter;
 
 import de.haw.vsp.simulation.core.NodeId;
 import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.MessageQueue;
+import de.haw.vsp.simulation.middleware.NetworkModelAware;
 import de.haw.vsp.simulation.middleware.QueueConfig;
 import de.haw.vsp.simulation.middleware.QueueOps;
 import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
 import de.haw.vsp.simulation.middleware.codec.SimulationMessageDeserializer;
 import de.haw.vsp.simulation.middleware.codec.SimulationMessageSerializer;
+import de.haw.vsp.simulation.middleware.virtual.HashedWheelTimer;
+import de.haw.vsp.simulation.middleware.virtual.MessageCopies;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
 import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualNetworkModel;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.*;
@@ -18,41 +26,49 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Virtual (in-JVM) transport adapter that simulates network semantics:
- * - async delivery
+ * - async delivery via N router shards (partitioned by receiver, so per-link FIFO is kept)
  * - bounded queues
- * - JSON serialize->deserialize boundary
- * - optional fault injection (drop + delay)
+ * - codec boundary (JSON serialize->deserialize by default, see {@link VirtualCodecBoundary})
+ * - optional fault injection (drop + delay), either global ({@link VirtualFaultConfig})
+ *   or per link ({@link VirtualNetworkModel}, takes precedence once installed)
  *
  * This adapter is per-simulation instance (NO static/global registry).
  *
  * NOTE: This adapter is designed to be used with MessagingPortImpl(enforceLocalSender=false),
  * because a single shared port routes messages for many node senders.
  */
-public final class VirtualAdapter implements TransportAdapter {
+public final class VirtualAdapter implements TransportAdapter, NetworkModelAware {
 
     private static final Logger LOG = LoggerFactory.getLogger(VirtualAdapter.class);
 
+    private static final long DELAY_TICK_MS = 1L;
+    private static final int DELAY_WHEEL_SIZE = 512;
+
     private final NodeId virtualNode = new NodeId("virtual");
     private final SimulationMessageSerializer serializer;
     private final SimulationMessageDeserializer deserializer;
+    private final VirtualCodecBoundary codecBoundary;
 
     private final QueueConfig outboundConfig;
     private final QueueConfig inboundPerReceiverConfig;
 
     private final VirtualFaultConfig faultConfig;
-    private final Random rng;
 
-    private final LinkedBlockingDeque<SimulationMessage> outboundQueue;
+    private final RouterShard[] shards;
     private final ConcurrentHashMap<NodeId, Inbox> inboxes = new ConcurrentHashMap<>();
 
     private final ExecutorService workerPool;
-    private final ScheduledExecutorService scheduler; // only if delay enabled
+    private volatile HashedWheelTimer<SimulationMessage> delayTimer; // created when delays are first needed
+    private volatile VirtualNetworkModel networkModel;
     private final AtomicBoolean running = new AtomicBoolean(true);
 
     private volatile ReceiveCallback receiveCallback;
+    private volatile BatchReceiveCallback batchReceiveCallback;
     private volatile ErrorCallback errorCallback;
+    private final WritabilityTracker writability = new WritabilityTracker();
 
-    private final Thread routerThread;
+    private final int maxDrainBatch;
+    private final ThreadLocal<ArrayList<SimulationMessage>> drainBuffers; // one per worker thread
 
     public VirtualAdapter(
             SimulationMessageSerializer serializer,
@@ -70,18 +86,36 @@ public final class VirtualAdapter implements TransportAdapter {
             QueueConfig inboundPerReceiverConfig,
             int workerThreads,
             VirtualFaultConfig faultConfig
+    ) {
+        this(serializer, deserializer, outboundConfig, inboundPerReceiverConfig, workerThreads, faultConfig,
+                VirtualTransportConfig.defaultConfig());
+    }
+
+    /**
+     * @param outboundConfig applies to each router shard's outbound queue
+     *                       (total outbound capacity = shards * capacity)
+     */
+    public VirtualAdapter(
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer,
+            QueueConfig outboundConfig,
+            QueueConfig inboundPerReceiverConfig,
+            int workerThreads,
+            VirtualFaultConfig faultConfig,
+            VirtualTransportConfig transportConfig
     ) {
         this.serializer = Objects.requireNonNull(serializer, "serializer");
         this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
         this.outboundConfig = Objects.requireNonNull(outboundConfig, "outboundConfig");
         this.inboundPerReceiverConfig = Objects.requireNonNull(inboundPerReceiverConfig, "inboundPerReceiverConfig");
+        Objects.requireNonNull(transportConfig, "transportConfig");
+        this.codecBoundary = transportConfig.codecBoundary();
+        this.maxDrainBatch = transportConfig.maxDrainBatch();
+        this.drainBuffers = ThreadLocal.withInitial(() -> new ArrayList<>(this.maxDrainBatch));
 
         if (workerThreads <= 0) throw new IllegalArgumentException("workerThreads must be > 0");
 
         this.faultConfig = Objects.requireNonNull(faultConfig, "faultConfig");
-        this.rng = new Random(this.faultConfig.seed());
-
-        this.outboundQueue = new LinkedBlockingDeque<>(this.outboundConfig.capacity());
 
         this.workerPool = Executors.newFixedThreadPool(workerThreads, r -> {
             Thread t = new Thread(r, "virtual-adapter-worker");
@@ -89,30 +123,69 @@ public final class VirtualAdapter implements TransportAdapter {
             return t;
         });
 
-        this.scheduler = (this.faultConfig.maxDelayMs() > 0L)
-                ? Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "virtual-adapter-delay");
-            t.setDaemon(true);
-            return t;
-        })
-                : null;
+        // expired messages go straight into the receiver inbox (1 ms ticks, no task per message)
+        if (this.faultConfig.maxDelayMs() > 0L) delayTimer();
 
-        this.routerThread = new Thread(this::routeLoop, "virtual-adapter-router");
-        this.routerThread.setDaemon(true);
-        this.routerThread.start();
+        int n = transportConfig.routerShards();
+        this.shards = new RouterShard[n];
+        for (int i = 0; i < n; i++) {
+            // shard 0 keeps the configured seed, so a single-shard run replays like before
+            shards[i] = new RouterShard(i, new Random(this.faultConfig.seed() + i * 0x9E3779B97F4A7C15L));
+        }
+        for (RouterShard shard : shards) shard.thread.start();
     }
 
     @Override
     public boolean send(SimulationMessage message) {
         if (!running.get()) return false;
 
-        return QueueOps.enqueue(outboundQueue, message, outboundConfig);
+        boolean accepted = QueueOps.enqueue(shardFor(message.receiver()).queue, message, outboundConfig);
+        if (!accepted) writability.markWaiting(message.receiver());
+        return accepted;
+    }
+
+    /** Writable while both the receiver's router shard queue and its inbox are below the high watermark. */
+    @Override
+    public boolean isWritable(NodeId receiver) {
+        if (writableNow(receiver)) return true;
+        writability.markWaiting(receiver);
+        return false;
+    }
+
+    private boolean writableNow(NodeId receiver) {
+        if (shardFor(receiver).queue.size() >= WritabilityTracker.highWatermark(outboundConfig.capacity())) return false;
+        Inbox inbox = inboxes.get(receiver);
+        return inbox == null || inbox.q.size() < WritabilityTracker.highWatermark(inboundPerReceiverConfig.capacity());
+    }
+
+    /** Both queues of the receiver's path are at or below the low watermark. */
+    private boolean drained(NodeId receiver) {
+        if (shardFor(receiver).queue.size() > WritabilityTracker.lowWatermark(outboundConfig.capacity())) return false;
+        Inbox inbox = inboxes.get(receiver);
+        return inbox == null || inbox.q.size() <= WritabilityTracker.lowWatermark(inboundPerReceiverConfig.capacity());
+    }
+
+    @Override
+    public void onWritable(WritabilityCallback callback) {
+        writability.setCallback(callback);
+    }
+
+    /** All messages for one receiver go through the same shard (keeps per-link FIFO order). */
+    private RouterShard shardFor(NodeId receiver) {
+        return shards.length == 1 ? shards[0] : shards[Math.floorMod(receiver.hashCode(), shards.length)];
     }
 
 
     @Override
     public void onReceive(ReceiveCallback callback) {
         this.receiveCallback = callback;
+        this.batchReceiveCallback = null;
+    }
+
+    @Override
+    public void onReceiveBatch(BatchReceiveCallback callback) {
+        this.batchReceiveCallback = callback;
+        this.receiveCallback = null;
     }
 
     @Override
@@ -120,6 +193,12 @@ public final class VirtualAdapter implements TransportAdapter {
         this.errorCallback = callback;
     }
 
+    @Override
+    public void setNetworkModel(VirtualNetworkModel model) {
+        if (model != null) delayTimer();
+        this.networkModel = model;
+    }
+
     @Override
     public NodeId localNode() {
         return virtualNode;
@@ -128,35 +207,54 @@ public final class VirtualAdapter implements TransportAdapter {
     @Override
     public void close() {
         running.set(false);
-        routerThread.interrupt();
-
-        outboundQueue.clear();
+        for (RouterShard shard : shards) {
+            shard.thread.interrupt();
+            shard.queue.clear();
+        }
         inboxes.clear();
+        writability.clear();
 
         workerPool.shutdownNow();
-        if (scheduler != null) scheduler.shutdownNow();
+        synchronized (this) {
+            if (delayTimer != null) delayTimer.close();
+        }
     }
 
-    private void routeLoop() {
+    private void routeLoop(RouterShard shard) {
         while (running.get()) {
             try {
-                SimulationMessage original = outboundQueue.takeFirst();
+                SimulationMessage original = shard.queue.take();
+                if (writability.hasWaiting()) writability.signal(this::drained);
 
-                SimulationMessage decoded = roundTrip(original);
+                SimulationMessage decoded = roundTrip(shard, original);
                 if (decoded == null) {
                     reportError(original.sender(), original.receiver(), "virtual codec error (dropped)");
                     continue;
                 }
 
-                if (faultConfig.enabled()) {
-                    if (faultConfig.shouldDrop(rng)) {
+                VirtualNetworkModel model = networkModel;
+                if (model != null) {
+                    VirtualNetworkModel.Link link = model.link(decoded.sender(), decoded.receiver());
+                    int size = link.model().bandwidthLimited() ? encodedSize(shard, original) : 0;
+                    long delayNanos = link.sampleDelayNanos(System.nanoTime(), size);
+                    if (delayNanos == VirtualNetworkModel.LOST) {
+                        reportError(decoded.sender(), decoded.receiver(), "virtual link: lost");
+                        continue;
+                    }
+                    long delayMs = TimeUnit.NANOSECONDS.toMillis(delayNanos + 999_999L); // never early
+                    HashedWheelTimer<SimulationMessage> timer = delayTimer;
+                    if (delayMs > 0 && timer != null && timer.schedule(decoded, delayMs)) {
+                        continue;
+                    }
+                } else if (faultConfig.enabled()) {
+                    if (faultConfig.shouldDrop(shard.rng)) {
                         reportError(decoded.sender(), decoded.receiver(), "virtual fault: dropped");
                         continue;
                     }
 
-                    long delayMs = faultConfig.sampleDelayMs(rng);
-                    if (delayMs > 0 && scheduler != null) {
-                        scheduler.schedule(() -> deliver(decoded), delayMs, TimeUnit.MILLISECONDS);
+                    long delayMs = faultConfig.sampleDelayMs(shard.rng);
+                    HashedWheelTimer<SimulationMessage> timer = delayTimer;
+                    if (delayMs > 0 && timer != null && timer.schedule(decoded, delayMs)) {
                         continue;
                     }
                 }
@@ -178,10 +276,18 @@ public final class VirtualAdapter implements TransportAdapter {
         inbox.enqueue(msg);
     }
 
-    private SimulationMessage roundTrip(SimulationMessage msg) {
+    private SimulationMessage roundTrip(RouterShard shard, SimulationMessage msg) {
         try {
-            byte[] bytes = serializer.serialize(msg);
-            return deserializer.deserialize(bytes);
+            shard.encodedSize = -1;
+            return switch (codecBoundary) {
+                case FULL -> {
+                    byte[] bytes = serializer.serialize(msg);
+                    shard.encodedSize = bytes.length;
+                    yield deserializer.deserialize(bytes);
+                }
+                case COPY -> MessageCopies.copyOf(msg);
+                case NONE -> msg;
+            };
         } catch (MessageCodecException e) {
             LOG.debug("Virtual codec error: {}", e.getMessage());
             return null;
@@ -191,17 +297,53 @@ public final class VirtualAdapter implements TransportAdapter {
         }
     }
 
+    /** Wire size for bandwidth modelling; reuses the FULL boundary's encoding when there was one. */
+    private int encodedSize(RouterShard shard, SimulationMessage original) {
+        if (shard.encodedSize >= 0) return shard.encodedSize;
+        try {
+            return serializer.serialize(original).length;
+        } catch (RuntimeException e) {
+            LOG.debug("Virtual size estimation failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private synchronized HashedWheelTimer<SimulationMessage> delayTimer() {
+        if (delayTimer == null && running.get()) {
+            // expired messages go straight into the receiver inbox (1 ms ticks, no task per message)
+            delayTimer = new HashedWheelTimer<>("virtual-adapter-delay", DELAY_TICK_MS, DELAY_WHEEL_SIZE, this::deliver);
+        }
+        return delayTimer;
+    }
+
     private void reportError(NodeId nodeId, NodeId peer, String msg) {
         ErrorCallback cb = this.errorCallback;
         if (cb != null) cb.onError(nodeId, peer, msg);
     }
 
     /**
-     * Per-receiver bounded inbox + serial draining on a shared worker pool.
+     * One router thread with its own outbound queue and fault RNG.
+     * The RNG is only touched by this shard's thread (no contention).
+     */
+    private final class RouterShard {
+        private final MessageQueue<SimulationMessage> queue = QueueOps.newMessageQueue(outboundConfig);
+        private final Random rng;
+        private final Thread thread;
+        private int encodedSize = -1; // size of the last FULL encoding, -1 if none
+
+        RouterShard(int index, Random rng) {
+            this.rng = rng;
+            String name = shards.length == 1 ? "virtual-adapter-router" : "virtual-adapter-router-" + index;
+            this.thread = new Thread(() -> routeLoop(this), name);
+            this.thread.setDaemon(true);
+        }
+    }
+
+    /**
+     * Per-receiver bounded inbox + serial, batched draining on a shared worker pool.
      */
     private final class Inbox {
-        private final LinkedBlockingDeque<SimulationMessage> q =
-                new LinkedBlockingDeque<>(inboundPerReceiverConfig.capacity());
+        private final MessageQueue<SimulationMessage> q = QueueOps.newMessageQueue(inboundPerReceiverConfig);
         private final AtomicBoolean draining = new AtomicBoolean(false);
 
         void enqueue(SimulationMessage msg) {
@@ -220,20 +362,28 @@ public final class VirtualAdapter implements TransportAdapter {
         }
 
         private void drain() {
+            ArrayList<SimulationMessage> batch = drainBuffers.get();
             try {
                 while (running.get()) {
-                    SimulationMessage m = q.pollFirst();
-                    if (m == null) break;
+                    batch.clear();
+                    if (q.drainTo(batch, maxDrainBatch) == 0) break;
+                    if (writability.hasWaiting()) writability.signal(VirtualAdapter.this::drained);
 
+                    BatchReceiveCallback batchCb = batchReceiveCallback;
                     ReceiveCallback cb = receiveCallback;
-                    if (cb != null) {
-                        cb.onMessage(m);
+                    if (batchCb != null) {
+                        batchCb.onMessages(batch);
+                    } else if (cb != null) {
+                        for (int i = 0; i < batch.size(); i++) cb.onMessage(batch.get(i));
                     } else {
                         // transient drop if port not wired yet
-                        reportError(m.receiver(), m.sender(), "virtual drop (no receive callback)");
+                        for (SimulationMessage m : batch) {
+                            reportError(m.receiver(), m.sender(), "virtual drop (no receive callback)");
+                        }
                     }
                 }
             } finally {
+                batch.clear();
                 draining.set(false);
                 // race: new items might have arrived after we decided to stop
                 if (!q.isEmpty()) scheduleDrain();
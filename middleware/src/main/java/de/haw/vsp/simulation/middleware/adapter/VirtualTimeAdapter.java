@@ -0,0 +1,314 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.NetworkModelAware;
+import de.haw.vsp.simulation.middleware.VirtualTimeControl;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageDeserializer;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageSerializer;
+import de.haw.vsp.simulation.middleware.virtual.MessageCopies;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualNetworkModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Discrete-event virtual transport (MW_MODE=virtual-time).
+ *
+ * Instead of waiting for link delays in wall-clock time, every message is stamped with its
+ * simulated delivery time and put into a priority queue. A single event-loop thread takes the
+ * earliest message, moves the simulated clock to its timestamp and calls the receive callback.
+ * Messages with equal timestamps are delivered in send order.
+ *
+ * Delays come from the installed {@link VirtualNetworkModel} or else from {@link VirtualFaultConfig}.
+ * All sampling happens under the adapter lock in send order, so a run with deterministic
+ * handlers is fully reproducible.
+ *
+ * Handlers run on the event-loop thread, one message at a time.
+ */
+public final class VirtualTimeAdapter implements TransportAdapter, NetworkModelAware, VirtualTimeControl {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualTimeAdapter.class);
+
+    /** Holds every in-flight message of the simulation (the wall-clock transport spreads them over queues). */
+    public static final int DEFAULT_MAX_PENDING_EVENTS = 1 << 20;
+
+    private final NodeId virtualNode = new NodeId("virtual");
+    private final SimulationMessageSerializer serializer;
+    private final SimulationMessageDeserializer deserializer;
+    private final VirtualCodecBoundary codecBoundary;
+    private final VirtualFaultConfig faultConfig;
+    private final int maxPendingEvents;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Event> events = new PriorityQueue<>(); // guarded by lock
+    private final Random faultRng;                                     // guarded by lock
+    private long nextSeq;                                              // guarded by lock
+    private long horizonNanos = Long.MAX_VALUE;                        // guarded by lock
+    private boolean dispatching;                                       // guarded by lock
+    private volatile long nowNanos;                                    // written under lock
+
+    private volatile VirtualNetworkModel networkModel;
+    private volatile ReceiveCallback receiveCallback;
+    private volatile ErrorCallback errorCallback;
+    private final WritabilityTracker writability = new WritabilityTracker();
+    private volatile boolean running = true;
+
+    private final Thread loop;
+
+    /**
+     * @param maxPendingEvents bound on scheduled but undelivered messages; sends beyond it are rejected
+     */
+    public VirtualTimeAdapter(
+            SimulationMessageSerializer serializer,
+            SimulationMessageDeserializer deserializer,
+            VirtualCodecBoundary codecBoundary,
+            VirtualFaultConfig faultConfig,
+            int maxPendingEvents
+    ) {
+        this.serializer = Objects.requireNonNull(serializer, "serializer");
+        this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
+        this.codecBoundary = Objects.requireNonNull(codecBoundary, "codecBoundary");
+        this.faultConfig = Objects.requireNonNull(faultConfig, "faultConfig");
+        if (maxPendingEvents <= 0) throw new IllegalArgumentException("maxPendingEvents must be > 0");
+        this.maxPendingEvents = maxPendingEvents;
+        this.faultRng = new Random(faultConfig.seed());
+
+        this.loop = new Thread(this::eventLoop, "virtual-time-loop");
+        this.loop.setDaemon(true);
+        this.loop.start();
+    }
+
+    @Override
+    public boolean send(SimulationMessage message) {
+        if (!running) return false;
+
+        SimulationMessage decoded = roundTrip(message);
+        if (decoded == null) {
+            reportError(message.sender(), message.receiver(), "virtual codec error (dropped)");
+            return true; // accepted, lost in transit like in the wall-clock virtual transport
+        }
+
+        String error = null;
+        lock.lock();
+        try {
+            if (events.size() >= maxPendingEvents) {
+                writability.markWaiting(message.receiver());
+                return false;
+            }
+
+            long delayNanos = sampleDelayNanos(message, decoded);
+            if (delayNanos == VirtualNetworkModel.LOST) {
+                error = "virtual link: lost";
+            } else if (delayNanos < 0) {
+                error = "virtual fault: dropped";
+            } else {
+                events.add(new Event(nowNanos + delayNanos, nextSeq++, decoded));
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (error != null) reportError(decoded.sender(), decoded.receiver(), error);
+        return true;
+    }
+
+    /** Called under lock. @return delay in ns, LOST for link loss, another negative value for a fault drop */
+    private long sampleDelayNanos(SimulationMessage original, SimulationMessage decoded) {
+        VirtualNetworkModel model = networkModel;
+        if (model != null) {
+            VirtualNetworkModel.Link link = model.link(decoded.sender(), decoded.receiver());
+            int size = link.model().bandwidthLimited() ? encodedSize(original) : 0;
+            return link.sampleDelayNanos(nowNanos, size);
+        }
+        if (faultConfig.enabled()) {
+            if (faultConfig.shouldDrop(faultRng)) return -2L;
+            return TimeUnit.MILLISECONDS.toNanos(faultConfig.sampleDelayMs(faultRng));
+        }
+        return 0L;
+    }
+
+    private void eventLoop() {
+        while (running) {
+            Event next;
+            boolean drained;
+            lock.lock();
+            try {
+                while (running && !hasDueEvent()) {
+                    dispatching = false;
+                    changed.signalAll();
+                    changed.await();
+                }
+                if (!running) break;
+
+                next = events.poll();
+                drained = events.size() <= WritabilityTracker.lowWatermark(maxPendingEvents);
+                if (next.timeNanos > nowNanos) nowNanos = next.timeNanos;
+                dispatching = true;
+            } catch (InterruptedException ie) {
+                if (!running) break;
+                continue;
+            } finally {
+                lock.unlock();
+            }
+
+            if (drained && writability.hasWaiting()) writability.signal(r -> true);
+            dispatch(next.message);
+        }
+    }
+
+    private boolean hasDueEvent() {
+        Event head = events.peek();
+        return head != null && head.timeNanos <= horizonNanos;
+    }
+
+    private void dispatch(SimulationMessage msg) {
+        ReceiveCallback cb = receiveCallback;
+        if (cb == null) {
+            reportError(msg.receiver(), msg.sender(), "virtual drop (no receive callback)");
+            return;
+        }
+        try {
+            cb.onMessage(msg);
+        } catch (RuntimeException e) {
+            LOG.debug("Virtual-time handler error: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long simulatedTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nowNanos);
+    }
+
+    @Override
+    public void advanceTo(long simulatedMillis) throws InterruptedException {
+        if (Thread.currentThread() == loop) {
+            throw new IllegalStateException("advanceTo must not be called from a message handler");
+        }
+        long target = TimeUnit.MILLISECONDS.toNanos(simulatedMillis);
+
+        lock.lockInterruptibly();
+        try {
+            horizonNanos = Math.max(target, horizonNanos == Long.MAX_VALUE ? nowNanos : horizonNanos);
+            changed.signalAll();
+            while (running && (dispatching || hasDueEvent())) {
+                changed.await();
+            }
+            if (nowNanos < horizonNanos) nowNanos = horizonNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** All links share the event queue, so writability is the same for every receiver. */
+    @Override
+    public boolean isWritable(NodeId receiver) {
+        lock.lock();
+        try {
+            if (events.size() < WritabilityTracker.highWatermark(maxPendingEvents)) return true;
+        } finally {
+            lock.unlock();
+        }
+        writability.markWaiting(receiver);
+        return false;
+    }
+
+    @Override
+    public void onWritable(WritabilityCallback callback) {
+        writability.setCallback(callback);
+    }
+
+    /** @return number of scheduled but not yet delivered messages */
+    public int pendingEvents() {
+        lock.lock();
+        try {
+            return events.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setNetworkModel(VirtualNetworkModel model) {
+        this.networkModel = model;
+    }
+
+    @Override
+    public void onReceive(ReceiveCallback callback) {
+        this.receiveCallback = callback;
+    }
+
+    @Override
+    public void onError(ErrorCallback callback) {
+        this.errorCallback = callback;
+    }
+
+    @Override
+    public NodeId localNode() {
+        return virtualNode;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            events.clear();
+            writability.clear();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        loop.interrupt();
+    }
+
+    private SimulationMessage roundTrip(SimulationMessage msg) {
+        try {
+            return switch (codecBoundary) {
+                case FULL -> deserializer.deserialize(serializer.serialize(msg));
+                case COPY -> MessageCopies.copyOf(msg);
+                case NONE -> msg;
+            };
+        } catch (MessageCodecException e) {
+            LOG.debug("Virtual codec error: {}", e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            LOG.debug("Virtual unexpected codec error: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private int encodedSize(SimulationMessage msg) {
+        try {
+            return serializer.serialize(msg).length;
+        } catch (RuntimeException e) {
+            LOG.debug("Virtual size estimation failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void reportError(NodeId nodeId, NodeId peer, String msg) {
+        ErrorCallback cb = this.errorCallback;
+        if (cb != null) cb.onError(nodeId, peer, msg);
+    }
+
+    /** A message with its simulated delivery time; ties broken by send order. */
+    private record Event(long timeNanos, long seq, SimulationMessage message) implements Comparable<Event> {
+        @Override
+        public int compareTo(Event o) {
+            int c = Long.compare(timeNanos, o.timeNanos);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Remembers receivers that were reported as not writable and signals them once their
+ * queues have drained to the low watermark (hysteresis between high and low watermark).
+ */
+final class WritabilityTracker {
+
+    private final Set<NodeId> waiting = ConcurrentHashMap.newKeySet();
+    private volatile TransportAdapter.WritabilityCallback callback;
+
+    /** Not writable at or above 3/4 of the capacity. */
+    static int highWatermark(int capacity) {
+        return Math.max(1, capacity - capacity / 4);
+    }
+
+    /** Writable again at or below 1/2 of the capacity. */
+    static int lowWatermark(int capacity) {
+        return capacity / 2;
+    }
+
+    void setCallback(TransportAdapter.WritabilityCallback callback) {
+        this.callback = callback;
+    }
+
+    void markWaiting(NodeId receiver) {
+        if (callback != null) waiting.add(receiver);
+    }
+
+    boolean hasWaiting() {
+        return !waiting.isEmpty();
+    }
+
+    /** Signals (once) every waiting receiver accepted by {@code writable}. */
+    void signal(Predicate<NodeId> writable) {
+        TransportAdapter.WritabilityCallback cb = callback;
+        for (Iterator<NodeId> it = waiting.iterator(); it.hasNext(); ) {
+            NodeId receiver = it.next();
+            if (!writable.test(receiver)) continue;
+            if (waiting.remove(receiver) && cb != null) {
+                cb.onWritable(receiver);
+            }
+        }
+    }
+
+    void clear() {
+        waiting.clear();
+    }
+}
@@ -0,0 +1,419 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compact binary (de)serialization for {@link SimulationMessage} (MW_CODEC=binary, and always for {@code shm}).
+ *
+ * Layout: {@code [u8 header][sender][receiver][messageType][seq, if flagged][payload]}, where
+ * - the header holds the format version (high nibble) and whether a seq follows (bit 0)
+ * - a node id is a varint: {@code n << 1} for the canonical form {@code node-<n>}, else {@code len << 1 | 1}
+ *   followed by the UTF-8 bytes
+ * - a message type is a varint as well: {@code i << 1} for entry {@code i} of the type table
+ *   ({@link #DEFAULT_MESSAGE_TYPES}, then the types given to the constructor), else the string form
+ * - seq (never negative) is a varint
+ * - the payload is a tagged value: null, string, node id string ({@code node-<n>} as varint), integer
+ *   (zigzag varint), double, boolean, list, map with string keys, or JSON for anything else
+ *
+ * Payloads decode to the same values as from {@link JacksonSimulationMessageCodec}: into the class registered in
+ * {@link PayloadTypes} for the message type, else integers as Integer when they fit, else Long; lists as ArrayList,
+ * maps as LinkedHashMap. A {@link NodeId} payload goes on the wire like its string, so {@code node-<n>} is a varint
+ * and decodes to a shared instance. Both sides must use the same type table.
+ */
+public final class BinarySimulationMessageCodec implements SimulationMessageCodec {
+
+    /** Message types every codec knows; append only, indices are on the wire. */
+    public static final List<String> DEFAULT_MESSAGE_TYPES = List.of("LEADER_ANNOUNCEMENT");
+
+    static final int VERSION = 1;
+    private static final int FLAG_SEQ = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_NODE_REF = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_TRUE = 5;
+    private static final int TAG_FALSE = 6;
+    private static final int TAG_LIST = 7;
+    private static final int TAG_MAP = 8;
+    private static final int TAG_JSON = 9;
+
+    private static final String NODE_PREFIX = "node-";
+    /** Longest index that fits a long without overflow checks. */
+    private static final int MAX_INDEX_DIGITS = 18;
+    /** Decoded NodeIds below this index are shared (immutable records). */
+    private static final int NODE_CACHE_SIZE = 1 << 16;
+    private static final int MAX_DEPTH = 64;
+    private static final int INITIAL_SCRATCH_BYTES = 256;
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private final String[] types;
+    private final PayloadTypes payloadTypes;
+    private final Map<String, Integer> typeIndex = new HashMap<>();
+    private final NodeId[] nodeCache = new NodeId[NODE_CACHE_SIZE];
+    private final ThreadLocal<ByteBuffer> scratch =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_SCRATCH_BYTES));
+
+    public BinarySimulationMessageCodec() {
+        this(List.of());
+    }
+
+    /**
+     * @param extraMessageTypes message types of the algorithms in use, appended to {@link #DEFAULT_MESSAGE_TYPES};
+     *                          other types are sent as strings
+     */
+    public BinarySimulationMessageCodec(List<String> extraMessageTypes) {
+        this(extraMessageTypes, PayloadTypes.DEFAULT);
+    }
+
+    /**
+     * @param extraMessageTypes message types appended to {@link #DEFAULT_MESSAGE_TYPES}
+     * @param payloadTypes      payload classes to decode into
+     */
+    public BinarySimulationMessageCodec(List<String> extraMessageTypes, PayloadTypes payloadTypes) {
+        Objects.requireNonNull(extraMessageTypes, "extraMessageTypes");
+        this.payloadTypes = Objects.requireNonNull(payloadTypes, "payloadTypes");
+        List<String> all = new ArrayList<>(DEFAULT_MESSAGE_TYPES);
+        all.addAll(extraMessageTypes);
+        this.types = all.toArray(String[]::new);
+        for (int i = 0; i < types.length; i++) {
+            if (typeIndex.putIfAbsent(Objects.requireNonNull(types[i], "message type"), i) != null) {
+                throw new IllegalArgumentException("duplicate message type: " + types[i]);
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(SimulationMessage message) throws MessageCodecException {
+        Objects.requireNonNull(message, "message");
+        ByteBuffer buf = scratch.get();
+        while (true) {
+            buf.clear();
+            try {
+                write(message, buf);
+                byte[] bytes = new byte[buf.position()];
+                buf.get(0, bytes);
+                return bytes;
+            } catch (BufferOverflowException e) {
+                buf = ByteBuffer.allocate(buf.capacity() * 2);
+                scratch.set(buf);
+            }
+        }
+    }
+
+    /** Writes straight into the buffer (no intermediate array). */
+    @Override
+    public void serialize(SimulationMessage message, ByteBuffer out) throws MessageCodecException {
+        Objects.requireNonNull(message, "message");
+        write(message, Objects.requireNonNull(out, "out"));
+    }
+
+    private void write(SimulationMessage message, ByteBuffer out) {
+        out.put((byte) (VERSION << 4 | (message.seq() != null ? FLAG_SEQ : 0)));
+        putNodeId(out, message.sender().value());
+        putNodeId(out, message.receiver().value());
+        Integer type = typeIndex.get(message.messageType());
+        if (type != null) {
+            putVarint(out, (long) type << 1);
+        } else {
+            putTaggedString(out, message.messageType());
+        }
+        if (message.seq() != null) putVarint(out, message.seq());
+        putValue(out, message.payload(), 0);
+    }
+
+    private void putNodeId(ByteBuffer out, String id) {
+        long index = nodeIndex(id);
+        if (index >= 0) {
+            putVarint(out, index << 1);
+        } else {
+            putTaggedString(out, id);
+        }
+    }
+
+    /** String form of a node id or type: {@code [varint len << 1 | 1][UTF-8]}. */
+    private static void putTaggedString(ByteBuffer out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(out, (long) bytes.length << 1 | 1);
+        out.put(bytes);
+    }
+
+    private void putValue(ByteBuffer out, Object value, int depth) {
+        if (depth > MAX_DEPTH) throw new MessageCodecException("payload nested deeper than " + MAX_DEPTH);
+        if (value == null) {
+            out.put((byte) TAG_NULL);
+        } else if (value instanceof String || value instanceof NodeId) {
+            String s = value instanceof NodeId id ? id.value() : (String) value;
+            long index = nodeIndex(s);
+            if (index >= 0) {
+                out.put((byte) TAG_NODE_REF);
+                putVarint(out, index);
+            } else {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.put((byte) TAG_STRING);
+                putVarint(out, bytes.length);
+                out.put(bytes);
+            }
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            out.put((byte) TAG_INT);
+            putVarint(out, zigzag(((Number) value).longValue()));
+        } else if (value instanceof Double || value instanceof Float) {
+            out.put((byte) TAG_DOUBLE);
+            out.putDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean b) {
+            out.put((byte) (b ? TAG_TRUE : TAG_FALSE));
+        } else if (value instanceof Collection<?> list) {
+            out.put((byte) TAG_LIST);
+            putVarint(out, list.size());
+            for (Object v : list) putValue(out, v, depth + 1);
+        } else if (value instanceof Map<?, ?> map && hasStringKeys(map)) {
+            out.put((byte) TAG_MAP);
+            putVarint(out, map.size());
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                byte[] key = ((String) e.getKey()).getBytes(StandardCharsets.UTF_8);
+                putVarint(out, key.length);
+                out.put(key);
+                putValue(out, e.getValue(), depth + 1);
+            }
+        } else {
+            byte[] json;
+            try {
+                json = mapper.writeValueAsBytes(value);
+            } catch (Exception e) {
+                throw new MessageCodecException("Failed to serialize payload to JSON", e);
+            }
+            out.put((byte) TAG_JSON);
+            putVarint(out, json.length);
+            out.put(json);
+        }
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object k : map.keySet()) {
+            if (!(k instanceof String)) return false;
+        }
+        return true;
+    }
+
+    /** @return n for the canonical {@code node-<n>} (no leading zeros), else -1 */
+    private static long nodeIndex(String id) {
+        int digits = id.length() - NODE_PREFIX.length();
+        if (digits < 1 || digits > MAX_INDEX_DIGITS || !id.startsWith(NODE_PREFIX)) return -1;
+        if (digits > 1 && id.charAt(NODE_PREFIX.length()) == '0') return -1;
+        long n = 0;
+        for (int i = NODE_PREFIX.length(); i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+    @Override
+    public SimulationMessage deserialize(byte[] bytes) throws MessageCodecException {
+        if (bytes == null || bytes.length == 0) {
+            throw new MessageCodecException("Cannot deserialize: payload is null/empty");
+        }
+        return deserialize(ByteBuffer.wrap(bytes));
+    }
+
+    /** Reads straight from the buffer (no intermediate array). */
+    @Override
+    public SimulationMessage deserialize(ByteBuffer in) throws MessageCodecException {
+        if (in == null || !in.hasRemaining()) {
+            throw new MessageCodecException("Cannot deserialize: payload is null/empty");
+        }
+        try {
+            int header = in.get() & 0xFF;
+            if (header >>> 4 != VERSION) {
+                throw new MessageCodecException("unsupported binary format version " + (header >>> 4));
+            }
+            NodeId sender = getNodeId(in);
+            NodeId receiver = getNodeId(in);
+            String type = getMessageType(in);
+            Long seq = (header & FLAG_SEQ) != 0 ? getVarint(in) : null;
+            Object payload = getPayload(in, type);
+            if (in.hasRemaining()) throw new MessageCodecException(in.remaining() + " trailing bytes");
+            return new SimulationMessage(sender, receiver, type, payload, seq);
+        } catch (MessageCodecException e) {
+            throw e;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                 | NegativeArraySizeException e) {
+            throw new MessageCodecException("Failed to deserialize binary SimulationMessage", e);
+        }
+    }
+
+    private NodeId getNodeId(ByteBuffer in) {
+        long v = getVarint(in);
+        if ((v & 1) != 0) return new NodeId(getString(in, v >>> 1));
+        return nodeId(v >>> 1);
+    }
+
+    private NodeId nodeId(long index) {
+        if (index < 0) throw new MessageCodecException("negative node index " + index);
+        if (index >= NODE_CACHE_SIZE) return new NodeId(NODE_PREFIX + index);
+        NodeId id = nodeCache[(int) index];
+        if (id == null) {
+            id = new NodeId(NODE_PREFIX + index);
+            nodeCache[(int) index] = id; // benign race: equal values
+        }
+        return id;
+    }
+
+    private String getMessageType(ByteBuffer in) {
+        long v = getVarint(in);
+        if ((v & 1) != 0) return getString(in, v >>> 1);
+        long index = v >>> 1;
+        if (index >= types.length) throw new MessageCodecException("unknown message type index " + index);
+        return types[(int) index];
+    }
+
+    private Object getPayload(ByteBuffer in, String messageType) {
+        Class<?> type = payloadTypes.typeOf(messageType);
+        if (type == null) return getValue(in, 0);
+        if (type == NodeId.class) {
+            int tag = in.get(in.position());
+            if (tag == TAG_NODE_REF) {
+                in.get();
+                return nodeId(getVarint(in));
+            }
+            if (tag == TAG_STRING) {
+                in.get();
+                return new NodeId(getString(in, getVarint(in)));
+            }
+        }
+        Object value = getValue(in, 0);
+        // throws IllegalArgumentException if the payload does not fit the type
+        return value == null || type.isInstance(value) ? value : mapper.convertValue(value, type);
+    }
+
+    private Object getValue(ByteBuffer in, int depth) {
+        if (depth > MAX_DEPTH) throw new MessageCodecException("payload nested deeper than " + MAX_DEPTH);
+        int tag = in.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return getString(in, getVarint(in));
+            case TAG_NODE_REF: {
+                long index = getVarint(in);
+                if (index < 0) throw new MessageCodecException("negative node index " + index);
+                return NODE_PREFIX + index;
+            }
+            case TAG_INT: {
+                long n = unzigzag(getVarint(in));
+                return n == (int) n ? (Object) (int) n : (Object) n;
+            }
+            case TAG_DOUBLE:
+                return in.getDouble();
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_LIST: {
+                int size = getSize(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) list.add(getValue(in, depth + 1));
+                return list;
+            }
+            case TAG_MAP: {
+                int size = getSize(in);
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = getString(in, getVarint(in));
+                    map.put(key, getValue(in, depth + 1));
+                }
+                return map;
+            }
+            case TAG_JSON: {
+                int length = getSize(in);
+                try {
+                    Object value;
+                    if (in.hasArray()) {
+                        value = mapper.readValue(in.array(), in.arrayOffset() + in.position(), length, Object.class);
+                    } else {
+                        byte[] json = new byte[length];
+                        in.get(in.position(), json);
+                        value = mapper.readValue(json, Object.class);
+                    }
+                    in.position(in.position() + length);
+                    return value;
+                } catch (Exception e) {
+                    throw new MessageCodecException("Failed to deserialize payload from JSON", e);
+                }
+            }
+            default:
+                throw new MessageCodecException("unknown payload tag " + tag);
+        }
+    }
+
+    /**
+     * Element count or length; each element takes at least one byte, which bounds it by the input.
+     * A 10-byte varint can be negative, which is rejected here too.
+     */
+    private static int getSize(ByteBuffer in) {
+        long n = getVarint(in);
+        if (n < 0) throw new MessageCodecException("negative length " + n);
+        if (n > in.remaining()) throw new BufferUnderflowException();
+        return (int) n;
+    }
+
+    private static String getString(ByteBuffer in, long length) {
+        if (length < 0) throw new MessageCodecException("negative length " + length);
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        int len = (int) length;
+        String s;
+        if (in.hasArray()) {
+            s = new String(in.array(), in.arrayOffset() + in.position(), len, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[len];
+            in.get(in.position(), bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + len);
+        return s;
+    }
+
+    static void putVarint(ByteBuffer out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static long getVarint(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new MessageCodecException("varint longer than 10 bytes");
+    }
+
+    private static long zigzag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,115 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import de.haw.vsp.simulation.core.SimulationMessage;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Encodes with one {@link WireCodec} and decodes every known one, picked by the first byte of the message.
+ * Nodes can thus switch their encoder (MW_CODEC) one at a time, once all of them decode with a registry.
+ *
+ * With {@link CompressionConfig} enabled, encoded messages from the threshold on are deflated if that makes them
+ * smaller; they start with their own header byte. Compressed messages are inflated whether or not compression is
+ * enabled here. Counters in {@link #compressionStats()}; transports use one registry per adapter.
+ */
+public final class CodecRegistry implements SimulationMessageCodec {
+
+    private final WireCodec encoding;
+    private final SimulationMessageSerializer encoder;
+    private final SimulationMessageDeserializer[] decoders = new SimulationMessageDeserializer[256];
+    private final CompressionConfig compression;
+    private final CompressionStats compressionStats = new CompressionStats();
+    private final MessageCompressor compressor;
+
+    public CodecRegistry(WireCodec encoding) {
+        this(encoding, CompressionConfig.DISABLED);
+    }
+
+    public CodecRegistry(WireCodec encoding, CompressionConfig compression) {
+        this(encoding, compression, MessageCompressor.MAX_INFLATED_BYTES);
+    }
+
+    /**
+     * @param maxMessageBytes largest encoded message the transport carries; larger messages are not compressed
+     *                        (the transport rejects them), and compressed messages declaring more are rejected
+     *                        before inflating
+     */
+    public CodecRegistry(WireCodec encoding, CompressionConfig compression, int maxMessageBytes) {
+        this.encoding = Objects.requireNonNull(encoding, "encoding");
+        this.compression = Objects.requireNonNull(compression, "compression");
+        this.compressor = new MessageCompressor(compression, compressionStats, maxMessageBytes);
+        SimulationMessageCodec encodingCodec = null;
+        for (WireCodec wire : WireCodec.values()) {
+            SimulationMessageCodec codec = wire.create();
+            if (wire == encoding) encodingCodec = codec;
+            for (int b = 0; b < decoders.length; b++) {
+                if (!wire.isHeader(b)) continue;
+                if (decoders[b] != null) {
+                    throw new IllegalStateException("header byte 0x" + Integer.toHexString(b) + " claimed twice");
+                }
+                decoders[b] = codec;
+            }
+        }
+        if (decoders[MessageCompressor.HEADER] != null) {
+            throw new IllegalStateException("header byte 0x" + Integer.toHexString(MessageCompressor.HEADER)
+                    + " is reserved for compressed messages");
+        }
+        this.encoder = encodingCodec;
+    }
+
+    /** Format this registry encodes with. */
+    public WireCodec encoding() {
+        return encoding;
+    }
+
+    public CompressionConfig compression() {
+        return compression;
+    }
+
+    /** Compression counters of this registry (of what it encoded and decoded). */
+    public CompressionStats compressionStats() {
+        return compressionStats;
+    }
+
+    @Override
+    public byte[] serialize(SimulationMessage message) throws MessageCodecException {
+        return compressor.compress(encoder.serialize(message));
+    }
+
+    @Override
+    public void serialize(SimulationMessage message, ByteBuffer out) throws MessageCodecException {
+        int start = Objects.requireNonNull(out, "out").position();
+        encoder.serialize(message, out);
+        compressor.compressInPlace(out, start);
+    }
+
+    @Override
+    public SimulationMessage deserialize(byte[] bytes) throws MessageCodecException {
+        if (bytes == null || bytes.length == 0) {
+            throw new MessageCodecException("Cannot deserialize: payload is null/empty");
+        }
+        if ((bytes[0] & 0xFF) == MessageCompressor.HEADER) return deserialize(ByteBuffer.wrap(bytes));
+        return decoderFor(bytes[0]).deserialize(bytes);
+    }
+
+    @Override
+    public SimulationMessage deserialize(ByteBuffer in) throws MessageCodecException {
+        if (in == null || !in.hasRemaining()) {
+            throw new MessageCodecException("Cannot deserialize: payload is null/empty");
+        }
+        if ((in.get(in.position()) & 0xFF) == MessageCompressor.HEADER) {
+            ByteBuffer raw = compressor.inflate(in);
+            return decoderFor(raw.get(0)).deserialize(raw); // a nested compression header is unknown here
+        }
+        return decoderFor(in.get(in.position())).deserialize(in);
+    }
+
+    private SimulationMessageDeserializer decoderFor(byte header) {
+        SimulationMessageDeserializer decoder = decoders[header & 0xFF];
+        if (decoder == null) {
+            throw new MessageCodecException("unknown codec header 0x" + Integer.toHexString(header & 0xFF));
+        }
+        return decoder;
+    }
+}
@@ -0,0 +1,32 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compression of large encoded messages ({@code udp-docker}, {@code tcp-docker}).
+ *
+ * @param thresholdBytes encoded messages of at least this size are deflated (and sent so if that makes them
+ *                       smaller); 0 disables compression. Receivers inflate either way.
+ * @param level          {@link Deflater} level, 0 (store) .. 9 (best compression)
+ */
+public record CompressionConfig(int thresholdBytes, int level) {
+
+    /** Cheapest level; large simulation payloads (ids, repeated keys) compress well even so. */
+    public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+
+    public static final CompressionConfig DISABLED = new CompressionConfig(0, DEFAULT_LEVEL);
+
+    public CompressionConfig {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes must be >= 0, but was: " + thresholdBytes);
+        }
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("level must be in range " + Deflater.NO_COMPRESSION + ".."
+                    + Deflater.BEST_COMPRESSION + ", but was: " + level);
+        }
+    }
+
+    public boolean enabled() {
+        return thresholdBytes > 0;
+    }
+}
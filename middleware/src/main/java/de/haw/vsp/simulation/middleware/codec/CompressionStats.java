@@ -0,0 +1,82 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one {@link CodecRegistry}, i.e. of one transport adapter: how much compression saves and what it
+ * costs. Times are wall-clock nanoseconds spent in {@code Deflater}/{@code Inflater} on the encoding or decoding
+ * thread; the work is pure CPU, so this is the CPU time of compression.
+ */
+public final class CompressionStats {
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder notSmaller = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder deflateNanos = new LongAdder();
+    private final LongAdder inflated = new LongAdder();
+    private final LongAdder inflateNanos = new LongAdder();
+
+    void recordDeflate(int raw, int result, long nanos) {
+        deflateNanos.add(nanos);
+        if (result < 0) {
+            notSmaller.increment();
+            return;
+        }
+        compressed.increment();
+        rawBytes.add(raw);
+        compressedBytes.add(result);
+    }
+
+    void recordInflate(long nanos) {
+        inflated.increment();
+        inflateNanos.add(nanos);
+    }
+
+    /** Messages sent compressed. */
+    public long compressedMessages() {
+        return compressed.sum();
+    }
+
+    /** Messages above the threshold sent as they were, since deflating did not make them smaller. */
+    public long uncompressibleMessages() {
+        return notSmaller.sum();
+    }
+
+    /** Encoded size of the messages sent compressed. */
+    public long rawBytes() {
+        return rawBytes.sum();
+    }
+
+    /** Size of the messages sent compressed, as sent (with compression header). */
+    public long compressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /** {@link #compressedBytes()} / {@link #rawBytes()}; 1.0 before anything was compressed. */
+    public double ratio() {
+        long raw = rawBytes.sum();
+        return raw == 0 ? 1.0 : (double) compressedBytes.sum() / raw;
+    }
+
+    /** Time spent deflating, including messages that were then sent uncompressed. */
+    public long deflateNanos() {
+        return deflateNanos.sum();
+    }
+
+    /** Compressed messages received. */
+    public long inflatedMessages() {
+        return inflated.sum();
+    }
+
+    public long inflateNanos() {
+        return inflateNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("compressed=%d (ratio %.2f, %d ms), uncompressible=%d, inflated=%d (%d ms)",
+                compressedMessages(), ratio(), deflateNanos() / 1_000_000, uncompressibleMessages(),
+                inflatedMessages(), inflateNanos() / 1_000_000);
+    }
+}
@@ -0,0 +1,71 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Wire format for packing several encoded messages into one UDP datagram.
+ *
+ * A packed datagram is the marker byte {@link #PACKED} followed by frames of
+ * {@code [u16 length][encoded message]}. Any other datagram is a single encoded message;
+ * the marker can never start one, since JSON text starts with ASCII.
+ */
+public final class DatagramFrames {
+
+    private DatagramFrames() {}
+
+    public static final byte PACKED = (byte) 0xFE;
+    public static final int PACK_HEADER_BYTES = 1;
+    public static final int FRAME_HEADER_BYTES = 2;
+
+    public static boolean isPacked(ByteBuffer datagram) {
+        return datagram.hasRemaining() && datagram.get(datagram.position()) == PACKED;
+    }
+
+    /** Starts a packed datagram at the position of {@code pack}. */
+    public static void startPack(ByteBuffer pack) {
+        pack.put(PACKED);
+    }
+
+    /** Appends the remaining bytes of {@code message} as one frame, consuming them. */
+    public static void putFrame(ByteBuffer pack, ByteBuffer message) {
+        int len = message.remaining();
+        if (len > 0xFFFF) throw new IllegalArgumentException("frame too large: " + len);
+        pack.putShort((short) len);
+        pack.put(message);
+    }
+
+    /**
+     * Calls {@code onFrame} once per message in the datagram, consuming it. For a packed datagram
+     * the frame is a view on the same buffer, limited to the frame and valid only during the call.
+     *
+     * @throws MessageCodecException if a frame is truncated (frames before it have been delivered)
+     */
+    public static void forEachFrame(ByteBuffer datagram, Consumer<ByteBuffer> onFrame) {
+        if (!isPacked(datagram)) {
+            onFrame.accept(datagram);
+            return;
+        }
+
+        int limit = datagram.limit();
+        datagram.position(datagram.position() + PACK_HEADER_BYTES);
+        while (datagram.remaining() >= FRAME_HEADER_BYTES) {
+            int len = datagram.getShort() & 0xFFFF;
+            int end = datagram.position() + len;
+            if (end > limit) {
+                datagram.position(limit);
+                throw new MessageCodecException("Truncated frame in packed datagram");
+            }
+            datagram.limit(end);
+            try {
+                onFrame.accept(datagram);
+            } finally {
+                datagram.limit(limit).position(end);
+            }
+        }
+        if (datagram.hasRemaining()) {
+            datagram.position(limit);
+            throw new MessageCodecException("Truncated frame header in packed datagram");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format for messages too large for one UDP datagram.
+ *
+ * Every fragment is a datagram of its own:
+ * {@code [FRAGMENT][i32 message id][i32 total length][i32 offset][u16 index][u16 count][u8 len][sender id][bytes]}.
+ * The receiver reassembles the fragments of one (sender, message id) into the original frame
+ * (a JSON message or a reliable data frame). The marker can never start any other frame.
+ */
+public final class FragmentFrames {
+
+    private FragmentFrames() {}
+
+    public static final byte FRAGMENT = (byte) 0xFB;
+    /** Header size without the sender id. */
+    public static final int FIXED_HEADER_BYTES = 1 + 4 + 4 + 4 + 2 + 2 + 1;
+    public static final int MAX_FRAGMENTS = 0xFFFF;
+    public static final int MAX_SENDER_ID_BYTES = 0xFF;
+
+    public static boolean isFragment(ByteBuffer frame) {
+        return frame.hasRemaining() && frame.get(frame.position()) == FRAGMENT;
+    }
+
+    /**
+     * Writes the header of one fragment at the start of {@code dst}.
+     *
+     * @return the header length; the fragment's bytes follow it
+     */
+    public static int putHeader(byte[] dst, byte[] senderId, int messageId, int total, int offset, int index, int count) {
+        if (senderId.length > MAX_SENDER_ID_BYTES) throw new IllegalArgumentException("sender id too long");
+        ByteBuffer buf = ByteBuffer.wrap(dst);
+        buf.put(FRAGMENT).putInt(messageId).putInt(total).putInt(offset)
+                .putShort((short) index).putShort((short) count)
+                .put((byte) senderId.length).put(senderId);
+        return buf.position();
+    }
+
+    /**
+     * Reads a fragment header and leaves the frame positioned at the fragment's bytes.
+     *
+     * @throws MessageCodecException if the header is truncated or inconsistent
+     */
+    public static Header readHeader(ByteBuffer frame) {
+        if (frame.remaining() < FIXED_HEADER_BYTES) {
+            throw new MessageCodecException("Truncated fragment header");
+        }
+        frame.get();
+        int messageId = frame.getInt();
+        int total = frame.getInt();
+        int offset = frame.getInt();
+        int index = frame.getShort() & 0xFFFF;
+        int count = frame.getShort() & 0xFFFF;
+        int idLength = frame.get() & 0xFF;
+        if (frame.remaining() < idLength) {
+            throw new MessageCodecException("Truncated fragment header");
+        }
+        byte[] id = new byte[idLength];
+        frame.get(id);
+
+        if (count == 0 || index >= count || total <= 0 || offset < 0
+                || (long) offset + frame.remaining() > total) {
+            throw new MessageCodecException("Inconsistent fragment header (index " + index + "/" + count
+                    + ", offset " + offset + ", total " + total + ")");
+        }
+        return new Header(new String(id, StandardCharsets.UTF_8), messageId, total, offset, index, count);
+    }
+
+    public record Header(String sender, int messageId, int total, int offset, int index, int count) {}
+}
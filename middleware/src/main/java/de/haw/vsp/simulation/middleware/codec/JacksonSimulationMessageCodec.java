@@ -1,20 +1,38 @@
 package de.haw.vsp.simulation.middleware.codec;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import de.haw.vsp.simulation.core.SimulationMessage;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
  * JSON (de)serialization for {@link SimulationMessage} using Jackson.
+ *
+ * Reader and writer are resolved for {@link SimulationMessage} once. {@link #serialize(SimulationMessage, ByteBuffer)}
+ * writes through one generator per thread, kept open across messages on a stream whose target buffer is swapped
+ * per call, so encoding into a caller's buffer allocates no intermediate array.
+ *
+ * Payloads of message types registered in {@link PayloadTypes} are read straight into their class
+ * ({@link PayloadTypes#DEFAULT} unless given); other payloads become strings, numbers, lists and maps.
  */
-public final class JacksonSimulationMessageCodec
-        implements SimulationMessageSerializer, SimulationMessageDeserializer {
+public final class JacksonSimulationMessageCodec implements SimulationMessageCodec {
 
     private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final ThreadLocal<BufferGenerator> generators = ThreadLocal.withInitial(BufferGenerator::new);
 
     /**
      * Creates a codec with a reasonable default ObjectMapper configuration.
@@ -24,26 +42,80 @@ public final class JacksonSimulationMessageCodec
     }
 
     public JacksonSimulationMessageCodec(ObjectMapper mapper) {
+        this(mapper, PayloadTypes.DEFAULT);
+    }
+
+    public JacksonSimulationMessageCodec(ObjectMapper mapper, PayloadTypes payloadTypes) {
         this.mapper = Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(payloadTypes, "payloadTypes");
+        this.writer = mapper.writerFor(SimulationMessage.class);
+        this.reader = payloadTypes.isEmpty()
+                ? mapper.readerFor(SimulationMessage.class)
+                : mapper.copy()
+                        .registerModule(new SimpleModule("payload-types")
+                                .addDeserializer(SimulationMessage.class, new TypedMessageDeserializer(payloadTypes)))
+                        .readerFor(SimulationMessage.class);
     }
 
     @Override
     public byte[] serialize(SimulationMessage message) throws MessageCodecException {
         Objects.requireNonNull(message, "message");
         try {
-            return mapper.writeValueAsBytes(message);
+            return writer.writeValueAsBytes(message);
         } catch (JsonProcessingException e) {
             throw new MessageCodecException("Failed to serialize SimulationMessage to JSON", e);
         }
     }
 
+    /** Writes straight into the buffer (no intermediate array). */
+    @Override
+    public void serialize(SimulationMessage message, ByteBuffer out) throws MessageCodecException {
+        Objects.requireNonNull(message, "message");
+        Objects.requireNonNull(out, "out");
+        BufferGenerator g = generators.get();
+        g.stream.target = out;
+        try {
+            writer.writeValue(g.generator(mapper), message);
+        } catch (IOException e) {
+            g.discard();
+            // Jackson may wrap the overflow of a flush during serialization
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof BufferOverflowException overflow) throw overflow;
+            }
+            throw new MessageCodecException("Failed to serialize SimulationMessage to JSON", e);
+        } catch (RuntimeException e) {
+            g.discard(); // e.g. the overflow itself; the generator may hold half a message
+            throw e;
+        } finally {
+            g.stream.target = null;
+        }
+    }
+
     @Override
     public SimulationMessage deserialize(byte[] bytes) throws MessageCodecException {
         if (bytes == null || bytes.length == 0) {
             throw new MessageCodecException("Cannot deserialize: payload is null/empty");
         }
         try {
-            return mapper.readValue(bytes, SimulationMessage.class);
+            return reader.readValue(bytes);
+        } catch (Exception e) {
+            throw new MessageCodecException("Failed to deserialize SimulationMessage from JSON", e);
+        }
+    }
+
+    /** Reads straight from the buffer (no intermediate array). */
+    @Override
+    public SimulationMessage deserialize(ByteBuffer in) throws MessageCodecException {
+        if (in == null || !in.hasRemaining()) {
+            throw new MessageCodecException("Cannot deserialize: payload is null/empty");
+        }
+        try {
+            if (in.hasArray()) {
+                SimulationMessage msg = reader.readValue(in.array(), in.arrayOffset() + in.position(), in.remaining());
+                in.position(in.limit());
+                return msg;
+            }
+            return reader.readValue(new ByteBufferBackedInputStream(in));
         } catch (Exception e) {
             throw new MessageCodecException("Failed to deserialize SimulationMessage from JSON", e);
         }
@@ -56,4 +128,37 @@ public final class JacksonSimulationMessageCodec
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
                 .build();
     }
+
+    /** Per thread: a generator that stays open on a stream retargeted for every message. */
+    private static final class BufferGenerator {
+        final BufferOutputStream stream = new BufferOutputStream();
+        private JsonGenerator generator;
+
+        JsonGenerator generator(ObjectMapper mapper) throws IOException {
+            if (generator == null) {
+                generator = mapper.getFactory().createGenerator(stream);
+                generator.setRootValueSeparator(null); // messages are separate documents
+            }
+            return generator;
+        }
+
+        /** After a failed write the generator's state is unknown; the next message gets a fresh one. */
+        void discard() {
+            generator = null;
+        }
+    }
+
+    private static final class BufferOutputStream extends OutputStream {
+        ByteBuffer target;
+
+        @Override
+        public void write(int b) {
+            target.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target.put(b, off, len);
+        }
+    }
 }
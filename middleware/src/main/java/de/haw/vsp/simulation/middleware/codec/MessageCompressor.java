@@ -0,0 +1,158 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates encoded messages of at least {@link CompressionConfig#thresholdBytes()} and inflates received ones.
+ *
+ * A compressed message is {@code [u8 HEADER][varint raw length][zlib stream of the encoded message]}. It is sent
+ * only if smaller than the message itself. Deflater, Inflater and scratch buffers are kept per thread.
+ */
+final class MessageCompressor {
+
+    /** First byte of a compressed message; claimed by no {@link WireCodec} and no datagram marker. */
+    static final int HEADER = 0x20;
+    /** Default upper bound of a declared raw length; larger ones are rejected before inflating. */
+    static final int MAX_INFLATED_BYTES = 1 << 24;
+    /** Scratch buffers up to this size are kept per thread; larger ones are allocated per message. */
+    private static final int MAX_KEPT_BYTES = 64 * 1024;
+
+    private final CompressionConfig config;
+    private final CompressionStats stats;
+    private final int maxInflatedBytes;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+    private final ThreadLocal<ByteBuffer> deflateScratch = new ThreadLocal<>();
+    private final ThreadLocal<ByteBuffer> inflateScratch = new ThreadLocal<>();
+
+    /**
+     * @param maxInflatedBytes largest message the transport carries: messages above it are not compressed, and
+     *                         compressed ones declaring more are rejected before anything is allocated
+     */
+    MessageCompressor(CompressionConfig config, CompressionStats stats, int maxInflatedBytes) {
+        if (maxInflatedBytes <= 0) {
+            throw new IllegalArgumentException("maxInflatedBytes must be > 0, but was: " + maxInflatedBytes);
+        }
+        this.config = config;
+        this.stats = stats;
+        this.maxInflatedBytes = maxInflatedBytes;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(config.level()));
+    }
+
+    /** @return the compressed message, or {@code raw} itself if below the threshold or not smaller */
+    byte[] compress(byte[] raw) {
+        if (!config.enabled() || raw.length < config.thresholdBytes() || raw.length > maxInflatedBytes) return raw;
+        ByteBuffer body = deflate(ByteBuffer.wrap(raw), raw.length);
+        if (body == null) return raw;
+
+        ByteBuffer out = ByteBuffer.allocate(headerBytes(raw.length) + body.remaining());
+        putHeader(out, raw.length);
+        out.put(body);
+        return out.array();
+    }
+
+    /**
+     * Replaces the encoded message between {@code start} and the position of {@code out} by its compressed form,
+     * if at or above the threshold and smaller; the position is then the end of the compressed message.
+     */
+    void compressInPlace(ByteBuffer out, int start) {
+        int rawLength = out.position() - start;
+        if (!config.enabled() || rawLength < config.thresholdBytes() || rawLength > maxInflatedBytes) return;
+        ByteBuffer raw = out.duplicate();
+        raw.limit(out.position()).position(start);
+        ByteBuffer body = deflate(raw, rawLength);
+        if (body == null) return;
+
+        out.position(start);
+        putHeader(out, rawLength);
+        out.put(body); // fits: smaller than the message it replaces
+    }
+
+    /** @return the deflated body, flipped, or null if header and body would not be smaller than the message */
+    private ByteBuffer deflate(ByteBuffer raw, int rawLength) {
+        int maxBody = rawLength - headerBytes(rawLength) - 1;
+        if (maxBody <= 0) return null;
+        ByteBuffer body = scratch(deflateScratch, maxBody);
+        body.limit(maxBody);
+
+        Deflater deflater = deflaters.get();
+        long start = System.nanoTime();
+        boolean smaller = true;
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (!body.hasRemaining()) {
+                    smaller = false;
+                    break;
+                }
+                deflater.deflate(body);
+            }
+        } finally {
+            deflater.reset(); // also drops the reference to the caller's buffer
+        }
+        stats.recordDeflate(rawLength, smaller ? headerBytes(rawLength) + body.position() : -1,
+                System.nanoTime() - start);
+        return smaller ? body.flip() : null;
+    }
+
+    /**
+     * Inflates the compressed message at the position of {@code in}, consuming it.
+     *
+     * @return the encoded message; a per-thread buffer, valid until the next call on this thread
+     */
+    ByteBuffer inflate(ByteBuffer in) {
+        in.get(); // HEADER
+        long rawLength = BinarySimulationMessageCodec.getVarint(in);
+        if (rawLength <= 0 || rawLength > maxInflatedBytes) {
+            throw new MessageCodecException("invalid length of compressed message: " + rawLength);
+        }
+        // one spare byte tells a stream longer than declared from one that fits exactly
+        ByteBuffer raw = scratch(inflateScratch, (int) rawLength + 1);
+
+        Inflater inflater = inflaters.get();
+        long start = System.nanoTime();
+        try {
+            inflater.setInput(in);
+            while (!inflater.finished()) {
+                if (inflater.inflate(raw) == 0
+                        && (inflater.needsInput() || inflater.needsDictionary() || !raw.hasRemaining())) {
+                    throw new MessageCodecException("truncated or corrupt compressed message");
+                }
+            }
+            if (raw.position() != rawLength || in.hasRemaining()) {
+                throw new MessageCodecException("compressed message does not match its declared length");
+            }
+        } catch (DataFormatException e) {
+            throw new MessageCodecException("corrupt compressed message", e);
+        } finally {
+            inflater.reset();
+        }
+        stats.recordInflate(System.nanoTime() - start);
+        return raw.flip();
+    }
+
+    private static void putHeader(ByteBuffer out, int rawLength) {
+        out.put((byte) HEADER);
+        BinarySimulationMessageCodec.putVarint(out, rawLength);
+    }
+
+    private static int headerBytes(int rawLength) {
+        int varint = 1;
+        while ((rawLength >>>= 7) != 0) varint++;
+        return 1 + varint;
+    }
+
+    /** @return a cleared heap buffer of at least {@code size} bytes, kept for this thread if small enough */
+    private static ByteBuffer scratch(ThreadLocal<ByteBuffer> local, int size) {
+        ByteBuffer buf = local.get();
+        if (buf == null || buf.capacity() < size) {
+            buf = ByteBuffer.allocate(size);
+            if (size <= MAX_KEPT_BYTES) local.set(buf);
+        }
+        return buf.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import de.haw.vsp.simulation.core.NodeId;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Payload class per message type, so codecs decode payloads straight into it instead of maps and strings.
+ *
+ * Only the receiving side uses the registry; the wire format does not change (a {@link NodeId} is written like
+ * its string value, a record like a map). Payloads of unregistered types decode as before: strings, numbers,
+ * booleans, lists and maps. A payload that does not fit its registered class fails the whole message.
+ */
+public final class PayloadTypes {
+
+    /** No typed payloads: every payload decodes to plain JSON values. */
+    public static final PayloadTypes NONE = new PayloadTypes(Map.of());
+
+    /** Payloads of the algorithms shipped with the simulation; used by the codecs unless told otherwise. */
+    public static final PayloadTypes DEFAULT = new PayloadTypes(Map.of("LEADER_ANNOUNCEMENT", NodeId.class));
+
+    private final Map<String, Class<?>> types;
+
+    /**
+     * @param types payload class by message type
+     */
+    public PayloadTypes(Map<String, Class<?>> types) {
+        Objects.requireNonNull(types, "types");
+        for (Map.Entry<String, Class<?>> e : types.entrySet()) {
+            if (e.getKey() == null || e.getKey().isBlank()) {
+                throw new IllegalArgumentException("message type must not be null or blank");
+            }
+            Objects.requireNonNull(e.getValue(), "payload type of " + e.getKey());
+            if (e.getValue().isPrimitive()) {
+                throw new IllegalArgumentException("payload type of " + e.getKey() + " must not be primitive");
+            }
+        }
+        this.types = Map.copyOf(types);
+    }
+
+    /** @return a registry with {@code messageType} (re)mapped to {@code payloadType} */
+    public PayloadTypes with(String messageType, Class<?> payloadType) {
+        Map<String, Class<?>> all = new HashMap<>(types);
+        all.put(messageType, payloadType);
+        return new PayloadTypes(all);
+    }
+
+    /** @return the payload class of {@code messageType}, or null if its payloads are untyped */
+    public Class<?> typeOf(String messageType) {
+        return types.get(messageType);
+    }
+
+    public boolean isEmpty() {
+        return types.isEmpty();
+    }
+}
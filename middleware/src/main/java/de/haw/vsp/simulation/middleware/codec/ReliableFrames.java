@@ -0,0 +1,110 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format of the reliable UDP delivery; both frame types may stand alone or be packed
+ * ({@link DatagramFrames}).
+ *
+ * Data frame: {@code [DATA][i32 sender epoch][i64 base][encoded message]}. The message carries its
+ * sequence number in {@code seq}; {@code base} is the sender's lowest unacknowledged sequence number,
+ * so a receiver can skip messages the sender no longer retransmits. The epoch changes with every
+ * sender process and resets the receiver's state for that sender.
+ *
+ * ACK frame: {@code [ACK][i32 echoed epoch][i64 cumulative][u8 n][n x (i64 from, i64 to)][u16 len][node id]},
+ * where {@code cumulative} is the next expected sequence number and the ranges ({@code from} inclusive,
+ * {@code to} exclusive) were received above it.
+ *
+ * Neither marker can start a JSON message or a packed datagram.
+ */
+public final class ReliableFrames {
+
+    private ReliableFrames() {}
+
+    public static final byte DATA = (byte) 0xFD;
+    public static final byte ACK = (byte) 0xFC;
+    public static final int DATA_HEADER_BYTES = 1 + 4 + 8;
+    public static final int MAX_SACK_RANGES = 4;
+
+    private static final int BASE_OFFSET = 5;
+
+    public static boolean isData(ByteBuffer frame) {
+        return frame.hasRemaining() && frame.get(frame.position()) == DATA;
+    }
+
+    public static boolean isAck(ByteBuffer frame) {
+        return frame.hasRemaining() && frame.get(frame.position()) == ACK;
+    }
+
+    /** @return a data frame holding the encoded message */
+    public static byte[] data(int epoch, long base, byte[] message) {
+        byte[] frame = new byte[DATA_HEADER_BYTES + message.length];
+        ByteBuffer.wrap(frame).put(DATA).putInt(epoch).putLong(base).put(message);
+        return frame;
+    }
+
+    /** @return a copy of a data frame with another base (for retransmissions) */
+    public static byte[] withBase(byte[] frame, long base) {
+        byte[] copy = frame.clone();
+        ByteBuffer.wrap(copy).putLong(BASE_OFFSET, base);
+        return copy;
+    }
+
+    /**
+     * Reads the header of a data frame and leaves the frame positioned at the encoded message.
+     *
+     * @throws MessageCodecException if the header is truncated
+     */
+    public static DataHeader readData(ByteBuffer frame) {
+        if (frame.remaining() < DATA_HEADER_BYTES) {
+            throw new MessageCodecException("Truncated reliable data header");
+        }
+        frame.get();
+        return new DataHeader(frame.getInt(), frame.getLong());
+    }
+
+    /**
+     * @param ranges pairs of {@code [from, to)}; the first {@code rangeCount} pairs are written
+     */
+    public static byte[] ack(String node, int epoch, long cumulative, long[] ranges, int rangeCount) {
+        if (rangeCount < 0 || rangeCount > MAX_SACK_RANGES) {
+            throw new IllegalArgumentException("rangeCount must be in range 0.." + MAX_SACK_RANGES);
+        }
+        byte[] id = node.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(1 + 4 + 8 + 1 + rangeCount * 16 + 2 + id.length);
+        buf.put(ACK).putInt(epoch).putLong(cumulative).put((byte) rangeCount);
+        for (int i = 0; i < rangeCount * 2; i++) buf.putLong(ranges[i]);
+        buf.putShort((short) id.length).put(id);
+        return buf.array();
+    }
+
+    /**
+     * Reads an ACK frame, consuming it.
+     *
+     * @throws MessageCodecException if the frame is truncated or malformed
+     */
+    public static Ack readAck(ByteBuffer frame) {
+        try {
+            frame.get();
+            int epoch = frame.getInt();
+            long cumulative = frame.getLong();
+            int n = frame.get() & 0xFF;
+            if (n > MAX_SACK_RANGES) throw new MessageCodecException("Too many SACK ranges: " + n);
+            long[] ranges = new long[n * 2];
+            for (int i = 0; i < ranges.length; i++) ranges[i] = frame.getLong();
+            byte[] id = new byte[frame.getShort() & 0xFFFF];
+            frame.get(id);
+            return new Ack(new String(id, StandardCharsets.UTF_8), epoch, cumulative, ranges);
+        } catch (BufferUnderflowException e) {
+            frame.position(frame.limit());
+            throw new MessageCodecException("Truncated reliable ACK");
+        }
+    }
+
+    public record DataHeader(int epoch, long base) {}
+
+    /** @param ranges pairs of {@code [from, to)} received above {@code cumulative} */
+    public record Ack(String node, int epoch, long cumulative, long[] ranges) {}
+}
@@ -0,0 +1,7 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+/**
+ * Serializer and deserializer of one wire format.
+ */
+public interface SimulationMessageCodec extends SimulationMessageSerializer, SimulationMessageDeserializer {
+}
@@ -2,6 +2,8 @@ package de.haw.vsp.simulation.middleware.codec;
 
 import de.haw.vsp.simulation.core.SimulationMessage;
 
+import java.nio.ByteBuffer;
+
 /**
  * Deserializes a wire representation (e.g., JSON bytes) into {@link SimulationMessage}.
  */
@@ -10,4 +12,14 @@ public interface SimulationMessageDeserializer {
 
     SimulationMessage deserialize(byte[] bytes) throws MessageCodecException;
 
+    /**
+     * Deserializes the remaining bytes of {@code in}, consuming them.
+     * The default implementation copies them into an array for {@link #deserialize(byte[])}.
+     */
+    default SimulationMessage deserialize(ByteBuffer in) throws MessageCodecException {
+        byte[] bytes = new byte[in.remaining()];
+        in.get(bytes);
+        return deserialize(bytes);
+    }
+
 }
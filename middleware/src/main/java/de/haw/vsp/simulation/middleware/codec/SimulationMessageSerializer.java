@@ -2,6 +2,9 @@ package de.haw.vsp.simulation.middleware.codec;
 
 import de.haw.vsp.simulation.core.SimulationMessage;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 /**
  * Serializes {@link SimulationMessage} into a wire format (e.g., JSON bytes).
  */
@@ -9,4 +12,17 @@ import de.haw.vsp.simulation.core.SimulationMessage;
 public interface SimulationMessageSerializer {
 
     byte[] serialize(SimulationMessage message) throws MessageCodecException;
+
+    /**
+     * Serializes into {@code out}, starting at its position; on return the position is after the last byte.
+     * The default implementation copies the result of {@link #serialize(SimulationMessage)}.
+     *
+     * @throws BufferOverflowException if the message does not fit into the remaining space
+     *                                 (the position of {@code out} is then unspecified)
+     */
+    default void serialize(SimulationMessage message, ByteBuffer out) throws MessageCodecException {
+        byte[] bytes = serialize(message);
+        if (bytes.length > out.remaining()) throw new BufferOverflowException();
+        out.put(bytes);
+    }
 }
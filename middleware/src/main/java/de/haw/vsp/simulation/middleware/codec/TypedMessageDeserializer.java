@@ -0,0 +1,70 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link SimulationMessage} whose payload class is looked up in {@link PayloadTypes} by message type.
+ *
+ * Senders write {@code messageType} before {@code payload} (record order), so the payload is read straight into
+ * its class. Only if it comes first is it buffered until the type is known.
+ */
+final class TypedMessageDeserializer extends StdDeserializer<SimulationMessage> {
+
+    private final PayloadTypes payloadTypes;
+
+    TypedMessageDeserializer(PayloadTypes payloadTypes) {
+        super(SimulationMessage.class);
+        this.payloadTypes = payloadTypes;
+    }
+
+    @Override
+    public SimulationMessage deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            return (SimulationMessage) ctxt.handleUnexpectedToken(SimulationMessage.class, p);
+        }
+        NodeId sender = null;
+        NodeId receiver = null;
+        String messageType = null;
+        Object payload = null;
+        TokenBuffer earlyPayload = null;
+        Long seq = null;
+
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            switch (field) {
+                case "sender" -> sender = ctxt.readValue(p, NodeId.class);
+                case "receiver" -> receiver = ctxt.readValue(p, NodeId.class);
+                case "messageType" -> messageType = token == JsonToken.VALUE_NULL ? null : p.getValueAsString();
+                case "payload" -> {
+                    if (messageType != null) {
+                        payload = readPayload(p, ctxt, messageType);
+                    } else {
+                        earlyPayload = ctxt.bufferAsCopyOfValue(p);
+                    }
+                }
+                case "seq" -> seq = token == JsonToken.VALUE_NULL ? null : p.getLongValue();
+                default -> p.skipChildren();
+            }
+        }
+        if (earlyPayload != null && messageType != null) {
+            try (JsonParser buffered = earlyPayload.asParserOnFirstToken()) {
+                payload = readPayload(buffered, ctxt, messageType);
+            }
+        }
+        return new SimulationMessage(sender, receiver, messageType, payload, seq);
+    }
+
+    private Object readPayload(JsonParser p, DeserializationContext ctxt, String messageType) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) return null;
+        Class<?> type = payloadTypes.typeOf(messageType);
+        return type != null ? ctxt.readValue(p, type) : ctxt.readValue(p, Object.class);
+    }
+}
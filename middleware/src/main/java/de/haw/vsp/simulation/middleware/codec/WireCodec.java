@@ -0,0 +1,33 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+/**
+ * Wire format of the network transports ({@code udp-docker}, {@code tcp-docker}, {@code shm}). Every format
+ * starts with its own header byte, so receivers decode all of them ({@link CodecRegistry}) and only the
+ * encoder is chosen per deployment.
+ */
+public enum WireCodec {
+
+    /** JSON via Jackson (default, see README-contract §4); readable on the wire. Header: the opening {@code '{'}. */
+    JSON,
+
+    /** {@link BinarySimulationMessageCodec}; several times smaller and cheaper to encode. Header: version nibble. */
+    BINARY;
+
+    public SimulationMessageCodec create() {
+        return switch (this) {
+            case JSON -> new JacksonSimulationMessageCodec();
+            case BINARY -> new BinarySimulationMessageCodec();
+        };
+    }
+
+    /**
+     * True if an encoded message of this format can start with {@code firstByte}. Header bytes of different
+     * formats must not overlap, nor collide with the datagram markers {@code 0xFB..0xFE}.
+     */
+    public boolean isHeader(int firstByte) {
+        return switch (this) {
+            case JSON -> firstByte == '{';
+            case BINARY -> firstByte >>> 4 == BinarySimulationMessageCodec.VERSION;
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for delayed deliveries in the virtual transport.
+ *
+ * Scheduling is O(1): producers push a small entry onto a lock-free pending stack.
+ * A single worker thread advances one tick at a time, moves pending entries into their
+ * bucket and hands every expired item of the current bucket to the expiry consumer
+ * (batched expiry, no per-item task or future objects, no heap reordering).
+ *
+ * Items whose deadline lies more than one wheel revolution ahead stay in their bucket
+ * with a remaining-rounds counter. Precision is one tick; items never fire early.
+ *
+ * @param <T> scheduled item type
+ */
+public final class HashedWheelTimer<T> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket<T>[] wheel;
+    private final Consumer<? super T> onExpired;
+
+    private final AtomicReference<Entry<T>> pending = new AtomicReference<>();
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    private final long startNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private long tick; // worker thread only
+
+    /**
+     * @param threadName thread name of the worker
+     * @param tickMillis tick duration in milliseconds (> 0)
+     * @param wheelSize  number of buckets; rounded up to a power of two
+     * @param onExpired  invoked on the worker thread for every expired item
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String threadName, long tickMillis, int wheelSize, Consumer<? super T> onExpired) {
+        Objects.requireNonNull(threadName, "threadName");
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be > 0");
+        if (wheelSize <= 0 || wheelSize > (1 << 20)) throw new IllegalArgumentException("wheelSize must be in 1..2^20");
+        this.onExpired = Objects.requireNonNull(onExpired, "onExpired");
+
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.mask = size - 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) wheel[i] = new Bucket<>();
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = System.nanoTime();
+
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules {@code item} to expire after {@code delayMillis}.
+     *
+     * @return false if the timer has been closed
+     */
+    public boolean schedule(T item, long delayMillis) {
+        Objects.requireNonNull(item, "item");
+        if (!running) return false;
+
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delayMillis));
+        Entry<T> e = new Entry<>(item, deadline);
+
+        Entry<T> head;
+        do {
+            head = pending.get();
+            e.next = head;
+        } while (!pending.compareAndSet(head, e));
+
+        scheduled.increment();
+        return true;
+    }
+
+    /** @return number of scheduled items that have neither expired nor been cancelled (approximate) */
+    public long pendingCount() {
+        return Math.max(0L, scheduled.sum() - completed.sum());
+    }
+
+    /**
+     * Stops the worker and discards every pending item without invoking the expiry consumer.
+     *
+     * @return number of cancelled items
+     */
+    public long cancelAll() {
+        running = false;
+        LockSupport.unpark(worker);
+        if (Thread.currentThread() != worker) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long cancelled = 0;
+        for (Entry<T> e = pending.getAndSet(null); e != null; e = e.next) cancelled++;
+        for (Bucket<T> b : wheel) cancelled += b.clear();
+
+        completed.add(cancelled);
+        return cancelled;
+    }
+
+    @Override
+    public void close() {
+        long cancelled = cancelAll();
+        if (cancelled > 0) LOG.debug("Timer closed, {} pending items cancelled", cancelled);
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long wait;
+            while (running && (wait = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (!running) break;
+
+            transferPending();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /** Moves freshly scheduled entries into their buckets (in scheduling order). */
+    private void transferPending() {
+        Entry<T> e = pending.getAndSet(null);
+        if (e == null) return;
+
+        // the stack is LIFO; reverse so equal deadlines expire in scheduling order
+        Entry<T> reversed = null;
+        while (e != null) {
+            Entry<T> next = e.next;
+            e.next = reversed;
+            reversed = e;
+            e = next;
+        }
+
+        for (e = reversed; e != null; ) {
+            Entry<T> next = e.next;
+            e.next = null;
+
+            // round up: never fire before the deadline
+            long target = Math.max(tick, (e.deadlineNanos + tickNanos - 1) / tickNanos - 1);
+            e.remainingRounds = (target - tick) >>> Long.numberOfTrailingZeros(wheel.length);
+            wheel[(int) (target & mask)].add(e);
+            e = next;
+        }
+    }
+
+    private void expire(Bucket<T> bucket) {
+        Entry<T> prev = null;
+        Entry<T> e = bucket.head;
+        while (e != null) {
+            Entry<T> next = e.next;
+            if (e.remainingRounds <= 0) {
+                bucket.unlink(prev, e);
+                completed.increment();
+                try {
+                    onExpired.accept(e.item);
+                } catch (RuntimeException ex) {
+                    LOG.debug("Timer expiry handler failed: {}", ex.getMessage(), ex);
+                }
+            } else {
+                e.remainingRounds--;
+                prev = e;
+            }
+            e = next;
+        }
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long deadlineNanos;
+        long remainingRounds;
+        Entry<T> next;
+
+        Entry(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /** Singly linked list, touched only by the worker thread. */
+    private static final class Bucket<T> {
+        Entry<T> head;
+        Entry<T> tail;
+
+        void add(Entry<T> e) {
+            if (tail == null) head = e;
+            else tail.next = e;
+            tail = e;
+        }
+
+        void unlink(Entry<T> prev, Entry<T> e) {
+            if (prev == null) head = e.next;
+            else prev.next = e.next;
+            if (tail == e) tail = prev;
+            e.next = null;
+        }
+
+        long clear() {
+            long n = 0;
+            for (Entry<T> e = head; e != null; e = e.next) n++;
+            head = tail = null;
+            return n;
+        }
+    }
+}
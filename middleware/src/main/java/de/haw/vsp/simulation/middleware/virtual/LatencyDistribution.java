@@ -0,0 +1,87 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * One-way link latency distribution (milliseconds) for the virtual network model.
+ *
+ * Sampling draws directly from the caller's generator and allocates nothing.
+ */
+public sealed interface LatencyDistribution {
+
+    /** @return a non-negative latency sample in milliseconds */
+    double sampleMillis(RandomGenerator rng);
+
+    static LatencyDistribution constant(double millis) {
+        return new Constant(millis);
+    }
+
+    static LatencyDistribution uniform(double minMillis, double maxMillis) {
+        return new Uniform(minMillis, maxMillis);
+    }
+
+    static LatencyDistribution normal(double meanMillis, double stdDevMillis) {
+        return new Normal(meanMillis, stdDevMillis);
+    }
+
+    static LatencyDistribution pareto(double scaleMillis, double shape) {
+        return new Pareto(scaleMillis, shape);
+    }
+
+    record Constant(double millis) implements LatencyDistribution {
+        public Constant {
+            requireNonNegative(millis, "millis");
+        }
+
+        @Override
+        public double sampleMillis(RandomGenerator rng) {
+            return millis;
+        }
+    }
+
+    record Uniform(double minMillis, double maxMillis) implements LatencyDistribution {
+        public Uniform {
+            requireNonNegative(minMillis, "minMillis");
+            requireNonNegative(maxMillis, "maxMillis");
+            if (maxMillis < minMillis) throw new IllegalArgumentException("maxMillis must be >= minMillis");
+        }
+
+        @Override
+        public double sampleMillis(RandomGenerator rng) {
+            return minMillis + (maxMillis - minMillis) * rng.nextDouble();
+        }
+    }
+
+    /** Gaussian latency, truncated at zero. */
+    record Normal(double meanMillis, double stdDevMillis) implements LatencyDistribution {
+        public Normal {
+            requireNonNegative(meanMillis, "meanMillis");
+            requireNonNegative(stdDevMillis, "stdDevMillis");
+        }
+
+        @Override
+        public double sampleMillis(RandomGenerator rng) {
+            return Math.max(0.0, meanMillis + stdDevMillis * rng.nextGaussian());
+        }
+    }
+
+    /** Heavy-tailed latency: never below {@code scaleMillis}, smaller {@code shape} means a heavier tail. */
+    record Pareto(double scaleMillis, double shape) implements LatencyDistribution {
+        public Pareto {
+            requireNonNegative(scaleMillis, "scaleMillis");
+            if (Double.isNaN(shape) || shape <= 0.0) throw new IllegalArgumentException("shape must be > 0");
+        }
+
+        @Override
+        public double sampleMillis(RandomGenerator rng) {
+            double u = 1.0 - rng.nextDouble(); // (0,1]
+            return scaleMillis / Math.pow(u, 1.0 / shape);
+        }
+    }
+
+    private static void requireNonNegative(double v, String name) {
+        if (Double.isNaN(v) || Double.isInfinite(v) || v < 0.0) {
+            throw new IllegalArgumentException(name + " must be >= 0");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+import java.util.Objects;
+
+/**
+ * Behaviour of one directed virtual link.
+ *
+ * @param latency                 one-way propagation latency
+ * @param lossProbability         probability in [0,1] that a message is lost on this link
+ * @param bandwidthBytesPerSecond serialization rate of the link; 0 = unlimited
+ */
+public record LinkModel(
+        LatencyDistribution latency,
+        double lossProbability,
+        long bandwidthBytesPerSecond
+) {
+    public static final LinkModel IDEAL = new LinkModel(LatencyDistribution.constant(0.0), 0.0, 0L);
+
+    public LinkModel {
+        Objects.requireNonNull(latency, "latency");
+        if (Double.isNaN(lossProbability) || lossProbability < 0.0 || lossProbability > 1.0)
+            throw new IllegalArgumentException("lossProbability must be in [0,1]");
+        if (bandwidthBytesPerSecond < 0) throw new IllegalArgumentException("bandwidthBytesPerSecond must be >= 0");
+    }
+
+    public static LinkModel of(LatencyDistribution latency) {
+        return new LinkModel(latency, 0.0, 0L);
+    }
+
+    public LinkModel withLoss(double lossProbability) {
+        return new LinkModel(latency, lossProbability, bandwidthBytesPerSecond);
+    }
+
+    public LinkModel withBandwidth(long bandwidthBytesPerSecond) {
+        return new LinkModel(latency, lossProbability, bandwidthBytesPerSecond);
+    }
+
+    public boolean bandwidthLimited() {
+        return bandwidthBytesPerSecond > 0L;
+    }
+}
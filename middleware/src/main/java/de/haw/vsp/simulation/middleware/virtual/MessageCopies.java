@@ -0,0 +1,56 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+import de.haw.vsp.simulation.core.SimulationMessage;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural copies of {@link SimulationMessage}s for {@link VirtualCodecBoundary#COPY}.
+ *
+ * Mirrors what the JSON boundary produces: maps stay maps (insertion order kept),
+ * collections and arrays become lists. All containers are unmodifiable.
+ * Values that are immutable already (strings, numbers, booleans, enums, NodeIds, ...)
+ * are shared; unknown objects are shared as well, since they cannot be copied without a codec.
+ */
+public final class MessageCopies {
+
+    private MessageCopies() {}
+
+    public static SimulationMessage copyOf(SimulationMessage msg) {
+        Object payload = msg.payload();
+        Object copy = copyPayload(payload);
+        if (copy == payload) return msg; // envelope is immutable, nothing to isolate
+
+        return new SimulationMessage(msg.sender(), msg.receiver(), msg.messageType(), copy, msg.seq());
+    }
+
+    static Object copyPayload(Object value) {
+        if (value == null) return null;
+
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> out = new LinkedHashMap<>(Math.max(4, (int) (map.size() / 0.75f) + 1));
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                out.put(e.getKey(), copyPayload(e.getValue()));
+            }
+            return Collections.unmodifiableMap(out);
+        }
+        if (value instanceof Collection<?> col) {
+            List<Object> out = new ArrayList<>(col.size());
+            for (Object o : col) out.add(copyPayload(o));
+            return Collections.unmodifiableList(out);
+        }
+        if (value.getClass().isArray()) {
+            int n = Array.getLength(value);
+            List<Object> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) out.add(copyPayload(Array.get(value, i)));
+            return Collections.unmodifiableList(out);
+        }
+        return value;
+    }
+}
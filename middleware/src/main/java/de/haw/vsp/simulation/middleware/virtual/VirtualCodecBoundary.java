@@ -0,0 +1,28 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+/**
+ * How the virtual transport isolates a message between sender and receiver.
+ *
+ * The contract asks for a JSON boundary in virtual mode (see README-contract §9);
+ * the cheaper modes are opt-in for large runs where codec work dominates.
+ */
+public enum VirtualCodecBoundary {
+
+    /**
+     * Serialize to bytes and deserialize again (default, contract behaviour).
+     * Catches non-serializable payloads exactly like udp-docker would.
+     */
+    FULL,
+
+    /**
+     * Immutable structural copy of the message and its payload (maps, lists, arrays),
+     * without producing bytes. Receivers cannot observe mutations made by the sender.
+     */
+    COPY,
+
+    /**
+     * Pass the message reference through unchanged. Fastest; only safe if algorithms
+     * never mutate payloads after sending.
+     */
+    NONE
+}
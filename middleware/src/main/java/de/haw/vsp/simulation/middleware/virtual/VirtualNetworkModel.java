@@ -0,0 +1,161 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+import de.haw.vsp.simulation.core.NodeId;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Per-link network model for the virtual transport (latency, loss, bandwidth).
+ *
+ * Every directed link owns its own {@link SplittableRandom}, seeded from the model seed and the
+ * two node ids. A link's samples therefore depend only on the messages sent over that link, not on
+ * how traffic of other links interleaves or on how many router threads are used.
+ *
+ * Links are keyed by receiver first: the virtual adapter routes all messages for one receiver
+ * through the same thread, so a {@link Link} is never sampled concurrently.
+ * Links that are not part of the topology are created on first use with the default model.
+ */
+public final class VirtualNetworkModel {
+
+    /** Returned by {@link Link#sampleDelayNanos(long, int)} for a lost message. */
+    public static final long LOST = -1L;
+
+    /** Upper bound of a sampled latency (one hour); heavy-tailed samples beyond it would overflow the timers. */
+    public static final double MAX_LATENCY_MILLIS = 3_600_000.0;
+
+    private final long seed;
+    private final LinkModel defaultLink;
+    private final ConcurrentHashMap<NodeId, ConcurrentHashMap<NodeId, Link>> linksByReceiver = new ConcurrentHashMap<>();
+
+    public VirtualNetworkModel(LinkModel defaultLink, long seed) {
+        this.defaultLink = Objects.requireNonNull(defaultLink, "defaultLink");
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a model with one link per direction of every topology edge, all using {@code defaultLink}.
+     */
+    public static VirtualNetworkModel fromTopology(Map<NodeId, Set<NodeId>> topology, LinkModel defaultLink, long seed) {
+        return fromTopology(topology, (from, to) -> defaultLink, defaultLink, seed);
+    }
+
+    /**
+     * Creates a model with one link per direction of every topology edge, modelled by
+     * {@code linkModels.apply(from, to)}; a null result means {@code defaultLink}.
+     */
+    public static VirtualNetworkModel fromTopology(Map<NodeId, Set<NodeId>> topology,
+                                                   BiFunction<NodeId, NodeId, LinkModel> linkModels,
+                                                   LinkModel defaultLink, long seed) {
+        Objects.requireNonNull(topology, "topology");
+        Objects.requireNonNull(linkModels, "linkModels");
+        VirtualNetworkModel model = new VirtualNetworkModel(defaultLink, seed);
+        for (Map.Entry<NodeId, Set<NodeId>> e : topology.entrySet()) {
+            for (NodeId neighbor : e.getValue()) {
+                model.setLink(e.getKey(), neighbor, linkModel(linkModels, e.getKey(), neighbor, defaultLink));
+                model.setLink(neighbor, e.getKey(), linkModel(linkModels, neighbor, e.getKey(), defaultLink));
+            }
+        }
+        return model;
+    }
+
+    private static LinkModel linkModel(BiFunction<NodeId, NodeId, LinkModel> linkModels, NodeId from, NodeId to,
+                                       LinkModel defaultLink) {
+        LinkModel m = linkModels.apply(from, to);
+        return m != null ? m : defaultLink;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public LinkModel defaultLink() {
+        return defaultLink;
+    }
+
+    /** Replaces the model of the directed link {@code from -> to} (resets its RNG and queue state). */
+    public void setLink(NodeId from, NodeId to, LinkModel model) {
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+        Objects.requireNonNull(model, "model");
+        linksByReceiver.computeIfAbsent(to, r -> new ConcurrentHashMap<>())
+                .put(from, new Link(model, linkSeed(seed, from, to)));
+    }
+
+    /** @return the state of the directed link {@code from -> to} (created with the default model if unknown) */
+    public Link link(NodeId from, NodeId to) {
+        ConcurrentHashMap<NodeId, Link> bySender = linksByReceiver.get(to);
+        if (bySender == null) {
+            bySender = linksByReceiver.computeIfAbsent(to, r -> new ConcurrentHashMap<>());
+        }
+        Link link = bySender.get(from);
+        if (link == null) {
+            link = bySender.computeIfAbsent(from, s -> new Link(defaultLink, linkSeed(seed, s, to)));
+        }
+        return link;
+    }
+
+    static long linkSeed(long seed, NodeId from, NodeId to) {
+        // String.hashCode is specified, so seeds are stable across JVMs
+        long h = mix(seed + 0x9E3779B97F4A7C15L * from.value().hashCode());
+        return mix(h ^ to.value().hashCode());
+    }
+
+    private static long mix(long z) {
+        // SplitMix64 finalizer
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Mutable state of one directed link: its RNG and when its transmitter becomes free.
+     * Not thread-safe; used by a single router thread.
+     */
+    public static final class Link {
+        private final LinkModel model;
+        private final SplittableRandom rng;
+        private long busyUntilNanos = Long.MIN_VALUE;
+
+        Link(LinkModel model, long seed) {
+            this.model = model;
+            this.rng = new SplittableRandom(seed);
+        }
+
+        public LinkModel model() {
+            return model;
+        }
+
+        /**
+         * Samples the delivery delay for a message handed to this link at {@code nowNanos}.
+         *
+         * With a bandwidth limit, the message first waits for earlier messages on this link to be
+         * transmitted and then occupies the link for {@code sizeBytes / bandwidth}. The latency sample
+         * is capped at {@link #MAX_LATENCY_MILLIS}.
+         *
+         * @param nowNanos  current time on the caller's clock
+         * @param sizeBytes encoded message size (ignored without a bandwidth limit)
+         * @return delay in nanoseconds, or {@link #LOST}
+         */
+        public long sampleDelayNanos(long nowNanos, int sizeBytes) {
+            if (model.lossProbability() > 0.0 && rng.nextDouble() < model.lossProbability()) {
+                return LOST;
+            }
+
+            long departure = nowNanos;
+            if (model.bandwidthLimited()) {
+                long txNanos = (long) Math.ceil(sizeBytes * 1_000_000_000.0 / model.bandwidthBytesPerSecond());
+                departure = Math.max(nowNanos, busyUntilNanos) + txNanos;
+                busyUntilNanos = departure;
+            }
+
+            double latencyMillis = Math.min(model.latency().sampleMillis(rng), MAX_LATENCY_MILLIS);
+            long latencyNanos = (long) (latencyMillis * 1_000_000.0);
+            return departure - nowNanos + latencyNanos;
+        }
+    }
+}
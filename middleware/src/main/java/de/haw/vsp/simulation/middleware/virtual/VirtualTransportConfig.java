@@ -0,0 +1,55 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+/**
+ * Tuning knobs of the virtual transport that are independent of queueing and faults.
+ *
+ * @param routerShards  number of router threads. Each shard owns its own outbound queue;
+ *                      messages are assigned by receiver, so per-link FIFO order is kept (> 0)
+ * @param codecBoundary how messages are isolated between sender and receiver
+ * @param maxDrainBatch maximum number of messages handed to the receive callback at once
+ *                      when an inbox is drained (> 0; 1 disables batching)
+ */
+public record VirtualTransportConfig(
+        int routerShards,
+        VirtualCodecBoundary codecBoundary,
+        int maxDrainBatch
+) {
+
+    public static final int DEFAULT_MAX_DRAIN_BATCH = 64;
+    /** One router thread, as before sharding; more are opt-in. */
+    public static final int DEFAULT_ROUTER_SHARDS = 1;
+
+    /**
+     * Canonical constructor with validation.
+     */
+    public VirtualTransportConfig {
+        if (routerShards <= 0) {
+            throw new IllegalArgumentException("routerShards must be > 0, but was: " + routerShards);
+        }
+        if (codecBoundary == null) {
+            throw new IllegalArgumentException("codecBoundary must not be null");
+        }
+        if (maxDrainBatch <= 0) {
+            throw new IllegalArgumentException("maxDrainBatch must be > 0, but was: " + maxDrainBatch);
+        }
+    }
+
+    /**
+     * Default configuration: contract JSON boundary, a single router shard,
+     * inbox batches of up to {@value #DEFAULT_MAX_DRAIN_BATCH} messages.
+     */
+    public static VirtualTransportConfig defaultConfig() {
+        return new VirtualTransportConfig(defaultRouterShards(), VirtualCodecBoundary.FULL, DEFAULT_MAX_DRAIN_BATCH);
+    }
+
+    /**
+     * Convenience factory keeping the default shard count and batch size.
+     */
+    public static VirtualTransportConfig withCodecBoundary(VirtualCodecBoundary codecBoundary) {
+        return new VirtualTransportConfig(defaultRouterShards(), codecBoundary, DEFAULT_MAX_DRAIN_BATCH);
+    }
+
+    public static int defaultRouterShards() {
+        return DEFAULT_ROUTER_SHARDS;
+    }
+}
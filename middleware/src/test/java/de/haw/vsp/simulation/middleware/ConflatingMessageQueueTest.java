@@ -0,0 +1,109 @@
+package de.haw.vsp.simulation.middleware;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link QueueOverflowPolicy#CONFLATE} and {@link ConflatingMessageQueue}.
+ */
+@DisplayName("ConflatingMessageQueue")
+class ConflatingMessageQueueTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final NodeId C = new NodeId("node-2");
+
+    private static SimulationMessage msg(NodeId from, NodeId to, String type, long seq) {
+        return new SimulationMessage(from, to, type, null, seq);
+    }
+
+    @Test
+    @DisplayName("should replace a queued message with the same key in place")
+    void shouldReplaceInPlace() {
+        QueueConfig cfg = QueueConfig.conflate(8, ConflationKey.SENDER_AND_TYPE);
+        MessageQueue<SimulationMessage> q = QueueOps.newMessageQueue(cfg);
+
+        assertTrue(QueueOps.enqueue(q, msg(A, C, "LEADER_ANNOUNCEMENT", 1), cfg));
+        assertTrue(QueueOps.enqueue(q, msg(B, C, "LEADER_ANNOUNCEMENT", 1), cfg));
+        assertTrue(QueueOps.enqueue(q, msg(A, C, "LEADER_ANNOUNCEMENT", 2), cfg));
+        assertTrue(QueueOps.enqueue(q, msg(A, C, "OTHER", 3), cfg));
+
+        assertEquals(3, q.size());
+        assertEquals(msg(A, C, "LEADER_ANNOUNCEMENT", 2), q.poll()); // newest, at the oldest position
+        assertEquals(msg(B, C, "LEADER_ANNOUNCEMENT", 1), q.poll());
+        assertEquals(msg(A, C, "OTHER", 3), q.poll());
+        assertNull(q.poll());
+    }
+
+    @Test
+    @DisplayName("should never conflate messages for different receivers")
+    void shouldScopeKeysByReceiver() {
+        QueueConfig cfg = QueueConfig.conflate(8, ConflationKey.SENDER);
+        MessageQueue<SimulationMessage> q = QueueOps.newMessageQueue(cfg);
+
+        QueueOps.enqueue(q, msg(A, B, "T", 1), cfg);
+        QueueOps.enqueue(q, msg(A, C, "T", 1), cfg);
+        QueueOps.enqueue(q, msg(A, C, "U", 2), cfg);
+
+        assertEquals(2, q.size());
+    }
+
+    @Test
+    @DisplayName("should count only distinct keys against the capacity")
+    void shouldRejectNewKeysWhenFull() {
+        QueueConfig cfg = QueueConfig.conflate(2, ConflationKey.SENDER_AND_TYPE);
+        MessageQueue<SimulationMessage> q = QueueOps.newMessageQueue(cfg);
+
+        assertTrue(QueueOps.enqueue(q, msg(A, C, "T", 1), cfg));
+        assertTrue(QueueOps.enqueue(q, msg(B, C, "T", 1), cfg));
+        assertFalse(QueueOps.enqueue(q, msg(C, A, "T", 1), cfg), "new key on a full queue");
+        assertTrue(QueueOps.enqueue(q, msg(A, C, "T", 99), cfg), "known key still replaces");
+        assertEquals(1, ((ConflatingMessageQueue<SimulationMessage>) q).conflatedCount());
+    }
+
+    @Test
+    @DisplayName("should keep the newest announcements where DROP_NEWEST keeps the oldest")
+    void shouldKeepNewestUnderFlood() {
+        QueueConfig conflate = QueueConfig.conflate(4, ConflationKey.SENDER_AND_TYPE);
+        QueueConfig dropNewest = QueueConfig.dropNewest(4);
+        MessageQueue<SimulationMessage> cq = QueueOps.newMessageQueue(conflate);
+        MessageQueue<SimulationMessage> dq = QueueOps.newMessageQueue(dropNewest);
+
+        for (long seq = 0; seq < 100; seq++) {
+            for (NodeId sender : List.of(A, B)) {
+                QueueOps.enqueue(cq, msg(sender, C, "LEADER_ANNOUNCEMENT", seq), conflate);
+                QueueOps.enqueue(dq, msg(sender, C, "LEADER_ANNOUNCEMENT", seq), dropNewest);
+            }
+        }
+
+        assertEquals(2, cq.size());
+        assertEquals(99L, cq.poll().seq());
+        assertEquals(4, dq.size());
+        assertEquals(0L, dq.poll().seq());
+    }
+
+    @Test
+    @DisplayName("should require a key function for CONFLATE")
+    void shouldRequireKeyFunction() {
+        assertThrows(IllegalArgumentException.class,
+                () -> QueueOps.newQueue(QueueConfig.conflate(4, ConflationKey.SENDER)));
+    }
+
+    @Test
+    @DisplayName("should parse CONFLATE and the conflation key from the environment")
+    void shouldParseEnvironment() {
+        var pair = EnvQueueConfigs.fromEnvironment(Map.of(
+                EnvQueueConfigs.KEY_OVERFLOW_POLICY, "conflate",
+                EnvQueueConfigs.KEY_CONFLATION_KEY, "sender"));
+        assertEquals(QueueOverflowPolicy.CONFLATE, pair.inbound().overflowPolicy());
+        assertEquals(ConflationKey.SENDER, pair.inbound().conflationKey());
+
+        assertThrows(IllegalArgumentException.class, () -> EnvQueueConfigs.fromEnvironment(
+                Map.of(EnvQueueConfigs.KEY_CONFLATION_KEY, "payload")));
+    }
+}
@@ -0,0 +1,192 @@
+package de.haw.vsp.simulation.middleware;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RingBufferMessageQueue} and its use through {@link QueueOps}.
+ */
+@DisplayName("RingBufferMessageQueue")
+class RingBufferMessageQueueTest {
+
+    @Nested
+    @DisplayName("Basics")
+    class Basics {
+
+        @Test
+        @DisplayName("should round capacity up to a power of two")
+        void shouldRoundCapacity() {
+            assertEquals(2, new RingBufferMessageQueue<>(1).capacity());
+            assertEquals(8, new RingBufferMessageQueue<>(5).capacity());
+            assertEquals(1024, new RingBufferMessageQueue<>(1024).capacity());
+        }
+
+        @Test
+        @DisplayName("should reject invalid capacity")
+        void shouldRejectInvalidCapacity() {
+            assertThrows(IllegalArgumentException.class, () -> new RingBufferMessageQueue<>(0));
+        }
+
+        @Test
+        @DisplayName("should keep FIFO order and report full/empty")
+        void shouldKeepFifoOrder() {
+            RingBufferMessageQueue<Integer> q = new RingBufferMessageQueue<>(4);
+            assertNull(q.poll());
+            for (int i = 0; i < 4; i++) assertTrue(q.offer(i));
+            assertFalse(q.offer(99));
+            assertEquals(4, q.size());
+
+            for (int i = 0; i < 4; i++) assertEquals(i, q.poll());
+            assertTrue(q.isEmpty());
+
+            // wrap around
+            for (int i = 10; i < 14; i++) assertTrue(q.offer(i));
+            q.clear();
+            assertTrue(q.isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Overflow Policies")
+    class OverflowPolicies {
+
+        @Test
+        @DisplayName("DROP_NEWEST should reject the new element")
+        void dropNewest() {
+            QueueConfig cfg = QueueConfig.dropNewest(2).withImplementation(QueueImplementation.RING_BUFFER);
+            MessageQueue<Integer> q = QueueOps.newQueue(cfg);
+            assertTrue(QueueOps.enqueue(q, 1, cfg));
+            assertTrue(QueueOps.enqueue(q, 2, cfg));
+            assertFalse(QueueOps.enqueue(q, 3, cfg));
+            assertEquals(1, q.poll());
+            assertEquals(2, q.poll());
+        }
+
+        @Test
+        @DisplayName("DROP_OLDEST should evict the head")
+        void dropOldest() {
+            QueueConfig cfg = QueueConfig.dropOldest(2).withImplementation(QueueImplementation.RING_BUFFER);
+            MessageQueue<Integer> q = QueueOps.newQueue(cfg);
+            QueueOps.enqueue(q, 1, cfg);
+            QueueOps.enqueue(q, 2, cfg);
+            assertTrue(QueueOps.enqueue(q, 3, cfg));
+            assertEquals(2, q.poll());
+            assertEquals(3, q.poll());
+        }
+
+        @Test
+        @DisplayName("BLOCK should time out when full and succeed once space frees up")
+        void block() throws Exception {
+            QueueConfig cfg = QueueConfig.blocking(2, 50).withImplementation(QueueImplementation.RING_BUFFER);
+            MessageQueue<Integer> q = QueueOps.newQueue(cfg);
+            assertTrue(QueueOps.enqueue(q, 1, cfg));
+            assertTrue(QueueOps.enqueue(q, 2, cfg));
+            assertFalse(QueueOps.enqueue(q, 9, cfg));
+
+            ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor();
+            try {
+                ses.schedule(q::poll, 10, TimeUnit.MILLISECONDS);
+                QueueConfig longer = QueueConfig.blocking(2, 2_000).withImplementation(QueueImplementation.RING_BUFFER);
+                assertTrue(QueueOps.enqueue(q, 3, longer));
+                assertEquals(2, q.poll());
+                assertEquals(3, q.poll());
+            } finally {
+                ses.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency")
+    class Concurrency {
+
+        @Test
+        @DisplayName("should deliver every element exactly once with many producers")
+        void manyProducersOneConsumer() throws Exception {
+            int producers = 4;
+            int perProducer = 50_000;
+            RingBufferMessageQueue<int[]> q = new RingBufferMessageQueue<>(256);
+
+            ExecutorService pool = Executors.newFixedThreadPool(producers);
+            for (int p = 0; p < producers; p++) {
+                int id = p;
+                pool.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        int[] item = {id, i};
+                        while (!q.offer(item)) Thread.onSpinWait();
+                    }
+                });
+            }
+
+            int[] next = new int[producers];
+            for (int n = 0; n < producers * perProducer; n++) {
+                int[] item = q.take();
+                assertEquals(next[item[0]]++, item[1], "per-producer order must be kept");
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+            assertNull(q.poll());
+        }
+
+        @Test
+        @DisplayName("take should not miss a wake-up with one producer and one consumer")
+        void takeNeverMissesWakeUp() throws Exception {
+            int items = 20_000;
+            RingBufferMessageQueue<Integer> q = new RingBufferMessageQueue<>(16);
+
+            ExecutorService consumer = Executors.newSingleThreadExecutor();
+            Future<Integer> taken = consumer.submit(() -> {
+                int n = 0;
+                for (int i = 0; i < items; i++) {
+                    assertEquals(i, q.take());
+                    n++;
+                }
+                return n;
+            });
+            for (int i = 0; i < items; i++) {
+                while (!q.offer(i)) Thread.onSpinWait();
+                // let the consumer run dry now and then, so that it goes through the park path
+                if (i % 64 == 0) LockSupport.parkNanos(1_000);
+            }
+
+            try {
+                assertEquals(items, taken.get(30, TimeUnit.SECONDS), "consumer must take every offered item");
+            } finally {
+                consumer.shutdownNow();
+            }
+            assertNull(q.poll());
+        }
+
+        @Test
+        @DisplayName("take should wake up on offer and on interrupt")
+        void takeWakesUp() throws Exception {
+            RingBufferMessageQueue<String> q = new RingBufferMessageQueue<>(8);
+            AtomicInteger interrupted = new AtomicInteger();
+            BlockingQueue<String> got = new LinkedBlockingQueue<>();
+
+            Thread consumer = new Thread(() -> {
+                try {
+                    got.add(q.take());
+                    q.take();
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                }
+            });
+            consumer.start();
+
+            Thread.sleep(20);
+            q.offer("hello");
+            assertEquals("hello", got.poll(2, TimeUnit.SECONDS));
+
+            consumer.interrupt();
+            consumer.join(2_000);
+            assertEquals(1, interrupted.get());
+        }
+    }
+}
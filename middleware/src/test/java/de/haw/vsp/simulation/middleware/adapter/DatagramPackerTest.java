@@ -0,0 +1,96 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.codec.DatagramFrames;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link DatagramPacker} and the {@link DatagramFrames} wire format.
+ */
+@DisplayName("DatagramPacker")
+class DatagramPackerTest {
+
+    private static final NodeId B = new NodeId("node-1");
+    private static final NodeId C = new NodeId("node-2");
+    private static final InetSocketAddress ADDR_B = new InetSocketAddress("127.0.0.1", 9001);
+    private static final InetSocketAddress ADDR_C = new InetSocketAddress("127.0.0.1", 9002);
+
+    private final List<byte[]> sentToB = new ArrayList<>();
+    private final List<byte[]> sentToC = new ArrayList<>();
+    private final DatagramPacker.Sink sink = (receiver, addr, datagram) -> {
+        byte[] copy = new byte[datagram.remaining()];
+        datagram.get(copy);
+        (receiver.equals(B) ? sentToB : sentToC).add(copy);
+    };
+
+    private static ByteBuffer msg(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> unpack(byte[] datagram) {
+        List<String> out = new ArrayList<>();
+        DatagramFrames.forEachFrame(ByteBuffer.wrap(datagram), f -> {
+            byte[] b = new byte[f.remaining()];
+            f.get(b);
+            out.add(new String(b, StandardCharsets.UTF_8));
+        });
+        return out;
+    }
+
+    @Test
+    @DisplayName("should pack messages per peer in order")
+    void shouldPackPerPeer() {
+        DatagramPacker packer = new DatagramPacker(1400, false);
+        assertTrue(packer.add(B, ADDR_B, msg("{\"a\":1}"), sink));
+        assertTrue(packer.add(C, ADDR_C, msg("{\"c\":1}"), sink));
+        assertTrue(packer.add(B, ADDR_B, msg("{\"a\":2}"), sink));
+        packer.flush(sink);
+
+        assertEquals(1, sentToB.size());
+        assertEquals(List.of("{\"a\":1}", "{\"a\":2}"), unpack(sentToB.get(0)));
+        assertEquals(List.of("{\"c\":1}"), unpack(sentToC.get(0)));
+        assertFalse(packer.hasPending());
+    }
+
+    @Test
+    @DisplayName("should send a lone message unframed")
+    void shouldSendLoneMessagePlain() {
+        DatagramPacker packer = new DatagramPacker(1400, true);
+        packer.add(B, ADDR_B, msg("{\"a\":1}"), sink);
+        packer.flush(sink);
+
+        assertEquals("{\"a\":1}", new String(sentToB.get(0), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("should emit a full pack and reject messages that never fit")
+    void shouldRespectMaxDatagramSize() {
+        DatagramPacker packer = new DatagramPacker(64, false);
+        String twenty = "{\"x\":\"" + "y".repeat(12) + "\"}";
+        for (int i = 0; i < 5; i++) {
+            assertTrue(packer.add(B, ADDR_B, msg(twenty), sink));
+        }
+        assertEquals(2, sentToB.size(), "two 22-byte frames fill a 64-byte pack");
+        assertTrue(sentToB.stream().allMatch(d -> d.length <= 64));
+
+        assertFalse(packer.add(B, ADDR_B, msg("z".repeat(100)), sink));
+        assertEquals(3, sentToB.size(), "pending pack is emitted before the oversize message");
+        assertEquals(List.of(twenty), unpack(sentToB.get(2)));
+    }
+
+    @Test
+    @DisplayName("should reject truncated packed datagrams")
+    void shouldRejectTruncatedFrames() {
+        ByteBuffer bad = ByteBuffer.wrap(new byte[]{DatagramFrames.PACKED, 0, 10, '{', '}'});
+        assertThrows(MessageCodecException.class, () -> DatagramFrames.forEachFrame(bad, f -> {}));
+    }
+}
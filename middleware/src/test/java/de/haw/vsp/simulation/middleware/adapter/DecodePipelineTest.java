@@ -0,0 +1,81 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link DecodePipeline}.
+ */
+@DisplayName("DecodePipeline")
+class DecodePipelineTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final InetSocketAddress FROM = new InetSocketAddress("127.0.0.1", 9000);
+
+    private DecodePipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) pipeline.close();
+    }
+
+    /** Datagram = 8-byte sequence number; decoding takes a random time, so decoders finish out of order. */
+    private static void decodeSlowly(ByteBuffer datagram, java.net.SocketAddress from,
+                                     java.util.List<SimulationMessage> out) {
+        long seq = datagram.getLong();
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(50_000));
+        out.add(new SimulationMessage(A, B, "T", null, seq));
+    }
+
+    private static byte[] datagram(long seq) {
+        return ByteBuffer.allocate(8).putLong(seq).array();
+    }
+
+    @Test
+    @DisplayName("should publish in submit order despite parallel decoding")
+    void shouldPublishInOrder() throws Exception {
+        BlockingQueue<Long> out = new LinkedBlockingQueue<>();
+        pipeline = new DecodePipeline("test-decode", 64, 4, DecodePipelineTest::decodeSlowly, m -> out.add(m.seq()));
+
+        int n = 2_000;
+        for (long seq = 0; seq < n; seq++) {
+            byte[] d = datagram(seq);
+            while (!pipeline.submit(d, 0, d.length, FROM)) Thread.onSpinWait();
+        }
+        for (long seq = 0; seq < n; seq++) {
+            assertEquals(seq, out.poll(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, pipeline.pending());
+    }
+
+    @Test
+    @DisplayName("should reject datagrams while the ring is full")
+    void shouldRejectWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline = new DecodePipeline("test-decode", 4, 1, (d, f, o) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, m -> {});
+
+        byte[] d = datagram(0);
+        for (int i = 0; i < 4; i++) assertTrue(pipeline.submit(d, 0, d.length, FROM));
+        assertFalse(pipeline.submit(d, 0, d.length, FROM));
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (pipeline.pending() > 0 && System.nanoTime() < deadline) Thread.sleep(1);
+        assertTrue(pipeline.submit(d, 0, d.length, FROM));
+    }
+}
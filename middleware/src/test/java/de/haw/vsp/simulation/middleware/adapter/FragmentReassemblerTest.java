@@ -0,0 +1,240 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpConfig;
+import de.haw.vsp.simulation.middleware.UdpFragmentConfig;
+import de.haw.vsp.simulation.middleware.UdpReliabilityConfig;
+import de.haw.vsp.simulation.middleware.codec.FragmentFrames;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.codec.MessageCodecException;
+import org.junit.jupiter.api.*;
+
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link FragmentReassembler} and for oversize messages through {@link UdpAdapter}.
+ */
+@DisplayName("FragmentReassembler")
+class FragmentReassemblerTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final int CHUNK = 1000;
+
+    /** 256 KiB messages, room for two of them, 1 s timeout. */
+    private static final UdpFragmentConfig CONFIG = new UdpFragmentConfig(256 * 1024, 1400, 512 * 1024, 1_000L);
+
+    private long nowNanos;
+    private final List<String> errors = new ArrayList<>();
+    private final FragmentReassembler reassembler =
+            new FragmentReassembler(B, CONFIG, (node, peer, msg) -> errors.add(msg), () -> nowNanos);
+
+    /** Splits {@code message} into fragment frames of {@link #CHUNK} bytes. */
+    private static List<ByteBuffer> fragments(String sender, int messageId, byte[] message) {
+        byte[] id = sender.getBytes(StandardCharsets.UTF_8);
+        int count = (message.length + CHUNK - 1) / CHUNK;
+        List<ByteBuffer> frames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int offset = i * CHUNK;
+            int length = Math.min(CHUNK, message.length - offset);
+            byte[] frame = new byte[FragmentFrames.FIXED_HEADER_BYTES + id.length + length];
+            int header = FragmentFrames.putHeader(frame, id, messageId, message.length, offset, i, count);
+            System.arraycopy(message, offset, frame, header, length);
+            frames.add(ByteBuffer.wrap(frame));
+        }
+        return frames;
+    }
+
+    private static byte[] message(int length, int seed) {
+        byte[] m = new byte[length];
+        new Random(seed).nextBytes(m);
+        return m;
+    }
+
+    private static byte[] bytesOf(ByteBuffer whole) {
+        byte[] b = new byte[whole.remaining()];
+        whole.duplicate().get(b);
+        return b;
+    }
+
+    @Test
+    @DisplayName("should reassemble fragments arriving in any order, ignoring duplicates")
+    void shouldReassembleOutOfOrder() {
+        byte[] message = message(5_500, 1);
+        List<ByteBuffer> frames = fragments("node-0", 7, message);
+        Collections.reverse(frames);
+        frames.add(1, frames.get(0).duplicate());
+
+        ByteBuffer whole = null;
+        for (ByteBuffer f : frames) {
+            ByteBuffer r = reassembler.add(f);
+            if (r != null) whole = r;
+        }
+
+        assertNotNull(whole);
+        assertArrayEquals(message, bytesOf(whole));
+        assertEquals(0, reassembler.pendingMessages());
+        assertEquals(0, reassembler.reservedBytes());
+    }
+
+    @Test
+    @DisplayName("should keep messages of different senders with the same id apart")
+    void shouldKeySenderAndMessageId() {
+        byte[] m1 = message(2_500, 1);
+        byte[] m2 = message(2_500, 2);
+        List<ByteBuffer> f1 = fragments("node-0", 1, m1);
+        List<ByteBuffer> f2 = fragments("node-2", 1, m2);
+
+        assertNull(reassembler.add(f1.get(0)));
+        assertNull(reassembler.add(f2.get(0)));
+        assertNull(reassembler.add(f1.get(1)));
+        assertNull(reassembler.add(f2.get(1)));
+        assertEquals(2, reassembler.pendingMessages());
+
+        assertArrayEquals(m2, bytesOf(reassembler.add(f2.get(2))));
+        assertArrayEquals(m1, bytesOf(reassembler.add(f1.get(2))));
+    }
+
+    @Test
+    @DisplayName("should drop incomplete messages after the timeout")
+    void shouldEvictExpired() {
+        List<ByteBuffer> frames = fragments("node-0", 1, message(3_000, 1));
+        reassembler.add(frames.get(0));
+
+        nowNanos += TimeUnit.MILLISECONDS.toNanos(1_001);
+        assertNull(reassembler.add(fragments("node-0", 2, message(3_000, 2)).get(0)));
+
+        assertEquals(1, reassembler.pendingMessages(), "only the new message is left");
+        assertTrue(errors.get(0).contains("timed out"));
+    }
+
+    @Test
+    @DisplayName("should drop the oldest incomplete message when reassembly memory is full")
+    void shouldBoundMemory() {
+        byte[] big = message(200 * 1024, 1);
+        reassembler.add(fragments("node-0", 1, big).get(0)); // 256 KiB buffer
+        reassembler.add(fragments("node-0", 2, big).get(0)); // 256 KiB buffer, bound reached
+        assertEquals(512 * 1024, reassembler.reservedBytes());
+
+        reassembler.add(fragments("node-0", 3, big).get(0));
+
+        assertEquals(2, reassembler.pendingMessages());
+        assertEquals(512 * 1024, reassembler.reservedBytes());
+        assertTrue(errors.get(0).contains("memory full"));
+    }
+
+    @Test
+    @DisplayName("should reuse released buffers")
+    void shouldReuseBuffers() {
+        ByteBuffer first = null;
+        for (ByteBuffer f : fragments("node-0", 1, message(3_000, 1))) first = reassembler.add(f);
+        assertNotNull(first);
+        byte[] buffer = first.array();
+        reassembler.release(first);
+
+        ByteBuffer second = null;
+        for (ByteBuffer f : fragments("node-0", 2, message(4_000, 2))) second = reassembler.add(f);
+        assertNotNull(second);
+        assertSame(buffer, second.array());
+    }
+
+    @Test
+    @DisplayName("should reject inconsistent fragments")
+    void shouldRejectInconsistentFragments() {
+        List<ByteBuffer> frames = fragments("node-0", 1, message(3_000, 1));
+        reassembler.add(frames.get(0));
+        List<ByteBuffer> other = fragments("node-0", 1, message(5_000, 1));
+
+        assertThrows(MessageCodecException.class, () -> reassembler.add(other.get(1)));
+        assertThrows(MessageCodecException.class,
+                () -> reassembler.add(fragments("node-0", 9, message(300 * 1024, 1)).get(0)), "too large");
+    }
+
+    @Nested
+    @DisplayName("over UdpAdapter")
+    class OverUdp {
+
+        private final JacksonSimulationMessageCodec codec = new JacksonSimulationMessageCodec();
+        private final List<UdpAdapter> adapters = new ArrayList<>();
+
+        @AfterEach
+        void tearDown() {
+            adapters.forEach(UdpAdapter::close);
+        }
+
+        private BlockingQueue<SimulationMessage> connect(UdpReliabilityConfig reliable) throws SocketException {
+            Map<NodeId, TransportAddress> addresses = Map.of(
+                    A, new TransportAddress("127.0.0.1", freePort()),
+                    B, new TransportAddress("127.0.0.1", freePort())
+            );
+            TransportConfig config = addresses::get;
+            for (NodeId id : List.of(A, B)) {
+                adapters.add(new UdpAdapter(List.of(id), config, codec, codec, QueueConfig.defaultConfig(),
+                        QueueConfig.defaultConfig(), UdpConfig.defaultConfig().withReliable(reliable)
+                                .withFragmentation(UdpFragmentConfig.enabledConfig())));
+            }
+            BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+            adapters.get(1).onReceive(received::add);
+            return received;
+        }
+
+        @Test
+        @DisplayName("should send messages larger than one datagram in fragments")
+        void shouldSendOversizeMessages() throws Exception {
+            BlockingQueue<SimulationMessage> received = connect(UdpReliabilityConfig.DISABLED);
+            String payload = "x".repeat(300_000);
+
+            assertTrue(adapters.get(0).send(new SimulationMessage(A, B, "SNAPSHOT", payload, null)));
+            assertTrue(adapters.get(0).send(new SimulationMessage(A, B, "SMALL", "y", null)));
+
+            SimulationMessage big = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(big);
+            assertEquals(payload, big.payload());
+            SimulationMessage small = received.poll(2, TimeUnit.SECONDS);
+            assertNotNull(small);
+            assertEquals("SMALL", small.messageType());
+        }
+
+        @Test
+        @DisplayName("should fragment reliable data frames")
+        void shouldFragmentReliableMessages() throws Exception {
+            BlockingQueue<SimulationMessage> received = connect(UdpReliabilityConfig.defaultConfig());
+            String payload = "z".repeat(100_000);
+
+            assertTrue(adapters.get(0).send(new SimulationMessage(A, B, "SNAPSHOT", payload, null)));
+
+            SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(m);
+            assertEquals(payload, m.payload());
+            assertEquals(0L, m.seq());
+        }
+
+        @Test
+        @DisplayName("should still reject messages above the configured maximum")
+        void shouldRejectAboveMaximum() throws Exception {
+            connect(UdpReliabilityConfig.DISABLED);
+            String payload = "x".repeat(UdpFragmentConfig.DEFAULT_MAX_MESSAGE_BYTES + 1);
+
+            assertFalse(adapters.get(0).send(new SimulationMessage(A, B, "T", payload, null)));
+        }
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket s = new DatagramSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpConfig;
+import de.haw.vsp.simulation.middleware.UdpPackingConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import org.junit.jupiter.api.*;
+
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loopback tests for {@link NioUdpAdapter}.
+ */
+@DisplayName("NioUdpAdapter")
+class NioUdpAdapterTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+
+    private NioUdpAdapter a;
+    private NioUdpAdapter b;
+    private TransportConfig config;
+
+    @BeforeEach
+    void setUp() throws SocketException {
+        Map<NodeId, TransportAddress> addresses = Map.of(
+                A, new TransportAddress("127.0.0.1", freePort()),
+                B, new TransportAddress("127.0.0.1", freePort())
+        );
+        config = addresses::get;
+        var codec = new JacksonSimulationMessageCodec();
+        a = new NioUdpAdapter(A, config, codec, codec);
+        b = new NioUdpAdapter(B, config, codec, codec);
+    }
+
+    @AfterEach
+    void tearDown() {
+        a.close();
+        b.close();
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket s = new DatagramSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    @Test
+    @DisplayName("should deliver messages between two adapters")
+    void shouldDeliverMessages() throws Exception {
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+
+        for (long i = 0; i < 100; i++) {
+            assertTrue(a.send(new SimulationMessage(A, B, "T", "p" + i, i)));
+        }
+        for (long i = 0; i < 100; i++) {
+            SimulationMessage m = received.poll(2, TimeUnit.SECONDS);
+            assertNotNull(m, "message " + i + " not delivered");
+            assertEquals(A, m.sender());
+            assertEquals(B, m.receiver());
+        }
+    }
+
+    @Test
+    @DisplayName("should send messages larger than a pooled buffer")
+    void shouldSendLargeMessages() throws Exception {
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+
+        String payload = "x".repeat(NioUdpAdapter.SEND_BUFFER_BYTES * 4);
+        assertTrue(a.send(new SimulationMessage(A, B, "T", payload, 1L)));
+
+        SimulationMessage m = received.poll(2, TimeUnit.SECONDS);
+        assertNotNull(m);
+        assertEquals(payload, m.payload());
+    }
+
+    @Test
+    @DisplayName("should reject unknown receivers and oversize messages")
+    void shouldRejectUnsendableMessages() {
+        assertFalse(a.send(new SimulationMessage(A, new NodeId("node-9"), "T", null, 1L)));
+        assertFalse(a.send(new SimulationMessage(A, B, "T", "x".repeat(70_000), 1L)));
+    }
+
+    @Test
+    @DisplayName("should exchange packed datagrams with the socket-based adapter")
+    void shouldInteroperateWithUdpAdapter() throws Exception {
+        NodeId c = new NodeId("node-2");
+        Map<NodeId, TransportAddress> addresses = Map.of(
+                B, new TransportAddress("127.0.0.1", freePort()),
+                c, new TransportAddress("127.0.0.1", freePort())
+        );
+        TransportConfig config = addresses::get;
+        var codec = new JacksonSimulationMessageCodec();
+        b.close();
+        b = new NioUdpAdapter(B, config, codec, codec);
+
+        try (UdpAdapter sender = new UdpAdapter(List.of(c), config, codec, codec, QueueConfig.defaultConfig(),
+                QueueConfig.defaultConfig(), UdpConfig.defaultConfig().withPacking(UdpPackingConfig.enabledConfig()))) {
+            BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+            b.onReceive(received::add);
+            for (long i = 0; i < 200; i++) {
+                assertTrue(sender.send(new SimulationMessage(c, B, "T", null, i)));
+            }
+            for (long i = 0; i < 200; i++) {
+                SimulationMessage m = received.poll(2, TimeUnit.SECONDS);
+                assertNotNull(m, "message " + i + " not delivered");
+                assertEquals(i, m.seq(), "per-peer order");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should not hold a lone message for the linger time")
+    void shouldNotLingerForLoneMessage() throws Exception {
+        a.close();
+        var codec = new JacksonSimulationMessageCodec();
+        a = new NioUdpAdapter(A, config, codec, codec, QueueConfig.defaultConfig(), QueueConfig.defaultConfig(),
+                new UdpPackingConfig(UdpPackingConfig.DEFAULT_MAX_DATAGRAM_BYTES, 60_000L));
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+
+        assertTrue(a.send(new SimulationMessage(A, B, "T", "alone", 1L)));
+
+        assertNotNull(received.poll(2, TimeUnit.SECONDS), "lone message held back");
+    }
+
+    @Test
+    @DisplayName("should reuse pooled send buffers")
+    void shouldReuseSendBuffers() {
+        BufferPool pool = new BufferPool(64, 2, true);
+        ByteBuffer first = pool.acquire();
+        first.put((byte) 1);
+        pool.release(first);
+
+        ByteBuffer again = pool.acquire();
+        assertSame(first, again);
+        assertEquals(0, again.position());
+        assertTrue(again.isDirect());
+
+        pool.release(ByteBuffer.allocate(64)); // not from the pool
+        assertEquals(0, pool.pooledCount());
+
+        BufferPool heap = new BufferPool(64, 2, false);
+        ByteBuffer array = heap.acquire();
+        assertTrue(array.hasArray());
+        heap.release(ByteBuffer.allocateDirect(64)); // wrong kind
+        heap.release(array);
+        assertSame(array, heap.acquire());
+    }
+}
@@ -0,0 +1,388 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.ConflationKey;
+import de.haw.vsp.simulation.middleware.EnvUdpConfigs;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpConfig;
+import de.haw.vsp.simulation.middleware.UdpReceiveConfig;
+import de.haw.vsp.simulation.middleware.UdpReliabilityConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.codec.ReliableFrames;
+import org.junit.jupiter.api.*;
+
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ReliableDelivery} on a simulated lossy link with a manual clock,
+ * and for reliable delivery through {@link UdpAdapter} on loopback.
+ */
+@DisplayName("ReliableDelivery")
+class ReliableDeliveryTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final JacksonSimulationMessageCodec CODEC = new JacksonSimulationMessageCodec();
+
+    /** Small window, 1 ms minimum timeout, three transmissions. */
+    private static final UdpReliabilityConfig CONFIG = new UdpReliabilityConfig(8, 100L, 1L, 1_000L, 3);
+
+    private long nowNanos;
+
+    /** One side of the link; frames it transmits are collected until the test delivers them. */
+    private final class Peer {
+        final NodeId id;
+        final ReliableDelivery delivery;
+        final List<byte[]> outbox = new ArrayList<>();
+        final List<Long> timerDelays = new ArrayList<>();
+        final List<SimulationMessage> delivered = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        final List<NodeId> opened = new ArrayList<>();
+
+        Peer(NodeId id) {
+            this.id = id;
+            this.delivery = new ReliableDelivery(id, CONFIG,
+                    (peer, frame) -> outbox.add(frame),
+                    (peer, delay) -> timerDelays.add(delay),
+                    (node, peer, msg) -> errors.add(msg),
+                    opened::add,
+                    () -> nowNanos);
+        }
+
+        byte[] send(NodeId to, String payload) {
+            return delivery.track(new SimulationMessage(id, to, "T", payload, null), CODEC::serialize);
+        }
+
+        /** Hands a frame to this peer like the receive path of the adapter does. */
+        void receive(byte[] frame) {
+            ByteBuffer buf = ByteBuffer.wrap(frame);
+            if (ReliableFrames.isAck(buf)) {
+                delivery.onAck(buf);
+                return;
+            }
+            ReliableFrames.DataHeader header = ReliableFrames.readData(buf);
+            delivery.onData(header, CODEC.deserialize(buf), delivered);
+            delivery.flushAcks();
+        }
+
+        /** Delivers and clears everything in the outbox. */
+        void flushTo(Peer other) {
+            List<byte[]> frames = new ArrayList<>(outbox);
+            outbox.clear();
+            frames.forEach(other::receive);
+        }
+
+        List<Object> payloads() {
+            return delivered.stream().map(SimulationMessage::payload).toList();
+        }
+    }
+
+    private static List<Object> payloads(int from, int to) {
+        List<Object> expected = new ArrayList<>();
+        for (int i = from; i < to; i++) expected.add("m" + i);
+        return expected;
+    }
+
+    @Nested
+    @DisplayName("Sequencing")
+    class Sequencing {
+
+        @Test
+        @DisplayName("should number messages per receiver, starting at 0")
+        void shouldNumberPerReceiver() {
+            Peer a = new Peer(A);
+            NodeId c = new NodeId("node-2");
+            a.send(B, "x");
+            a.send(B, "y");
+            byte[] toC = a.send(c, "z");
+            byte[] toB = a.send(B, "w");
+
+            assertEquals(0L, decode(toC).seq());
+            assertEquals(2L, decode(toB).seq());
+            assertEquals(3, a.delivery.inFlight(B));
+        }
+
+        @Test
+        @DisplayName("should deliver duplicates once")
+        void shouldDropDuplicates() {
+            Peer a = new Peer(A);
+            Peer b = new Peer(B);
+            byte[] frame = a.send(B, "m0");
+
+            b.receive(frame);
+            b.receive(frame);
+
+            assertEquals(List.of("m0"), b.payloads());
+        }
+
+        @Test
+        @DisplayName("should hold early messages back until the gap is filled")
+        void shouldDeliverInOrder() {
+            Peer a = new Peer(A);
+            Peer b = new Peer(B);
+            byte[] m0 = a.send(B, "m0");
+            byte[] m1 = a.send(B, "m1");
+            byte[] m2 = a.send(B, "m2");
+
+            b.receive(m2);
+            b.receive(m1);
+            assertTrue(b.delivered.isEmpty());
+
+            b.receive(m0);
+            assertEquals(payloads(0, 3), b.payloads());
+        }
+    }
+
+    @Nested
+    @DisplayName("Acknowledgement and retransmission")
+    class Retransmission {
+
+        @Test
+        @DisplayName("should retransmit only the messages the receiver did not acknowledge")
+        void shouldRetransmitLostMessages() {
+            Peer a = new Peer(A);
+            Peer b = new Peer(B);
+            List<byte[]> sent = new ArrayList<>();
+            for (int i = 0; i < 6; i++) sent.add(a.send(B, "m" + i));
+
+            // lose m1 and m4
+            for (int i = 0; i < 6; i++) {
+                if (i != 1 && i != 4) b.receive(sent.get(i));
+            }
+            assertEquals(List.of("m0"), b.payloads());
+
+            b.flushTo(a); // cumulative ACK 1, selective [2, 4) and [5, 6)
+            assertEquals(5, a.delivery.inFlight(B));
+
+            nowNanos += TimeUnit.MILLISECONDS.toNanos(200);
+            a.delivery.onRetransmitTimeout(B);
+            assertEquals(2, a.outbox.size(), "only m1 and m4 are sent again");
+
+            a.flushTo(b);
+            assertEquals(payloads(0, 6), b.payloads());
+            b.flushTo(a);
+            assertEquals(0, a.delivery.inFlight(B));
+        }
+
+        @Test
+        @DisplayName("should reject sends while the window is full and report when it opens")
+        void shouldBoundTheWindow() {
+            Peer a = new Peer(A);
+            Peer b = new Peer(B);
+            List<byte[]> sent = new ArrayList<>();
+            for (int i = 0; i < CONFIG.window(); i++) sent.add(a.send(B, "m" + i));
+
+            assertNull(a.send(B, "over"));
+            assertFalse(a.delivery.isWritable(B));
+
+            sent.forEach(b::receive);
+            b.flushTo(a);
+
+            assertEquals(List.of(B), a.opened);
+            assertTrue(a.delivery.isWritable(B));
+            assertNotNull(a.send(B, "again"));
+        }
+
+        @Test
+        @DisplayName("should give up after the configured transmissions and let the receiver skip the gap")
+        void shouldGiveUp() {
+            Peer a = new Peer(A);
+            Peer b = new Peer(B);
+            a.send(B, "lost");
+            byte[] m1 = a.send(B, "m1");
+            b.receive(m1);
+            b.flushTo(a); // m1 selectively acknowledged
+            assertTrue(b.delivered.isEmpty());
+
+            for (int i = 1; i < CONFIG.maxTransmissions(); i++) {
+                nowNanos += TimeUnit.SECONDS.toNanos(2);
+                a.delivery.onRetransmitTimeout(B);
+                assertEquals(1, a.outbox.size());
+                a.outbox.clear(); // lost again
+            }
+            nowNanos += TimeUnit.SECONDS.toNanos(2);
+            a.delivery.onRetransmitTimeout(B);
+
+            assertEquals(1, a.errors.size());
+            assertTrue(a.errors.get(0).contains("gave up"));
+
+            a.flushTo(b); // the probe carries the new base
+            assertEquals(List.of("m1"), b.payloads());
+            b.flushTo(a);
+            assertEquals(0, a.delivery.inFlight(B));
+        }
+
+        @Test
+        @DisplayName("should adapt the timeout to measured round trips and back off on expiry")
+        void shouldAdaptTimeout() {
+            Peer a = new Peer(A);
+            Peer b = new Peer(B);
+            b.receive(a.send(B, "m0"));
+            assertEquals(List.of(100L), a.timerDelays, "initial timeout");
+
+            nowNanos += TimeUnit.MILLISECONDS.toNanos(10);
+            b.flushTo(a); // RTT sample 10 ms -> RTO = 10 + 4 * 5 = 30 ms
+            a.delivery.onRetransmitTimeout(B); // nothing left in flight, timer not re-armed
+
+            a.send(B, "m1");
+            assertEquals(30L, a.timerDelays.get(a.timerDelays.size() - 1));
+
+            nowNanos += TimeUnit.MILLISECONDS.toNanos(30);
+            a.delivery.onRetransmitTimeout(B);
+            assertEquals(60L, a.timerDelays.get(a.timerDelays.size() - 1), "doubled after expiry");
+        }
+
+        @Test
+        @DisplayName("should start over when the sender restarts with a new epoch")
+        void shouldResetOnSenderRestart() {
+            Peer b = new Peer(B);
+            Peer a = new Peer(A);
+            for (int i = 0; i < 3; i++) b.receive(a.send(B, "m" + i));
+
+            Peer restarted = new Peer(A);
+            b.receive(restarted.send(B, "m3"));
+
+            assertEquals(payloads(0, 4), b.payloads());
+        }
+    }
+
+    @Test
+    @DisplayName("should encode and decode ACK frames")
+    void shouldRoundTripAcks() {
+        byte[] frame = ReliableFrames.ack("node-7", 42, 10L, new long[]{12L, 14L, 20L, 21L}, 2);
+        ReliableFrames.Ack ack = ReliableFrames.readAck(ByteBuffer.wrap(frame));
+
+        assertEquals("node-7", ack.node());
+        assertEquals(42, ack.epoch());
+        assertEquals(10L, ack.cumulative());
+        assertArrayEquals(new long[]{12L, 14L, 20L, 21L}, ack.ranges());
+    }
+
+    @Nested
+    @DisplayName("over UdpAdapter")
+    class OverUdp {
+
+        private final List<UdpAdapter> adapters = new ArrayList<>();
+
+        @AfterEach
+        void tearDown() {
+            adapters.forEach(UdpAdapter::close);
+        }
+
+        private UdpAdapter adapter(NodeId id, TransportConfig config, UdpReliabilityConfig reliable) {
+            return adapter(id, config, reliable, QueueConfig.defaultConfig());
+        }
+
+        private UdpAdapter adapter(NodeId id, TransportConfig config, UdpReliabilityConfig reliable,
+                                   QueueConfig outbound) {
+            UdpAdapter adapter = new UdpAdapter(List.of(id), config, CODEC, CODEC, QueueConfig.defaultConfig(),
+                    outbound, UdpConfig.defaultConfig().withReliable(reliable));
+            adapters.add(adapter);
+            return adapter;
+        }
+
+        @Test
+        @DisplayName("should deliver every message once, in order, with its sequence number")
+        void shouldDeliverReliably() throws Exception {
+            TransportConfig config = addresses();
+            UdpAdapter a = adapter(A, config, UdpReliabilityConfig.defaultConfig());
+            UdpAdapter b = adapter(B, config, UdpReliabilityConfig.defaultConfig());
+            BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+            b.onReceive(received::add);
+
+            int n = 0;
+            while (n < 500) {
+                if (a.send(new SimulationMessage(A, B, "T", "m" + n, null))) n++;
+                else Thread.sleep(1); // window full, wait for ACKs
+            }
+            for (long i = 0; i < 500; i++) {
+                SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(m, "message " + i + " not delivered");
+                assertEquals(i, m.seq());
+                assertEquals("m" + i, m.payload());
+            }
+            assertNull(received.poll(200, TimeUnit.MILLISECONDS), "no duplicates");
+        }
+
+        @Test
+        @DisplayName("should send ACKs and repair conflated messages with a CONFLATE outbound queue")
+        void shouldDeliverReliablyWithConflatingQueue() throws Exception {
+            TransportConfig config = addresses();
+            QueueConfig conflate = QueueConfig.conflate(64, ConflationKey.SENDER_AND_TYPE);
+            UdpAdapter a = adapter(A, config, UdpReliabilityConfig.defaultConfig(), conflate);
+            UdpAdapter b = adapter(B, config, UdpReliabilityConfig.defaultConfig(), conflate);
+            BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+            b.onReceive(received::add);
+
+            int n = 0;
+            while (n < 100) {
+                if (a.send(new SimulationMessage(A, B, "T", "m" + n, null))) n++;
+                else Thread.sleep(1);
+            }
+            for (long i = 0; i < 100; i++) {
+                SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(m, "message " + i + " not delivered");
+                assertEquals(i, m.seq());
+            }
+        }
+
+        @Test
+        @DisplayName("should still deliver to a best-effort receiver")
+        void shouldInteroperateWithBestEffortReceiver() throws Exception {
+            TransportConfig config = addresses();
+            UdpAdapter a = adapter(A, config, UdpReliabilityConfig.defaultConfig());
+            UdpAdapter b = adapter(B, config, UdpReliabilityConfig.DISABLED);
+            BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+            b.onReceive(received::add);
+
+            assertTrue(a.send(new SimulationMessage(A, B, "T", "hello", null)));
+
+            SimulationMessage m = received.poll(2, TimeUnit.SECONDS);
+            assertNotNull(m);
+            assertEquals("hello", m.payload());
+        }
+
+        @Test
+        @DisplayName("should reject decoder threads, which would reorder the receive window")
+        void shouldRejectDecoderThreads() throws Exception {
+            TransportConfig config = addresses();
+            assertThrows(IllegalArgumentException.class, () -> UdpConfig.defaultConfig()
+                    .withReliable(UdpReliabilityConfig.defaultConfig()).withReceive(new UdpReceiveConfig(1, 2)));
+            assertThrows(IllegalArgumentException.class, () -> EnvUdpConfigs.reliabilityFromEnvironment(
+                    Map.of("UDP_RELIABLE", "true", "UDP_DECODE_THREADS", "2")));
+            assertTrue(EnvUdpConfigs.reliabilityFromEnvironment(
+                    Map.of("UDP_RELIABLE", "true", "UDP_DECODE_THREADS", "0")).enabled());
+        }
+
+        private TransportConfig addresses() throws SocketException {
+            Map<NodeId, TransportAddress> addresses = Map.of(
+                    A, new TransportAddress("127.0.0.1", freePort()),
+                    B, new TransportAddress("127.0.0.1", freePort())
+            );
+            return addresses::get;
+        }
+    }
+
+    private static SimulationMessage decode(byte[] frame) {
+        ByteBuffer buf = ByteBuffer.wrap(frame);
+        ReliableFrames.readData(buf);
+        return CODEC.deserialize(buf);
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket s = new DatagramSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import org.junit.jupiter.api.*;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ResolvedAddressCache}.
+ */
+@DisplayName("ResolvedAddressCache")
+class ResolvedAddressCacheTest {
+
+    private static final NodeId KNOWN = new NodeId("node-1");
+    private static final NodeId UNKNOWN = new NodeId("node-9");
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicLong version = new AtomicLong();
+    private ResolvedAddressCache cache;
+
+    @BeforeEach
+    void setUp() {
+        TransportConfig config = new TransportConfig() {
+            @Override
+            public TransportAddress resolve(NodeId id) {
+                lookups.incrementAndGet();
+                return id.equals(KNOWN) ? new TransportAddress("127.0.0.1", 9000) : null;
+            }
+
+            @Override
+            public long version() {
+                return version.get();
+            }
+        };
+        cache = new ResolvedAddressCache(config, 1_000, 100, clock::get);
+    }
+
+    private void advanceMillis(long ms) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    @Test
+    @DisplayName("should resolve once per TTL")
+    void shouldCacheUntilTtl() {
+        InetSocketAddress first = cache.resolve(KNOWN);
+        assertEquals(9000, first.getPort());
+        advanceMillis(999);
+        assertSame(first, cache.resolve(KNOWN));
+        assertEquals(1, lookups.get());
+
+        advanceMillis(1);
+        assertNotNull(cache.resolve(KNOWN));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    @DisplayName("should cache unknown peers for the negative TTL")
+    void shouldCacheUnknownPeers() {
+        assertNull(cache.resolve(UNKNOWN));
+        assertNull(cache.resolve(UNKNOWN));
+        assertEquals(1, lookups.get());
+
+        advanceMillis(100);
+        assertNull(cache.resolve(UNKNOWN));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    @DisplayName("should re-resolve after invalidation or a config change")
+    void shouldInvalidate() {
+        cache.resolve(KNOWN);
+        cache.invalidate(KNOWN);
+        cache.resolve(KNOWN);
+        assertEquals(2, lookups.get());
+
+        version.incrementAndGet();
+        cache.resolve(KNOWN);
+        assertEquals(3, lookups.get());
+        cache.resolve(KNOWN);
+        assertEquals(3, lookups.get());
+    }
+}
@@ -0,0 +1,251 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.EnvShmConfigs;
+import de.haw.vsp.simulation.middleware.ShmConfig;
+import de.haw.vsp.simulation.middleware.codec.BinarySimulationMessageCodec;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SharedMemoryAdapter} and {@link SharedMemoryRing}; both "processes" live in this JVM
+ * but only share the ring files.
+ */
+@DisplayName("SharedMemoryAdapter")
+class SharedMemoryAdapterTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+
+    @TempDir
+    Path dir;
+
+    private final BinarySimulationMessageCodec codec = new BinarySimulationMessageCodec();
+    private final List<SharedMemoryAdapter> adapters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        adapters.forEach(SharedMemoryAdapter::close);
+    }
+
+    private SharedMemoryAdapter adapter(NodeId id) {
+        SharedMemoryAdapter adapter = new SharedMemoryAdapter(id,
+                new ShmConfig(dir, ShmConfig.MIN_RING_BYTES, 1_000, 200L), codec, codec);
+        adapters.add(adapter);
+        return adapter;
+    }
+
+    private static SimulationMessage message(int i) {
+        return new SimulationMessage(A, B, "T", String.valueOf(i), (long) i);
+    }
+
+    /** Claims ring space like a producer that dies before publishing its record. */
+    private static void claimWithoutPublishing(Path ringFile) throws IOException {
+        try (FileChannel ch = FileChannel.open(ringFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer tail = ch.map(FileChannel.MapMode.READ_WRITE, SharedMemoryRing.TAIL_OFFSET, 8)
+                    .order(ByteOrder.nativeOrder());
+            tail.putLong(0, tail.getLong(0) + 16);
+        }
+    }
+
+    @Test
+    @DisplayName("should deliver all messages in order")
+    void shouldDeliverInOrder() throws Exception {
+        SharedMemoryAdapter a = adapter(A);
+        SharedMemoryAdapter b = adapter(B);
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+
+        for (int i = 0; i < 5_000; i++) {
+            while (!a.send(message(i))) Thread.onSpinWait();
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(m, "message " + i);
+            assertEquals((long) i, m.seq());
+            assertEquals(String.valueOf(i), m.payload());
+        }
+    }
+
+    @Test
+    @DisplayName("should reject when the ring is full and signal once it has drained")
+    void shouldPushBackWhenRingFull() throws Exception {
+        SharedMemoryAdapter a = adapter(A);
+        SharedMemoryAdapter b = adapter(B);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writable = new CountDownLatch(1);
+        b.onReceive(m -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        a.onWritable(r -> writable.countDown());
+
+        String payload = "x".repeat(1_000);
+        int accepted = 0;
+        while (a.send(new SimulationMessage(A, B, "T", payload, null))) accepted++;
+
+        assertTrue(accepted > 10 && accepted < 70, "about one ring of messages: " + accepted);
+        assertFalse(a.isWritable(B));
+        release.countDown();
+        assertTrue(writable.await(5, TimeUnit.SECONDS), "writable again");
+        assertTrue(a.send(new SimulationMessage(A, B, "T", payload, null)));
+    }
+
+    @Test
+    @DisplayName("should switch to the new ring after the receiver restarted")
+    void shouldReopenAfterRestart() throws Exception {
+        SharedMemoryAdapter a = adapter(A);
+        SharedMemoryAdapter b = adapter(B);
+        assertTrue(a.send(message(1)));
+
+        b.close();
+        assertFalse(Files.exists(b.ringFile(B)), "ring file removed");
+        SharedMemoryAdapter restarted = adapter(B);
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        restarted.onReceive(received::add);
+
+        assertTrue(a.send(message(2)));
+        SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(m);
+        assertEquals(2L, m.seq());
+    }
+
+    @Test
+    @DisplayName("should recreate a ring stalled by a dead producer")
+    void shouldRecreateStalledRing() throws Exception {
+        SharedMemoryAdapter a = adapter(A);
+        SharedMemoryAdapter b = adapter(B);
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        BlockingQueue<String> errors = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+        b.onError((node, peer, msg) -> errors.add(msg));
+
+        claimWithoutPublishing(b.ringFile(B));
+        assertTrue(a.send(message(1))); // queued behind the hole, lost with the ring
+
+        String error = errors.poll(5, TimeUnit.SECONDS);
+        assertNotNull(error, "stall not detected");
+        assertTrue(error.contains("stalled"), error);
+        assertTrue(a.send(message(2)));
+        SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(m, "not delivered through the new ring");
+        assertEquals(2L, m.seq());
+    }
+
+    @Test
+    @DisplayName("should reject oversize messages and receivers without a ring")
+    void shouldRejectImmediately() {
+        SharedMemoryAdapter a = adapter(A);
+        adapter(B);
+
+        assertFalse(a.send(new SimulationMessage(A, B, "T", "x".repeat(ShmConfig.MIN_RING_BYTES / 4), null)));
+        assertFalse(a.send(new SimulationMessage(A, new NodeId("node-9"), "T", null, null)));
+    }
+
+    @Nested
+    @DisplayName("SharedMemoryRing")
+    class Ring {
+
+        @Test
+        @DisplayName("should keep every producer's records in order across wrap-arounds")
+        void shouldWrapWithConcurrentProducers() throws Exception {
+            SharedMemoryRing ring = SharedMemoryRing.create(dir.resolve("r.ring"), 4096);
+            SharedMemoryRing producerView = SharedMemoryRing.open(dir.resolve("r.ring"));
+            int producers = 4;
+            int perProducer = 5_000;
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int id = p;
+                Thread t = new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        ByteBuffer rec = ByteBuffer.allocate(8 + (i % 61)); // varying lengths
+                        rec.putInt(id).putInt(i).position(0);
+                        while (!producerView.offer(rec)) Thread.onSpinWait();
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+
+            int[] next = new int[producers];
+            int total = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (total < producers * perProducer && System.nanoTime() < deadline) {
+                total += ring.poll(rec -> {
+                    int id = rec.getInt(rec.position());
+                    int seq = rec.getInt(rec.position() + 4);
+                    assertEquals(next[id]++, seq, "producer " + id);
+                }, 64);
+            }
+            for (Thread t : threads) t.join();
+            assertEquals(producers * perProducer, total);
+            assertEquals(4096, ring.freeBytes());
+        }
+
+        @Test
+        @DisplayName("should report a stall only after the timeout and only while a record is unpublished")
+        void shouldDetectStall() throws Exception {
+            Path file = dir.resolve("s.ring");
+            SharedMemoryRing ring = SharedMemoryRing.create(file, 4096);
+            long timeout = TimeUnit.MILLISECONDS.toNanos(50);
+            assertFalse(ring.isStalled(0L), "empty ring");
+
+            claimWithoutPublishing(file);
+            assertEquals(0, ring.poll(rec -> fail("unpublished record handed out"), 8));
+            assertFalse(ring.isStalled(timeout));
+            assertFalse(ring.isStalled(timeout));
+            Thread.sleep(60);
+            assertTrue(ring.isStalled(timeout));
+        }
+
+        @Test
+        @DisplayName("should not open missing or closed rings")
+        void shouldNotOpenClosedRings() throws Exception {
+            Path file = dir.resolve("c.ring");
+            assertNull(SharedMemoryRing.open(file));
+
+            SharedMemoryRing ring = SharedMemoryRing.create(file, 4096);
+            assertNotNull(SharedMemoryRing.open(file));
+            ring.markClosed();
+            assertNull(SharedMemoryRing.open(file));
+        }
+    }
+
+    @Nested
+    @DisplayName("EnvShmConfigs")
+    class Env {
+
+        @Test
+        @DisplayName("should read the shm settings")
+        void shouldReadShm() {
+            assertEquals(ShmConfig.defaultConfig(), EnvShmConfigs.fromEnvironment(Map.of()));
+            assertEquals(new ShmConfig(Path.of("/tmp/x"), 1 << 20, 0, 50L), EnvShmConfigs.fromEnvironment(Map.of(
+                    "SHM_DIR", "/tmp/x", "SHM_RING_BYTES", "1048576", "SHM_SPIN_ITERATIONS", "0",
+                    "SHM_MAX_PARK_US", "50")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> EnvShmConfigs.fromEnvironment(Map.of("SHM_RING_BYTES", "100000")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> EnvShmConfigs.fromEnvironment(Map.of("SHM_MAX_PARK_US", "0")));
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.EnvTcpConfigs;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.QueueOverflowPolicy;
+import de.haw.vsp.simulation.middleware.TcpConfig;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import org.junit.jupiter.api.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TcpAdapter} over loopback connections.
+ */
+@DisplayName("TcpAdapter")
+class TcpAdapterTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+
+    /** Short backoff so reconnect tests stay fast. */
+    private static final TcpConfig FAST_RECONNECT = new TcpConfig(TcpConfig.DEFAULT_MAX_FRAME_BYTES, 20L, 100L);
+
+    private final JacksonSimulationMessageCodec codec = new JacksonSimulationMessageCodec();
+    private final List<TcpAdapter> adapters = new ArrayList<>();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private TransportConfig config;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Map<NodeId, TransportAddress> addresses = Map.of(
+                A, new TransportAddress("127.0.0.1", freePort()),
+                B, new TransportAddress("127.0.0.1", freePort())
+        );
+        config = addresses::get;
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapters.forEach(TcpAdapter::close);
+    }
+
+    private TcpAdapter adapter(NodeId id, QueueConfig inbound) {
+        TcpAdapter adapter = new TcpAdapter(id, config, codec, codec, inbound, QueueConfig.defaultConfig(),
+                FAST_RECONNECT);
+        adapter.onError((node, peer, msg) -> errors.add(msg));
+        adapters.add(adapter);
+        return adapter;
+    }
+
+    private static SimulationMessage message(int i) {
+        return new SimulationMessage(A, B, "T", String.valueOf(i), (long) i);
+    }
+
+    @Test
+    @DisplayName("should deliver all messages in order over one connection")
+    void shouldDeliverInOrder() throws Exception {
+        TcpAdapter a = adapter(A, QueueConfig.defaultConfig());
+        TcpAdapter b = adapter(B, QueueConfig.defaultConfig());
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+
+        for (int i = 0; i < 500; i++) {
+            while (!a.isWritable(B)) Thread.sleep(1);
+            assertTrue(a.send(message(i)));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(m, "message " + i);
+            assertEquals((long) i, m.seq());
+        }
+    }
+
+    @Test
+    @DisplayName("should broadcast by sending to each receiver with its own id")
+    void shouldBroadcastPerReceiver() throws Exception {
+        TcpAdapter a = adapter(A, QueueConfig.defaultConfig());
+        TcpAdapter b = adapter(B, QueueConfig.defaultConfig());
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+
+        assertTrue(a.broadcast(new SimulationMessage(A, A, "T", "hello", null), Set.of(B)));
+        assertFalse(a.broadcast(new SimulationMessage(A, B, "T", "hello", null), Set.of(B, new NodeId("node-9"))),
+                "unknown receiver");
+
+        for (int i = 0; i < 2; i++) {
+            SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(m);
+            assertEquals(B, m.receiver());
+            assertEquals("hello", m.payload());
+        }
+    }
+
+    @Test
+    @DisplayName("should send messages far larger than a datagram")
+    void shouldSendLargeMessages() throws Exception {
+        TcpAdapter a = adapter(A, QueueConfig.defaultConfig());
+        TcpAdapter b = adapter(B, QueueConfig.defaultConfig());
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+        String payload = "x".repeat(3_000_000);
+
+        assertTrue(a.send(new SimulationMessage(A, B, "SNAPSHOT", payload, null)));
+
+        SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(m);
+        assertEquals(payload, m.payload());
+    }
+
+    @Test
+    @DisplayName("should connect lazily and retry until the peer is up")
+    void shouldRetryUntilPeerIsUp() throws Exception {
+        TcpAdapter a = adapter(A, QueueConfig.defaultConfig());
+
+        assertTrue(a.send(message(1)), "queued while B is down");
+        Thread.sleep(150); // a few failed connects
+
+        TcpAdapter b = adapter(B, QueueConfig.defaultConfig());
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+
+        SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(m);
+        assertEquals("1", m.payload());
+        assertEquals(1, errors.stream().filter(e -> e.contains("retrying")).count(), "outage reported once");
+    }
+
+    @Test
+    @DisplayName("should pause reading instead of dropping when the inbound queue is full")
+    void shouldPushBackWhenInboundFull() throws Exception {
+        QueueConfig tiny = new QueueConfig(8, QueueOverflowPolicy.DROP_NEWEST, 0L);
+        TcpAdapter a = adapter(A, QueueConfig.defaultConfig());
+        TcpAdapter b = adapter(B, tiny);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(m -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(m);
+        });
+
+        for (int i = 0; i < 200; i++) assertTrue(a.send(message(i)));
+        Thread.sleep(200);
+        release.countDown();
+
+        for (int i = 0; i < 200; i++) {
+            SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(m, "message " + i);
+            assertEquals((long) i, m.seq());
+        }
+        assertTrue(errors.stream().noneMatch(e -> e.contains("dropped")), errors.toString());
+    }
+
+    @Test
+    @DisplayName("should reject sends instead of dropping once the backlog of an unreachable peer is full")
+    void shouldRejectWhenPeerBacklogFull() throws Exception {
+        QueueConfig small = new QueueConfig(8, QueueOverflowPolicy.DROP_NEWEST, 0L);
+        TcpAdapter a = new TcpAdapter(A, config, codec, codec, QueueConfig.defaultConfig(), small, FAST_RECONNECT);
+        a.onError((node, peer, msg) -> errors.add(msg));
+        adapters.add(a);
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (a.send(message(i))) accepted++;
+            Thread.sleep(1); // let the I/O thread move frames to the peer backlog
+        }
+        assertTrue(accepted >= 8 && accepted < 100, "accepted " + accepted);
+        assertFalse(a.isWritable(B));
+
+        TcpAdapter b = adapter(B, QueueConfig.defaultConfig());
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        b.onReceive(received::add);
+        for (int i = 0; i < accepted; i++) {
+            assertNotNull(received.poll(5, TimeUnit.SECONDS), "accepted message " + i);
+        }
+        assertTrue(errors.stream().noneMatch(e -> e.contains("dropped")), errors.toString());
+    }
+
+    @Test
+    @DisplayName("should close connections announcing oversize frames")
+    void shouldRejectOversizeFrames() throws Exception {
+        TcpAdapter b = adapter(B, QueueConfig.defaultConfig());
+        TransportAddress addr = config.resolve(B);
+
+        try (Socket s = new Socket(addr.host(), addr.port())) {
+            new DataOutputStream(s.getOutputStream()).writeInt(TcpConfig.DEFAULT_MAX_FRAME_BYTES + 1);
+            s.setSoTimeout(5_000);
+            assertEquals(-1, s.getInputStream().read(), "closed by the receiver");
+        }
+        assertTrue(errors.stream().anyMatch(e -> e.contains("invalid frame length")), errors.toString());
+        assertNotNull(b);
+    }
+
+    @Test
+    @DisplayName("should reject messages above the maximum frame size and unknown receivers")
+    void shouldRejectImmediately() {
+        TcpAdapter a = new TcpAdapter(A, config, codec, codec, QueueConfig.defaultConfig(),
+                QueueConfig.defaultConfig(), new TcpConfig(4096, 20L, 100L));
+        adapters.add(a);
+
+        assertFalse(a.send(new SimulationMessage(A, B, "T", "x".repeat(5000), null)));
+        assertFalse(a.send(new SimulationMessage(A, new NodeId("node-9"), "T", null, null)));
+    }
+
+    @Nested
+    @DisplayName("EnvTcpConfigs")
+    class Env {
+
+        @Test
+        @DisplayName("should read the TCP settings")
+        void shouldReadTcp() {
+            assertEquals(TcpConfig.defaultConfig(), EnvTcpConfigs.fromEnvironment(Map.of()));
+            assertEquals(new TcpConfig(65536, 10L, 1000L), EnvTcpConfigs.fromEnvironment(Map.of(
+                    "TCP_MAX_FRAME_BYTES", "65536", "TCP_CONNECT_BACKOFF_MIN_MS", "10",
+                    "TCP_CONNECT_BACKOFF_MAX_MS", "1000")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> EnvTcpConfigs.fromEnvironment(Map.of("TCP_CONNECT_BACKOFF_MIN_MS", "0")));
+            assertThrows(IllegalArgumentException.class, () -> EnvTcpConfigs.fromEnvironment(Map.of(
+                    "TCP_CONNECT_BACKOFF_MIN_MS", "100", "TCP_CONNECT_BACKOFF_MAX_MS", "50")));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.ColocatedTransportConfig;
+import de.haw.vsp.simulation.middleware.EnvTransportConfigs;
+import de.haw.vsp.simulation.middleware.MessagingPort;
+import de.haw.vsp.simulation.middleware.MessagingPortImpl;
+import de.haw.vsp.simulation.middleware.NodeRange;
+import de.haw.vsp.simulation.middleware.PatternTransportConfig;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpConfig;
+import de.haw.vsp.simulation.middleware.UdpReliabilityConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import org.junit.jupiter.api.*;
+
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for several nodes hosted by one {@link UdpAdapter} and for {@link ColocatedTransportConfig}.
+ */
+@DisplayName("UdpAdapter - Co-located Nodes")
+class UdpAdapterColocatedNodesTest {
+
+    private static final int NODES_PER_HOST = 4;
+
+    private final JacksonSimulationMessageCodec codec = new JacksonSimulationMessageCodec();
+    private final List<UdpAdapter> adapters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        adapters.forEach(UdpAdapter::close);
+    }
+
+    /** Hosts node-0..node-3 and node-4..node-7 on two loopback ports. */
+    private TransportConfig twoHosts() throws SocketException {
+        int[] ports = {freePort(), freePort()};
+        TransportConfig hosts = id -> new TransportAddress("127.0.0.1",
+                ports[NodeRange.tryParseIndex(id.value()) / NODES_PER_HOST]);
+        return new ColocatedTransportConfig(hosts, 0, NODES_PER_HOST);
+    }
+
+    private UdpAdapter host(NodeRange nodes, TransportConfig config, UdpReliabilityConfig reliable) {
+        UdpAdapter adapter = new UdpAdapter(nodes.nodeIds(), config, codec, codec, QueueConfig.defaultConfig(),
+                QueueConfig.defaultConfig(), UdpConfig.defaultConfig().withReliable(reliable));
+        adapters.add(adapter);
+        return adapter;
+    }
+
+    private static NodeId node(int i) {
+        return new NodeId("node-" + i);
+    }
+
+    @Test
+    @DisplayName("should demultiplex messages from another host by receiver")
+    void shouldDemultiplexByReceiver() throws Exception {
+        TransportConfig config = twoHosts();
+        UdpAdapter left = host(new NodeRange(0, 3), config, UdpReliabilityConfig.DISABLED);
+        UdpAdapter right = host(new NodeRange(4, 7), config, UdpReliabilityConfig.DISABLED);
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        right.onReceive(received::add);
+
+        for (int from = 0; from < 4; from++) {
+            for (int to = 4; to < 8; to++) {
+                assertTrue(left.send(new SimulationMessage(node(from), node(to), "T", null, null)));
+            }
+        }
+
+        Set<String> pairs = new HashSet<>();
+        for (int i = 0; i < 16; i++) {
+            SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(m, "message " + i);
+            assertTrue(right.hosts(m.receiver()));
+            pairs.add(m.sender().value() + ">" + m.receiver().value());
+        }
+        assertEquals(16, pairs.size());
+    }
+
+    @Test
+    @DisplayName("should deliver between co-located nodes without the socket")
+    void shouldShortCircuitColocatedNodes() throws Exception {
+        // no address for anyone but the shared one: a datagram to node-1 could not be sent
+        int port = freePort();
+        TransportConfig config = id -> new TransportAddress("127.0.0.1", port);
+        UdpAdapter adapter = host(new NodeRange(0, 1), config, UdpReliabilityConfig.DISABLED);
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        adapter.onReceive(received::add);
+        List<String> payload = new ArrayList<>(List.of("a", "b"));
+        SimulationMessage sent = new SimulationMessage(node(0), node(1), "T", payload, 7L);
+
+        assertTrue(adapter.send(sent));
+        payload.add("changed after send");
+
+        SimulationMessage m = received.poll(2, TimeUnit.SECONDS);
+        assertNotNull(m);
+        assertEquals(List.of("a", "b"), m.payload(), "receiver has its own copy, as from a remote sender");
+        assertEquals(sent.seq(), m.seq());
+    }
+
+    @Test
+    @DisplayName("should only accept senders it hosts through the messaging port")
+    void shouldEnforceHostedSenders() throws Exception {
+        TransportConfig config = twoHosts();
+        UdpAdapter left = host(new NodeRange(0, 3), config, UdpReliabilityConfig.DISABLED);
+        List<String> errors = new ArrayList<>();
+        MessagingPort port = new MessagingPortImpl(left, e -> {
+            if (e.payloadSummary() != null && e.payloadSummary().contains("mismatch")) errors.add(e.payloadSummary());
+        });
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        port.registerHandler(node(2), received::add);
+
+        port.send(node(2), new SimulationMessage(node(3), node(2), "T", null, null));
+        port.send(node(2), new SimulationMessage(node(5), node(2), "T", null, null));
+
+        assertNotNull(received.poll(2, TimeUnit.SECONDS));
+        assertEquals(List.of("sender mismatch"), errors);
+    }
+
+    @Test
+    @DisplayName("should reject nodes that do not share the bound address, and reliable delivery")
+    void shouldRejectInvalidHosting() throws Exception {
+        TransportConfig config = twoHosts();
+        assertThrows(IllegalArgumentException.class,
+                () -> host(new NodeRange(2, 5), config, UdpReliabilityConfig.DISABLED));
+        assertThrows(IllegalArgumentException.class,
+                () -> host(new NodeRange(0, 3), config, UdpReliabilityConfig.defaultConfig()));
+    }
+
+    @Nested
+    @DisplayName("ColocatedTransportConfig")
+    class Config {
+
+        @Test
+        @DisplayName("should resolve every node of a block to the block's first node")
+        void shouldResolveToFirstNodeOfBlock() {
+            TransportConfig config = new ColocatedTransportConfig(new PatternTransportConfig("{ID}", 9000, true), 0, 10);
+
+            assertEquals(new TransportAddress("node-10", 9000), config.resolve(node(17)));
+            assertEquals(new TransportAddress("node-10", 9000), config.resolve(node(10)));
+            assertEquals(new TransportAddress("node-0", 9000), config.resolve(node(9)));
+            assertEquals(new TransportAddress("coordinator", 9000), config.resolve(new NodeId("coordinator")));
+        }
+
+        @Test
+        @DisplayName("should be built from NODES_PER_HOST")
+        void shouldReadNodesPerHost() {
+            TransportConfig config = EnvTransportConfigs.fromEnvironment(Map.of(
+                    "NODE_COUNT", "2000", "NODES_PER_HOST", "100", "UDP_PORT", "9100"));
+
+            assertEquals(new TransportAddress("node-1900", 9100), config.resolve(node(1999)));
+            assertNull(config.resolve(node(2000)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> EnvTransportConfigs.fromEnvironment(Map.of("NODES_PER_HOST", "0")));
+        }
+
+        @Test
+        @DisplayName("should parse node ranges")
+        void shouldParseNodeRanges() {
+            assertEquals(new NodeRange(10, 19), NodeRange.parse("node-10..node-19"));
+            assertEquals(new NodeRange(3, 3), NodeRange.parse(" node-3 "));
+            assertEquals(List.of(node(4), node(5)), NodeRange.parse("4..5").nodeIds());
+            assertThrows(IllegalArgumentException.class, () -> NodeRange.parse("node-9..node-1"));
+            assertThrows(IllegalArgumentException.class, () -> NodeRange.parse("a..b"));
+        }
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket s = new DatagramSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationEvent;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.ConflationKey;
+import de.haw.vsp.simulation.middleware.EnvUdpConfigs;
+import de.haw.vsp.simulation.middleware.MessagingPort;
+import de.haw.vsp.simulation.middleware.MessagingPortImpl;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpConfig;
+import de.haw.vsp.simulation.middleware.UdpMulticastConfig;
+import de.haw.vsp.simulation.middleware.UdpReliabilityConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import org.junit.jupiter.api.*;
+
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for neighbor broadcasts over IP multicast ({@link UdpMulticastConfig}) on the loopback interface.
+ */
+@DisplayName("UdpAdapter - Multicast Broadcast")
+class UdpAdapterMulticastTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final NodeId C = new NodeId("node-2");
+    private static final NodeId D = new NodeId("node-3");
+
+    private final JacksonSimulationMessageCodec codec = new JacksonSimulationMessageCodec();
+    private final List<UdpAdapter> adapters = new ArrayList<>();
+    private final Map<NodeId, BlockingQueue<SimulationMessage>> received = new HashMap<>();
+    private TransportConfig config;
+    private UdpMulticastConfig multicast;
+
+    @BeforeEach
+    void setUp() throws SocketException {
+        Map<NodeId, TransportAddress> addresses = new HashMap<>();
+        for (NodeId id : List.of(A, B, C, D)) addresses.put(id, new TransportAddress("127.0.0.1", freePort()));
+        config = addresses::get;
+        multicast = new UdpMulticastConfig(freePort(), 1, "lo"); // one group: everyone sees every broadcast
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapters.forEach(UdpAdapter::close);
+    }
+
+    private UdpAdapter adapter(NodeId id, UdpReliabilityConfig reliable) {
+        return adapter(id, reliable, QueueConfig.defaultConfig());
+    }
+
+    private UdpAdapter adapter(NodeId id, UdpReliabilityConfig reliable, QueueConfig outbound) {
+        UdpAdapter adapter = new UdpAdapter(List.of(id), config, codec, codec, QueueConfig.defaultConfig(),
+                outbound, UdpConfig.defaultConfig().withReliable(reliable).withMulticast(multicast));
+        adapters.add(adapter);
+        BlockingQueue<SimulationMessage> queue = new LinkedBlockingQueue<>();
+        received.put(id, queue);
+        adapter.onReceive(queue::add);
+        return adapter;
+    }
+
+    /** A - B, A - C, C - D: D shares the group with A's neighbors but is not one of them. */
+    private UdpAdapter connect() {
+        UdpAdapter a = adapter(A, UdpReliabilityConfig.DISABLED);
+        adapter(B, UdpReliabilityConfig.DISABLED).setNeighbors(B, Set.of(A));
+        adapter(C, UdpReliabilityConfig.DISABLED).setNeighbors(C, Set.of(A, D));
+        adapter(D, UdpReliabilityConfig.DISABLED).setNeighbors(D, Set.of(C));
+        a.setNeighbors(A, Set.of(B, C));
+        return a;
+    }
+
+    @Test
+    @DisplayName("should deliver one multicast broadcast to every neighbor with its own receiver id")
+    void shouldBroadcastToNeighbors() throws Exception {
+        UdpAdapter a = connect();
+
+        assertTrue(a.supportsBroadcast(A, Set.of(B, C)));
+        assertTrue(a.broadcast(new SimulationMessage(A, B, "LEADER_ANNOUNCEMENT", "node-9", null), Set.of(B, C)));
+
+        SimulationMessage atB = received.get(B).poll(5, TimeUnit.SECONDS);
+        SimulationMessage atC = received.get(C).poll(5, TimeUnit.SECONDS);
+        assertNotNull(atB);
+        assertNotNull(atC);
+        assertEquals(B, atB.receiver());
+        assertEquals(C, atC.receiver());
+        assertEquals(new NodeId("node-9"), atC.payload());
+    }
+
+    @Test
+    @DisplayName("should queue multicast broadcasts with a CONFLATE outbound queue")
+    void shouldBroadcastWithConflatingQueue() throws Exception {
+        UdpAdapter a = adapter(A, UdpReliabilityConfig.DISABLED, QueueConfig.conflate(16, ConflationKey.SENDER_AND_TYPE));
+        adapter(B, UdpReliabilityConfig.DISABLED).setNeighbors(B, Set.of(A));
+        a.setNeighbors(A, Set.of(B));
+
+        assertTrue(a.broadcast(new SimulationMessage(A, B, "LEADER_ANNOUNCEMENT", "node-9", null), Set.of(B)));
+
+        SimulationMessage atB = received.get(B).poll(5, TimeUnit.SECONDS);
+        assertNotNull(atB);
+        assertEquals("node-9", String.valueOf(atB.payload()));
+    }
+
+    @Test
+    @DisplayName("should drop broadcasts from non-neighbors")
+    void shouldFilterNonNeighbors() throws Exception {
+        UdpAdapter a = connect();
+
+        a.broadcast(new SimulationMessage(A, B, "T", null, null), Set.of(B, C));
+
+        assertNotNull(received.get(B).poll(5, TimeUnit.SECONDS));
+        assertNull(received.get(D).poll(300, TimeUnit.MILLISECONDS));
+        assertNull(received.get(A).poll(0, TimeUnit.MILLISECONDS), "own broadcast is not looped back");
+    }
+
+    @Test
+    @DisplayName("should only multicast to exactly the registered neighbors")
+    void shouldNotSupportOtherReceiverSets() {
+        UdpAdapter a = connect();
+
+        assertFalse(a.supportsBroadcast(A, Set.of(B)));
+        assertFalse(a.supportsBroadcast(A, Set.of(B, C, D)));
+        assertFalse(a.supportsBroadcast(B, Set.of(A)), "B is not hosted");
+    }
+
+    @Test
+    @DisplayName("should fall back to unicast through the messaging port")
+    void shouldFallBackToUnicast() throws Exception {
+        UdpAdapter a = connect();
+        List<SimulationEvent> events = new CopyOnWriteArrayList<>();
+        MessagingPort port = new MessagingPortImpl(a, events::add);
+
+        port.broadcast(Set.of(B), new SimulationMessage(A, B, "T", null, null));
+        port.broadcast(Set.of(B, C), new SimulationMessage(A, B, "T", null, null));
+
+        assertNotNull(received.get(B).poll(5, TimeUnit.SECONDS));
+        assertNotNull(received.get(B).poll(5, TimeUnit.SECONDS));
+        assertNotNull(received.get(C).poll(5, TimeUnit.SECONDS));
+        assertEquals(3, events.size(), "one MESSAGE_SENT per receiver");
+    }
+
+    @Test
+    @DisplayName("should reject multicast with reliable delivery")
+    void shouldRejectReliableMulticast() {
+        assertThrows(IllegalArgumentException.class, () -> adapter(A, UdpReliabilityConfig.defaultConfig()));
+    }
+
+    @Nested
+    @DisplayName("EnvUdpConfigs")
+    class Env {
+
+        @Test
+        @DisplayName("should read the multicast settings")
+        void shouldReadMulticast() {
+            assertFalse(EnvUdpConfigs.multicastFromEnvironment(Map.of()).enabled());
+            assertEquals(new UdpMulticastConfig(9200, 64, "eth0"), EnvUdpConfigs.multicastFromEnvironment(Map.of(
+                    "UDP_MULTICAST", "true", "UDP_MULTICAST_PORT", "9200",
+                    "UDP_MULTICAST_GROUPS", "64", "UDP_MULTICAST_IF", "eth0")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> EnvUdpConfigs.multicastFromEnvironment(Map.of("UDP_MULTICAST", "yes")));
+        }
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket s = new DatagramSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.TransportAddress;
+import de.haw.vsp.simulation.middleware.TransportConfig;
+import de.haw.vsp.simulation.middleware.UdpConfig;
+import de.haw.vsp.simulation.middleware.UdpPackingConfig;
+import de.haw.vsp.simulation.middleware.UdpReceiveConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import org.junit.jupiter.api.*;
+
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SO_REUSEPORT receive sharding in {@link UdpAdapter}.
+ */
+@DisplayName("UdpAdapter - Receive Shards")
+class UdpAdapterReceiveShardsTest {
+
+    private static final int SENDERS = 4;
+    private static final int MESSAGES_PER_SENDER = 300;
+
+    private final List<UdpAdapter> adapters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        adapters.forEach(UdpAdapter::close);
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket s = new DatagramSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    @Test
+    @DisplayName("should receive from many peers on several sockets and keep per-sender order")
+    void shouldKeepPerSenderOrder() throws Exception {
+        assertPerSenderOrder(new UdpReceiveConfig(4));
+    }
+
+    @Test
+    @DisplayName("should keep per-sender order with a decoder pool")
+    void shouldKeepPerSenderOrderWithDecoderPool() throws Exception {
+        assertPerSenderOrder(new UdpReceiveConfig(2, 3));
+    }
+
+    private void assertPerSenderOrder(UdpReceiveConfig receive) throws Exception {
+        NodeId hub = new NodeId("node-0");
+        Map<NodeId, TransportAddress> addresses = new HashMap<>();
+        addresses.put(hub, new TransportAddress("127.0.0.1", freePort()));
+        for (int i = 1; i <= SENDERS; i++) {
+            addresses.put(new NodeId("node-" + i), new TransportAddress("127.0.0.1", freePort()));
+        }
+        TransportConfig config = addresses::get;
+        var codec = new JacksonSimulationMessageCodec();
+        QueueConfig q = QueueConfig.dropNewest(SENDERS * MESSAGES_PER_SENDER);
+
+        UdpAdapter hubAdapter = new UdpAdapter(List.of(hub), config, codec, codec, q, q,
+                UdpConfig.defaultConfig().withReceive(receive));
+        adapters.add(hubAdapter);
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        hubAdapter.onReceive(received::add);
+
+        for (int i = 1; i <= SENDERS; i++) {
+            NodeId sender = new NodeId("node-" + i);
+            // packed, so the burst fits the default socket receive buffer
+            UdpAdapter adapter = new UdpAdapter(List.of(sender), config, codec, codec, q, q,
+                    UdpConfig.defaultConfig().withPacking(UdpPackingConfig.enabledConfig()));
+            adapters.add(adapter);
+            for (long seq = 0; seq < MESSAGES_PER_SENDER; seq++) {
+                assertTrue(adapter.send(new SimulationMessage(sender, hub, "T", null, seq)));
+            }
+        }
+
+        Map<NodeId, Long> nextSeq = new HashMap<>();
+        for (int n = 0; n < SENDERS * MESSAGES_PER_SENDER; n++) {
+            SimulationMessage m = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(m, "only " + n + " messages delivered");
+            long expected = nextSeq.getOrDefault(m.sender(), 0L);
+            assertEquals(expected, m.seq(), "out of order from " + m.sender());
+            nextSeq.put(m.sender(), expected + 1);
+        }
+    }
+}
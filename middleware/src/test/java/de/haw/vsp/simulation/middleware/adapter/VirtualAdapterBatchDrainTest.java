@@ -0,0 +1,94 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for batched inbox draining in {@link VirtualAdapter}.
+ */
+@DisplayName("VirtualAdapter - Batched Draining")
+class VirtualAdapterBatchDrainTest {
+
+    private static final NodeId SENDER = new NodeId("node-1");
+    private static final NodeId RECEIVER = new NodeId("node-2");
+
+    private VirtualAdapter adapter;
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) adapter.close();
+    }
+
+    @Test
+    @DisplayName("should hand over ordered batches bounded by maxDrainBatch")
+    void shouldDeliverBoundedBatches() throws Exception {
+        int maxBatch = 8;
+        int total = 100;
+
+        var codec = new JacksonSimulationMessageCodec();
+        adapter = new VirtualAdapter(codec, codec, QueueConfig.defaultConfig(), QueueConfig.defaultConfig(), 2,
+                VirtualFaultConfig.DISABLED, new VirtualTransportConfig(1, VirtualCodecBoundary.NONE, maxBatch));
+
+        CountDownLatch firstBatchEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(total);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        List<Long> seqs = Collections.synchronizedList(new ArrayList<>());
+
+        adapter.onReceiveBatch(batch -> {
+            batchSizes.add(batch.size());
+            for (SimulationMessage m : batch) {
+                assertEquals(RECEIVER, m.receiver());
+                seqs.add(m.seq());
+                done.countDown();
+            }
+            firstBatchEntered.countDown();
+            try {
+                release.await(); // hold the drain so the inbox fills up
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(adapter.send(new SimulationMessage(SENDER, RECEIVER, "T", null, 0L)));
+        assertTrue(firstBatchEntered.await(2, TimeUnit.SECONDS));
+        for (long i = 1; i < total; i++) {
+            assertTrue(adapter.send(new SimulationMessage(SENDER, RECEIVER, "T", null, i)));
+        }
+        Thread.sleep(100); // let the router move everything into the inbox
+        release.countDown();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(batchSizes.stream().allMatch(n -> n >= 1 && n <= maxBatch), "batch sizes: " + batchSizes);
+        assertTrue(batchSizes.stream().anyMatch(n -> n > 1), "expected at least one real batch: " + batchSizes);
+        for (int i = 0; i < total; i++) assertEquals((long) i, seqs.get(i));
+    }
+
+    @Test
+    @DisplayName("should still support the per-message callback")
+    void shouldSupportSingleCallback() throws Exception {
+        var codec = new JacksonSimulationMessageCodec();
+        adapter = new VirtualAdapter(codec, codec);
+
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        adapter.onReceive(received::add);
+
+        for (long i = 0; i < 10; i++) adapter.send(new SimulationMessage(SENDER, RECEIVER, "T", null, i));
+        for (long i = 0; i < 10; i++) {
+            SimulationMessage m = received.poll(2, TimeUnit.SECONDS);
+            assertNotNull(m);
+            assertEquals(i, m.seq());
+        }
+    }
+}
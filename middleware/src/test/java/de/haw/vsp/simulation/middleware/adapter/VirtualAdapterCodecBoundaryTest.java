@@ -0,0 +1,91 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the configurable codec boundary of {@link VirtualAdapter}.
+ */
+@DisplayName("VirtualAdapter - Codec Boundary")
+class VirtualAdapterCodecBoundaryTest {
+
+    private static final NodeId A = new NodeId("node-1");
+    private static final NodeId B = new NodeId("node-2");
+
+    private VirtualAdapter adapter;
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) adapter.close();
+    }
+
+    private SimulationMessage sendAndAwait(VirtualCodecBoundary boundary, SimulationMessage msg) throws Exception {
+        var codec = new JacksonSimulationMessageCodec();
+        adapter = new VirtualAdapter(codec, codec, QueueConfig.defaultConfig(), QueueConfig.defaultConfig(),
+                2, VirtualFaultConfig.DISABLED, VirtualTransportConfig.withCodecBoundary(boundary));
+
+        BlockingQueue<SimulationMessage> received = new LinkedBlockingQueue<>();
+        adapter.onReceive(received::add);
+
+        assertTrue(adapter.send(msg));
+        SimulationMessage out = received.poll(2, TimeUnit.SECONDS);
+        assertNotNull(out, "message should be delivered");
+        return out;
+    }
+
+    private static SimulationMessage messageWithMapPayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("leader", "node-7");
+        payload.put("path", new ArrayList<>(List.of("node-1", "node-4")));
+        return new SimulationMessage(A, B, "TEST", payload, 3L);
+    }
+
+    @Test
+    @DisplayName("FULL should deliver a decoded, equal but distinct message")
+    void fullShouldRoundTrip() throws Exception {
+        SimulationMessage msg = messageWithMapPayload();
+        SimulationMessage out = sendAndAwait(VirtualCodecBoundary.FULL, msg);
+
+        assertEquals(msg, out);
+        assertNotSame(msg.payload(), out.payload());
+    }
+
+    @Test
+    @DisplayName("COPY should deliver an immutable structural copy")
+    void copyShouldIsolatePayload() throws Exception {
+        SimulationMessage msg = messageWithMapPayload();
+        SimulationMessage out = sendAndAwait(VirtualCodecBoundary.COPY, msg);
+
+        assertEquals(msg, out);
+        assertNotSame(msg.payload(), out.payload());
+
+        Map<?, ?> payload = (Map<?, ?>) out.payload();
+        assertThrows(UnsupportedOperationException.class, () -> payload.remove("leader"));
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) payload.get("path")).clear());
+    }
+
+    @Test
+    @DisplayName("COPY should keep messages with immutable payloads as-is")
+    void copyShouldShareImmutablePayload() throws Exception {
+        SimulationMessage msg = new SimulationMessage(A, B, "TEST", "node-7", null);
+        assertSame(msg, sendAndAwait(VirtualCodecBoundary.COPY, msg));
+    }
+
+    @Test
+    @DisplayName("NONE should pass the message reference through")
+    void noneShouldPassReference() throws Exception {
+        SimulationMessage msg = messageWithMapPayload();
+        assertSame(msg, sendAndAwait(VirtualCodecBoundary.NONE, msg));
+    }
+}
@@ -0,0 +1,67 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.virtual.LatencyDistribution;
+import de.haw.vsp.simulation.middleware.virtual.LinkModel;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualNetworkModel;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-link network model in {@link VirtualAdapter}.
+ */
+@DisplayName("VirtualAdapter - Network Model")
+class VirtualAdapterNetworkModelTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final NodeId C = new NodeId("node-2");
+
+    private VirtualAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        var codec = new JacksonSimulationMessageCodec();
+        QueueConfig q = QueueConfig.defaultConfig();
+        adapter = new VirtualAdapter(codec, codec, q, q, 2, VirtualFaultConfig.DISABLED,
+                VirtualTransportConfig.defaultConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    @DisplayName("should apply per-link latency and loss")
+    void shouldApplyPerLinkModel() throws Exception {
+        VirtualNetworkModel model = new VirtualNetworkModel(LinkModel.IDEAL, 1L);
+        model.setLink(A, B, LinkModel.of(LatencyDistribution.constant(40)));
+        model.setLink(A, C, LinkModel.IDEAL.withLoss(1.0));
+        adapter.setNetworkModel(model);
+
+        BlockingQueue<Long> arrivals = new LinkedBlockingQueue<>();
+        BlockingQueue<String> errors = new LinkedBlockingQueue<>();
+        adapter.onReceive(m -> arrivals.add(System.nanoTime()));
+        adapter.onError((node, peer, msg) -> errors.add(msg));
+
+        long sentAt = System.nanoTime();
+        assertTrue(adapter.send(new SimulationMessage(A, B, "T", null, 1L)));
+        assertTrue(adapter.send(new SimulationMessage(A, C, "T", null, 1L)));
+
+        Long arrivedAt = arrivals.poll(2, TimeUnit.SECONDS);
+        assertNotNull(arrivedAt);
+        assertTrue(arrivedAt - sentAt >= TimeUnit.MILLISECONDS.toNanos(40), "delivered before link latency");
+
+        assertEquals("virtual link: lost", errors.poll(2, TimeUnit.SECONDS));
+        assertNull(arrivals.poll(100, TimeUnit.MILLISECONDS), "lost message must not be delivered");
+    }
+}
@@ -0,0 +1,80 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for sharded routing in {@link VirtualAdapter}.
+ */
+@DisplayName("VirtualAdapter - Router Shards")
+class VirtualAdapterRouterShardsTest {
+
+    private VirtualAdapter adapter;
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) adapter.close();
+    }
+
+    @Test
+    @DisplayName("should reject non-positive shard count")
+    void shouldRejectInvalidShardCount() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new VirtualTransportConfig(0, VirtualCodecBoundary.FULL, 1));
+    }
+
+    @Test
+    @DisplayName("should keep per-link FIFO order across shards")
+    void shouldKeepPerLinkOrder() throws Exception {
+        int senders = 6;
+        int receivers = 5;
+        int perLink = 300;
+
+        var codec = new JacksonSimulationMessageCodec();
+        QueueConfig q = QueueConfig.blocking(256, 5_000);
+        adapter = new VirtualAdapter(codec, codec, q, q, 4, VirtualFaultConfig.DISABLED,
+                new VirtualTransportConfig(4, VirtualCodecBoundary.NONE, VirtualTransportConfig.DEFAULT_MAX_DRAIN_BATCH));
+
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(senders * receivers * perLink);
+        adapter.onReceive(m -> {
+            seen.computeIfAbsent(m.sender() + "->" + m.receiver(), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(m.seq());
+            done.countDown();
+        });
+
+        ExecutorService producers = Executors.newFixedThreadPool(senders);
+        for (int s = 0; s < senders; s++) {
+            NodeId sender = new NodeId("node-" + s);
+            producers.execute(() -> {
+                for (long seq = 0; seq < perLink; seq++) {
+                    for (int r = 0; r < receivers; r++) {
+                        NodeId receiver = new NodeId("node-" + (100 + r));
+                        assertTrue(adapter.send(new SimulationMessage(sender, receiver, "T", null, seq)));
+                    }
+                }
+            });
+        }
+        producers.shutdown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), "all messages should be delivered");
+        assertEquals(senders * receivers, seen.size());
+        for (Map.Entry<String, List<Long>> e : seen.entrySet()) {
+            List<Long> seqs = e.getValue();
+            for (int i = 0; i < seqs.size(); i++) {
+                assertEquals((long) i, seqs.get(i), "out of order on link " + e.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for writability (backpressure) signalling in {@link VirtualAdapter}.
+ */
+@DisplayName("VirtualAdapter - Writability")
+class VirtualAdapterWritabilityTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final NodeId C = new NodeId("node-2");
+
+    private VirtualAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        var codec = new JacksonSimulationMessageCodec();
+        adapter = new VirtualAdapter(codec, codec, QueueConfig.defaultConfig(), QueueConfig.dropNewest(8), 2,
+                VirtualFaultConfig.DISABLED, VirtualTransportConfig.defaultConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    @DisplayName("should be writable while queues are empty")
+    void shouldBeWritableWhenIdle() {
+        assertTrue(adapter.isWritable(B));
+    }
+
+    @Test
+    @DisplayName("should report a full inbox as not writable and signal once it has drained")
+    void shouldSignalWritableAfterDrain() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<NodeId> writable = new LinkedBlockingQueue<>();
+        adapter.onWritable(writable::add);
+        adapter.onReceive(m -> {
+            if (m.receiver().equals(B)) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        // park the receiver's worker first, so the inbox can only grow
+        adapter.send(new SimulationMessage(A, B, "T", null, 0L));
+        assertTrue(blocked.await(2, TimeUnit.SECONDS));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (adapter.isWritable(B) && System.nanoTime() < deadline) {
+            adapter.send(new SimulationMessage(A, B, "T", null, 1L));
+            Thread.sleep(1);
+        }
+        assertFalse(adapter.isWritable(B), "blocked receiver should become unwritable");
+        assertTrue(adapter.isWritable(C), "other receivers are unaffected");
+        assertNull(writable.poll(50, TimeUnit.MILLISECONDS), "no signal while congested");
+
+        release.countDown();
+        assertEquals(B, writable.poll(2, TimeUnit.SECONDS));
+        assertTrue(adapter.isWritable(B));
+    }
+}
@@ -0,0 +1,99 @@
+package de.haw.vsp.simulation.middleware.adapter;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.virtual.LatencyDistribution;
+import de.haw.vsp.simulation.middleware.virtual.LinkModel;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualNetworkModel;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link VirtualTimeAdapter}.
+ */
+@DisplayName("VirtualTimeAdapter")
+class VirtualTimeAdapterTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final NodeId C = new NodeId("node-2");
+
+    private VirtualTimeAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        var codec = new JacksonSimulationMessageCodec();
+        adapter = new VirtualTimeAdapter(codec, codec, VirtualCodecBoundary.FULL, VirtualFaultConfig.DISABLED, 1024);
+
+        VirtualNetworkModel model = new VirtualNetworkModel(LinkModel.IDEAL, 1L);
+        model.setLink(A, B, LinkModel.of(LatencyDistribution.constant(30)));
+        model.setLink(A, C, LinkModel.of(LatencyDistribution.constant(10)));
+        model.setLink(B, A, LinkModel.of(LatencyDistribution.constant(5_000)));
+        adapter.setNetworkModel(model);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    @DisplayName("should deliver in simulated timestamp order and only up to the granted time")
+    void shouldDeliverInTimestampOrder() throws Exception {
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        adapter.onReceive(m -> delivered.add(m.receiver().value() + "@" + adapter.simulatedTimeMillis()));
+
+        adapter.advanceTo(0);
+        assertTrue(adapter.send(new SimulationMessage(A, B, "T", null, 1L)));
+        assertTrue(adapter.send(new SimulationMessage(A, C, "T", null, 2L)));
+
+        adapter.advanceTo(20);
+        assertEquals(List.of("node-2@10"), delivered);
+        assertEquals(20, adapter.simulatedTimeMillis());
+
+        adapter.advanceTo(100);
+        assertEquals(List.of("node-2@10", "node-1@30"), delivered);
+        assertEquals(0, adapter.pendingEvents());
+    }
+
+    @Test
+    @DisplayName("should advance the clock instantly through message chains")
+    void shouldAdvanceInstantly() throws Exception {
+        // ping-pong A <-> B: 30 ms there, 5 s back
+        CountDownLatch done = new CountDownLatch(10);
+        adapter.onReceive(m -> {
+            done.countDown();
+            if (done.getCount() > 0) {
+                adapter.send(new SimulationMessage(m.receiver(), m.sender(), "T", null, m.seq() + 1));
+            }
+        });
+
+        long start = System.nanoTime();
+        adapter.send(new SimulationMessage(A, B, "T", null, 0L));
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(5 * 30 + 5 * 5_000, adapter.simulatedTimeMillis());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    @DisplayName("should reject sends beyond the pending event bound")
+    void shouldRejectWhenFull() throws Exception {
+        var codec = new JacksonSimulationMessageCodec();
+        try (VirtualTimeAdapter small = new VirtualTimeAdapter(codec, codec, VirtualCodecBoundary.NONE,
+                VirtualFaultConfig.DISABLED, 2)) {
+            small.advanceTo(0); // hold the clock, nothing gets delivered
+            small.setNetworkModel(new VirtualNetworkModel(LinkModel.of(LatencyDistribution.constant(1)), 0L));
+            assertTrue(small.send(new SimulationMessage(A, B, "T", null, 1L)));
+            assertTrue(small.send(new SimulationMessage(A, B, "T", null, 2L)));
+            assertFalse(small.send(new SimulationMessage(A, B, "T", null, 3L)));
+        }
+    }
+}
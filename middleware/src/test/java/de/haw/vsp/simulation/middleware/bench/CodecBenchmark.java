@@ -0,0 +1,68 @@
+package de.haw.vsp.simulation.middleware.bench;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.codec.BinarySimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.codec.SimulationMessageCodec;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoded size and encode/decode time per message of the JSON and the binary codec.
+ *
+ * Not a unit test (not picked up by surefire). Run from the IDE or with:
+ *   mvn -pl middleware test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=de.haw.vsp.simulation.middleware.bench.CodecBenchmark
+ */
+public final class CodecBenchmark {
+
+    private static final int NODES = 1_000;
+    private static final int MESSAGES = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        SimulationMessage[] announcements = new SimulationMessage[NODES];
+        SimulationMessage[] states = new SimulationMessage[NODES];
+        for (int i = 0; i < NODES; i++) {
+            NodeId from = new NodeId("node-" + i);
+            NodeId to = new NodeId("node-" + (i + 1) % NODES);
+            announcements[i] = new SimulationMessage(from, to, "LEADER_ANNOUNCEMENT", "node-" + (NODES - 1), (long) i);
+            states[i] = new SimulationMessage(from, to, "STATE",
+                    Map.of("round", i, "leader", "node-7", "path", List.of("node-1", "node-2", "node-3")), null);
+        }
+
+        for (SimulationMessageCodec codec : List.of(new JacksonSimulationMessageCodec(),
+                new BinarySimulationMessageCodec())) {
+            run(codec, "announcement", announcements);
+            run(codec, "state", states);
+        }
+    }
+
+    private static void run(SimulationMessageCodec codec, String kind, SimulationMessage[] messages) {
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        measure(codec, messages, buf, MESSAGES / 10); // warm-up
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) best = Math.min(best, measure(codec, messages, buf, MESSAGES));
+
+        buf.clear();
+        codec.serialize(messages[0], buf);
+        System.out.printf("%-30s %-12s %5d bytes %8.0f ns/msg (encode + decode)%n",
+                codec.getClass().getSimpleName(), kind, buf.position(), best);
+    }
+
+    private static double measure(SimulationMessageCodec codec, SimulationMessage[] messages, ByteBuffer buf, int n) {
+        long check = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            buf.clear();
+            codec.serialize(messages[i % messages.length], buf);
+            check += codec.deserialize(buf.flip()).sender().value().length();
+        }
+        long nanos = System.nanoTime() - start;
+        if (check == 0) throw new IllegalStateException(); // keep the result alive
+        return (double) nanos / n;
+    }
+}
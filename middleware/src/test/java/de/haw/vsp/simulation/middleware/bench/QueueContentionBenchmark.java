@@ -0,0 +1,67 @@
+package de.haw.vsp.simulation.middleware.bench;
+
+import de.haw.vsp.simulation.middleware.MessageQueue;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.QueueImplementation;
+import de.haw.vsp.simulation.middleware.QueueOps;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Producer contention on {@link QueueOps#enqueue}: {@link QueueImplementation#LINKED} vs
+ * {@link QueueImplementation#RING_BUFFER}, N producers, one consumer (the adapter shape).
+ *
+ * Not a unit test (not picked up by surefire). Run from the IDE or with:
+ *   mvn -pl middleware test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=de.haw.vsp.simulation.middleware.bench.QueueContentionBenchmark
+ */
+public final class QueueContentionBenchmark {
+
+    private static final int CAPACITY = 1024;
+    private static final int MESSAGES = 4_000_000;
+    private static final int ROUNDS = 5;
+    private static final Object ITEM = new Object();
+
+    public static void main(String[] args) throws Exception {
+        int maxProducers = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+        System.out.printf("%-12s %10s %16s%n", "impl", "producers", "throughput");
+        for (int producers = 1; producers <= maxProducers; producers *= 2) {
+            for (QueueImplementation impl : QueueImplementation.values()) {
+                QueueConfig cfg = QueueConfig.blocking(CAPACITY, 10_000).withImplementation(impl);
+                run(cfg, producers, MESSAGES / 10); // warm-up
+                double best = 0;
+                for (int i = 0; i < ROUNDS; i++) best = Math.max(best, run(cfg, producers, MESSAGES));
+                System.out.printf("%-12s %10d %,12.0f op/s%n", impl, producers, best);
+            }
+        }
+    }
+
+    private static double run(QueueConfig cfg, int producers, int messages) throws Exception {
+        MessageQueue<Object> queue = QueueOps.newQueue(cfg);
+        int perProducer = messages / producers;
+        int total = perProducer * producers;
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) QueueOps.enqueue(queue, ITEM, cfg);
+            });
+            threads[p].start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (int i = 0; i < total; i++) queue.take();
+        long nanos = System.nanoTime() - t0;
+
+        for (Thread t : threads) t.join();
+        return total / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,65 @@
+package de.haw.vsp.simulation.middleware.bench;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.QueueConfig;
+import de.haw.vsp.simulation.middleware.adapter.VirtualAdapter;
+import de.haw.vsp.simulation.middleware.codec.JacksonSimulationMessageCodec;
+import de.haw.vsp.simulation.middleware.virtual.VirtualCodecBoundary;
+import de.haw.vsp.simulation.middleware.virtual.VirtualFaultConfig;
+import de.haw.vsp.simulation.middleware.virtual.VirtualTransportConfig;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link VirtualAdapter} per {@link VirtualCodecBoundary} mode.
+ *
+ * Not a unit test (not picked up by surefire). Run from the IDE or with:
+ *   mvn -pl middleware test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=de.haw.vsp.simulation.middleware.bench.VirtualCodecBoundaryBenchmark
+ */
+public final class VirtualCodecBoundaryBenchmark {
+
+    private static final int NODES = 1_000;
+    private static final int MESSAGES = 500_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        for (VirtualCodecBoundary mode : VirtualCodecBoundary.values()) {
+            run(mode, 1); // warm-up
+            double best = 0;
+            for (int i = 0; i < ROUNDS; i++) best = Math.max(best, run(mode, MESSAGES));
+            System.out.printf("%-5s %,12.0f msg/s%n", mode, best);
+        }
+    }
+
+    private static double run(VirtualCodecBoundary mode, int messages) throws Exception {
+        var codec = new JacksonSimulationMessageCodec();
+        // BLOCK keeps the producer from outrunning the router, so every message is counted.
+        QueueConfig q = QueueConfig.blocking(64 * 1024, 10_000);
+        VirtualAdapter adapter = new VirtualAdapter(codec, codec, q, q,
+                Math.max(2, Runtime.getRuntime().availableProcessors()), VirtualFaultConfig.DISABLED,
+                VirtualTransportConfig.withCodecBoundary(mode));
+
+        NodeId[] ids = new NodeId[NODES];
+        for (int i = 0; i < NODES; i++) ids[i] = new NodeId("node-" + i);
+
+        CountDownLatch done = new CountDownLatch(messages);
+        adapter.onReceive(m -> done.countDown());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            NodeId from = ids[i % NODES];
+            NodeId to = ids[(i + 1) % NODES];
+            adapter.send(new SimulationMessage(from, to, "LEADER_ANNOUNCEMENT", from.value(), null));
+        }
+        if (!done.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(mode + ": only " + (messages - done.getCount()) + " delivered");
+        }
+        long nanos = System.nanoTime() - start;
+        adapter.close();
+
+        return messages / (nanos / 1e9);
+    }
+}
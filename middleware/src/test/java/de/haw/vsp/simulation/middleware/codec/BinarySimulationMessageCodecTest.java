@@ -0,0 +1,151 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.EnvCodecConfigs;
+import org.junit.jupiter.api.*;
+
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BinarySimulationMessageCodec}; payloads must decode like from {@link JacksonSimulationMessageCodec}.
+ */
+@DisplayName("BinarySimulationMessageCodec")
+class BinarySimulationMessageCodecTest {
+
+    private static final NodeId A = new NodeId("node-7");
+    private static final NodeId B = new NodeId("node-123");
+
+    private final BinarySimulationMessageCodec codec = new BinarySimulationMessageCodec();
+    private final JacksonSimulationMessageCodec json = new JacksonSimulationMessageCodec();
+
+    private void assertRoundTrip(SimulationMessage m) {
+        SimulationMessage expected = json.deserialize(json.serialize(m));
+        assertEquals(expected, codec.deserialize(codec.serialize(m)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(4096);
+        codec.serialize(m, direct);
+        assertEquals(expected, codec.deserialize(direct.flip()));
+    }
+
+    @Test
+    @DisplayName("should encode a leader announcement in a handful of bytes")
+    void shouldBeCompact() {
+        SimulationMessage m = new SimulationMessage(A, B, "LEADER_ANNOUNCEMENT", new NodeId("node-99"), 1234L);
+
+        byte[] bytes = codec.serialize(m);
+
+        // header, sender index, receiver index (2 bytes from 64 on), type index, seq, tag + index
+        assertEquals(1 + 1 + 2 + 1 + 2 + 2, bytes.length);
+        assertTrue(json.serialize(m).length > 10 * bytes.length);
+        assertEquals(m, codec.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("should round-trip ids and types outside the dictionaries")
+    void shouldFallBackToStrings() {
+        for (String id : List.of("node-0", "node-007", "node-", "leader", "Node-1", "node-1x", "ü-7",
+                "node-9999999999999999999")) {
+            NodeId n = new NodeId(id);
+            assertRoundTrip(new SimulationMessage(n, n, "CUSTOM_TYPE", id, null));
+        }
+    }
+
+    @Test
+    @DisplayName("should round-trip every payload kind")
+    void shouldRoundTripPayloads() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("leader", "node-2");
+        nested.put("round", 3);
+        nested.put("big", Long.MAX_VALUE);
+        nested.put("negative", -42L);
+        nested.put("ratio", 0.25);
+        nested.put("alive", true);
+        nested.put("missing", null);
+        nested.put("path", List.of("node-1", "node-2", List.of(false, "x")));
+
+        for (Object payload : Arrays.asList(null, "", "hello ✓", 0, Integer.MIN_VALUE, 5_000_000_000L, -0.5,
+                false, List.of(), nested, new BigInteger("123456789012345678901234567890"),
+                Map.of(1, "non-string key"), new int[]{1, 2}, Set.of("node-4"))) {
+            assertRoundTrip(new SimulationMessage(A, B, "STATE", payload, 0L));
+        }
+    }
+
+    @Test
+    @DisplayName("should round-trip sequence numbers of any size")
+    void shouldRoundTripSeq() {
+        for (long seq : new long[]{0, 127, 128, Long.MAX_VALUE}) {
+            assertRoundTrip(new SimulationMessage(A, B, "T", null, seq));
+        }
+    }
+
+    @Test
+    @DisplayName("should use extra message types only if both sides know them")
+    void shouldUseExtraTypes() {
+        var extended = new BinarySimulationMessageCodec(List.of("ECHO", "EXPLORER"));
+        SimulationMessage m = new SimulationMessage(A, B, "EXPLORER", null, null);
+
+        byte[] bytes = extended.serialize(m);
+
+        assertEquals(m, extended.deserialize(bytes));
+        assertThrows(MessageCodecException.class, () -> codec.deserialize(bytes));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinarySimulationMessageCodec(List.of("LEADER_ANNOUNCEMENT")));
+    }
+
+    @Test
+    @DisplayName("should signal a too small buffer and reject malformed input")
+    void shouldRejectBadInput() {
+        SimulationMessage m = new SimulationMessage(A, B, "T", "x".repeat(100), null);
+        assertThrows(BufferOverflowException.class, () -> codec.serialize(m, ByteBuffer.allocate(16)));
+
+        byte[] bytes = codec.serialize(m);
+        assertThrows(MessageCodecException.class, () -> codec.deserialize(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(MessageCodecException.class, () -> codec.deserialize(Arrays.copyOf(bytes, bytes.length + 1)));
+        assertThrows(MessageCodecException.class, () -> codec.deserialize(json.serialize(m)));
+        assertThrows(MessageCodecException.class, () -> codec.deserialize(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("should reject negative lengths and node indices from 10-byte varints")
+    void shouldRejectNegativeVarints() {
+        byte[] negative = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01}; // -1
+        // NodeId payload as node reference: tag and index are the last two bytes
+        byte[] announcement = codec.serialize(new SimulationMessage(A, A, "LEADER_ANNOUNCEMENT", A, null));
+        byte[] nodeRef = concat(Arrays.copyOf(announcement, announcement.length - 1), negative);
+        // untyped payload: string tag followed by its length
+        byte[] string = codec.serialize(new SimulationMessage(A, A, "T", "", null));
+        byte[] stringLength = concat(Arrays.copyOf(string, string.length - 1), negative);
+        // untyped payload: list tag followed by its size
+        byte[] list = codec.serialize(new SimulationMessage(A, A, "T", List.of(), null));
+        byte[] listSize = concat(Arrays.copyOf(list, list.length - 1), negative);
+
+        for (byte[] bytes : List.of(nodeRef, stringLength, listSize)) {
+            assertThrows(MessageCodecException.class, () -> codec.deserialize(bytes));
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            assertThrows(MessageCodecException.class, () -> codec.deserialize(direct));
+        }
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    @Test
+    @DisplayName("should select the wire codec from MW_CODEC")
+    void shouldReadWireCodec() {
+        assertEquals(WireCodec.JSON, EnvCodecConfigs.fromEnvironment(Map.of()));
+        assertEquals(WireCodec.BINARY, EnvCodecConfigs.fromEnvironment(Map.of("MW_CODEC", " binary ")));
+        assertInstanceOf(BinarySimulationMessageCodec.class, WireCodec.BINARY.create());
+        assertThrows(IllegalArgumentException.class,
+                () -> EnvCodecConfigs.fromEnvironment(Map.of("MW_CODEC", "protobuf")));
+    }
+}
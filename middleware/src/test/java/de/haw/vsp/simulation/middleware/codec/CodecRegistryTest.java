@@ -0,0 +1,225 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import de.haw.vsp.simulation.middleware.EnvCodecConfigs;
+import de.haw.vsp.simulation.middleware.MessagingPortImpl;
+import de.haw.vsp.simulation.middleware.adapter.TransportAdapter;
+import org.junit.jupiter.api.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link CodecRegistry}: one encoder, decoding by header byte.
+ */
+@DisplayName("CodecRegistry")
+class CodecRegistryTest {
+
+    private static final SimulationMessage MESSAGE = new SimulationMessage(
+            new NodeId("node-1"), new NodeId("node-2"), "LEADER_ANNOUNCEMENT", new NodeId("node-9"), 3L);
+
+    @Test
+    @DisplayName("should encode with the selected codec")
+    void shouldEncodeWithSelectedCodec() {
+        assertArrayEquals(new JacksonSimulationMessageCodec().serialize(MESSAGE),
+                new CodecRegistry(WireCodec.JSON).serialize(MESSAGE));
+        assertArrayEquals(new BinarySimulationMessageCodec().serialize(MESSAGE),
+                new CodecRegistry(WireCodec.BINARY).serialize(MESSAGE));
+    }
+
+    @Test
+    @DisplayName("should decode every format regardless of its own encoder")
+    void shouldDecodeMixedFormats() {
+        for (WireCodec receiverEncoding : WireCodec.values()) {
+            CodecRegistry receiver = new CodecRegistry(receiverEncoding);
+            for (WireCodec senderEncoding : WireCodec.values()) {
+                byte[] bytes = senderEncoding.create().serialize(MESSAGE);
+
+                assertEquals(MESSAGE, receiver.deserialize(bytes));
+                ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+                assertEquals(MESSAGE, receiver.deserialize(direct));
+                assertFalse(direct.hasRemaining());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should reject unknown header bytes")
+    void shouldRejectUnknownHeader() {
+        CodecRegistry registry = new CodecRegistry(WireCodec.JSON);
+
+        assertThrows(MessageCodecException.class, () -> registry.deserialize(new byte[]{0x2F, 1, 2}));
+        assertThrows(MessageCodecException.class, () -> registry.deserialize(" {}".getBytes()));
+        assertThrows(MessageCodecException.class, () -> registry.deserialize(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("should keep header bytes apart from the datagram markers")
+    void shouldNotClaimDatagramMarkers() {
+        for (int marker = 0xFB; marker <= 0xFE; marker++) {
+            for (WireCodec codec : WireCodec.values()) {
+                assertFalse(codec.isHeader(marker), codec + " claims 0x" + Integer.toHexString(marker));
+            }
+        }
+        assertDoesNotThrow(() -> new CodecRegistry(WireCodec.BINARY), "header bytes of two formats overlap");
+    }
+
+    @Nested
+    @DisplayName("Compression")
+    class Compression {
+
+        private final CompressionConfig config = new CompressionConfig(256, CompressionConfig.DEFAULT_LEVEL);
+
+        private SimulationMessage topology(int nodes) {
+            List<String> neighbors = new ArrayList<>();
+            for (int i = 0; i < nodes; i++) neighbors.add("neighbor-of-node-1-number-" + i);
+            return new SimulationMessage(new NodeId("node-1"), new NodeId("node-2"), "TOPOLOGY",
+                    Map.of("neighbors", neighbors), 7L);
+        }
+
+        @Test
+        @DisplayName("should expose its counters through the messaging port")
+        void shouldExposeStatsThroughPort() {
+            CodecRegistry registry = new CodecRegistry(WireCodec.BINARY, config);
+            TransportAdapter adapter = new TransportAdapter() {
+                @Override
+                public boolean send(SimulationMessage message) {
+                    registry.serialize(message);
+                    return true;
+                }
+
+                @Override
+                public void onReceive(TransportAdapter.ReceiveCallback callback) {
+                }
+
+                @Override
+                public NodeId localNode() {
+                    return MESSAGE.sender();
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+
+            try (MessagingPortImpl port = new MessagingPortImpl(adapter, null, true, registry)) {
+                SimulationMessage m = topology(200);
+                port.send(m.receiver(), m);
+
+                assertSame(registry.compressionStats(), port.compressionStats());
+                assertEquals(1, port.compressionStats().compressedMessages());
+            }
+            assertNull(new MessagingPortImpl(adapter, null).compressionStats());
+        }
+
+        @Test
+        @DisplayName("should deflate large messages and inflate them on any receiver")
+        void shouldCompressLargeMessages() {
+            for (WireCodec wire : WireCodec.values()) {
+                CodecRegistry sender = new CodecRegistry(wire, config);
+                CodecRegistry receiver = new CodecRegistry(WireCodec.JSON);
+                SimulationMessage m = topology(200);
+
+                byte[] bytes = sender.serialize(m);
+
+                assertEquals(MessageCompressor.HEADER, bytes[0]);
+                assertTrue(bytes.length * 4 < wire.create().serialize(m).length, wire + ": " + bytes.length);
+                assertEquals(m, receiver.deserialize(bytes));
+                assertEquals(1, sender.compressionStats().compressedMessages());
+                assertTrue(sender.compressionStats().ratio() < 0.25);
+                assertTrue(sender.compressionStats().deflateNanos() > 0);
+                assertEquals(1, receiver.compressionStats().inflatedMessages());
+            }
+        }
+
+        @Test
+        @DisplayName("should compress in place behind bytes already in the buffer")
+        void shouldCompressIntoBuffer() {
+            CodecRegistry registry = new CodecRegistry(WireCodec.BINARY, config);
+            SimulationMessage m = topology(100);
+            ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+            out.putInt(42); // e.g. a length prefix
+
+            registry.serialize(m, out);
+
+            assertArrayEquals(registry.serialize(m), bytesOf(out.flip().position(4)));
+            assertEquals(m, registry.deserialize(out.position(4)));
+            assertFalse(out.hasRemaining());
+        }
+
+        @Test
+        @DisplayName("should send small and incompressible messages as they are")
+        void shouldNotCompressWithoutGain() {
+            SimulationMessage small = topology(1);
+            CodecRegistry plain = new CodecRegistry(WireCodec.BINARY);
+
+            assertArrayEquals(plain.serialize(small), new CodecRegistry(WireCodec.BINARY, config).serialize(small));
+
+            CodecRegistry everything = new CodecRegistry(WireCodec.BINARY, new CompressionConfig(1, 9));
+            assertArrayEquals(plain.serialize(MESSAGE), everything.serialize(MESSAGE));
+            assertEquals(1, everything.compressionStats().uncompressibleMessages());
+            assertEquals(0, everything.compressionStats().compressedMessages());
+        }
+
+        @Test
+        @DisplayName("should reject corrupt compressed messages")
+        void shouldRejectCorruptMessages() {
+            CodecRegistry registry = new CodecRegistry(WireCodec.JSON, config);
+            byte[] bytes = registry.serialize(topology(200));
+
+            assertThrows(MessageCodecException.class,
+                    () -> registry.deserialize(Arrays.copyOf(bytes, bytes.length - 1)));
+            assertThrows(MessageCodecException.class,
+                    () -> registry.deserialize(Arrays.copyOf(bytes, bytes.length + 1)));
+            byte[] wrongLength = bytes.clone();
+            wrongLength[1]++;
+            assertThrows(MessageCodecException.class, () -> registry.deserialize(wrongLength));
+            assertThrows(MessageCodecException.class,
+                    () -> registry.deserialize(new byte[]{(byte) MessageCompressor.HEADER, (byte) 0xFF, (byte) 0xFF,
+                            (byte) 0xFF, (byte) 0x7F, 0}));
+        }
+
+        @Test
+        @DisplayName("should cap inflated messages at the transport's largest message")
+        void shouldCapInflatedLength() {
+            SimulationMessage m = topology(200);
+            byte[] bytes = new CodecRegistry(WireCodec.BINARY, config).serialize(m);
+            int rawLength = new CodecRegistry(WireCodec.BINARY).serialize(m).length;
+            CodecRegistry small = new CodecRegistry(WireCodec.BINARY, config, rawLength - 1);
+
+            assertThrows(MessageCodecException.class, () -> small.deserialize(bytes));
+            assertEquals(m, new CodecRegistry(WireCodec.BINARY, config, rawLength).deserialize(bytes));
+            // a tiny datagram declaring 16 MiB is rejected before anything is allocated
+            assertThrows(MessageCodecException.class,
+                    () -> small.deserialize(new byte[]{(byte) MessageCompressor.HEADER, (byte) 0x80, (byte) 0x80,
+                            (byte) 0x80, (byte) 0x08, 0}));
+            // messages the transport cannot carry are left uncompressed for it to reject
+            assertEquals(rawLength, small.serialize(m).length);
+            assertEquals(0, small.compressionStats().compressedMessages());
+        }
+
+        @Test
+        @DisplayName("should read the compression settings from MW_COMPRESS_*")
+        void shouldReadCompressionConfig() {
+            assertFalse(EnvCodecConfigs.compressionFromEnvironment(Map.of()).enabled());
+            assertEquals(new CompressionConfig(1024, 6), EnvCodecConfigs.compressionFromEnvironment(
+                    Map.of("MW_COMPRESS_THRESHOLD", " 1024 ", "MW_COMPRESS_LEVEL", "6")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> EnvCodecConfigs.compressionFromEnvironment(Map.of("MW_COMPRESS_THRESHOLD", "-1")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> EnvCodecConfigs.compressionFromEnvironment(Map.of("MW_COMPRESS_LEVEL", "10")));
+        }
+
+        private static byte[] bytesOf(ByteBuffer buf) {
+            byte[] bytes = new byte[buf.remaining()];
+            buf.duplicate().get(bytes);
+            return bytes;
+        }
+    }
+}
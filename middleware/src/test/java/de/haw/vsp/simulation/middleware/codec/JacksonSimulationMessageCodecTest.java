@@ -0,0 +1,75 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import org.junit.jupiter.api.*;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for encoding into caller buffers with {@link JacksonSimulationMessageCodec}'s reused generator.
+ */
+@DisplayName("JacksonSimulationMessageCodec")
+class JacksonSimulationMessageCodecTest {
+
+    private static final NodeId A = new NodeId("node-1");
+    private static final NodeId B = new NodeId("node-2");
+
+    private final JacksonSimulationMessageCodec codec = new JacksonSimulationMessageCodec();
+
+    private static byte[] bytesOf(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    @DisplayName("should write each message as its own document into the given buffer")
+    void shouldWriteSeparateDocuments() {
+        ByteBuffer buf = ByteBuffer.allocateDirect(1024);
+        for (int i = 0; i < 3; i++) {
+            SimulationMessage m = new SimulationMessage(A, B, "T", Map.of("i", i), (long) i);
+            buf.clear();
+            codec.serialize(m, buf);
+
+            assertArrayEquals(codec.serialize(m), bytesOf(buf.flip()), "message " + i);
+            assertEquals(m.seq(), codec.deserialize(buf.flip()).seq());
+        }
+    }
+
+    @Test
+    @DisplayName("should signal a too small buffer and encode the next message cleanly")
+    void shouldRecoverFromOverflow() {
+        SimulationMessage large = new SimulationMessage(A, B, "T", "x".repeat(20_000), null);
+        SimulationMessage small = new SimulationMessage(A, B, "T", "y", 1L);
+
+        assertThrows(BufferOverflowException.class, () -> codec.serialize(large, ByteBuffer.allocate(100)));
+
+        ByteBuffer buf = ByteBuffer.allocate(1024);
+        codec.serialize(small, buf);
+        assertEquals(small, codec.deserialize(buf.flip()));
+    }
+
+    @Test
+    @DisplayName("should recover from payloads that cannot be serialized")
+    void shouldRecoverFromSerializationFailure() {
+        Object cyclic = new Object() {
+            @SuppressWarnings("unused")
+            public Object getSelf() {
+                return this;
+            }
+        };
+        ByteBuffer buf = ByteBuffer.allocate(1024);
+        assertThrows(MessageCodecException.class,
+                () -> codec.serialize(new SimulationMessage(A, B, "T", cyclic, null), buf));
+
+        SimulationMessage m = new SimulationMessage(A, B, "T", "ok", null);
+        buf.clear();
+        codec.serialize(m, buf);
+        assertEquals(m, codec.deserialize(buf.flip()));
+    }
+}
@@ -0,0 +1,99 @@
+package de.haw.vsp.simulation.middleware.codec;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.core.SimulationMessage;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link PayloadTypes}: both codecs decode registered payloads into their class.
+ */
+@DisplayName("PayloadTypes")
+class PayloadTypesTest {
+
+    private static final NodeId A = new NodeId("node-1");
+    private static final NodeId B = new NodeId("node-2");
+
+    record Topology(NodeId origin, List<NodeId> neighbors, long round) {}
+
+    private static final PayloadTypes TYPES = PayloadTypes.DEFAULT.with("TOPOLOGY", Topology.class);
+
+    private static List<SimulationMessageCodec> codecs(PayloadTypes types) {
+        return List.of(new JacksonSimulationMessageCodec(new com.fasterxml.jackson.databind.ObjectMapper(), types),
+                new BinarySimulationMessageCodec(List.of(), types));
+    }
+
+    @Test
+    @DisplayName("should decode leader announcements into NodeId, sent as string or NodeId")
+    void shouldDecodeNodeIdPayloads() {
+        for (SimulationMessageCodec codec : codecs(PayloadTypes.DEFAULT)) {
+            for (Object payload : List.of("node-9", new NodeId("node-9"), "leader")) {
+                SimulationMessage m = new SimulationMessage(A, B, "LEADER_ANNOUNCEMENT", payload, null);
+
+                Object decoded = codec.deserialize(codec.serialize(m)).payload();
+
+                assertEquals(new NodeId(payload.toString()), decoded, codec.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should share decoded node id payloads in the binary codec")
+    void shouldShareBinaryNodeIds() {
+        var codec = new BinarySimulationMessageCodec();
+        byte[] bytes = codec.serialize(new SimulationMessage(A, B, "LEADER_ANNOUNCEMENT", new NodeId("node-9"), null));
+
+        assertSame(codec.deserialize(bytes).payload(), codec.deserialize(bytes).payload());
+    }
+
+    @Test
+    @DisplayName("should decode registered records and leave other types untyped")
+    void shouldDecodeRecords() {
+        Topology topology = new Topology(A, List.of(B, new NodeId("x")), 7);
+        for (SimulationMessageCodec codec : codecs(TYPES)) {
+            SimulationMessage typed = new SimulationMessage(A, B, "TOPOLOGY", topology, 1L);
+            SimulationMessage untyped = new SimulationMessage(A, B, "OTHER", topology, 1L);
+
+            assertEquals(typed, codec.deserialize(codec.serialize(typed)));
+            assertInstanceOf(Map.class, codec.deserialize(codec.serialize(untyped)).payload());
+        }
+    }
+
+    @Test
+    @DisplayName("should keep payloads untyped without registry entries")
+    void shouldKeepPayloadsUntyped() {
+        for (SimulationMessageCodec codec : codecs(PayloadTypes.NONE)) {
+            SimulationMessage m = new SimulationMessage(A, B, "LEADER_ANNOUNCEMENT", new NodeId("node-9"), null);
+
+            assertEquals("node-9", codec.deserialize(codec.serialize(m)).payload());
+        }
+    }
+
+    @Test
+    @DisplayName("should read a JSON payload that precedes its message type")
+    void shouldReadEarlyJsonPayload() {
+        byte[] json = ("{\"payload\":\"node-4\",\"sender\":\"node-1\",\"receiver\":\"node-2\","
+                + "\"messageType\":\"LEADER_ANNOUNCEMENT\",\"extra\":[1,{}],\"seq\":3}").getBytes(StandardCharsets.UTF_8);
+
+        SimulationMessage m = new JacksonSimulationMessageCodec().deserialize(json);
+
+        assertEquals(new SimulationMessage(A, B, "LEADER_ANNOUNCEMENT", new NodeId("node-4"), 3L), m);
+    }
+
+    @Test
+    @DisplayName("should reject payloads that do not fit their registered type")
+    void shouldRejectMismatchingPayloads() {
+        for (SimulationMessageCodec codec : codecs(TYPES)) {
+            byte[] bytes = codec.serialize(new SimulationMessage(A, B, "TOPOLOGY", "not a topology", null));
+
+            assertThrows(MessageCodecException.class, () -> codec.deserialize(bytes));
+        }
+        assertThrows(IllegalArgumentException.class, () -> PayloadTypes.NONE.with(" ", String.class));
+        assertThrows(IllegalArgumentException.class, () -> PayloadTypes.NONE.with("COUNT", long.class));
+    }
+}
@@ -0,0 +1,72 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link HashedWheelTimer}.
+ */
+@DisplayName("HashedWheelTimer")
+class HashedWheelTimerTest {
+
+    @Test
+    @DisplayName("should reject invalid arguments")
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer<String>("t", 0, 8, s -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer<String>("t", 1, 0, s -> { }));
+    }
+
+    @Test
+    @DisplayName("should never fire before the deadline")
+    void shouldNotFireEarly() throws Exception {
+        BlockingQueue<Long> firedAt = new LinkedBlockingQueue<>();
+        try (HashedWheelTimer<Long> timer = new HashedWheelTimer<>("t", 1, 64, start -> firedAt.add(System.nanoTime() - start))) {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(timer.schedule(System.nanoTime(), 30));
+            }
+            for (int i = 0; i < 20; i++) {
+                Long elapsed = firedAt.poll(2, TimeUnit.SECONDS);
+                assertNotNull(elapsed, "timer did not fire");
+                assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(30), "fired early: " + elapsed);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should expire in deadline order, including deadlines beyond one revolution")
+    void shouldExpireInDeadlineOrder() throws Exception {
+        List<Integer> fired = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        // 8 buckets of 1 ms: 50 ms spans several rounds
+        try (HashedWheelTimer<Integer> timer = new HashedWheelTimer<>("t", 1, 8, i -> {
+            fired.add(i);
+            done.countDown();
+        })) {
+            timer.schedule(50, 50);
+            timer.schedule(5, 5);
+            timer.schedule(20, 20);
+
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            assertEquals(List.of(5, 20, 50), fired);
+            assertEquals(0, timer.pendingCount());
+        }
+    }
+
+    @Test
+    @DisplayName("should cancel pending items on close without firing them")
+    void shouldCancelOnClose() throws Exception {
+        List<Integer> fired = Collections.synchronizedList(new ArrayList<>());
+        HashedWheelTimer<Integer> timer = new HashedWheelTimer<>("t", 1, 64, fired::add);
+        for (int i = 0; i < 1000; i++) timer.schedule(i, 10_000);
+        Thread.sleep(20); // let some entries move from the pending stack into buckets
+
+        assertEquals(1000, timer.cancelAll());
+        assertEquals(0, timer.pendingCount());
+        assertFalse(timer.schedule(1, 1));
+        assertTrue(fired.isEmpty());
+    }
+}
@@ -0,0 +1,173 @@
+package de.haw.vsp.simulation.middleware.virtual;
+
+import de.haw.vsp.simulation.core.NodeId;
+import de.haw.vsp.simulation.middleware.EnvVirtualConfigs;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link VirtualNetworkModel}, {@link LinkModel} and {@link LatencyDistribution}.
+ */
+@DisplayName("VirtualNetworkModel")
+class VirtualNetworkModelTest {
+
+    private static final NodeId A = new NodeId("node-0");
+    private static final NodeId B = new NodeId("node-1");
+    private static final NodeId C = new NodeId("node-2");
+
+    @Nested
+    @DisplayName("Determinism")
+    class Determinism {
+
+        @Test
+        @DisplayName("should give each link the same samples regardless of interleaving")
+        void shouldBeIndependentOfInterleaving() {
+            LinkModel link = LinkModel.of(LatencyDistribution.uniform(0, 100)).withLoss(0.2);
+
+            VirtualNetworkModel first = new VirtualNetworkModel(link, 42L);
+            List<Long> ab1 = new ArrayList<>();
+            for (int i = 0; i < 50; i++) ab1.add(first.link(A, B).sampleDelayNanos(0, 0));
+
+            VirtualNetworkModel second = new VirtualNetworkModel(link, 42L);
+            List<Long> ab2 = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                second.link(C, B).sampleDelayNanos(0, 0); // unrelated traffic in between
+                second.link(B, A).sampleDelayNanos(0, 0);
+                ab2.add(second.link(A, B).sampleDelayNanos(0, 0));
+            }
+
+            assertEquals(ab1, ab2);
+        }
+
+        @Test
+        @DisplayName("should seed the two directions of an edge independently")
+        void shouldSeedDirectionsIndependently() {
+            VirtualNetworkModel model = new VirtualNetworkModel(LinkModel.of(LatencyDistribution.uniform(0, 1000)), 7L);
+            assertNotEquals(model.link(A, B).sampleDelayNanos(0, 0), model.link(B, A).sampleDelayNanos(0, 0));
+        }
+
+        @Test
+        @DisplayName("should create both directions of every topology edge")
+        void shouldBuildFromTopology() {
+            LinkModel special = LinkModel.of(LatencyDistribution.constant(5));
+            VirtualNetworkModel model = VirtualNetworkModel.fromTopology(
+                    Map.of(A, Set.of(B), B, Set.of()), special, 1L);
+            assertSame(special, model.link(A, B).model());
+            assertSame(special, model.link(B, A).model());
+            assertSame(model.link(A, B), model.link(A, B));
+        }
+
+        @Test
+        @DisplayName("should give topology edges their own link models")
+        void shouldBuildFromTopologyPerEdge() {
+            LinkModel slow = LinkModel.of(LatencyDistribution.constant(50));
+            LinkModel fallback = LinkModel.IDEAL;
+            VirtualNetworkModel model = VirtualNetworkModel.fromTopology(
+                    Map.of(A, Set.of(B, C)), (from, to) -> from.equals(A) && to.equals(B) ? slow : null,
+                    fallback, 1L);
+            assertSame(slow, model.link(A, B).model());
+            assertSame(fallback, model.link(B, A).model());
+            assertSame(fallback, model.link(A, C).model());
+            assertEquals(50_000_000L, model.link(A, B).sampleDelayNanos(0, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Sampling")
+    class Sampling {
+
+        @Test
+        @DisplayName("should keep distributions in range")
+        void shouldKeepDistributionsInRange() {
+            SplittableRandom rng = new SplittableRandom(3);
+            for (int i = 0; i < 10_000; i++) {
+                assertEquals(5.0, LatencyDistribution.constant(5).sampleMillis(rng));
+                double u = LatencyDistribution.uniform(2, 4).sampleMillis(rng);
+                assertTrue(u >= 2 && u <= 4);
+                assertTrue(LatencyDistribution.normal(1, 10).sampleMillis(rng) >= 0);
+                assertTrue(LatencyDistribution.pareto(3, 1.5).sampleMillis(rng) >= 3);
+            }
+        }
+
+        @Test
+        @DisplayName("should reject invalid parameters")
+        void shouldRejectInvalidParameters() {
+            assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.uniform(5, 1));
+            assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.pareto(1, 0));
+            assertThrows(IllegalArgumentException.class, () -> LinkModel.IDEAL.withLoss(1.5));
+            assertThrows(IllegalArgumentException.class, () -> LinkModel.IDEAL.withBandwidth(-1));
+        }
+
+        @Test
+        @DisplayName("should cap heavy-tailed latency samples")
+        void shouldCapHeavyTailedLatency() {
+            // shape 0.001: almost every sample is astronomically large (or infinite)
+            VirtualNetworkModel model = new VirtualNetworkModel(
+                    LinkModel.of(LatencyDistribution.pareto(1, 0.001)), 0L);
+            long maxNanos = (long) (VirtualNetworkModel.MAX_LATENCY_MILLIS * 1_000_000.0);
+            for (int i = 0; i < 1_000; i++) {
+                long delay = model.link(A, B).sampleDelayNanos(Long.MAX_VALUE / 2, 0);
+                assertTrue(delay >= 1_000_000L && delay <= maxNanos, "delay " + delay);
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(delay + 999_999L) > 0, "rounded up without overflow");
+            }
+        }
+
+        @Test
+        @DisplayName("should lose every message with loss probability 1")
+        void shouldLoseEverything() {
+            VirtualNetworkModel model = new VirtualNetworkModel(LinkModel.IDEAL.withLoss(1.0), 0L);
+            assertEquals(VirtualNetworkModel.LOST, model.link(A, B).sampleDelayNanos(0, 0));
+        }
+
+        @Test
+        @DisplayName("should queue back-to-back messages behind the link's bandwidth")
+        void shouldQueueBehindBandwidth() {
+            // 1000 bytes/s: 100 bytes take 100 ms on the wire
+            VirtualNetworkModel model = new VirtualNetworkModel(LinkModel.IDEAL.withBandwidth(1000), 0L);
+            VirtualNetworkModel.Link link = model.link(A, B);
+
+            assertEquals(100_000_000L, link.sampleDelayNanos(0, 100));
+            assertEquals(200_000_000L, link.sampleDelayNanos(0, 100));
+            // link idle again after 1 s
+            assertEquals(100_000_000L, link.sampleDelayNanos(1_000_000_000L, 100));
+        }
+    }
+
+    @Nested
+    @DisplayName("Environment")
+    class Environment {
+
+        @Test
+        @DisplayName("should return null without link keys")
+        void shouldReturnNullWithoutKeys() {
+            assertNull(EnvVirtualConfigs.linkModelFromEnvironment(Map.of()));
+        }
+
+        @Test
+        @DisplayName("should parse latency, loss and bandwidth")
+        void shouldParseLinkModel() {
+            LinkModel m = EnvVirtualConfigs.linkModelFromEnvironment(Map.of(
+                    EnvVirtualConfigs.KEY_LINK_LATENCY, "pareto:5:1.5",
+                    EnvVirtualConfigs.KEY_LINK_LOSS, "0.01",
+                    EnvVirtualConfigs.KEY_LINK_BANDWIDTH, "125000"));
+            assertEquals(LatencyDistribution.pareto(5, 1.5), m.latency());
+            assertEquals(0.01, m.lossProbability());
+            assertEquals(125_000L, m.bandwidthBytesPerSecond());
+        }
+
+        @Test
+        @DisplayName("should reject malformed values")
+        void shouldRejectMalformedValues() {
+            assertThrows(IllegalArgumentException.class, () -> EnvVirtualConfigs.linkModelFromEnvironment(
+                    Map.of(EnvVirtualConfigs.KEY_LINK_LATENCY, "gamma:1:2")));
+            assertThrows(IllegalArgumentException.class, () -> EnvVirtualConfigs.linkModelFromEnvironment(
+                    Map.of(EnvVirtualConfigs.KEY_LINK_LATENCY, "uniform:x:2")));
+            assertThrows(IllegalArgumentException.class, () -> EnvVirtualConfigs.linkModelFromEnvironment(
+                    Map.of(EnvVirtualConfigs.KEY_LINK_LOSS, "2")));
+        }
+    }
+}